@@ -84,7 +84,7 @@ public interface NioIoHandler extends AIoHandler
 		);
 	}
 	
-	public final class Default
+	public class Default
 	extends AIoHandler.Abstract<Path, Path, NioItemWrapper, NioFileWrapper, ADirectory, NioReadableFile, NioWritableFile>
 	implements NioIoHandler
 	{
@@ -99,7 +99,7 @@ public interface NioIoHandler extends AIoHandler
 		// constructors //
 		/////////////////
 		
-		Default(
+		protected Default(
 			final WriteController writeController,
 			final NioPathResolver pathResolver)
 		{
@@ -0,0 +1,1006 @@
+package one.microstream.afs.nio.types;
+
+/*-
+ * #%L
+ * microstream-afs-nio
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+import static one.microstream.math.XMath.positive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import one.microstream.X;
+import one.microstream.afs.types.AReadableFile;
+import one.microstream.afs.types.AWritableFile;
+import one.microstream.afs.types.WriteController;
+import one.microstream.collections.EqHashTable;
+import one.microstream.exceptions.IORuntimeException;
+import one.microstream.io.XIO;
+
+/**
+ * {@link NioIoHandler} that transparently stores selected files as a sequence of compressed blocks.
+ * <p>
+ * Every write is compressed into one or more blocks of at most {@link #blockSize()} uncompressed bytes,
+ * each consisting of a 12 byte header (uncompressed length, compressed length and a CRC-32C checksum of the
+ * uncompressed bytes) followed by the deflated bytes. The blocks are compressed one by one directly from the
+ * written buffers, so a write only requires additional memory for one compressed block. The checksum is
+ * validated whenever a block is decompressed.
+ * <p>
+ * All operations of this handler work on the uncompressed ("logical") content of such files,
+ * so sizes, positions and lengths are the same as for uncompressed files, e.g. for the storage's transaction
+ * entries or the file cleanup.
+ * <p>
+ * A block index of every compressed file is built by scanning the block headers when the file is first accessed
+ * and is maintained by all subsequent writes. Reading a range of a file only decompresses the blocks containing
+ * that range. The last decompressed block of every file is kept, since consecutive reads commonly hit the same block.
+ * <p>
+ * Only append-only files should be compressed, like storage data files, which is the default.
+ */
+public interface NioIoHandlerCompressing extends NioIoHandler
+{
+	/**
+	 * The maximum number of uncompressed bytes per block.
+	 *
+	 * @return the block size.
+	 */
+	public int blockSize();
+	
+	/**
+	 * Queries whether the file at the passed path is stored compressed.
+	 *
+	 * @param file the path of the file.
+	 * @return whether the file is stored compressed.
+	 */
+	public boolean isCompressed(Path file);
+	
+	
+	
+	/**
+	 * Pseudo-constructor method to create a new {@link NioIoHandlerCompressing} instance
+	 * compressing storage data files (files with the suffix ".dat") with default settings.
+	 *
+	 * @return a new {@link NioIoHandlerCompressing} instance.
+	 */
+	public static NioIoHandlerCompressing New()
+	{
+		return New(Defaults.defaultFileSelector());
+	}
+	
+	/**
+	 * Pseudo-constructor method to create a new {@link NioIoHandlerCompressing} instance
+	 * compressing all files matching the passed selector with default settings.
+	 *
+	 * @param fileSelector the predicate selecting the files to be compressed.
+	 * @return a new {@link NioIoHandlerCompressing} instance.
+	 */
+	public static NioIoHandlerCompressing New(final Predicate<? super Path> fileSelector)
+	{
+		return New(
+			WriteController.Enabled()           ,
+			NioPathResolver.New()               ,
+			fileSelector                        ,
+			Defaults.defaultBlockSize()         ,
+			Defaults.defaultCompressionLevel()
+		);
+	}
+	
+	/**
+	 * Pseudo-constructor method to create a new {@link NioIoHandlerCompressing} instance.
+	 *
+	 * @param writeController the write controller.
+	 * @param pathResolver the path resolver.
+	 * @param fileSelector the predicate selecting the files to be compressed.
+	 * @param blockSize the maximum number of uncompressed bytes per block.
+	 * @param compressionLevel the compression level, see {@link Deflater#setLevel(int)}.
+	 * @return a new {@link NioIoHandlerCompressing} instance.
+	 */
+	public static NioIoHandlerCompressing New(
+		final WriteController         writeController ,
+		final NioPathResolver         pathResolver    ,
+		final Predicate<? super Path> fileSelector    ,
+		final int                     blockSize       ,
+		final int                     compressionLevel
+	)
+	{
+		if(compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION)
+		{
+			throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+		}
+		
+		return new NioIoHandlerCompressing.Default(
+			notNull(writeController),
+			notNull(pathResolver)   ,
+			notNull(fileSelector)   ,
+			positive(blockSize)     ,
+			compressionLevel
+		);
+	}
+	
+	
+	
+	public interface Defaults
+	{
+		/**
+		 * Selects storage data files, i.e. files with the suffix ".dat".
+		 *
+		 * @return the default file selector.
+		 */
+		public static Predicate<Path> defaultFileSelector()
+		{
+			return path -> path.getFileName() != null && path.getFileName().toString().endsWith(".dat");
+		}
+		
+		/**
+		 * One MB, large enough for a good compression ratio and small enough to load single entities quickly.
+		 *
+		 * @return the default block size.
+		 */
+		public static int defaultBlockSize()
+		{
+			return 1_048_576;
+		}
+		
+		/**
+		 * The fastest compression level, since the goal is to save IO, not to waste CPU.
+		 *
+		 * @return the default compression level.
+		 */
+		public static int defaultCompressionLevel()
+		{
+			return Deflater.BEST_SPEED;
+		}
+	}
+	
+	
+	
+	public class Default extends NioIoHandler.Default implements NioIoHandlerCompressing
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// constants //
+		//////////////
+		
+		// uncompressed length, compressed length and checksum, all as int.
+		static final int
+			BLOCK_OFFSET_LOGICAL_LENGTH  = 0                                            ,
+			BLOCK_OFFSET_PHYSICAL_LENGTH = BLOCK_OFFSET_LOGICAL_LENGTH  + Integer.BYTES,
+			BLOCK_OFFSET_CHECKSUM        = BLOCK_OFFSET_PHYSICAL_LENGTH + Integer.BYTES,
+			BLOCK_HEADER_LENGTH          = BLOCK_OFFSET_CHECKSUM        + Integer.BYTES
+		;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private final Predicate<? super Path> fileSelector    ;
+		private final int                     blockSize       ;
+		private final int                     compressionLevel;
+		
+		private final EqHashTable<Path, BlockIndex> indices = EqHashTable.New();
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		protected Default(
+			final WriteController         writeController ,
+			final NioPathResolver         pathResolver    ,
+			final Predicate<? super Path> fileSelector    ,
+			final int                     blockSize       ,
+			final int                     compressionLevel
+		)
+		{
+			super(writeController, pathResolver);
+			this.fileSelector     = fileSelector    ;
+			this.blockSize        = blockSize       ;
+			this.compressionLevel = compressionLevel;
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		@Override
+		public int blockSize()
+		{
+			return this.blockSize;
+		}
+		
+		@Override
+		public boolean isCompressed(final Path file)
+		{
+			return this.fileSelector.test(file);
+		}
+		
+		private boolean isCompressed(final AReadableFile file)
+		{
+			return this.isHandledReadableFile(file) && this.isCompressed(this.castReadableFile(file).path());
+		}
+		
+		private boolean isCompressed(final AWritableFile file)
+		{
+			return this.isHandledWritableFile(file) && this.isCompressed(this.castWritableFile(file).path());
+		}
+		
+		private BlockIndex index(final Path file, final FileChannel channel)
+		{
+			synchronized(this.indices)
+			{
+				BlockIndex index = this.indices.get(file);
+				if(index == null)
+				{
+					this.indices.add(file, index = this.scan(file, channel));
+				}
+				
+				return index;
+			}
+		}
+		
+		private void discardIndex(final Path file)
+		{
+			synchronized(this.indices)
+			{
+				this.indices.removeFor(file);
+			}
+		}
+		
+		private BlockIndex scan(final Path file, final FileChannel channel)
+		{
+			final BlockIndex index = new BlockIndex();
+			if(channel == null && !XIO.unchecked.exists(file))
+			{
+				return index;
+			}
+			
+			try
+			{
+				if(channel != null)
+				{
+					index.scan(channel);
+				}
+				else
+				{
+					try(final FileChannel temporary = FileChannel.open(file, StandardOpenOption.READ))
+					{
+						index.scan(temporary);
+					}
+				}
+			}
+			catch(final IOException e)
+			{
+				throw new IORuntimeException(e);
+			}
+			
+			return index;
+		}
+		
+		private BlockIndex index(final NioFileWrapper file)
+		{
+			return this.index(file.path(), file.ensureOpenChannel());
+		}
+		
+		@Override
+		protected long subjectFileSize(final Path file)
+		{
+			if(!this.isCompressed(file))
+			{
+				return super.subjectFileSize(file);
+			}
+			
+			// a channel of an opened file wrapper is not available here, so a temporary one is used if required.
+			return this.index(file, null).logicalLength();
+		}
+		
+		private long readLogical(
+			final NioReadableFile sourceFile  ,
+			final ByteBuffer      targetBuffer,
+			final long            position    ,
+			final long            length
+		)
+		{
+			final BlockIndex index = this.index(sourceFile);
+			try
+			{
+				return index.read(sourceFile.ensureOpenChannel(), targetBuffer, position, length);
+			}
+			catch(final IOException e)
+			{
+				throw new IORuntimeException(e);
+			}
+		}
+		
+		private ByteBuffer readLogical(
+			final NioReadableFile sourceFile,
+			final long            position  ,
+			final long            length
+		)
+		{
+			final ByteBuffer dbb = ByteBuffer.allocateDirect(X.checkArrayRange(length));
+			this.readLogical(sourceFile, dbb, position, length);
+			dbb.flip();
+			
+			return dbb;
+		}
+		
+		@Override
+		protected ByteBuffer specificReadBytes(final NioReadableFile sourceFile)
+		{
+			if(!this.isCompressed(sourceFile.path()))
+			{
+				return super.specificReadBytes(sourceFile);
+			}
+			
+			return this.readLogical(sourceFile, 0, this.index(sourceFile).logicalLength());
+		}
+		
+		@Override
+		protected ByteBuffer specificReadBytes(
+			final NioReadableFile sourceFile,
+			final long            position
+		)
+		{
+			if(!this.isCompressed(sourceFile.path()))
+			{
+				return super.specificReadBytes(sourceFile, position);
+			}
+			
+			return this.readLogical(sourceFile, position, this.index(sourceFile).logicalLength() - position);
+		}
+		
+		@Override
+		protected ByteBuffer specificReadBytes(
+			final NioReadableFile sourceFile,
+			final long            position  ,
+			final long            length
+		)
+		{
+			if(!this.isCompressed(sourceFile.path()))
+			{
+				return super.specificReadBytes(sourceFile, position, length);
+			}
+			
+			return this.readLogical(sourceFile, position, length);
+		}
+		
+		@Override
+		protected long specificReadBytes(
+			final NioReadableFile sourceFile  ,
+			final ByteBuffer      targetBuffer
+		)
+		{
+			if(!this.isCompressed(sourceFile.path()))
+			{
+				return super.specificReadBytes(sourceFile, targetBuffer);
+			}
+			
+			return this.readLogical(sourceFile, targetBuffer, 0, this.index(sourceFile).logicalLength());
+		}
+		
+		@Override
+		protected long specificReadBytes(
+			final NioReadableFile sourceFile  ,
+			final ByteBuffer      targetBuffer,
+			final long            position
+		)
+		{
+			if(!this.isCompressed(sourceFile.path()))
+			{
+				return super.specificReadBytes(sourceFile, targetBuffer, position);
+			}
+			
+			return this.readLogical(sourceFile, targetBuffer, position, targetBuffer.remaining());
+		}
+		
+		@Override
+		protected long specificReadBytes(
+			final NioReadableFile sourceFile  ,
+			final ByteBuffer      targetBuffer,
+			final long            position    ,
+			final long            length
+		)
+		{
+			if(!this.isCompressed(sourceFile.path()))
+			{
+				return super.specificReadBytes(sourceFile, targetBuffer, position, length);
+			}
+			
+			return this.readLogical(sourceFile, targetBuffer, position, length);
+		}
+		
+		/*
+		 * Copying from or to a compressed file cannot be done on the raw file content,
+		 * so the logical content is read and written via the generic copying logic.
+		 */
+		
+		@Override
+		protected long specificCopyTo(
+			final NioReadableFile sourceSubject,
+			final AWritableFile   target
+		)
+		{
+			if(this.isCompressed(sourceSubject.path()) || this.isCompressed(target))
+			{
+				return this.copyGeneric(sourceSubject, target);
+			}
+			
+			return super.specificCopyTo(sourceSubject, target);
+		}
+		
+		@Override
+		protected long specificCopyTo(
+			final NioReadableFile sourceSubject ,
+			final long            sourcePosition,
+			final AWritableFile   target
+		)
+		{
+			if(this.isCompressed(sourceSubject.path()) || this.isCompressed(target))
+			{
+				return this.copyGeneric(sourceSubject, sourcePosition, target);
+			}
+			
+			return super.specificCopyTo(sourceSubject, sourcePosition, target);
+		}
+		
+		@Override
+		protected long specificCopyTo(
+			final NioReadableFile sourceSubject ,
+			final long            sourcePosition,
+			final long            length        ,
+			final AWritableFile   target
+		)
+		{
+			if(this.isCompressed(sourceSubject.path()) || this.isCompressed(target))
+			{
+				return this.copyGeneric(sourceSubject, sourcePosition, target, length);
+			}
+			
+			return super.specificCopyTo(sourceSubject, sourcePosition, length, target);
+		}
+		
+		@Override
+		protected long specificCopyFrom(
+			final AReadableFile   source       ,
+			final NioWritableFile targetSubject
+		)
+		{
+			if(this.isCompressed(source) || this.isCompressed(targetSubject.path()))
+			{
+				return this.copyGeneric(source, targetSubject);
+			}
+			
+			return super.specificCopyFrom(source, targetSubject);
+		}
+		
+		@Override
+		protected long specificCopyFrom(
+			final AReadableFile   source        ,
+			final long            sourcePosition,
+			final NioWritableFile targetSubject
+		)
+		{
+			if(this.isCompressed(source) || this.isCompressed(targetSubject.path()))
+			{
+				return this.copyGeneric(source, sourcePosition, targetSubject);
+			}
+			
+			return super.specificCopyFrom(source, sourcePosition, targetSubject);
+		}
+		
+		@Override
+		protected long specificCopyFrom(
+			final AReadableFile   source        ,
+			final long            sourcePosition,
+			final long            length        ,
+			final NioWritableFile targetSubject
+		)
+		{
+			if(this.isCompressed(source) || this.isCompressed(targetSubject.path()))
+			{
+				return this.copyGeneric(source, sourcePosition, targetSubject, length);
+			}
+			
+			return super.specificCopyFrom(source, sourcePosition, length, targetSubject);
+		}
+		
+		@Override
+		protected long specificWriteBytes(
+			final NioWritableFile                targetFile   ,
+			final Iterable<? extends ByteBuffer> sourceBuffers
+		)
+		{
+			if(!this.isCompressed(targetFile.path()))
+			{
+				return super.specificWriteBytes(targetFile, sourceBuffers);
+			}
+			
+			// ensure file is opened for writing
+			this.openWriting(targetFile);
+			
+			final BlockIndex index = this.index(targetFile);
+			try
+			{
+				return index.write(targetFile.fileChannel(), sourceBuffers, this.blockSize, this.compressionLevel);
+			}
+			catch(final IOException e)
+			{
+				throw new IORuntimeException(e);
+			}
+		}
+		
+		@Override
+		protected void specificTruncateFile(
+			final NioWritableFile targetFile,
+			final long            newSize
+		)
+		{
+			if(!this.isCompressed(targetFile.path()))
+			{
+				super.specificTruncateFile(targetFile, newSize);
+				return;
+			}
+			
+			// ensure file is opened for writing
+			this.openWriting(targetFile);
+			
+			final BlockIndex index = this.index(targetFile);
+			try
+			{
+				index.truncate(targetFile.fileChannel(), newSize, this.compressionLevel);
+			}
+			catch(final IOException e)
+			{
+				throw new IORuntimeException(e);
+			}
+		}
+		
+		@Override
+		protected boolean specificDeleteFile(final NioWritableFile file)
+		{
+			this.discardIndex(file.path());
+			
+			return super.specificDeleteFile(file);
+		}
+		
+		@Override
+		protected void specificTargetMoveFile(
+			final NioWritableFile sourceFile,
+			final NioWritableFile targetFile
+		)
+		{
+			if(this.isCompressed(sourceFile.path()) == this.isCompressed(targetFile.path()))
+			{
+				// same physical format, so the file can be moved as it is.
+				this.discardIndex(sourceFile.path());
+				this.discardIndex(targetFile.path());
+				super.specificTargetMoveFile(sourceFile, targetFile);
+				return;
+			}
+			
+			this.copyGeneric(sourceFile, targetFile);
+			this.specificDeleteFile(sourceFile);
+		}
+		
+	}
+	
+	
+	
+	/**
+	 * The block index of one compressed file. All methods are synchronized since a file might be
+	 * read concurrently by multiple threads.
+	 */
+	final class BlockIndex
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private long[] logicalStarts   = new long[16];
+		private long[] physicalStarts  = new long[16];
+		private int[]  logicalLengths  = new int [16];
+		private int[]  physicalLengths = new int [16];
+		private int[]  checksums       = new int [16];
+		private int    blockCount    ;
+		private long   logicalLength ;
+		private long   physicalLength;
+		
+		// the last decompressed block
+		private int    cachedBlock = -1;
+		private byte[] cachedData      ;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		BlockIndex()
+		{
+			super();
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		final synchronized long logicalLength()
+		{
+			return this.logicalLength;
+		}
+		
+		private void addBlock(final int logicalLength, final int physicalLength, final int checksum)
+		{
+			if(this.blockCount == this.logicalStarts.length)
+			{
+				final int newLength = this.blockCount * 2;
+				this.logicalStarts   = Arrays.copyOf(this.logicalStarts  , newLength);
+				this.physicalStarts  = Arrays.copyOf(this.physicalStarts , newLength);
+				this.logicalLengths  = Arrays.copyOf(this.logicalLengths , newLength);
+				this.physicalLengths = Arrays.copyOf(this.physicalLengths, newLength);
+				this.checksums       = Arrays.copyOf(this.checksums      , newLength);
+			}
+			this.logicalStarts  [this.blockCount] = this.logicalLength ;
+			this.physicalStarts [this.blockCount] = this.physicalLength;
+			this.logicalLengths [this.blockCount] = logicalLength      ;
+			this.physicalLengths[this.blockCount] = physicalLength     ;
+			this.checksums      [this.blockCount] = checksum           ;
+			this.blockCount++;
+			
+			this.logicalLength  += logicalLength;
+			this.physicalLength += Default.BLOCK_HEADER_LENGTH + physicalLength;
+		}
+		
+		final synchronized void scan(final FileChannel channel) throws IOException
+		{
+			final long       fileLength = channel.size();
+			final ByteBuffer header     = ByteBuffer.allocate(Default.BLOCK_HEADER_LENGTH);
+			
+			// an incomplete trailing block (e.g. from an aborted write) is ignored and overwritten by the next write.
+			while(this.physicalLength + Default.BLOCK_HEADER_LENGTH <= fileLength)
+			{
+				header.clear();
+				XIO.read(channel, header, this.physicalLength);
+				final int logicalLength  = header.getInt(Default.BLOCK_OFFSET_LOGICAL_LENGTH );
+				final int physicalLength = header.getInt(Default.BLOCK_OFFSET_PHYSICAL_LENGTH);
+				if(logicalLength < 0 || physicalLength < 0
+				|| this.physicalLength + Default.BLOCK_HEADER_LENGTH + physicalLength > fileLength
+				)
+				{
+					break;
+				}
+				this.addBlock(logicalLength, physicalLength, header.getInt(Default.BLOCK_OFFSET_CHECKSUM));
+			}
+		}
+		
+		private int blockIndex(final long logicalPosition)
+		{
+			int index = Arrays.binarySearch(this.logicalStarts, 0, this.blockCount, logicalPosition);
+			if(index < 0)
+			{
+				// the insertion point is after the block containing the position.
+				index = -index - 2;
+			}
+			
+			return index;
+		}
+		
+		private byte[] decompress(final FileChannel channel, final int block) throws IOException
+		{
+			if(this.cachedBlock == block)
+			{
+				return this.cachedData;
+			}
+			
+			final ByteBuffer compressed = ByteBuffer.allocate(this.physicalLengths[block]);
+			XIO.read(channel, compressed, this.physicalStarts[block] + Default.BLOCK_HEADER_LENGTH);
+			
+			final byte[]   data     = new byte[this.logicalLengths[block]];
+			final Inflater inflater = new Inflater();
+			try
+			{
+				inflater.setInput(compressed.array(), 0, compressed.capacity());
+				int count = 0;
+				while(count < data.length && !inflater.finished())
+				{
+					final int inflated = inflater.inflate(data, count, data.length - count);
+					if(inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					{
+						break;
+					}
+					count += inflated;
+				}
+				if(count != data.length || checksum(ByteBuffer.wrap(data)) != this.checksums[block])
+				{
+					throw new IOException("Corrupt compressed block at position " + this.physicalStarts[block]);
+				}
+			}
+			catch(final DataFormatException e)
+			{
+				throw new IOException("Corrupt compressed block at position " + this.physicalStarts[block], e);
+			}
+			finally
+			{
+				inflater.end();
+			}
+			
+			this.cachedBlock = block;
+			this.cachedData  = data ;
+			
+			return data;
+		}
+		
+		final synchronized long read(
+			final FileChannel channel     ,
+			final ByteBuffer  targetBuffer,
+			final long        position    ,
+			final long        length
+		)
+			throws IOException
+		{
+			if(targetBuffer.remaining() < length)
+			{
+				throw new IllegalArgumentException(
+					"Provided target buffer has not enough space remaining to load the file content: "
+					+ targetBuffer.remaining() + " < " + length
+				);
+			}
+			if(length == 0)
+			{
+				return 0;
+			}
+			X.validateRange(this.logicalLength, position, length);
+			
+			final long bound = position + length;
+			long current = position;
+			for(int block = this.blockIndex(position); current < bound; block++)
+			{
+				final byte[] data   = this.decompress(channel, block);
+				final int    offset = (int)(current - this.logicalStarts[block]);
+				final int    count  = (int)Math.min(data.length - offset, bound - current);
+				targetBuffer.put(data, offset, count);
+				current += count;
+			}
+			
+			return length;
+		}
+		
+		private static int checksum(final ByteBuffer data)
+		{
+			final CRC32C checksum = new CRC32C();
+			checksum.update(data);
+			
+			return (int)checksum.getValue();
+		}
+		
+		private void writeBlock(
+			final FileChannel channel      ,
+			final byte[]      output       ,
+			final int         outputLength ,
+			final int         logicalLength,
+			final int         checksum
+		)
+			throws IOException
+		{
+			final int        physicalLength = outputLength - Default.BLOCK_HEADER_LENGTH;
+			final ByteBuffer block          = ByteBuffer.wrap(output, 0, outputLength);
+			block.putInt(Default.BLOCK_OFFSET_LOGICAL_LENGTH , logicalLength );
+			block.putInt(Default.BLOCK_OFFSET_PHYSICAL_LENGTH, physicalLength);
+			block.putInt(Default.BLOCK_OFFSET_CHECKSUM       , checksum      );
+			XIO.writePositioned(channel, this.physicalLength, block);
+			
+			this.addBlock(logicalLength, physicalLength, checksum);
+		}
+		
+		final synchronized long write(
+			final FileChannel                    channel         ,
+			final Iterable<? extends ByteBuffer> sourceBuffers   ,
+			final int                            blockSize       ,
+			final int                            compressionLevel
+		)
+			throws IOException
+		{
+			if(channel.size() != this.physicalLength)
+			{
+				// discard an incomplete trailing block
+				XIO.truncate(channel, this.physicalLength);
+			}
+			
+			final BlockWriter writer = new BlockWriter(channel, blockSize, compressionLevel);
+			try
+			{
+				long byteCount = 0;
+				for(final ByteBuffer source : sourceBuffers)
+				{
+					byteCount += source.remaining();
+					writer.write(source);
+				}
+				writer.finishBlock();
+				
+				return byteCount;
+			}
+			finally
+			{
+				writer.close();
+			}
+		}
+		
+		final synchronized void truncate(
+			final FileChannel channel         ,
+			final long        newLength       ,
+			final int         compressionLevel
+		)
+			throws IOException
+		{
+			if(newLength >= this.logicalLength)
+			{
+				// like truncating an uncompressed file, a greater length has no effect.
+				return;
+			}
+			
+			final int    block     = this.blockIndex(newLength);
+			final int    keptCount = (int)(newLength - this.logicalStarts[block]);
+			final byte[] keptData  = keptCount > 0 ? this.decompress(channel, block) : null;
+			
+			// remove the block containing the new length and all following ones
+			XIO.truncate(channel, this.physicalStarts[block]);
+			this.blockCount     = block;
+			this.logicalLength  = this.logicalStarts[block];
+			this.physicalLength = this.physicalStarts[block];
+			this.cachedBlock    = -1;
+			this.cachedData     = null;
+			
+			if(keptData != null)
+			{
+				this.write(channel, Arrays.asList(ByteBuffer.wrap(keptData, 0, keptCount)), keptCount, compressionLevel);
+			}
+		}
+		
+		
+		
+		/**
+		 * Compresses written data into blocks directly from the source buffers, so only one compressed block
+		 * has to be held in memory, regardless of the total length of the written data.
+		 */
+		final class BlockWriter
+		{
+			///////////////////////////////////////////////////////////////////////////
+			// instance fields //
+			////////////////////
+			
+			private final FileChannel channel  ;
+			private final int         blockSize;
+			private final Deflater    deflater ;
+			private final CRC32C      checksum ;
+			
+			private byte[] output      ;
+			private int    outputLength;
+			private int    blockLength ;
+			
+			
+			
+			///////////////////////////////////////////////////////////////////////////
+			// constructors //
+			/////////////////
+			
+			BlockWriter(final FileChannel channel, final int blockSize, final int compressionLevel)
+			{
+				super();
+				this.channel      = channel                                                             ;
+				this.blockSize    = blockSize                                                           ;
+				this.deflater     = new Deflater(compressionLevel)                                      ;
+				this.checksum     = new CRC32C()                                                        ;
+				this.output       = new byte[Default.BLOCK_HEADER_LENGTH + Math.max(64, blockSize / 2)];
+				this.outputLength = Default.BLOCK_HEADER_LENGTH                                         ;
+			}
+			
+			
+			
+			///////////////////////////////////////////////////////////////////////////
+			// methods //
+			////////////
+			
+			private void deflate()
+			{
+				if(this.outputLength == this.output.length)
+				{
+					this.output = Arrays.copyOf(this.output, this.output.length * 2);
+				}
+				this.outputLength += this.deflater.deflate(
+					this.output,
+					this.outputLength,
+					this.output.length - this.outputLength
+				);
+			}
+			
+			final void write(final ByteBuffer source) throws IOException
+			{
+				while(source.hasRemaining())
+				{
+					final int        count = Math.min(source.remaining(), this.blockSize - this.blockLength);
+					final ByteBuffer input = source.slice();
+					input.limit(count);
+					this.checksum.update(input.duplicate());
+					
+					this.deflater.setInput(input);
+					while(!this.deflater.needsInput())
+					{
+						this.deflate();
+					}
+					source.position(source.position() + count);
+					
+					this.blockLength += count;
+					if(this.blockLength == this.blockSize)
+					{
+						this.finishBlock();
+					}
+				}
+			}
+			
+			final void finishBlock() throws IOException
+			{
+				if(this.blockLength == 0)
+				{
+					return;
+				}
+				
+				this.deflater.finish();
+				while(!this.deflater.finished())
+				{
+					this.deflate();
+				}
+				BlockIndex.this.writeBlock(
+					this.channel,
+					this.output,
+					this.outputLength,
+					this.blockLength,
+					(int)this.checksum.getValue()
+				);
+				
+				this.deflater.reset();
+				this.checksum.reset();
+				this.outputLength = Default.BLOCK_HEADER_LENGTH;
+				this.blockLength  = 0;
+			}
+			
+			final void close()
+			{
+				this.deflater.end();
+			}
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,178 @@
+package one.microstream.afs.nio.types;
+
+/*-
+ * #%L
+ * microstream-afs-nio
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import one.microstream.afs.types.AFile;
+import one.microstream.afs.types.AReadableFile;
+import one.microstream.afs.types.AWritableFile;
+import one.microstream.afs.types.WriteController;
+import one.microstream.exceptions.IORuntimeException;
+
+
+/**
+ * Writes, reads and truncates files through a {@link NioIoHandlerCompressing} with small blocks.
+ */
+public class NioIoHandlerCompressingTest
+{
+	private static final int BLOCK_SIZE = 1000;
+	
+	@TempDir
+	Path location;
+	
+	@Test
+	void writeReadAndTruncate()
+	{
+		final byte[] data = createData(10_500);
+		final AFile  file = this.file();
+		
+		final AWritableFile writableFile = file.useWriting();
+		try
+		{
+			// mixed heap and direct buffers, each spanning several blocks
+			writableFile.writeBytes(Arrays.asList(
+				ByteBuffer.wrap(data, 0, 2_300),
+				direct(data, 2_300, 4_000),
+				ByteBuffer.wrap(data, 6_300, 4_200)
+			));
+			assertContent(writableFile, data, data.length);
+			
+			writableFile.truncate(5_432);
+			assertContent(writableFile, data, 5_432);
+			
+			writableFile.writeBytes(Arrays.asList(ByteBuffer.wrap(data, 5_432, 1_111)));
+			assertContent(writableFile, data, 6_543);
+		}
+		finally
+		{
+			writableFile.release();
+		}
+		
+		final AReadableFile readableFile = this.file().useReading();
+		try
+		{
+			assertContent(readableFile, data, 6_543);
+		}
+		finally
+		{
+			readableFile.release();
+		}
+	}
+	
+	@Test
+	void corruptBlockIsRejected() throws Exception
+	{
+		final byte[] data = createData(3_000);
+		
+		final AWritableFile writableFile = this.file().useWriting();
+		try
+		{
+			writableFile.writeBytes(Arrays.asList(ByteBuffer.wrap(data)));
+		}
+		finally
+		{
+			writableFile.release();
+		}
+		
+		// flip a byte in the compressed data of the first block, behind its 12 byte header
+		final Path   path     = this.location.resolve("test.dat");
+		final byte[] physical = Files.readAllBytes(path);
+		physical[20] ^= 0x55;
+		Files.write(path, physical);
+		
+		final AReadableFile readableFile = this.file().useReading();
+		try
+		{
+			Assertions.assertThrows(IORuntimeException.class, () -> readableFile.readBytes(0, 100));
+		}
+		finally
+		{
+			readableFile.release();
+		}
+	}
+	
+	// a new file system per call, so no block index is shared between the calls
+	private AFile file()
+	{
+		final NioFileSystem fileSystem = NioFileSystem.New(
+			NioIoHandlerCompressing.New(
+				WriteController.Enabled(),
+				NioPathResolver.New()    ,
+				p -> true                ,
+				BLOCK_SIZE               ,
+				Deflater.BEST_SPEED
+			)
+		);
+		final AFile file = fileSystem.ensureFilePath(
+			fileSystem.resolveFileToPath(this.location.resolve("test.dat"))
+		);
+		file.ensureExists();
+		
+		return file;
+	}
+	
+	private static void assertContent(final AReadableFile file, final byte[] data, final int length)
+	{
+		Assertions.assertEquals(length, file.size());
+		
+		final Random random = new Random(length);
+		for(int i = 0; i < 50; i++)
+		{
+			final int position = random.nextInt(length);
+			final int count    = random.nextInt(length - position) + 1;
+			
+			final ByteBuffer buffer = file.readBytes(position, count);
+			final byte[]     bytes  = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			Assertions.assertArrayEquals(Arrays.copyOfRange(data, position, position + count), bytes);
+		}
+	}
+	
+	private static ByteBuffer direct(final byte[] data, final int offset, final int length)
+	{
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+		buffer.put(data, offset, length).flip();
+		return buffer;
+	}
+	
+	private static byte[] createData(final int length)
+	{
+		// compressible, but not trivially so
+		final Random random = new Random(42);
+		final byte[] data   = new byte[length];
+		for(int i = 0; i < length; i++)
+		{
+			data[i] = (byte)(i % 64 + random.nextInt(4));
+		}
+		return data;
+	}
+	
+}
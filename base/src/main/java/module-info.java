@@ -34,6 +34,7 @@ module microstream.base
 	exports one.microstream.util.config;
 	exports one.microstream.chars;
 	exports one.microstream.collections;
+	exports one.microstream.collections.lazy;
 	exports one.microstream.com;
 	exports one.microstream.entity.codegen;
 	exports one.microstream.branching;
@@ -0,0 +1,441 @@
+package one.microstream.collections.lazy;
+
+/*-
+ * #%L
+ * microstream-base
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.math.XMath.positive;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import one.microstream.reference.Lazy;
+
+
+/**
+ * A {@link List} implementation that splits its elements into segments of a limited size, each of which
+ * is referenced via a {@link Lazy} reference.
+ * <p>
+ * Only the segments that are actually accessed have to be loaded and unmodified segments can be cleared by the
+ * {@link one.microstream.reference.LazyReferenceManager} like any other lazy reference.
+ * Storing an instance of this type only stores the segments modified since the last store (and the segment
+ * container if segments have been added or removed) instead of all elements.
+ * Modified segments are held strongly until they have been stored, so they cannot be cleared and reloaded
+ * in their previously stored state.
+ * <p>
+ * Note that this implementation is not synchronized.
+ *
+ * @param <E> the type of elements in this list
+ */
+public final class LazyArrayList<E> extends AbstractList<E>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+	
+	public static <E> LazyArrayList<E> New()
+	{
+		return New(Defaults.defaultMaxSegmentSize());
+	}
+	
+	public static <E> LazyArrayList<E> New(final int maxSegmentSize)
+	{
+		return new LazyArrayList<>(
+			positive(maxSegmentSize),
+			new ArrayList<>()
+		);
+	}
+	
+	
+	
+	public interface Defaults
+	{
+		public static int defaultMaxSegmentSize()
+		{
+			return 1000;
+		}
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// instance fields //
+	////////////////////
+	
+	private final int                   maxSegmentSize;
+	private       ArrayList<Segment<E>> segments      ;
+	
+	// derived from the segments when loaded //
+	
+	private transient int size                  ;
+	private transient int structureModifications;
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+	
+	LazyArrayList(final int maxSegmentSize, final ArrayList<Segment<E>> segments)
+	{
+		super();
+		this.maxSegmentSize         = maxSegmentSize;
+		this.segments               = segments      ;
+		this.structureModifications = 1             ;
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+	
+	public final int maxSegmentSize()
+	{
+		return this.maxSegmentSize;
+	}
+	
+	@Override
+	public final int size()
+	{
+		return this.size;
+	}
+	
+	@Override
+	public final E get(final int index)
+	{
+		this.checkIndex(index);
+		final Segment<E> segment = this.segments.get(this.segmentIndex(index));
+		
+		return segment.data().get(index - segment.offset);
+	}
+	
+	@Override
+	public final E set(final int index, final E element)
+	{
+		this.checkIndex(index);
+		final Segment<E> segment = this.segments.get(this.segmentIndex(index));
+		
+		return segment.modifiableData().set(index - segment.offset, element);
+	}
+	
+	@Override
+	public final boolean add(final E element)
+	{
+		Segment<E> segment = this.segments.isEmpty()
+			? null
+			: this.segments.get(this.segments.size() - 1)
+		;
+		if(segment == null || segment.size >= this.maxSegmentSize)
+		{
+			segment = this.addSegment(this.segments.size(), this.size);
+		}
+		
+		segment.modifiableData().add(element);
+		segment.size++;
+		this.size++;
+		this.modCount++;
+		
+		return true;
+	}
+	
+	@Override
+	public final void add(final int index, final E element)
+	{
+		if(index == this.size)
+		{
+			this.add(element);
+			return;
+		}
+		this.checkIndex(index);
+		
+		final int        segmentIndex = this.segmentIndex(index);
+		final Segment<E> segment      = this.segments.get(segmentIndex);
+		segment.modifiableData().add(index - segment.offset, element);
+		segment.size++;
+		this.size++;
+		this.modCount++;
+		this.updateOffsets(segmentIndex + 1, 1);
+		
+		if(segment.size > this.maxSegmentSize)
+		{
+			this.split(segmentIndex, segment);
+		}
+	}
+	
+	@Override
+	public final E remove(final int index)
+	{
+		this.checkIndex(index);
+		
+		final int        segmentIndex = this.segmentIndex(index);
+		final Segment<E> segment      = this.segments.get(segmentIndex);
+		final E          removed      = segment.modifiableData().remove(index - segment.offset);
+		segment.size--;
+		this.size--;
+		this.modCount++;
+		
+		// empty segments are removed, so every segment contains at least one element.
+		if(segment.size == 0)
+		{
+			this.segments.remove(segmentIndex);
+			this.structureModifications++;
+			this.updateOffsets(segmentIndex, -1);
+		}
+		else
+		{
+			this.updateOffsets(segmentIndex + 1, -1);
+		}
+		
+		return removed;
+	}
+	
+	@Override
+	public final void clear()
+	{
+		this.segments.clear();
+		this.size = 0;
+		this.structureModifications++;
+		this.modCount++;
+	}
+	
+	private void checkIndex(final int index)
+	{
+		if(index < 0 || index >= this.size)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		}
+	}
+	
+	private int segmentIndex(final int index)
+	{
+		// binary search for the last segment starting at or before the index.
+		int low  = 0;
+		int high = this.segments.size() - 1;
+		while(low < high)
+		{
+			final int mid = (low + high + 1) >>> 1;
+			if(this.segments.get(mid).offset <= index)
+			{
+				low = mid;
+			}
+			else
+			{
+				high = mid - 1;
+			}
+		}
+		
+		return low;
+	}
+	
+	private void updateOffsets(final int fromSegmentIndex, final int delta)
+	{
+		for(int i = fromSegmentIndex; i < this.segments.size(); i++)
+		{
+			this.segments.get(i).offset += delta;
+		}
+	}
+	
+	private Segment<E> addSegment(final int segmentIndex, final int offset)
+	{
+		final Segment<E> segment = new Segment<>(offset);
+		this.segments.add(segmentIndex, segment);
+		this.structureModifications++;
+		
+		return segment;
+	}
+	
+	private void split(final int segmentIndex, final Segment<E> segment)
+	{
+		final ArrayList<E> data  = segment.modifiableData();
+		final int          half  = data.size() / 2;
+		final List<E>      upper = data.subList(half, data.size());
+		
+		final Segment<E> next = this.addSegment(segmentIndex + 1, segment.offset + half);
+		next.modifiableData().addAll(upper);
+		next.size = upper.size();
+		
+		upper.clear();
+		segment.size = half;
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// Hooks for TypeHandler //
+	//////////////////////////
+	
+	public final ArrayList<?> $segments()
+	{
+		return this.segments;
+	}
+	
+	@SuppressWarnings("unchecked") // safety of cast guaranteed by logic
+	public final void $setSegments(final ArrayList<?> segments)
+	{
+		this.segments = (ArrayList<Segment<E>>)segments;
+	}
+	
+	/**
+	 * Derives the size and the segment offsets from the segments after they have been set by a type handler
+	 * and marks this instance as unmodified.
+	 */
+	public final void $complete()
+	{
+		int offset = 0;
+		for(final Segment<E> segment : this.segments)
+		{
+			segment.offset = offset;
+			offset += segment.size;
+		}
+		this.size = offset;
+		this.structureModifications = 0;
+	}
+	
+	/**
+	 * Passes all parts of this instance that have been modified since they have last been marked as unmodified
+	 * to the passed logic (typically eager storing).<br>
+	 * The parts are not marked as unmodified right away, but by the returned action, which may only be executed
+	 * once the storing has been committed successfully. Parts modified again in the meantime stay modified.
+	 * 
+	 * @param logic the logic to be applied to every modified part.
+	 * @return the action marking the processed parts as unmodified.
+	 */
+	public final Runnable $processModified(final Consumer<Object> logic)
+	{
+		final ArrayList<Segment<E>> processed     = new ArrayList<>();
+		final int[]                 modifications = new int[this.segments.size()];
+		
+		for(final Segment<E> segment : this.segments)
+		{
+			if(segment.modifiedData == null)
+			{
+				continue;
+			}
+			logic.accept(segment.modifiedData);
+			logic.accept(segment);
+			modifications[processed.size()] = segment.modifications;
+			processed.add(segment);
+		}
+		
+		final int structureModifications = this.structureModifications;
+		if(structureModifications != 0)
+		{
+			logic.accept(this.segments);
+		}
+		
+		return () ->
+		{
+			for(int i = 0; i < processed.size(); i++)
+			{
+				processed.get(i).markUnmodified(modifications[i]);
+			}
+			if(this.structureModifications == structureModifications)
+			{
+				this.structureModifications = 0;
+			}
+		};
+	}
+	
+	
+	
+	/**
+	 * A segment of a {@link LazyArrayList}, referencing a part of its elements via a {@link Lazy} reference.
+	 *
+	 * @param <E> the type of elements in the segment
+	 */
+	public static final class Segment<E>
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		/**
+		 * The number of elements in this segment, persisted to not having to load the data to determine
+		 * the size of the list.
+		 */
+		private int size;
+		
+		private Lazy<ArrayList<E>> data;
+		
+		private transient int offset;
+		
+		/**
+		 * The data of this segment while it is modified and not yet stored. Prevents it from being cleared.
+		 */
+		private transient ArrayList<E> modifiedData;
+		
+		/**
+		 * The number of modifications, to recognize modifications after the segment has been processed for storing.
+		 */
+		private transient int modifications;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		Segment(final int offset)
+		{
+			super();
+			this.offset       = offset;
+			this.modifiedData = new ArrayList<>();
+			this.data         = Lazy.Reference(this.modifiedData);
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		final ArrayList<E> data()
+		{
+			return this.modifiedData != null
+				? this.modifiedData
+				: this.data.get()
+			;
+		}
+		
+		final ArrayList<E> modifiableData()
+		{
+			if(this.modifiedData == null)
+			{
+				this.modifiedData = this.data.get();
+			}
+			this.modifications++;
+			
+			return this.modifiedData;
+		}
+		
+		final void markUnmodified(final int processedModifications)
+		{
+			// modifications after the segment has been processed have not been stored, yet.
+			if(this.modifications == processedModifications)
+			{
+				this.modifiedData = null;
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,655 @@
+package one.microstream.collections.lazy;
+
+/*-
+ * #%L
+ * microstream-base
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.math.XMath.positive;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import one.microstream.reference.Lazy;
+
+
+/**
+ * A {@link Map} implementation that splits its entries into segments of a limited size, each of which
+ * is referenced via a {@link Lazy} reference.
+ * <p>
+ * Entries are assigned to segments by the high bits of their (spread) hash value via a directory of segments
+ * (extendible hashing): if a segment exceeds the maximum segment size, only that segment is split in two,
+ * doubling the directory if required. Segments are never merged on removal.
+ * <p>
+ * Only the segments that are actually accessed have to be loaded and unmodified segments can be cleared by the
+ * {@link one.microstream.reference.LazyReferenceManager} like any other lazy reference.
+ * Storing an instance of this type only stores the segments modified since the last store (and the directory
+ * if segments have been split) instead of all entries.
+ * Modified segments are held strongly until they have been stored, so they cannot be cleared and reloaded
+ * in their previously stored state.
+ * <p>
+ * Note that this implementation is not synchronized and its iterators do not detect concurrent modifications
+ * across segments.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ */
+public final class LazyHashMap<K, V> extends AbstractMap<K, V>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// constants //
+	//////////////
+	
+	/**
+	 * The maximum depth of the directory, limiting it to 2^20 entries.
+	 * Beyond that, segments are no longer split but just exceed the maximum segment size.
+	 */
+	private static final int MAXIMUM_DEPTH = 20;
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+	
+	public static <K, V> LazyHashMap<K, V> New()
+	{
+		return New(Defaults.defaultMaxSegmentSize());
+	}
+	
+	public static <K, V> LazyHashMap<K, V> New(final int maxSegmentSize)
+	{
+		return new LazyHashMap<>(
+			positive(maxSegmentSize),
+			createDirectory()
+		);
+	}
+	
+	static <K, V> ArrayList<Segment<K, V>> createDirectory()
+	{
+		final ArrayList<Segment<K, V>> directory = new ArrayList<>();
+		directory.add(new Segment<>(0));
+		
+		return directory;
+	}
+	
+	static int hash(final Object key)
+	{
+		// multiplicative hashing spreads consecutive hash codes across the high bits used for the directory.
+		return (key == null ? 0 : key.hashCode()) * 0x9E3779B9;
+	}
+	
+	private static boolean isSplittable(final Map<?, ?> data)
+	{
+		// keys with all equal hash values can never be separated by splitting.
+		final Iterator<?> keys  = data.keySet().iterator();
+		final int         first = hash(keys.next());
+		while(keys.hasNext())
+		{
+			if(hash(keys.next()) != first)
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	
+	
+	public interface Defaults
+	{
+		public static int defaultMaxSegmentSize()
+		{
+			return 1000;
+		}
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// instance fields //
+	////////////////////
+	
+	private final int                      maxSegmentSize;
+	private       ArrayList<Segment<K, V>> directory     ;
+	
+	// derived from the directory when loaded //
+	
+	private transient int depth                 ;
+	private transient int size                  ;
+	private transient int structureModifications;
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+	
+	LazyHashMap(final int maxSegmentSize, final ArrayList<Segment<K, V>> directory)
+	{
+		super();
+		this.maxSegmentSize         = maxSegmentSize;
+		this.directory              = directory     ;
+		this.structureModifications = 1             ;
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+	
+	public final int maxSegmentSize()
+	{
+		return this.maxSegmentSize;
+	}
+	
+	@Override
+	public final int size()
+	{
+		return this.size;
+	}
+	
+	@Override
+	public final boolean containsKey(final Object key)
+	{
+		return this.segment(hash(key)).data().containsKey(key);
+	}
+	
+	@Override
+	public final V get(final Object key)
+	{
+		return this.segment(hash(key)).data().get(key);
+	}
+	
+	@Override
+	public final V put(final K key, final V value)
+	{
+		final int           hash    = hash(key);
+		final Segment<K, V> segment = this.segment(hash);
+		final HashMap<K, V> data    = segment.modifiableData();
+		final int           oldSize = data.size();
+		final V             old     = data.put(key, value);
+		
+		if(data.size() != oldSize)
+		{
+			segment.size++;
+			this.size++;
+			if(segment.size > this.maxSegmentSize)
+			{
+				this.split(segment, hash);
+			}
+		}
+		
+		return old;
+	}
+	
+	@Override
+	public final V remove(final Object key)
+	{
+		final Segment<K, V> segment = this.segment(hash(key));
+		
+		// absent keys must not mark the segment as modified.
+		if(!segment.data().containsKey(key))
+		{
+			return null;
+		}
+		
+		final V removed = segment.modifiableData().remove(key);
+		segment.size--;
+		this.size--;
+		
+		return removed;
+	}
+	
+	@Override
+	public final void clear()
+	{
+		this.directory = createDirectory();
+		this.depth = 0;
+		this.size = 0;
+		this.structureModifications++;
+	}
+	
+	@Override
+	public final Set<Map.Entry<K, V>> entrySet()
+	{
+		return new EntrySet();
+	}
+	
+	private Segment<K, V> segment(final int hash)
+	{
+		return this.directory.get(this.directoryIndex(hash));
+	}
+	
+	private int directoryIndex(final int hash)
+	{
+		return this.depth == 0
+			? 0
+			: hash >>> Integer.SIZE - this.depth
+		;
+	}
+	
+	private void split(final Segment<K, V> segment, final int hash)
+	{
+		if(segment.depth >= MAXIMUM_DEPTH || !isSplittable(segment.data()))
+		{
+			return;
+		}
+		if(segment.depth == this.depth)
+		{
+			this.doubleDirectory();
+		}
+		
+		// all directory entries referencing the segment form a contiguous range.
+		final int rangeLength = 1 << this.depth - segment.depth;
+		final int rangeStart  = this.directoryIndex(hash) & -rangeLength;
+		
+		final Segment<K, V> sibling = new Segment<>(++segment.depth);
+		final int           bit     = Integer.SIZE - segment.depth;
+		final HashMap<K, V> moved   = sibling.modifiableData();
+		
+		final Iterator<Map.Entry<K, V>> entries = segment.modifiableData().entrySet().iterator();
+		while(entries.hasNext())
+		{
+			final Map.Entry<K, V> entry = entries.next();
+			if((hash(entry.getKey()) >>> bit & 1) != 0)
+			{
+				moved.put(entry.getKey(), entry.getValue());
+				entries.remove();
+			}
+		}
+		sibling.size = moved.size();
+		segment.size -= sibling.size;
+		
+		// the upper half of the range now references the new sibling segment.
+		for(int i = rangeStart + rangeLength / 2; i < rangeStart + rangeLength; i++)
+		{
+			this.directory.set(i, sibling);
+		}
+		this.structureModifications++;
+	}
+	
+	private void doubleDirectory()
+	{
+		final ArrayList<Segment<K, V>> doubled = new ArrayList<>(this.directory.size() * 2);
+		for(final Segment<K, V> segment : this.directory)
+		{
+			doubled.add(segment);
+			doubled.add(segment);
+		}
+		this.directory = doubled;
+		this.depth++;
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// Hooks for TypeHandler //
+	//////////////////////////
+	
+	public final ArrayList<?> $directory()
+	{
+		return this.directory;
+	}
+	
+	@SuppressWarnings("unchecked") // safety of cast guaranteed by logic
+	public final void $setDirectory(final ArrayList<?> directory)
+	{
+		this.directory = (ArrayList<Segment<K, V>>)directory;
+	}
+	
+	/**
+	 * Derives the depth and the size from the directory after it has been set by a type handler
+	 * and marks this instance as unmodified.
+	 */
+	public final void $complete()
+	{
+		this.depth = Integer.numberOfTrailingZeros(this.directory.size());
+		
+		int size = 0;
+		Segment<K, V> last = null;
+		for(final Segment<K, V> segment : this.directory)
+		{
+			if(segment != last)
+			{
+				size += segment.size;
+				last = segment;
+			}
+		}
+		this.size = size;
+		this.structureModifications = 0;
+	}
+	
+	/**
+	 * Passes all parts of this instance that have been modified since they have last been marked as unmodified
+	 * to the passed logic (typically eager storing).<br>
+	 * The parts are not marked as unmodified right away, but by the returned action, which may only be executed
+	 * once the storing has been committed successfully. Parts modified again in the meantime stay modified.
+	 * 
+	 * @param logic the logic to be applied to every modified part.
+	 * @return the action marking the processed parts as unmodified.
+	 */
+	public final Runnable $processModified(final Consumer<Object> logic)
+	{
+		final ArrayList<Segment<K, V>> processed     = new ArrayList<>();
+		final int[]                    modifications = new int[this.directory.size()];
+		
+		// segments referenced multiple times by the directory are consecutive and only processed once.
+		Segment<K, V> last = null;
+		for(final Segment<K, V> segment : this.directory)
+		{
+			if(segment == last || segment.modifiedData == null)
+			{
+				continue;
+			}
+			last = segment;
+			logic.accept(segment.modifiedData);
+			logic.accept(segment);
+			modifications[processed.size()] = segment.modifications;
+			processed.add(segment);
+		}
+		
+		final int structureModifications = this.structureModifications;
+		if(structureModifications != 0)
+		{
+			logic.accept(this.directory);
+		}
+		
+		return () ->
+		{
+			for(int i = 0; i < processed.size(); i++)
+			{
+				processed.get(i).markUnmodified(modifications[i]);
+			}
+			if(this.structureModifications == structureModifications)
+			{
+				this.structureModifications = 0;
+			}
+		};
+	}
+	
+	
+	
+	/**
+	 * A segment of a {@link LazyHashMap}, referencing a part of its entries via a {@link Lazy} reference.
+	 *
+	 * @param <K> the type of keys in the segment
+	 * @param <V> the type of values in the segment
+	 */
+	public static final class Segment<K, V>
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		/**
+		 * The number of high hash bits shared by all keys of this segment.
+		 */
+		private int depth;
+		
+		/**
+		 * The number of entries in this segment, persisted to not having to load the data to determine
+		 * the size of the map.
+		 */
+		private int size;
+		
+		private Lazy<HashMap<K, V>> data;
+		
+		/**
+		 * The data of this segment while it is modified and not yet stored. Prevents it from being cleared.
+		 */
+		private transient HashMap<K, V> modifiedData;
+		
+		/**
+		 * The number of modifications, to recognize modifications after the segment has been processed for storing.
+		 */
+		private transient int modifications;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		Segment(final int depth)
+		{
+			super();
+			this.depth        = depth;
+			this.modifiedData = new HashMap<>();
+			this.data         = Lazy.Reference(this.modifiedData);
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		final HashMap<K, V> data()
+		{
+			return this.modifiedData != null
+				? this.modifiedData
+				: this.data.get()
+			;
+		}
+		
+		final HashMap<K, V> modifiableData()
+		{
+			if(this.modifiedData == null)
+			{
+				this.modifiedData = this.data.get();
+			}
+			this.modifications++;
+			
+			return this.modifiedData;
+		}
+		
+		final void markUnmodified(final int processedModifications)
+		{
+			// modifications after the segment has been processed have not been stored, yet.
+			if(this.modifications == processedModifications)
+			{
+				this.modifiedData = null;
+			}
+		}
+		
+	}
+	
+	
+	
+	final class EntrySet extends AbstractSet<Map.Entry<K, V>>
+	{
+		@Override
+		public final int size()
+		{
+			return LazyHashMap.this.size;
+		}
+		
+		@Override
+		public final Iterator<Map.Entry<K, V>> iterator()
+		{
+			return new EntryIterator();
+		}
+		
+		@Override
+		public final void clear()
+		{
+			LazyHashMap.this.clear();
+		}
+		
+	}
+	
+	final class EntryIterator implements Iterator<Map.Entry<K, V>>
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private int                       directoryIndex;
+		private Segment<K, V>             segment       ;
+		private Iterator<Map.Entry<K, V>> entries       = Collections.emptyIterator();
+		private Segment<K, V>             lastSegment   ;
+		private Iterator<Map.Entry<K, V>> lastEntries   ;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		@Override
+		public final boolean hasNext()
+		{
+			while(!this.entries.hasNext())
+			{
+				if(!this.advance())
+				{
+					return false;
+				}
+			}
+			
+			return true;
+		}
+		
+		private boolean advance()
+		{
+			final ArrayList<Segment<K, V>> directory = LazyHashMap.this.directory;
+			while(this.directoryIndex < directory.size())
+			{
+				final Segment<K, V> next = directory.get(this.directoryIndex++);
+				if(next != this.segment)
+				{
+					this.segment = next;
+					this.entries = next.data().entrySet().iterator();
+					return true;
+				}
+			}
+			
+			return false;
+		}
+		
+		@Override
+		public final Map.Entry<K, V> next()
+		{
+			if(!this.hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+			this.lastSegment = this.segment;
+			this.lastEntries = this.entries;
+			
+			return new Entry<>(this.segment, this.entries.next());
+		}
+		
+		@Override
+		public final void remove()
+		{
+			if(this.lastEntries == null)
+			{
+				throw new IllegalStateException();
+			}
+			this.lastEntries.remove();
+			this.lastEntries = null;
+			
+			// the iterated data is the segment's current data instance, so it just has to be marked as modified.
+			this.lastSegment.modifiableData();
+			this.lastSegment.size--;
+			LazyHashMap.this.size--;
+		}
+		
+	}
+	
+	static final class Entry<K, V> implements Map.Entry<K, V>
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private final Segment<K, V>   segment;
+		private final Map.Entry<K, V> entry  ;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		Entry(final Segment<K, V> segment, final Map.Entry<K, V> entry)
+		{
+			super();
+			this.segment = segment;
+			this.entry   = entry  ;
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		@Override
+		public final K getKey()
+		{
+			return this.entry.getKey();
+		}
+		
+		@Override
+		public final V getValue()
+		{
+			return this.entry.getValue();
+		}
+		
+		@Override
+		public final V setValue(final V value)
+		{
+			this.segment.modifiableData();
+			
+			return this.entry.setValue(value);
+		}
+		
+		@Override
+		public final boolean equals(final Object other)
+		{
+			return this.entry.equals(other);
+		}
+		
+		@Override
+		public final int hashCode()
+		{
+			return this.entry.hashCode();
+		}
+		
+		@Override
+		public final String toString()
+		{
+			return this.entry.toString();
+		}
+		
+	}
+	
+}
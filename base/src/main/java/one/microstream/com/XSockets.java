@@ -31,6 +31,11 @@ import java.nio.ByteOrder;
 import java.nio.channels.NetworkChannel;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 
@@ -311,6 +316,112 @@ public final class XSockets
 		return checkedBuffer;
 	}
 	
+	/**
+	 * Like {@link #read(SocketChannel, ByteBuffer)}, but fails if no data arrives within the timeout.
+	 * 
+	 * @param channel the source channel
+	 * @param buffer the target buffer
+	 * @param timeoutMillis the timeout in milliseconds
+	 * @return the number of bytes read
+	 * @throws ComException if a communication error occurs
+	 * @throws ComExceptionTimeout if the timeout elapsed, the channel is closed then
+	 * @see #read(SocketChannel, ByteBuffer, int, long)
+	 */
+	public static int read(final SocketChannel channel, final ByteBuffer buffer, final long timeoutMillis)
+		throws ComException, ComExceptionTimeout
+	{
+		return performWithTimeout(channel, timeoutMillis, () -> read(channel, buffer));
+	}
+	
+	/**
+	 * Like {@link #read(SocketChannel, ByteBuffer, int)}, but fails if the read doesn't complete within the timeout.
+	 * <p>
+	 * The read is done by the calling thread. A single shared timer closes the channel if the timeout elapses,
+	 * so no additional thread is needed per read, no matter how many channels are read concurrently.
+	 * 
+	 * @param channel the source channel
+	 * @param buffer the target buffer
+	 * @param length the number of bytes to read
+	 * @param timeoutMillis the timeout in milliseconds
+	 * @return the buffer containing the read bytes, a new one if the passed one is too small
+	 * @throws ComException if a communication error occurs
+	 * @throws ComExceptionTimeout if the timeout elapsed, the channel is closed then
+	 */
+	public static ByteBuffer read(
+		final SocketChannel channel      ,
+		final ByteBuffer    buffer       ,
+		final int           length       ,
+		final long          timeoutMillis
+	)
+		throws ComException, ComExceptionTimeout
+	{
+		return performWithTimeout(channel, timeoutMillis, () -> read(channel, buffer, length));
+	}
+	
+	private static <T> T performWithTimeout(
+		final SocketChannel channel      ,
+		final long          timeoutMillis,
+		final Supplier<T>   operation
+	)
+		throws ComException, ComExceptionTimeout
+	{
+		// 0: running, 1: completed, 2: timed out. Whoever gets there first wins.
+		final AtomicInteger      state   = new AtomicInteger();
+		final ScheduledFuture<?> timeout = Timeouts.TIMER.schedule(() ->
+		{
+			if(state.compareAndSet(0, 2))
+			{
+				closeChannel(channel);
+			}
+		}, timeoutMillis, TimeUnit.MILLISECONDS);
+		
+		try
+		{
+			final T result = operation.get();
+			if(state.compareAndSet(0, 1))
+			{
+				return result;
+			}
+		}
+		catch(final ComException e)
+		{
+			if(state.compareAndSet(0, 1))
+			{
+				throw e;
+			}
+		}
+		finally
+		{
+			timeout.cancel(false);
+		}
+		
+		throw new ComExceptionTimeout("read timeout after " + timeoutMillis + " " + TimeUnit.MILLISECONDS);
+	}
+	
+	private static final class Timeouts
+	{
+		static final ScheduledThreadPoolExecutor TIMER = createTimer();
+		
+		private static ScheduledThreadPoolExecutor createTimer()
+		{
+			final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable ->
+			{
+				final Thread thread = new Thread(runnable, "MicroStream-SocketTimeouts");
+				thread.setDaemon(true);
+				return thread;
+			});
+			// almost all timeouts are cancelled, they must not pile up in the queue until they would be due
+			timer.setRemoveOnCancelPolicy(true);
+			return timer;
+		}
+		
+		private Timeouts()
+		{
+			// static only
+			throw new UnsupportedOperationException();
+		}
+	}
+	
 	public static void write(final SocketChannel channel, final ByteBuffer buffer) throws ComException
 	{
 		try
@@ -0,0 +1,356 @@
+
+package one.microstream.memory;
+
+/*-
+ * #%L
+ * microstream-base
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import one.microstream.collections.BulkList;
+
+/**
+ * Monitors the occupancy of the heap by the notifications of the JVM's memory management beans instead of
+ * repeatedly querying the memory usage.
+ * <p>
+ * When started, a usage threshold and, if supported, a collection usage threshold is set for every heap memory pool
+ * that supports it (e.g. the old generation), and a listener is registered for those threshold notifications and
+ * for garbage collection notifications. Callers of {@link #awaitPressure(long)} are woken up as soon as the
+ * occupancy of one of those pools crosses the configured threshold.
+ * <p>
+ * If no heap memory pool supports usage thresholds, the occupancy of the whole heap is checked whenever
+ * {@link #awaitPressure(long)} times out.
+ * <p>
+ * Note that memory pool thresholds are global JVM state. Previously set thresholds are restored by {@link #stop()}.
+ */
+public interface MemoryPressureMonitor
+{
+	/**
+	 * The occupancy ratio in the range ]0.0; 1.0] from which on memory is considered to be under pressure.
+	 *
+	 * @return the usage threshold.
+	 */
+	public double usageThreshold();
+	
+	/**
+	 * The current occupancy ratio, meaning the highest ratio of used to maximum memory
+	 * of all monitored memory pools.
+	 *
+	 * @return the current occupancy.
+	 */
+	public double occupancy();
+	
+	public MemoryPressureMonitor start();
+	
+	public MemoryPressureMonitor stop();
+	
+	public boolean isRunning();
+	
+	/**
+	 * Waits until memory pressure is signaled or the passed timeout elapsed.
+	 *
+	 * @param millisecondTimeout the maximum time to wait in milliseconds.
+	 * @return the current {@link #occupancy()} if it is at or above the {@link #usageThreshold()}, otherwise 0.0.
+	 * @throws InterruptedException if the waiting thread was interrupted.
+	 */
+	public double awaitPressure(long millisecondTimeout) throws InterruptedException;
+	
+	
+	
+	public static boolean isValidUsageThreshold(final double usageThreshold)
+	{
+		return usageThreshold > 0.0 && usageThreshold <= 1.0;
+	}
+	
+	public static double validateUsageThreshold(final double usageThreshold)
+	{
+		if(isValidUsageThreshold(usageThreshold))
+		{
+			return usageThreshold;
+		}
+		
+		throw new IllegalArgumentException("Usage threshold must be in the range ]0.0; 1.0].");
+	}
+	
+	
+	
+	public static MemoryPressureMonitor New()
+	{
+		return New(Defaults.defaultUsageThreshold());
+	}
+	
+	public static MemoryPressureMonitor New(final double usageThreshold)
+	{
+		return new MemoryPressureMonitor.Default(
+			validateUsageThreshold(usageThreshold)
+		);
+	}
+	
+	
+	
+	public interface Defaults
+	{
+		public static double defaultUsageThreshold()
+		{
+			// leaves enough headroom to free memory before the garbage collector has to work excessively.
+			return 0.8;
+		}
+		
+	}
+	
+	
+	
+	public final class Default implements MemoryPressureMonitor, NotificationListener
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// constants //
+		//////////////
+		
+		// name of com.sun.management.GarbageCollectionNotificationInfo#GARBAGE_COLLECTION_NOTIFICATION
+		static final String GARBAGE_COLLECTION_NOTIFICATION = "com.sun.management.gc.notification";
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private final double usageThreshold;
+		
+		private final BulkList<MemoryPoolMXBean>    pools                         = BulkList.New();
+		private final BulkList<long[]>              previousThresholds            = BulkList.New();
+		private final BulkList<NotificationEmitter> emitters                      = BulkList.New();
+		private       boolean                       running                                       ;
+		private       boolean                       signaled                                      ;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		Default(final double usageThreshold)
+		{
+			super();
+			this.usageThreshold = usageThreshold;
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		@Override
+		public final double usageThreshold()
+		{
+			return this.usageThreshold;
+		}
+		
+		@Override
+		public final synchronized boolean isRunning()
+		{
+			return this.running;
+		}
+		
+		@Override
+		public final synchronized double occupancy()
+		{
+			if(this.pools.isEmpty())
+			{
+				final MemoryStatistics heap = XMemory.memoryAccessor().createHeapMemoryStatistics();
+				
+				return ratio(heap.used(), heap.max() > 0 ? heap.max() : heap.committed());
+			}
+			
+			double occupancy = 0.0;
+			for(final MemoryPoolMXBean pool : this.pools)
+			{
+				final MemoryUsage usage = pool.getUsage();
+				occupancy = Math.max(occupancy, ratio(usage.getUsed(), usage.getMax()));
+			}
+			
+			return occupancy;
+		}
+		
+		private static double ratio(final long used, final long max)
+		{
+			return max > 0
+				? (double)used / max
+				: 0.0
+			;
+		}
+		
+		@Override
+		public final synchronized MemoryPressureMonitor start()
+		{
+			if(this.running)
+			{
+				return this;
+			}
+			
+			for(final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			{
+				final long max;
+				if(pool.getType() != MemoryType.HEAP
+				|| !pool.isUsageThresholdSupported()
+				|| (max = pool.getUsage().getMax()) <= 0
+				)
+				{
+					continue;
+				}
+				
+				final long threshold = (long)(max * this.usageThreshold);
+				final long[] previous = {
+					pool.getUsageThreshold(),
+					pool.isCollectionUsageThresholdSupported() ? pool.getCollectionUsageThreshold() : 0
+				};
+				pool.setUsageThreshold(threshold);
+				if(pool.isCollectionUsageThresholdSupported())
+				{
+					pool.setCollectionUsageThreshold(threshold);
+				}
+				this.pools.add(pool);
+				this.previousThresholds.add(previous);
+			}
+			
+			if(!this.pools.isEmpty())
+			{
+				this.addListener(ManagementFactory.getMemoryMXBean());
+				for(final GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+				{
+					this.addListener(collector);
+				}
+			}
+			
+			this.running = true;
+			
+			return this;
+		}
+		
+		private void addListener(final Object bean)
+		{
+			if(bean instanceof NotificationEmitter)
+			{
+				((NotificationEmitter)bean).addNotificationListener(this, null, null);
+				this.emitters.add((NotificationEmitter)bean);
+			}
+		}
+		
+		@Override
+		public final synchronized MemoryPressureMonitor stop()
+		{
+			if(!this.running)
+			{
+				return this;
+			}
+			
+			for(final NotificationEmitter emitter : this.emitters)
+			{
+				try
+				{
+					emitter.removeNotificationListener(this);
+				}
+				catch(final ListenerNotFoundException e)
+				{
+					// cannot happen, but if it does, there is nothing left to remove.
+				}
+			}
+			
+			for(int i = 0; i < this.pools.intSize(); i++)
+			{
+				final MemoryPoolMXBean pool     = this.pools.at(i);
+				final long[]           previous = this.previousThresholds.at(i);
+				pool.setUsageThreshold(previous[0]);
+				if(pool.isCollectionUsageThresholdSupported())
+				{
+					pool.setCollectionUsageThreshold(previous[1]);
+				}
+			}
+			
+			this.emitters.clear();
+			this.pools.clear();
+			this.previousThresholds.clear();
+			this.running  = false;
+			this.signaled = false;
+			this.notifyAll();
+			
+			return this;
+		}
+		
+		@Override
+		public final void handleNotification(final Notification notification, final Object handback)
+		{
+			final String type = notification.getType();
+			if(MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+			|| MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)
+			)
+			{
+				this.signal();
+			}
+			else if(GARBAGE_COLLECTION_NOTIFICATION.equals(type) && this.occupancy() >= this.usageThreshold)
+			{
+				// covers pools without collection usage threshold support and collections of other pools.
+				this.signal();
+			}
+		}
+		
+		private synchronized void signal()
+		{
+			this.signaled = true;
+			this.notifyAll();
+		}
+		
+		@Override
+		public final synchronized double awaitPressure(final long millisecondTimeout) throws InterruptedException
+		{
+			if(!this.signaled)
+			{
+				// a timeout of 0 would mean to wait indefinitely.
+				this.wait(Math.max(millisecondTimeout, 1));
+			}
+			
+			// without any notification source, the occupancy is checked on every timeout.
+			if(!this.signaled && !this.pools.isEmpty())
+			{
+				return 0.0;
+			}
+			this.signaled = false;
+			
+			final double occupancy = this.occupancy();
+			
+			return occupancy >= this.usageThreshold
+				? occupancy
+				: 0.0
+			;
+		}
+		
+	}
+	
+}
@@ -26,8 +26,11 @@ import static one.microstream.util.logging.Logging.LazyArg;
 
 import org.slf4j.Logger;
 
+import one.microstream.X;
 import one.microstream.chars.VarString;
 import one.microstream.chars.XChars;
+import one.microstream.collections.BulkList;
+import one.microstream.collections.HashTable;
 import one.microstream.memory.MemoryStatistics;
 import one.microstream.memory.MemoryStatisticsProvider;
 import one.microstream.util.logging.Logging;
@@ -86,6 +89,21 @@ public interface Lazy<T> extends Referencing<T>
 	 */
 	public long lastTouched();
 	
+	/**
+	 * Returns the estimated number of bytes retained by the subject, as far as it is known.
+	 * The estimate is the length of the persisted data that had to be loaded for the subject the last time it
+	 * was lazily loaded (see {@link ObjectSwizzling#getObject(long, java.util.function.LongConsumer)}).
+	 * It is kept after clearing, so it can be used to decide about the subject as long as it is loaded
+	 * and gets updated on every reloading.
+	 * <p>
+	 * Note that loading several references in one request (see {@link #loadAll(Iterable)}) does not yield the
+	 * data length per subject, so it leaves the estimate unchanged. A subject that has only ever been loaded
+	 * that way has an unknown retained size.
+	 * 
+	 * @return the estimated retained size in bytes or 0 if it is unknown.
+	 */
+	public long retainedSize();
+	
 	public boolean clear(Lazy.ClearingEvaluator clearingEvaluator);
 	
 	
@@ -140,6 +158,46 @@ public interface Lazy<T> extends Referencing<T>
 		
 		return reference.isLoaded();
 	}
+	
+	/**
+	 * Loads the subjects of all passed lazy references that are not loaded, yet.<br>
+	 * Instead of loading every subject on its own (see {@link #get()}), the object ids of all unloaded
+	 * references are collected and retrieved via one {@link ObjectSwizzling#collect(java.util.function.Consumer, long...)}
+	 * call per loader, which typically means one request to the persistent data source
+	 * instead of one per reference.
+	 * <p>
+	 * Already loaded references and <code>null</code> entries are skipped. References of other types than
+	 * {@link Lazy.Default} are loaded individually by calling {@link #get()}.
+	 * 
+	 * @param references the lazy references to be loaded.
+	 */
+	public static void loadAll(final Iterable<? extends Lazy<?>> references)
+	{
+		final HashTable<ObjectSwizzling, BulkList<Lazy.Default<?>>> unloaded = HashTable.New();
+		for(final Lazy<?> reference : references)
+		{
+			if(reference == null)
+			{
+				continue;
+			}
+			if(!(reference instanceof Lazy.Default))
+			{
+				reference.get();
+				continue;
+			}
+			
+			final Lazy.Default<?> lazy   = (Lazy.Default<?>)reference;
+			final ObjectSwizzling loader = lazy.loader;
+			if(loader != null && !lazy.isLoaded())
+			{
+				unloaded.ensure(loader, l -> BulkList.New()).add(lazy);
+			}
+		}
+		
+		unloaded.iterate(e ->
+			Lazy.Default.loadAll(e.key(), e.value())
+		);
+	}
 
 	public static <T> Lazy<T> Reference(final T subject)
 	{
@@ -185,17 +243,28 @@ public interface Lazy<T> extends Referencing<T>
 		// instance fields //
 		////////////////////
 
+		/*
+		 * Note on concurrency:
+		 * Reading an already loaded subject is lock-free (a volatile read plus a timestamp update).
+		 * Only the state transitions (loading, clearing, linking) are synchronized on the instance.
+		 */
+		
 		/**
 		 * The actual subject to be referenced.
 		 */
-		private T subject;
+		private volatile T subject;
 		
 		/**
 		 * The timestamp in milliseconds when this reference has last been touched (created or queried).
 		 * If an instance is deemed timed out by a {@link LazyReferenceManager} based on the current time
 		 * and some arbitrary timeout threshold, its subject gets cleared.
 		 */
-		transient long lastTouched;
+		transient volatile long lastTouched;
+		
+		/**
+		 * The estimated number of bytes retained by the subject, see {@link Lazy#retainedSize()}.
+		 */
+		private transient volatile long retainedSize;
 
 		/**
 		 * The cached object id of the not loaded actual instance to later load it lazily.
@@ -205,7 +274,7 @@ public interface Lazy<T> extends Referencing<T>
 		 * A "not found" id (id < 0) here means not yet persisted (the id assigned via persisting is not yet present).
 		 */
 		// CHECKSTYLE.OFF: VisibilityModifier CheckStyle false positive for same package in another project
-		transient long objectId;
+		transient volatile long objectId;
 		// CHECKSTYLE.ON: VisibilityModifier
 
 		/**
@@ -214,7 +283,7 @@ public interface Lazy<T> extends Referencing<T>
 		 * in the first place but did not to do its work later lazyely. Apart from this idea,
 		 * there is no "hard" contract on what the loader instance should specifically be.
 		 */
-		private transient ObjectSwizzling loader;
+		private transient volatile ObjectSwizzling loader;
 
 
 
@@ -267,14 +336,20 @@ public interface Lazy<T> extends Referencing<T>
 		}
 		
 		@Override
-		public final synchronized boolean isStored()
+		public final long retainedSize()
+		{
+			return this.retainedSize;
+		}
+
+		@Override
+		public final boolean isStored()
 		{
 			// A "not found" id (id < 0) here means not yet persisted (the id assigned via persisting is not yet present).
 			return Swizzling.isFoundId(this.objectId);
 		}
 		
 		@Override
-		public final synchronized boolean isLoaded()
+		public final boolean isLoaded()
 		{
 			/* Sounds trivial, but there are a lot of cases, here:
 			 * 1.) Not yet persisted cases (id < 0) are implicitely always "loaded".
@@ -290,7 +365,7 @@ public interface Lazy<T> extends Referencing<T>
 		 * @return the current reference withouth on-demand loading.
 		 */
 		@Override
-		public final synchronized T peek()
+		public final T peek()
 		{
 			return this.subject;
 		}
@@ -397,7 +472,25 @@ public interface Lazy<T> extends Referencing<T>
 		 * @return the originally referenced subject, either already-known or lazy-loaded.
 		 */
 		@Override
-		public final synchronized T get()
+		public final T get()
+		{
+			/*
+			 * Fast path: an already present subject is returned without locking.
+			 * A concurrent clearing might overwrite the touch timestamp or vice versa. Both are harmless:
+			 * the calling context holds a strong reference to the subject in any case and a cleared reference's
+			 * timestamp only influences when it would be cleared again, which is a no-op.
+			 */
+			final T subject = this.subject;
+			if(subject != null)
+			{
+				this.lastTouched = System.currentTimeMillis();
+				return subject;
+			}
+			
+			return this.synchGet();
+		}
+		
+		private synchronized T synchGet()
 		{
 			// no need to "load" a persisted null value (id == 0) or a not yet persisted null value (id < 0)
 			if(this.subject == null && Swizzling.isProperId(this.objectId))
@@ -421,7 +514,9 @@ public interface Lazy<T> extends Referencing<T>
 			logger.debug("Lazy loading {}", this.objectId);
 			
 			// this context doesn't have to do anything on an exception inside the get(), just pass it along
-			this.subject = (T)this.loader.getObject(this.objectId);
+			this.subject = (T)this.loader.getObject(this.objectId, loadedLength ->
+				this.retainedSize = loadedLength
+			);
 			
 			logger.debug(
 				"Lazy loaded {}: {}({})",
@@ -431,6 +526,39 @@ public interface Lazy<T> extends Referencing<T>
 			);
 		}
 
+		static void loadAll(final ObjectSwizzling loader, final BulkList<Lazy.Default<?>> references)
+		{
+			final long[] objectIds = new long[X.checkArrayRange(references.size())];
+			int i = 0;
+			for(final Lazy.Default<?> reference : references)
+			{
+				objectIds[i++] = reference.objectId;
+			}
+			
+			logger.debug("Lazy loading {} references", objectIds.length);
+			
+			// one collecting call for all object ids instead of one getObject call per reference.
+			final BulkList<Object> subjects = loader.collect(BulkList.New(objectIds.length), objectIds);
+			
+			i = 0;
+			for(final Lazy.Default<?> reference : references)
+			{
+				reference.setLoaded(subjects.at(i++));
+			}
+		}
+		
+		@SuppressWarnings("unchecked") // safety of cast guaranteed by logic
+		private synchronized void setLoaded(final Object subject)
+		{
+			// a concurrent get() might have loaded the subject in the meantime. Both are the same instance.
+			// the retained size is kept as it is, since the loaded data length is only known for all subjects.
+			if(this.subject == null)
+			{
+				this.subject = (T)subject;
+			}
+			this.touch();
+		}
+
 		final synchronized boolean clearIfTimedout(final long millisecondThreshold)
 		{
 			logger.trace(
@@ -575,6 +703,27 @@ public interface Lazy<T> extends Referencing<T>
 			// no-op by default
 		}
 		
+		/**
+		 * Called after {@link #endCheckCycle()} if the check cycle reached the last registered lazy reference,
+		 * meaning all registered references have been checked since the previous call.
+		 */
+		public default void endCheckPass()
+		{
+			// no-op by default
+		}
+		
+		/**
+		 * Queries whether the passed lazy reference may be cleared outside of the regular checks,
+		 * e.g. to relieve memory pressure.
+		 * 
+		 * @param lazyReference the lazy reference to be queried
+		 * @return whether the lazy reference may be cleared
+		 */
+		public default boolean isClearable(final Lazy<?> lazyReference)
+		{
+			return true;
+		}
+		
 		
 		public interface Defaults
 		{
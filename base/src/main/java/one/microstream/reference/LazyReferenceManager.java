@@ -20,11 +20,16 @@ package one.microstream.reference;
  * #L%
  */
 
+import static one.microstream.X.notNull;
+
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 
+import one.microstream.collections.BulkList;
+import one.microstream.memory.MemoryPressureMonitor;
 import one.microstream.memory.MemoryStatistics;
 import one.microstream.reference.Lazy.Check;
 import one.microstream.reference.Lazy.Checker;
@@ -168,7 +173,71 @@ public interface LazyReferenceManager
 		final _longReference    nanoTimeBudgetProvider
 	)
 	{
-		return new Default(checker, milliTimeCheckIntervalProvider, nanoTimeBudgetProvider);
+		return new Default(checker, milliTimeCheckIntervalProvider, nanoTimeBudgetProvider, null, 0.0);
+	}
+	
+	/**
+	 * Creates a {@link LazyReferenceManager} that does not periodically check its lazy references at all but
+	 * only clears them when the heap is under pressure, see {@link MemoryPressureMonitor}.
+	 * <p>
+	 * Every time the monitored heap occupancy is at or above the usage threshold, the coldest loaded
+	 * lazy references are cleared (see {@link Lazy#lastTouched()} and {@link Lazy#retainedSize()}), with a share of all loaded ones corresponding to the share of the
+	 * occupancy exceeding the target usage. If that is not sufficient, the next garbage collection
+	 * signals pressure again and the next share is cleared.
+	 * <p>
+	 * The default {@link Lazy.Checker} is still used for explicit calls to {@link #cleanUp()}.
+	 * 
+	 * @return a new memory pressure driven {@link LazyReferenceManager}.
+	 */
+	public static LazyReferenceManager NewMemoryPressureDriven()
+	{
+		return NewMemoryPressureDriven(
+			MemoryPressureMonitor.Defaults.defaultUsageThreshold(),
+			Default.DEFAULT_TARGET_USAGE
+		);
+	}
+	
+	/**
+	 * Creates a memory pressure driven {@link LazyReferenceManager}, see {@link #NewMemoryPressureDriven()}.
+	 * 
+	 * @param usageThreshold the heap occupancy ratio from which on lazy references are cleared.
+	 * @param targetUsage the heap occupancy ratio to be reached by clearing lazy references.
+	 * @return a new memory pressure driven {@link LazyReferenceManager}.
+	 */
+	public static LazyReferenceManager NewMemoryPressureDriven(
+		final double usageThreshold,
+		final double targetUsage
+	)
+	{
+		return NewMemoryPressureDriven(MemoryPressureMonitor.New(usageThreshold), targetUsage);
+	}
+	
+	/**
+	 * Creates a memory pressure driven {@link LazyReferenceManager}, see {@link #NewMemoryPressureDriven()}.
+	 * 
+	 * @param memoryPressureMonitor the monitor signaling memory pressure.
+	 * @param targetUsage the heap occupancy ratio to be reached by clearing lazy references.
+	 * @return a new memory pressure driven {@link LazyReferenceManager}.
+	 */
+	public static LazyReferenceManager NewMemoryPressureDriven(
+		final MemoryPressureMonitor memoryPressureMonitor,
+		final double                targetUsage
+	)
+	{
+		if(!(targetUsage >= 0.0 && targetUsage < notNull(memoryPressureMonitor).usageThreshold()))
+		{
+			throw new IllegalArgumentException(
+				"Target usage must be in the range [0.0; " + memoryPressureMonitor.usageThreshold() + "[."
+			);
+		}
+		
+		return new Default(
+			Lazy.Checker()                                       ,
+			_longReference.New(Default.DEFAULT_CHECK_INTERVAL_MS),
+			_longReference.New(Default.DEFAULT_TIME_BUDGET_NS)   ,
+			memoryPressureMonitor                                ,
+			targetUsage
+		);
 	}
 
 	public final class Default implements LazyReferenceManager
@@ -180,10 +249,16 @@ public interface LazyReferenceManager
 		final static Logger logger = Logging.getLogger(Default.class);
 		
 		private static final Clearer CLEARER = new Clearer();
+		
+		// only stored and loaded references are passed to an evaluator, which are exactely the clearable ones.
+		private static final Lazy.ClearingEvaluator PRESSURE_CLEARER = lazyReference -> true;
 
 		// defaults mean to check every second with a budget of 1 MS (0.1% thread activity)
 		        static final long    DEFAULT_CHECK_INTERVAL_MS = 1_000        ;
 		        static final long    DEFAULT_TIME_BUDGET_NS    =     1_000_000;
+		        
+		// clearing down to 60% leaves enough headroom for the pressure not to arise again right away
+		        static final double  DEFAULT_TARGET_USAGE      = 0.6          ;
 
 
 
@@ -194,6 +269,8 @@ public interface LazyReferenceManager
 		private final    Checker        checker                       ;
 		private final    _longReference millitimeCheckIntervalProvider;
 		private final    _longReference nanoTimeBudgetProvider        ;
+		private final    MemoryPressureMonitor memoryPressureMonitor  ; // null means periodic checking
+		private final    double         targetUsage                   ;
 		private final    Entry          head   = new Entry(null)      ;
 		private          Entry          tail   = this.head            ;
 		private          Entry          cursor = this.head            ; // current "last" entry for checking
@@ -209,15 +286,19 @@ public interface LazyReferenceManager
 		/////////////////
 
 		Default(
-			final Checker        checker               ,
-			final _longReference checkIntervalProvider ,
-			final _longReference nanoTimeBudgetProvider
+			final Checker               checker               ,
+			final _longReference        checkIntervalProvider ,
+			final _longReference        nanoTimeBudgetProvider,
+			final MemoryPressureMonitor memoryPressureMonitor ,
+			final double                targetUsage
 		)
 		{
 			super();
 			this.checker                        = checker               ;
 			this.millitimeCheckIntervalProvider = checkIntervalProvider ;
 			this.nanoTimeBudgetProvider         = nanoTimeBudgetProvider;
+			this.memoryPressureMonitor          = memoryPressureMonitor ;
+			this.targetUsage                    = targetUsage           ;
 		}
 		
 		private synchronized boolean mayRun()
@@ -427,6 +508,10 @@ public interface LazyReferenceManager
 			this.cursor = last;
 
 			checker.endCheckCycle();
+			if(last == this.head)
+			{
+				checker.endCheckPass();
+			}
 		}
 
 		final void cleanUpBudgeted()
@@ -436,6 +521,82 @@ public interface LazyReferenceManager
 			// perform actual cleanup for the dynamically specified nano time budget
 			this.cleanUp(this.nanoTimeBudgetProvider.get());
 		}
+		
+		final void cleanUpByMemoryPressure(final double occupancy)
+		{
+			// this method may NOT be synchronized for the same reasons as internalCleanUp.
+			
+			final double clearRatio = Math.min(1.0, (occupancy - this.targetUsage) / occupancy);
+			if(clearRatio <= 0.0)
+			{
+				return;
+			}
+			
+			final Entry currentTail;
+			synchronized(this)
+			{
+				currentTail = this.tail;
+			}
+			
+			// collect all clearable references, removing orphan entries on the way (except the tail, see above).
+			// references the checker does not allow to be cleared (e.g. pinned ones) are skipped.
+			final BulkList<Lazy<?>> loaded = BulkList.New();
+			for(Entry last = this.head, e; last != currentTail && (e = last.nextLazyManagerEntry) != null;)
+			{
+				final Lazy<?> ref = e.get();
+				if(ref == null && e != currentTail)
+				{
+					last.nextLazyManagerEntry = e.nextLazyManagerEntry;
+					continue;
+				}
+				if(ref != null && ref.isStored() && ref.isLoaded() && this.checker.isClearable(ref))
+				{
+					loaded.add(ref);
+				}
+				last = e;
+			}
+			
+			final int loadedCount = loaded.intSize();
+			if(loadedCount == 0)
+			{
+				return;
+			}
+			
+			/*
+			 * Snapshot of the coldness of every reference, since touch timestamps can change concurrently.
+			 * The coldness is the age weighted by the retained size, so big and cold subjects are cleared first.
+			 * Subjects of unknown size are weighted like one byte, so they are cleared in LRU order.
+			 */
+			final long     now      = System.currentTimeMillis();
+			final double[] coldness = new double[loadedCount];
+			for(int i = 0; i < loadedCount; i++)
+			{
+				final Lazy<?> ref = loaded.at(i);
+				coldness[i] = (double)Math.max(now - ref.lastTouched(), 1) * Math.max(ref.retainedSize(), 1);
+			}
+			
+			// the coldest references down to the coldness of the last one to be cleared are cleared.
+			final int      clearCount = Math.max(1, (int)(loadedCount * clearRatio));
+			final double[] sorted     = coldness.clone();
+			Arrays.sort(sorted);
+			final double   threshold  = sorted[loadedCount - clearCount];
+			
+			int clearedCount = 0;
+			for(int i = 0; i < loadedCount && clearedCount < clearCount; i++)
+			{
+				if(coldness[i] >= threshold && loaded.at(i).clear(PRESSURE_CLEARER))
+				{
+					clearedCount++;
+				}
+			}
+			
+			logger.debug(
+				"Memory pressure ({} occupancy): cleared {} of {} loaded lazy references",
+				occupancy,
+				clearedCount,
+				loadedCount
+			);
+		}
 
 
 
@@ -504,7 +665,18 @@ public interface LazyReferenceManager
 			if(!this.running && this.mayRun())
 			{
 				this.running = true;
-				new LazyReferenceCleanupThread(new WeakReference<>(this), this.millitimeCheckIntervalProvider).start();
+				if(this.memoryPressureMonitor != null)
+				{
+					new LazyReferenceMemoryPressureThread(
+						new WeakReference<>(this),
+						this.memoryPressureMonitor,
+						this.millitimeCheckIntervalProvider
+					).start();
+				}
+				else
+				{
+					new LazyReferenceCleanupThread(new WeakReference<>(this), this.millitimeCheckIntervalProvider).start();
+				}
 			}
 			
 			return this;
@@ -703,6 +875,82 @@ public interface LazyReferenceManager
 		}
 
 
+		static final class LazyReferenceMemoryPressureThread extends Thread
+		{
+			// lazy reference for automatic thread termination
+			private final WeakReference<LazyReferenceManager.Default> parent               ;
+			private final MemoryPressureMonitor                       monitor              ;
+			private final _longReference                              checkIntervalProvider;
+
+			LazyReferenceMemoryPressureThread(
+				final WeakReference<LazyReferenceManager.Default> parent               ,
+				final MemoryPressureMonitor                       monitor              ,
+				final _longReference                              checkIntervalProvider
+			)
+			{
+				super(LazyReferenceManager.class.getSimpleName() + '@' + System.identityHashCode(parent));
+				this.parent                = parent               ;
+				this.monitor               = monitor              ;
+				this.checkIntervalProvider = checkIntervalProvider;
+			}
+
+
+			@Override
+			public void run()
+			{
+				logger.debug("LazyReferenceManager started (memory pressure driven)");
+				
+				this.monitor.start();
+				try
+				{
+					LazyReferenceManager.Default parent;
+					while((parent = this.parent.get()) != null)
+					{
+						try
+						{
+							// check for running state. Must be the first action in case of swallowed exception
+							if(!parent.isRunning())
+							{
+								break;
+							}
+							
+							// must clear the reference from the stack while waiting for the WeakReference to work
+							parent = null;
+							
+							/*
+							 * The check interval only limits how long it takes to notice a stopped or collected
+							 * manager. No references are checked unless memory pressure is signaled.
+							 */
+							final double occupancy = this.monitor.awaitPressure(this.checkIntervalProvider.get());
+							if(occupancy > 0.0 && (parent = this.parent.get()) != null && parent.isRunning())
+							{
+								parent.cleanUpByMemoryPressure(occupancy);
+							}
+							parent = null;
+						}
+						catch(final InterruptedException e)
+						{
+							// waiting interrupted, proceed with the next iteration immediately
+						}
+						catch(final Exception e)
+						{
+							/*
+							 * Thread may not die on any exception, just continue looping
+							 * as long as parent exists and running is true
+							 */
+						}
+					}
+				}
+				finally
+				{
+					this.monitor.stop();
+				}
+				
+				logger.debug("LazyReferenceManager stopped");
+			}
+		}
+
+
 		static final class Entry extends WeakReference<Lazy<?>>
 		{
 			Entry nextLazyManagerEntry; // explicit naming to avoid ambiguity with WeakReference's field
@@ -0,0 +1,303 @@
+package one.microstream.reference;
+
+/*-
+ * #%L
+ * microstream-base
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+
+import java.util.Arrays;
+
+import one.microstream.collections.HashTable;
+
+/**
+ * A {@link Lazy.Checker} applying {@link LazyRetentionPolicy} instances per subject type and deferring to a
+ * fallback checker for all other subjects. If a policy applies to a subject, it alone decides about clearing it.
+ * <p>
+ * The policy of a subject is the one registered for its class or, if there is none, for its nearest superclass.
+ * <p>
+ * Maximum sizes are enforced per check pass (see {@link Lazy.Checker#endCheckPass()}): every pass sums up the
+ * {@link Lazy#retainedSize()} of the loaded subjects of each policy in a histogram of their "coldness", being
+ * the product of size and age. If a pass ends with the maximum size exceeded, the next pass clears the subjects
+ * from the coldest histogram buckets on down until the excess is cleared. So the biggest and coldest subjects
+ * are cleared first and the clearing only needs constant memory per policy.
+ */
+public interface LazyRetentionChecker extends Lazy.Checker
+{
+	public LazyRetentionChecker setPolicy(Class<?> subjectType, LazyRetentionPolicy policy);
+	
+	public boolean removePolicy(Class<?> subjectType);
+	
+	public LazyRetentionPolicy lookupPolicy(Class<?> subjectType);
+	
+	
+	
+	public static LazyRetentionChecker New()
+	{
+		return New(Lazy.Checker());
+	}
+	
+	public static LazyRetentionChecker New(final Lazy.Checker fallbackChecker)
+	{
+		return new LazyRetentionChecker.Default(
+			notNull(fallbackChecker)
+		);
+	}
+	
+	
+	
+	public final class Default implements LazyRetentionChecker
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// constants //
+		//////////////
+		
+		// only stored and loaded references are passed to an evaluator, which are exactely the clearable ones.
+		private static final Lazy.ClearingEvaluator CLEARER = lazyReference -> true;
+		
+		// sum of two binary logarithms of positive long values (size and age), see #coldness.
+		static final int COLDNESS_BUCKET_COUNT = 2 * Long.SIZE + 1;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private final Lazy.Checker                  fallbackChecker                   ;
+		private final HashTable<Class<?>, Policy>   policies         = HashTable.New();
+		private final HashTable<Class<?>, Policy[]> resolvedPolicies = HashTable.New();
+		private       long                          cycleStartMs                      ;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		Default(final Lazy.Checker fallbackChecker)
+		{
+			super();
+			this.fallbackChecker = fallbackChecker;
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		@Override
+		public final synchronized LazyRetentionChecker setPolicy(
+			final Class<?>            subjectType,
+			final LazyRetentionPolicy policy
+		)
+		{
+			this.policies.put(notNull(subjectType), new Policy(notNull(policy)));
+			this.resolvedPolicies.clear();
+			
+			return this;
+		}
+		
+		@Override
+		public final synchronized boolean removePolicy(final Class<?> subjectType)
+		{
+			if(this.policies.removeFor(subjectType) == null)
+			{
+				return false;
+			}
+			this.resolvedPolicies.clear();
+			
+			return true;
+		}
+		
+		@Override
+		public final synchronized LazyRetentionPolicy lookupPolicy(final Class<?> subjectType)
+		{
+			final Policy policy = this.resolve(subjectType);
+			
+			return policy == null
+				? null
+				: policy.policy
+			;
+		}
+		
+		private synchronized Policy resolve(final Class<?> subjectType)
+		{
+			// the array wrapper caches unregistered types, too.
+			Policy[] resolved = this.resolvedPolicies.get(subjectType);
+			if(resolved == null)
+			{
+				Policy policy = null;
+				for(Class<?> c = subjectType; c != null && policy == null; c = c.getSuperclass())
+				{
+					policy = this.policies.get(c);
+				}
+				this.resolvedPolicies.add(subjectType, resolved = new Policy[]{policy});
+			}
+			
+			return resolved[0];
+		}
+		
+		static int coldness(final long size, final long age)
+		{
+			// logarithmic product of size and age, can neither overflow nor be negative
+			return Long.SIZE - Long.numberOfLeadingZeros(Math.max(size, 0))
+				+ Long.SIZE - Long.numberOfLeadingZeros(Math.max(age, 0))
+			;
+		}
+		
+		@Override
+		public final void beginCheckCycle()
+		{
+			this.cycleStartMs = System.currentTimeMillis();
+			this.fallbackChecker.beginCheckCycle();
+		}
+		
+		@Override
+		public final boolean check(final Lazy<?> lazyReference)
+		{
+			final Object subject = lazyReference.peek();
+			final Policy policy;
+			if(subject == null || (policy = this.resolve(subject.getClass())) == null)
+			{
+				return this.fallbackChecker.check(lazyReference);
+			}
+			
+			if(policy.policy.isPinned())
+			{
+				return false;
+			}
+			
+			final long lastTouched = lazyReference.lastTouched();
+			if(this.cycleStartMs - lastTouched > policy.policy.timeoutMs())
+			{
+				return lazyReference.clear(CLEARER);
+			}
+			
+			if(policy.policy.maximumSize() == LazyRetentionPolicy.noLimit())
+			{
+				return false;
+			}
+			
+			final long retainedSize = lazyReference.retainedSize();
+			final int  coldness     = coldness(retainedSize, this.cycleStartMs - lastTouched);
+			if(policy.isToBeCleared(coldness) && lazyReference.clear(CLEARER))
+			{
+				policy.registerClearing(retainedSize);
+				return true;
+			}
+			
+			// only subjects that are still loaded count towards the maximum size.
+			policy.registerRetained(coldness, retainedSize);
+			
+			return false;
+		}
+		
+		@Override
+		public final boolean isClearable(final Lazy<?> lazyReference)
+		{
+			final Object subject = lazyReference.peek();
+			final Policy policy;
+			if(subject == null || (policy = this.resolve(subject.getClass())) == null)
+			{
+				return this.fallbackChecker.isClearable(lazyReference);
+			}
+			
+			return !policy.policy.isPinned();
+		}
+		
+		@Override
+		public final void endCheckCycle()
+		{
+			this.fallbackChecker.endCheckCycle();
+		}
+		
+		@Override
+		public final void endCheckPass()
+		{
+			synchronized(this)
+			{
+				for(final Policy policy : this.policies.values())
+				{
+					policy.endPass();
+				}
+			}
+			this.fallbackChecker.endCheckPass();
+		}
+		
+		
+		
+		// only used by the checking thread, except for the registration.
+		static final class Policy
+		{
+			final LazyRetentionPolicy policy;
+			
+			// bytes retained per coldness bucket in the current pass
+			final long[] retained = new long[COLDNESS_BUCKET_COUNT];
+			      long   retainedTotal;
+			
+			// clearing for the current pass, derived from the previous pass
+			int  clearingColdness = COLDNESS_BUCKET_COUNT;
+			long excess          ;
+			
+			Policy(final LazyRetentionPolicy policy)
+			{
+				super();
+				this.policy = policy;
+			}
+			
+			final boolean isToBeCleared(final int coldness)
+			{
+				return this.excess > 0 && coldness >= this.clearingColdness;
+			}
+			
+			final void registerClearing(final long retainedSize)
+			{
+				// a subject of unknown size counts as one byte to guarantee progress
+				this.excess -= Math.max(retainedSize, 1);
+			}
+			
+			final void registerRetained(final int coldness, final long retainedSize)
+			{
+				this.retained[coldness] += retainedSize;
+				this.retainedTotal      += retainedSize;
+			}
+			
+			final void endPass()
+			{
+				final long excess = this.retainedTotal - this.policy.maximumSize();
+				this.excess           = Math.max(excess, 0);
+				this.clearingColdness = COLDNESS_BUCKET_COUNT;
+				
+				// determine the coldness from which on the coldest subjects make up for the excess
+				for(long sum = 0; sum < excess && this.clearingColdness > 0;)
+				{
+					sum += this.retained[--this.clearingColdness];
+				}
+				
+				Arrays.fill(this.retained, 0);
+				this.retainedTotal = 0;
+			}
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,160 @@
+package one.microstream.reference;
+
+/*-
+ * #%L
+ * microstream-base
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+/**
+ * A retention policy for the subjects of {@link Lazy} references of a certain type,
+ * applied by a {@link LazyRetentionChecker}.
+ * <p>
+ * A policy can either pin the subjects, meaning they are never cleared automatically, or limit their retention by:
+ * <ul>
+ * <li>a timeout after which an untouched subject is cleared,</li>
+ * <li>a maximum total {@link Lazy#retainedSize()} of all loaded subjects of the type. If it is exceeded,
+ * the biggest and coldest subjects are cleared first.</li>
+ * </ul>
+ */
+public interface LazyRetentionPolicy
+{
+	/**
+	 * @return whether the subjects are never cleared automatically.
+	 */
+	public boolean isPinned();
+	
+	/**
+	 * @return the time in milliseconds after which an untouched subject is cleared or {@link Long#MAX_VALUE}.
+	 */
+	public long timeoutMs();
+	
+	/**
+	 * @return the maximum total retained size in bytes of all loaded subjects or {@link Long#MAX_VALUE}.
+	 */
+	public long maximumSize();
+	
+	
+	
+	public static long noLimit()
+	{
+		return Long.MAX_VALUE;
+	}
+	
+	public static LazyRetentionPolicy Pinned()
+	{
+		return new LazyRetentionPolicy.Default(true, noLimit(), noLimit());
+	}
+	
+	public static LazyRetentionPolicy Timeout(final long timeoutMs)
+	{
+		return New(timeoutMs, noLimit());
+	}
+	
+	public static LazyRetentionPolicy MaximumSize(final long maximumSize)
+	{
+		return New(noLimit(), maximumSize);
+	}
+	
+	public static LazyRetentionPolicy New(
+		final long timeoutMs  ,
+		final long maximumSize
+	)
+	{
+		return new LazyRetentionPolicy.Default(
+			false,
+			Lazy.Checker.validateTimeout(timeoutMs),
+			validateMaximumSize(maximumSize)
+		);
+	}
+	
+	public static long validateMaximumSize(final long maximumSize)
+	{
+		if(maximumSize >= 0)
+		{
+			return maximumSize;
+		}
+		
+		throw new IllegalArgumentException("Maximum size may not be negative: " + maximumSize);
+	}
+	
+	
+	
+	public final class Default implements LazyRetentionPolicy
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private final boolean pinned     ;
+		private final long    timeoutMs  ;
+		private final long    maximumSize;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		Default(
+			final boolean pinned     ,
+			final long    timeoutMs  ,
+			final long    maximumSize
+		)
+		{
+			super();
+			this.pinned      = pinned     ;
+			this.timeoutMs   = timeoutMs  ;
+			this.maximumSize = maximumSize;
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		@Override
+		public final boolean isPinned()
+		{
+			return this.pinned;
+		}
+		
+		@Override
+		public final long timeoutMs()
+		{
+			return this.timeoutMs;
+		}
+		
+		@Override
+		public final long maximumSize()
+		{
+			return this.maximumSize;
+		}
+		
+		@Override
+		public String toString()
+		{
+			return this.pinned
+				? "pinned"
+				: "timeout " + this.timeoutMs + " ms, maximum size " + this.maximumSize + " bytes"
+			;
+		}
+		
+	}
+	
+}
@@ -20,6 +20,9 @@ package one.microstream.reference;
  * #L%
  */
 
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
 public interface ObjectSwizzling
 {
 	/**
@@ -32,4 +35,46 @@ public interface ObjectSwizzling
 	 * @return the instance associated with the passed {@literal objectId}.
 	 */
 	public Object getObject(long objectId);
+	
+	/**
+	 * Retrieves the instance associated with the passed {@literal objectId} like {@link #getObject(long)} and
+	 * additionally reports the number of persisted bytes that had to be loaded for it to the passed
+	 * {@literal loadedLengthReceiver}. That length is a rough estimate of the memory retained by the instance
+	 * and all the instances that have been loaded along with it.<br>
+	 * Nothing is reported if the instance was already present or if the implementation cannot determine the length,
+	 * which is the case for the default implementation.
+	 * 
+	 * @param objectId the {@literal objectId} defining which instance to return.
+	 * @param loadedLengthReceiver the receiver of the number of loaded bytes.
+	 * 
+	 * @return the instance associated with the passed {@literal objectId}.
+	 */
+	public default Object getObject(final long objectId, final LongConsumer loadedLengthReceiver)
+	{
+		return this.getObject(objectId);
+	}
+	
+	/**
+	 * Retrieves the instances associated with the passed {@literal objectIds} and passes them to the passed
+	 * collector in the order of the passed {@literal objectIds}.<br>
+	 * Implementations backed by a persistent data source should retrieve all instances that are not yet
+	 * present in one request instead of one request per {@literal objectId}.
+	 * The default implementation simply calls {@link #getObject(long)} for every {@literal objectId}.
+	 * 
+	 * @param <C> the type of the collector.
+	 * @param collector the collector to pass the retrieved instances to.
+	 * @param objectIds the {@literal objectIds} defining which instances to retrieve.
+	 * 
+	 * @return the passed collector.
+	 */
+	public default <C extends Consumer<Object>> C collect(final C collector, final long... objectIds)
+	{
+		for(final long objectId : objectIds)
+		{
+			collector.accept(this.getObject(objectId));
+		}
+		
+		return collector;
+	}
+	
 }
@@ -301,6 +301,25 @@ public final class XReflect
 		return java.lang.Enum.class.isAssignableFrom(c);
 	}
 
+	/**
+	 * Tests if the passed {@link Class} is a record class, i.e. a direct sub class of {@code java.lang.Record}.
+	 * <p>
+	 * This is equivalent to {@code Class#isRecord()}, but does not require a Java version that knows records.
+	 * On older Java versions, this method simply always returns {@literal false}.
+	 *
+	 * @param c the {@link Class} to be tested.
+	 *
+	 * @return whether the passed {@link Class} is a record class.
+	 */
+	public static boolean isRecord(final Class<?> c)
+	{
+		final Class<?> superclass = c.getSuperclass();
+
+		return superclass != null
+			&& "java.lang.Record".equals(superclass.getName())
+		;
+	}
+
 	public static boolean isDeclaredEnum(final Class<?> c)
 	{
 		return c != null && c.isEnum();
@@ -26,12 +26,15 @@ import static one.microstream.X.notNull;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -52,6 +55,7 @@ import javax.cache.event.CacheEntryRemovedListener;
 import javax.cache.event.CacheEntryUpdatedListener;
 import javax.cache.event.EventType;
 import javax.cache.expiry.Duration;
+import javax.cache.expiry.EternalExpiryPolicy;
 import javax.cache.expiry.ExpiryPolicy;
 import javax.cache.integration.CacheLoader;
 import javax.cache.integration.CacheLoaderException;
@@ -181,21 +185,28 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 	{
 		private final static Logger logger = Logging.getLogger(Default.class);
 		
+		// the finest granularity of the expiry wheel is about one second
+		private final static long   EXPIRY_INTERVAL_MILLIS = 1000L;
+		private final static int    EXPIRY_BATCH_SIZE      = 128;
+		
 		private final String                                      name                    ;
 		private final CacheManager                                manager                 ;
 		private final CacheConfiguration<K, V>                    configuration           ;
 		private final CacheValueValidator                         keyValidator            ;
 		private final CacheValueValidator                         valueValidator          ;
 		private final ObjectConverter                             objectConverter         ;
+		private final OffHeapTier                                 offHeapTier             ;
 		private final CacheLoader<K, V>                           cacheLoader             ;
 		private final CacheWriter<K, V>                           cacheWriter             ;
+		private final CacheStore<K, V>                            cacheStore              ;
 		private final ExpiryPolicy                                expiryPolicy            ;
 		private final EvictionManager<K, V>                       evictionManager         ;
 		private final CacheTable                                  cacheTable              ;
+		private final ExpiryWheel                                 expiryWheel             ;
 		private final XList<CacheEntryListenerRegistration<K, V>> listenerRegistrations   ;
 		private final ExecutorService                             executorService         ;
 		private final CacheConfigurationMXBean                    cacheConfigurationMXBean;
-		private final CacheStatisticsMXBean                       cacheStatisticsMXBean   ;
+		private final CacheStatisticsMXBean.Default               cacheStatisticsMXBean   ;
 		private final AtomicBoolean                               isStatisticsEnabled     = new AtomicBoolean();
 		private final AtomicBoolean                               isClosed                = new AtomicBoolean();
 
@@ -229,6 +240,12 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				: ObjectConverter.ByReference()
 			;
 
+			final Factory<OffHeapTier> offHeapTierFactory = configuration.getOffHeapTierFactory();
+			this.offHeapTier = configuration.isStoreByValue() && offHeapTierFactory != null
+				? offHeapTierFactory.create()
+				: null
+			;
+
 			final Factory<ExpiryPolicy> expiryPolicyFactory = coalesce(
 				configuration.getExpiryPolicyFactory(),
 				CacheConfiguration.DefaultExpiryPolicyFactory()
@@ -247,22 +264,51 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				: null
 			;
 
-			final Factory<CacheLoader<K, V>> cacheLoaderFactory;
-			this.cacheLoader = (cacheLoaderFactory = configuration.getCacheLoaderFactory()) != null
+			final Factory<CacheLoader<K, V>> cacheLoaderFactory = configuration.getCacheLoaderFactory();
+			final CacheLoader<K, V>          cacheLoader        = cacheLoaderFactory != null
 				? cacheLoaderFactory.create()
 				: null
 			;
 
-			final Factory<CacheWriter<? super K, ? super V>> cacheWriterFactory;
-			this.cacheWriter = (cacheWriterFactory = configuration.getCacheWriterFactory()) != null
+			final Factory<CacheWriter<? super K, ? super V>> cacheWriterFactory = configuration.getCacheWriterFactory();
+			final CacheWriter<K, V>                          cacheWriter        = cacheWriterFactory != null
 				? (CacheWriter<K, V>)cacheWriterFactory.create()
 				: null
 			;
 
+			final WriteBehind writeBehind;
+			if(cacheWriter != null && configuration.isWriteThrough()
+				&& (writeBehind = configuration.getWriteBehind()) != null)
+			{
+				final WriteBehindCacheWriter<K, V> writeBehindWriter =
+					WriteBehindCacheWriter.New(cacheWriter, writeBehind)
+				;
+				this.cacheWriter = writeBehindWriter;
+				// loads have to see the changes which are not yet written
+				this.cacheLoader = cacheLoader != null
+					? writeBehindWriter.loader(cacheLoader)
+					: null
+				;
+			}
+			else
+			{
+				this.cacheWriter = cacheWriter;
+				this.cacheLoader = cacheLoader;
+			}
+			this.cacheStore = cacheLoader instanceof CacheStore
+				? (CacheStore<K, V>)cacheLoader
+				: null
+			;
+
 			this.keyValidator   = CacheValueValidator.New("key",   configuration.getKeyType()  );
 			this.valueValidator = CacheValueValidator.New("value", configuration.getValueType());
 
 			this.cacheTable               = CacheTable.New();
+			// eternal entries are never scheduled, so the wheel is only needed for expiring policies
+			this.expiryWheel              = this.expiryPolicy != null && !(this.expiryPolicy instanceof EternalExpiryPolicy)
+				? ExpiryWheel.New()
+				: null
+			;
 			this.listenerRegistrations    = X.synchronize(BulkList.New());
 			this.executorService          = Executors.newFixedThreadPool(1);
 			this.cacheConfigurationMXBean = new CacheConfigurationMXBean.Default(this.configuration);
@@ -285,6 +331,11 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			{
 				this.evictionManager.install(this, this.cacheTable);
 			}
+			if(this.expiryWheel != null)
+			{
+				this.cacheTable.scheduleExpiries(this.expiryWheel);
+				new ExpiryThread(new WeakReference<>(this)).start();
+			}
 			
 			logger.debug(
 				"MicroStream Cache '{}' created with following configuration:\n{}",
@@ -414,6 +465,11 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				throw new CacheException(e);
 			}
 
+			// closed before the table is cleared, so the removed values aren't copied back to the heap
+			if(this.offHeapTier != null)
+			{
+				this.offHeapTier.close();
+			}
 			this.cacheTable.clear();
 			
 			logger.debug("MicroStream Cache '{}' closed", this.name);
@@ -422,10 +478,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 		@Override
 		public long size()
 		{
-			synchronized(this.cacheTable)
-			{
-				return this.cacheTable.size();
-			}
+			return this.cacheTable.size();
 		}
 
 		@Override
@@ -455,20 +508,74 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 
 			keys.forEach(this.keyValidator::validate);
 
+			final boolean isStatisticsEnabled = this.isStatisticsEnabled.get();
+			final long    start               = isStatisticsEnabled
+				? System.nanoTime()
+				: 0;
+
+			final long                       now             = System.currentTimeMillis();
 			final HashMap<K, V>              result          = new HashMap<>(keys.size());
 			final CacheEventDispatcher<K, V> eventDispatcher = this.listenerRegistrations.size() > 0L
 				? CacheEventDispatcher.New()
 				: null;
 
-			for(final K key : keys)
+			final List<K>  externalKeys  = new ArrayList<>(keys);
+			final Object[] internalKeys  = this.internalizeKeys(externalKeys);
+			final Object[] missingKeys   = new Object[internalKeys.length];
+			final long[]   creationTimes = new long[internalKeys.length];
+			int            missCount     = 0;
+
+			for(final Map.Entry<Object, List<Integer>> group : this.groupByLock(internalKeys).entrySet())
 			{
-				V value;
-				if((value = this.getValue(key, eventDispatcher, null)) != null)
+				synchronized(group.getKey())
 				{
-					result.put(key, value);
+					for(final int i : group.getValue())
+					{
+						final K           key         = externalKeys.get(i);
+						final Object      internalKey = internalKeys[i];
+						final CachedValue cachedValue = this.cacheTable.get(internalKey);
+
+						if(cachedValue == null || cachedValue.isExpiredAt(now))
+						{
+							creationTimes[i] = now;
+							if(cachedValue != null)
+							{
+								this.processExpiries(
+									key,
+									internalKey,
+									eventDispatcher,
+									this.objectConverter.externalize(cachedValue.value())
+								);
+								creationTimes[i] = cachedValue.creationTime();
+							}
+							missingKeys[i] = internalKey;
+							missCount++;
+						}
+						else
+						{
+							result.put(key, this.objectConverter.externalize(cachedValue.value(now)));
+							this.updateExpiryForAccess(internalKey, cachedValue, now);
+							this.cacheTable.access(internalKey, cachedValue);
+						}
+					}
 				}
 			}
 
+			if(isStatisticsEnabled)
+			{
+				this.cacheStatisticsMXBean.increaseCacheHits(result.size());
+				this.cacheStatisticsMXBean.increaseCacheMisses(missCount);
+			}
+
+			if(missCount > 0 && this.cacheLoader != null && this.configuration.isReadThrough())
+			{
+				this.loadMissingValues(externalKeys, missingKeys, creationTimes, now, result, eventDispatcher);
+			}
+
+			if(isStatisticsEnabled)
+			{
+				this.cacheStatisticsMXBean.addGetTimeNano(System.nanoTime() - start);
+			}
 			if(eventDispatcher != null)
 			{
 				eventDispatcher.dispatch(this.listenerRegistrations);
@@ -477,6 +584,186 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			return result;
 		}
 
+		/*
+		 * Loads all missing values with one call to the loader, which is done without holding any entry locks,
+		 * and puts them afterwards, unless they have been put concurrently.
+		 */
+		private void loadMissingValues(
+			final List<K>                    externalKeys   ,
+			final Object[]                   missingKeys    ,
+			final long[]                     creationTimes  ,
+			final long                       now            ,
+			final Map<K, V>                  result         ,
+			final CacheEventDispatcher<K, V> eventDispatcher
+		)
+		{
+			final List<K> keysToLoad = new ArrayList<>();
+			for(int i = 0; i < missingKeys.length; i++)
+			{
+				if(missingKeys[i] != null)
+				{
+					keysToLoad.add(externalKeys.get(i));
+				}
+			}
+
+			final Map<? extends K, ? extends V> loaded = this.loadCacheEntries(keysToLoad);
+
+			for(final Map.Entry<Object, List<Integer>> group : this.groupByLock(missingKeys).entrySet())
+			{
+				synchronized(group.getKey())
+				{
+					for(final int i : group.getValue())
+					{
+						final K key   = externalKeys.get(i);
+						final V value = loaded.get(key);
+						if(value == null)
+						{
+							continue;
+						}
+
+						final Object      internalKey = missingKeys[i];
+						final CachedValue existing    = this.cacheTable.get(internalKey);
+						if(existing != null && !existing.isExpiredAt(now))
+						{
+							result.put(key, this.objectConverter.externalize(existing.value()));
+							continue;
+						}
+
+						final CachedValue cachedValue = this.newCachedValue(
+							this.objectConverter.internalize(value),
+							creationTimes[i],
+							this.expiryForCreation().getAdjustedTime(creationTimes[i])
+						);
+						if(!cachedValue.isExpiredAt(now))
+						{
+							this.putValue(
+								key,
+								value,
+								internalKey,
+								cachedValue,
+								eventDispatcher
+							);
+							result.put(key, value);
+						}
+					}
+				}
+			}
+		}
+
+		private List<K> absentKeys(final Set<? extends K> keys)
+		{
+			final long     now          = System.currentTimeMillis();
+			final List<K>  externalKeys = new ArrayList<>(keys);
+			final Object[] internalKeys = this.internalizeKeys(externalKeys);
+			final List<K>  absentKeys   = new ArrayList<>();
+
+			for(final Map.Entry<Object, List<Integer>> group : this.groupByLock(internalKeys).entrySet())
+			{
+				synchronized(group.getKey())
+				{
+					for(final int i : group.getValue())
+					{
+						final CachedValue cachedValue = this.cacheTable.get(internalKeys[i]);
+						if(cachedValue == null || cachedValue.isExpiredAt(now))
+						{
+							absentKeys.add(externalKeys.get(i));
+						}
+					}
+				}
+			}
+
+			return absentKeys;
+		}
+
+		private Object[] internalizeKeys(final List<K> keys)
+		{
+			final Object[] internalKeys = new Object[keys.size()];
+			for(int i = 0; i < internalKeys.length; i++)
+			{
+				internalKeys[i] = this.objectConverter.internalize(keys.get(i));
+			}
+
+			return internalKeys;
+		}
+
+		/*
+		 * Groups the positions of the keys by the lock which guards them, so bulk operations acquire each lock
+		 * only once. Null keys are skipped.
+		 */
+		private IdentityHashMap<Object, List<Integer>> groupByLock(final Object[] internalKeys)
+		{
+			final IdentityHashMap<Object, List<Integer>> groups = new IdentityHashMap<>();
+			for(int i = 0; i < internalKeys.length; i++)
+			{
+				if(internalKeys[i] != null)
+				{
+					groups.computeIfAbsent(this.cacheTable.lockFor(internalKeys[i]), lock -> new ArrayList<>()).add(i);
+				}
+			}
+
+			return groups;
+		}
+
+		/*
+		 * Calls the writer for the passed entries, leaving the ones not written in the collection,
+		 * and returns its exception, if any.
+		 */
+		private CacheWriterException writeAll(final Collection<Cache.Entry<? extends K, ? extends V>> entries)
+		{
+			try
+			{
+				this.cacheWriter.writeAll(entries);
+				return null;
+			}
+			catch(final CacheWriterException e)
+			{
+				return e;
+			}
+			catch(final Exception e)
+			{
+				return new CacheWriterException(e);
+			}
+		}
+
+		/*
+		 * Calls the writer for the passed keys, leaving the ones not deleted in the collection,
+		 * and returns its exception, if any.
+		 */
+		private CacheWriterException deleteAll(final Collection<K> keys)
+		{
+			try
+			{
+				this.cacheWriter.deleteAll(keys);
+				return null;
+			}
+			catch(final CacheWriterException e)
+			{
+				return e;
+			}
+			catch(final Exception e)
+			{
+				return new CacheWriterException(e);
+			}
+		}
+
+		/*
+		 * Bulk operations call the writer once per lock, so the first exception is thrown
+		 * with all further ones suppressed by it.
+		 */
+		private static <E extends CacheException> E collectException(final E exception, final E newException)
+		{
+			if(exception == null)
+			{
+				return newException;
+			}
+			if(newException != null)
+			{
+				exception.addSuppressed(newException);
+			}
+
+			return exception;
+		}
+
 		@Override
 		public boolean containsKey(final K key)
 		{
@@ -487,7 +774,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			final Object internalKey = this.objectConverter.internalize(key);
 			final long   now         = System.currentTimeMillis();
 
-			synchronized(this.cacheTable)
+			synchronized(this.cacheTable.lockFor(internalKey))
 			{
 				final CachedValue cachedValue = this.cacheTable.get(internalKey);
 				return cachedValue != null && !cachedValue.isExpiredAt(now);
@@ -523,38 +810,23 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 		{
 			try
 			{
-				final ArrayList<K> keysToLoad = new ArrayList<>();
-				for(final K key : keys)
-				{
-					if(replaceExistingValues || !this.containsKey(key))
-					{
-						keysToLoad.add(key);
-					}
-				}
-
-				Map<? extends K, ? extends V> loaded;
-				try
-				{
-					loaded = this.cacheLoader.loadAll(keysToLoad);
-				}
-				catch(final CacheLoaderException e)
-				{
-					throw e;
-				}
-				catch(final Exception e)
-				{
-					throw new CacheLoaderException(e);
-				}
+				final List<K> keysToLoad = replaceExistingValues
+					? new ArrayList<>(keys)
+					: this.absentKeys(keys)
+				;
 
+				final Map<? extends K, ? extends V> loaded = this.loadCacheEntries(keysToLoad);
+				final Map<K, V>                     toPut  = new HashMap<>(keysToLoad.size());
 				for(final K key : keysToLoad)
 				{
-					if(loaded.get(key) == null)
+					final V value;
+					if((value = loaded.get(key)) != null)
 					{
-						loaded.remove(key);
+						toPut.put(key, value);
 					}
 				}
 
-				this.putAll(loaded, replaceExistingValues, false);
+				this.putAll(toPut, replaceExistingValues, false);
 
 				if(completionListener != null)
 				{
@@ -592,7 +864,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			final Object                     internalKey         = objectConverter.internalize(key);
 			final Object                     internalValue       = objectConverter.internalize(value);
 
-			synchronized(this.cacheTable)
+			synchronized(this.cacheTable.lockFor(internalKey))
 			{
 				CachedValue   cachedValue = this.cacheTable.get(internalKey);
 				final boolean isExpired   = cachedValue != null && cachedValue.isExpiredAt(now);
@@ -611,7 +883,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 
 				if(cachedValue == null || isExpired)
 				{
-					cachedValue = CachedValue.New(
+					cachedValue = this.newCachedValue(
 						internalValue,
 						now,
 						this.expiryForCreation().getAdjustedTime(now)
@@ -644,9 +916,10 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				{
 					final V oldValue = objectConverter.externalize(cachedValue.value(now));
 
-					this.updateExpiryForUpdate(cachedValue, now);
+					this.updateExpiryForUpdate(internalKey, cachedValue, now);
 
 					cachedValue.value(internalValue, now);
+					this.cacheTable.access(internalKey, cachedValue);
 					this.writeCacheEntry(entry);
 					putCount++;
 
@@ -694,7 +967,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			final Object                     internalKey         = this.objectConverter.internalize(key);
 			final Object                     internalValue       = this.objectConverter.internalize(value);
 
-			synchronized(this.cacheTable)
+			synchronized(this.cacheTable.lockFor(internalKey))
 			{
 				CachedValue   cachedValue = this.cacheTable.get(internalKey);
 				final boolean isExpired   = cachedValue != null && cachedValue.isExpiredAt(now);
@@ -715,7 +988,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				{
 					result = null;
 
-					cachedValue = CachedValue.New(
+					cachedValue = this.newCachedValue(
 						internalValue,
 						now,
 						this.expiryForCreation().getAdjustedTime(now)
@@ -747,9 +1020,10 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				{
 					final V oldValue = result = this.objectConverter.externalize(cachedValue.value(now));
 
-					this.updateExpiryForUpdate(cachedValue, now);
+					this.updateExpiryForUpdate(internalKey, cachedValue, now);
 
 					cachedValue.value(internalValue, now);
+					this.cacheTable.access(internalKey, cachedValue);
 					this.writeCacheEntry(entry);
 					putCount++;
 
@@ -815,123 +1089,132 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				: null;
 			CacheWriterException             exception           = null;
 
-			synchronized(this.cacheTable)
+			final boolean isWriteThrough = this.cacheWriter != null
+				&& this.configuration.isWriteThrough() && useWriteThrough;
+
+			// converted in one pass, outside of the locks, and each lock is acquired once for all of its keys
+			final List<K>  externalKeys   = new ArrayList<>(map.keySet());
+			final Object[] internalKeys   = this.internalizeKeys(externalKeys);
+			final Object[] internalValues = new Object[internalKeys.length];
+			for(int i = 0; i < internalValues.length; i++)
 			{
-				final boolean isWriteThrough = this.cacheWriter != null
-					&& this.configuration.isWriteThrough() && useWriteThrough;
+				internalValues[i] = this.objectConverter.internalize(map.get(externalKeys.get(i)));
+			}
 
-				final Collection<Cache.Entry<? extends K, ? extends V>> entriesToWrite = new ArrayList<>();
-				final HashSet<K>                                        keysToPut      = new HashSet<>();
-				for(final Map.Entry<? extends K, ? extends V> entry : map.entrySet())
+			/*
+			 * Bulk operations are not atomic as a whole, but the writer is called for the entries of each lock
+			 * while holding it, so concurrent operations on the same entries cannot interleave the writing
+			 * and the updating of the cached values.
+			 */
+			for(final Map.Entry<Object, List<Integer>> group : this.groupByLock(internalKeys).entrySet())
+			{
+				synchronized(group.getKey())
 				{
-					final K key   = entry.getKey();
-					final V value = entry.getValue();
-
-					keysToPut.add(key);
-
+					final Set<K> unwrittenKeys = new HashSet<>();
 					if(isWriteThrough)
 					{
-						entriesToWrite.add(CacheEntry.New(key, value));
-					}
-				}
+						final Collection<Cache.Entry<? extends K, ? extends V>> entriesToWrite =
+							new ArrayList<>(group.getValue().size())
+						;
+						for(final int i : group.getValue())
+						{
+							final K key = externalKeys.get(i);
+							entriesToWrite.add(CacheEntry.New(key, map.get(key)));
+						}
 
-				if(isWriteThrough)
-				{
-					try
-					{
-						this.cacheWriter.writeAll(entriesToWrite);
-					}
-					catch(final CacheWriterException e)
-					{
-						exception = e;
-					}
-					catch(final Exception e)
-					{
-						exception = new CacheWriterException(e);
-					}
+						exception = collectException(exception, this.writeAll(entriesToWrite));
 
-					for(final Cache.Entry<? extends K, ? extends V> entry : entriesToWrite)
-					{
-						keysToPut.remove(entry.getKey());
+						// the entries remaining in the collection have not been written
+						for(final Cache.Entry<? extends K, ? extends V> entry : entriesToWrite)
+						{
+							unwrittenKeys.add(entry.getKey());
+						}
 					}
-				}
-
-				for(final K key : keysToPut)
-				{
-					final V       value         = map.get(key);
-					final Object  internalKey   = this.objectConverter.internalize(key);
-					final Object  internalValue = this.objectConverter.internalize(value);
-					CachedValue   cachedValue   = this.cacheTable.get(internalKey);
 
-					final boolean isExpired     = cachedValue != null && cachedValue.isExpiredAt(now);
-					if(cachedValue == null || isExpired)
+					for(final int i : group.getValue())
 					{
-						if(isExpired)
+						if(unwrittenKeys.contains(externalKeys.get(i)))
 						{
-							this.processExpiries(
-								key,
-								internalKey,
-								eventDispatcher,
-								this.objectConverter.externalize(cachedValue.value())
-							);
+							continue;
 						}
 
-						cachedValue = CachedValue.New(
-							internalValue,
-							now,
-							this.expiryForCreation().getAdjustedTime(now)
-						);
-						if(cachedValue.isExpiredAt(now))
+						final K       key           = externalKeys.get(i);
+						final V       value         = map.get(key);
+						final Object  internalKey   = internalKeys[i];
+						final Object  internalValue = internalValues[i];
+						CachedValue   cachedValue   = this.cacheTable.get(internalKey);
+
+						final boolean isExpired     = cachedValue != null && cachedValue.isExpiredAt(now);
+						if(cachedValue == null || isExpired)
 						{
-							this.processExpiries(
-								key,
-								internalKey,
-								eventDispatcher,
-								value
+							if(isExpired)
+							{
+								this.processExpiries(
+									key,
+									internalKey,
+									eventDispatcher,
+									this.objectConverter.externalize(cachedValue.value())
+								);
+							}
+
+							cachedValue = this.newCachedValue(
+								internalValue,
+								now,
+								this.expiryForCreation().getAdjustedTime(now)
 							);
+							if(cachedValue.isExpiredAt(now))
+							{
+								this.processExpiries(
+									key,
+									internalKey,
+									eventDispatcher,
+									value
+								);
+							}
+							else
+							{
+								this.putValue(
+									key,
+									value,
+									internalKey,
+									cachedValue,
+									eventDispatcher
+								);
+
+								/*
+								 * This method called from loadAll when useWriteThrough is false. Do not count loads as puts
+								 * per statistics table in specification.
+								 */
+								if(useWriteThrough)
+								{
+									putCount++;
+								}
+							}
 						}
-						else
+						else if(replaceExistingValues)
 						{
-							this.putValue(
-								key,
-								value,
-								internalKey,
-								cachedValue,
-								eventDispatcher
-							);
+							final V oldValue = this.objectConverter.externalize(cachedValue.value());
+
+							this.updateExpiryForUpdate(internalKey, cachedValue, now);
+
+							cachedValue.value(internalValue, now);
+							this.cacheTable.access(internalKey, cachedValue);
 
 							/*
-							 * This method called from loadAll when useWriteThrough is false. Do not count loads as puts
-							 * per statistics table in specification.
+							 * Do not count loadAll calls as puts. useWriteThrough is false when called from loadAll.
 							 */
 							if(useWriteThrough)
 							{
 								putCount++;
 							}
-						}
-					}
-					else if(replaceExistingValues)
-					{
-						final V oldValue = this.objectConverter.externalize(cachedValue.value());
-
-						this.updateExpiryForUpdate(cachedValue, now);
 
-						cachedValue.value(internalValue, now);
-
-						/*
-						 * Do not count loadAll calls as puts. useWriteThrough is false when called from loadAll.
-						 */
-						if(useWriteThrough)
-						{
-							putCount++;
-						}
-
-						if(eventDispatcher != null)
-						{
-							eventDispatcher.addEvent(
-								CacheEntryUpdatedListener.class,
-								new CacheEvent<>(this, EventType.UPDATED, key, value, oldValue)
-							);
+							if(eventDispatcher != null)
+							{
+								eventDispatcher.addEvent(
+									CacheEntryUpdatedListener.class,
+									new CacheEvent<>(this, EventType.UPDATED, key, value, oldValue)
+								);
+							}
 						}
 					}
 				}
@@ -974,7 +1257,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			final Object                     internalValue       = this.objectConverter.internalize(value);
 			boolean                          result;
 
-			synchronized(this.cacheTable)
+			synchronized(this.cacheTable.lockFor(internalKey))
 			{
 				CachedValue   cachedValue = this.cacheTable.get(internalKey);
 
@@ -994,7 +1277,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 						);
 					}
 
-					cachedValue = CachedValue.New(
+					cachedValue = this.newCachedValue(
 						internalValue,
 						now,
 						this.expiryForCreation().getAdjustedTime(now)
@@ -1071,7 +1354,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			final Object                     internalKey         = this.objectConverter.internalize(key);
 			boolean                          result;
 
-			synchronized(this.cacheTable)
+			synchronized(this.cacheTable.lockFor(internalKey))
 			{
 				this.deleteCacheEntry(key);
 
@@ -1137,7 +1420,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			boolean                          hit                 = false;
 			boolean                          result;
 
-			synchronized(this.cacheTable)
+			synchronized(this.cacheTable.lockFor(internalKey))
 			{
 				final CachedValue cachedValue = this.cacheTable.get(internalKey);
 				if(cachedValue == null || cachedValue.isExpiredAt(now))
@@ -1169,7 +1452,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 					}
 					else
 					{
-						this.updateExpiryForAccess(cachedValue, now);
+						this.updateExpiryForAccess(internalKey, cachedValue, now);
 
 						result = false;
 					}
@@ -1222,7 +1505,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			final Object                     internalKey         = this.objectConverter.internalize(key);
 			V                                result;
 
-			synchronized(this.cacheTable)
+			synchronized(this.cacheTable.lockFor(internalKey))
 			{
 				this.deleteCacheEntry(key);
 
@@ -1292,7 +1575,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			long                             hitCount            = 0;
 			boolean                          result;
 
-			synchronized(this.cacheTable)
+			synchronized(this.cacheTable.lockFor(internalKey))
 			{
 				final CachedValue cachedValue = this.cacheTable.get(internalKey);
 				if(cachedValue == null || cachedValue.isExpiredAt(now))
@@ -1310,12 +1593,13 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 						final CacheEntry<K, V> entry = CacheEntry.New(key, newValue);
 						this.writeCacheEntry(entry);
 
-						this.updateExpiryForUpdate(cachedValue, now);
+						this.updateExpiryForUpdate(internalKey, cachedValue, now);
 
 						cachedValue.value(
 							this.objectConverter.internalize(newValue),
 							now
 						);
+						this.cacheTable.access(internalKey, cachedValue);
 
 						if(eventDispatcher != null)
 						{
@@ -1329,7 +1613,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 					}
 					else
 					{
-						this.updateExpiryForAccess(cachedValue, now);
+						this.updateExpiryForAccess(internalKey, cachedValue, now);
 
 						result = false;
 					}
@@ -1383,7 +1667,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			final Object                     internalKey         = this.objectConverter.internalize(key);
 			boolean                          result;
 
-			synchronized(this.cacheTable)
+			synchronized(this.cacheTable.lockFor(internalKey))
 			{
 				final CachedValue cachedValue = this.cacheTable.get(internalKey);
 				if(cachedValue == null || cachedValue.isExpiredAt(now))
@@ -1397,10 +1681,11 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 					final CacheEntry<K, V> entry    = CacheEntry.New(key, value);
 					this.writeCacheEntry(entry);
 
-					this.updateExpiryForUpdate(cachedValue, now);
+					this.updateExpiryForUpdate(internalKey, cachedValue, now);
 
 					final Object newInternalValue = this.objectConverter.internalize(value);
 					cachedValue.value(newInternalValue, now);
+					this.cacheTable.access(internalKey, cachedValue);
 
 					if(eventDispatcher != null)
 					{
@@ -1458,7 +1743,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			final Object                     internalKey         = this.objectConverter.internalize(key);
 			V                                result;
 
-			synchronized(this.cacheTable)
+			synchronized(this.cacheTable.lockFor(internalKey))
 			{
 				final CachedValue cachedValue = this.cacheTable.get(internalKey);
 				if(cachedValue == null || cachedValue.isExpiredAt(now))
@@ -1472,12 +1757,13 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 					final CacheEntry<K, V> entry    = CacheEntry.New(key, value);
 					this.writeCacheEntry(entry);
 
-					this.updateExpiryForUpdate(cachedValue, now);
+					this.updateExpiryForUpdate(internalKey, cachedValue, now);
 
 					cachedValue.value(
 						this.objectConverter.internalize(value),
 						now
 					);
+					this.cacheTable.access(internalKey, cachedValue);
 
 					if(eventDispatcher != null)
 					{
@@ -1527,73 +1813,46 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			final CacheEventDispatcher<K, V> eventDispatcher     = this.listenerRegistrations.size() > 0L
 				? CacheEventDispatcher.New()
 				: null;
-			final HashSet<K>                 cacheWriterKeys     = new HashSet<>();
-			final HashSet<Object>            deletedKeys         = new HashSet<>();
-			cacheWriterKeys.addAll(keys);
-			CacheException exception = null;
+			final boolean                    isWriteThrough      = this.cacheWriter != null
+				&& this.configuration.isWriteThrough();
+			int                              removed             = 0;
+			CacheException                   exception           = null;
+
+			final List<K>  externalKeys = new ArrayList<>(keys);
+			final Object[] internalKeys = this.internalizeKeys(externalKeys);
 
-			synchronized(this.cacheTable)
+			// the writer is called for the entries of each lock while holding it, like in putAll.
+			for(final Map.Entry<Object, List<Integer>> group : this.groupByLock(internalKeys).entrySet())
 			{
-				if(this.cacheWriter != null && this.configuration.isWriteThrough())
+				synchronized(group.getKey())
 				{
-					try
-					{
-						this.cacheWriter.deleteAll(cacheWriterKeys);
-					}
-					catch(final CacheWriterException e)
-					{
-						exception = e;
-					}
-					catch(final Exception e)
+					final Set<K> undeletedKeys = new HashSet<>();
+					if(isWriteThrough)
 					{
-						exception = new CacheWriterException(e);
+						for(final int i : group.getValue())
+						{
+							undeletedKeys.add(externalKeys.get(i));
+						}
+
+						// at this point, undeletedKeys will contain only those that were _not_ deleted
+						exception = collectException(exception, this.deleteAll(undeletedKeys));
 					}
 
-					// At this point, cacheWriterKeys will contain only those that were _not_ written
-					// Now delete only those that the writer deleted
-					for(final K key : keys)
+					for(final int i : group.getValue())
 					{
+						final K key = externalKeys.get(i);
+
 						// only delete those keys that the writer deleted. per CacheWriter spec.
-						if(!cacheWriterKeys.contains(key))
+						if(undeletedKeys.contains(key))
 						{
-							final Object      internalKey = this.objectConverter.internalize(key);
-							final CachedValue cachedValue = this.cacheTable.remove(internalKey);
-							if(cachedValue != null)
-							{
-								deletedKeys.add(key);
-
-								final V value = this.objectConverter.externalize(cachedValue.value());
-
-								if(cachedValue.isExpiredAt(now))
-								{
-									this.processExpiries(
-										key,
-										internalKey,
-										eventDispatcher,
-										value
-									);
-								}
-								else if(eventDispatcher != null)
-								{
-									eventDispatcher.addEvent(
-										CacheEntryRemovedListener.class,
-										new CacheEvent<>(this, EventType.REMOVED, key, value, value)
-									);
-								}
-							}
+							continue;
 						}
-					}
-				}
-				else
-				{
-					for(final K key : keys)
-					{
-						// only delete those keys that the writer deleted. per CacheWriter spec.
-						final Object      internalKey = this.objectConverter.internalize(key);
+
+						final Object      internalKey = internalKeys[i];
 						final CachedValue cachedValue = this.cacheTable.remove(internalKey);
 						if(cachedValue != null)
 						{
-							deletedKeys.add(key);
+							removed++;
 
 							final V value = this.objectConverter.externalize(cachedValue.value());
 
@@ -1624,7 +1883,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			}
 			if(isStatisticsEnabled)
 			{
-				this.cacheStatisticsMXBean.increaseCacheRemovals(deletedKeys.size());
+				this.cacheStatisticsMXBean.increaseCacheRemovals(removed);
 			}
 
 			if(exception != null)
@@ -1646,46 +1905,47 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				: null;
 			CacheException                   exception           = null;
 
-			synchronized(this.cacheTable)
-			{
-				final HashSet<K> keys = new HashSet<>();
-				this.cacheTable.keys().forEach(key -> keys.add(this.objectConverter.externalize(key)));
+			final boolean isWriteThrough = this.cacheWriter != null && this.configuration.isWriteThrough();
 
-				final Set<K> keysToDelete;
+			final List<Object> currentKeys = new ArrayList<>();
+			this.cacheTable.keys().forEach(currentKeys::add);
+			final Object[] internalKeys = currentKeys.toArray();
 
-				if(this.cacheWriter != null && this.configuration.isWriteThrough())
+			// the writer is called for the entries of each lock while holding it, like in putAll.
+			for(final Map.Entry<Object, List<Integer>> group : this.groupByLock(internalKeys).entrySet())
+			{
+				synchronized(group.getKey())
 				{
-					keysToDelete = new HashSet<>(keys);
-
-					if(keysToDelete.size() > 0)
+					final Set<K> undeletedKeys = new HashSet<>();
+					if(isWriteThrough)
 					{
-						try
+						for(final int i : group.getValue())
 						{
-							this.cacheWriter.deleteAll(keysToDelete);
+							undeletedKeys.add(this.objectConverter.externalize(internalKeys[i]));
 						}
-						catch(final CacheWriterException e)
+
+						// at this point, undeletedKeys will contain only those that were _not_ deleted
+						exception = collectException(exception, this.deleteAll(undeletedKeys));
+					}
+
+					// remove the keys that were successfully deleted
+					for(final int i : group.getValue())
+					{
+						final Object internalKey = internalKeys[i];
+						final K      key         = this.objectConverter.externalize(internalKey);
+						if(undeletedKeys.contains(key))
 						{
-							exception = e;
+							continue;
 						}
-						catch(final Exception e)
+
+						final CachedValue cachedValue = this.cacheTable.remove(internalKey);
+						if(cachedValue == null)
 						{
-							exception = new CacheWriterException(e);
+							// removed concurrently
+							continue;
 						}
-					}
-				}
-				else
-				{
-					keysToDelete = Collections.emptySet();
-				}
 
-				// remove the deleted keys that were successfully deleted from the set
-				for(final K key : keys)
-				{
-					if(!keysToDelete.contains(key))
-					{
-						final Object      internalKey = this.objectConverter.internalize(key);
-						final CachedValue cachedValue = this.cacheTable.remove(internalKey);
-						final V           value       = this.objectConverter.externalize(cachedValue.value());
+						final V value = this.objectConverter.externalize(cachedValue.value());
 
 						if(cachedValue.isExpiredAt(now))
 						{
@@ -1731,10 +1991,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 		{
 			this.ensureOpen();
 
-			synchronized(this.cacheTable)
-			{
-				this.cacheTable.clear();
-			}
+			this.cacheTable.clear();
 		}
 
 		@Override
@@ -1742,9 +1999,15 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 		{
 			this.ensureOpen();
 
-			if(this.cacheLoader instanceof CacheStore)
+			if(this.cacheStore != null)
 			{
-				final Iterator<K>                keys            = ((CacheStore<K, V>)this.cacheLoader).keys();
+				if(this.cacheWriter instanceof WriteBehindCacheWriter)
+				{
+					// the store's keys have to include the queued changes
+					((WriteBehindCacheWriter<K, V>)this.cacheWriter).flush();
+				}
+				
+				final Iterator<K>                keys            = this.cacheStore.keys();
 				final CacheEventDispatcher<K, V> eventDispatcher = this.listenerRegistrations.size() > 0L
 					? CacheEventDispatcher.New()
 					: null;
@@ -1757,6 +2020,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 		@Override
 		public void setStatisticsEnabled(final boolean enabled)
 		{
+			this.cacheStatisticsMXBean.setRecording(enabled);
 			this.isStatisticsEnabled.set(enabled);
 
 			this.updateConfiguration(c -> c.setStatisticsEnabled(enabled));
@@ -1859,7 +2123,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			final Object                     internalKey     = this.objectConverter.internalize(key);
 			T                                result          = null;
 
-			synchronized(this.cacheTable)
+			synchronized(this.cacheTable.lockFor(internalKey))
 			{
 				final CachedValue cachedValue = this.cacheTable.get(internalKey);
 				final boolean     isExpired   = cachedValue != null && cachedValue.isExpiredAt(now);
@@ -1947,7 +2211,8 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			{
 				case ACCESS:
 
-					this.updateExpiryForAccess(cachedValue, now);
+					this.updateExpiryForAccess(internalKey, cachedValue, now);
+					this.cacheTable.access(internalKey, cachedValue);
 
 					break;
 
@@ -1970,6 +2235,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 
 					this.finishInvocationUpdate(
 						key,
+						internalKey,
 						entry,
 						cachedValue,
 						start,
@@ -1977,6 +2243,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 						eventDispatcher,
 						isStatisticsEnabled
 					);
+					this.cacheTable.access(internalKey, cachedValue);
 
 					break;
 
@@ -2013,7 +2280,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				this.writeCacheEntry(e);
 			}
 
-			cachedValue = CachedValue.New(
+			cachedValue = this.newCachedValue(
 				this.objectConverter.internalize(entry.getValue()),
 				now,
 				this.expiryForCreation().getAdjustedTime(now)
@@ -2051,6 +2318,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 
 		private void finishInvocationUpdate(
 			final K                          key                ,
+			final Object                     internalKey        ,
 			final MutableCacheEntry<K, V>    entry              ,
 			final CachedValue                cachedValue        ,
 			final long                       start              ,
@@ -2064,7 +2332,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			final CacheEntry<K, V> e        = CacheEntry.New(key, entry.getValue());
 			this.writeCacheEntry(e);
 
-			this.updateExpiryForUpdate(cachedValue, now);
+			this.updateExpiryForUpdate(internalKey, cachedValue, now);
 
 			cachedValue.value(
 				this.objectConverter.internalize(entry.getValue()),
@@ -2140,7 +2408,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			final Object  internalKey         = this.objectConverter.internalize(key);
 			V             value               = null;
 
-			synchronized(this.cacheTable)
+			synchronized(this.cacheTable.lockFor(internalKey))
 			{
 				CachedValue   cachedValue = this.cacheTable.get(internalKey);
 				final boolean isExpired   = cachedValue != null && cachedValue.isExpiredAt(now);
@@ -2170,7 +2438,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 							? cachedValue.creationTime()
 							: now
 						;
-						cachedValue = CachedValue.New(
+						cachedValue = this.newCachedValue(
 							this.objectConverter.internalize(value),
 							creationTime,
 							this.expiryForCreation().getAdjustedTime(creationTime)
@@ -2195,7 +2463,8 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				else
 				{
 					value = this.objectConverter.externalize(cachedValue.value(now));
-					this.updateExpiryForAccess(cachedValue, now);
+					this.updateExpiryForAccess(internalKey, cachedValue, now);
+					this.cacheTable.access(internalKey, cachedValue);
 
 					if(isStatisticsEnabled)
 					{
@@ -2245,13 +2514,19 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				? CacheEventDispatcher.New()
 				: null;
 
-			synchronized(this.cacheTable)
+			for(final KeyValue<Object, CachedValue> entryToEvict : entriesToEvict)
 			{
-				for(final KeyValue<Object, CachedValue> entryToEvict : entriesToEvict)
+				final Object internalKey = entryToEvict.key();
+				synchronized(this.cacheTable.lockFor(internalKey))
 				{
-					this.cacheTable.remove(entryToEvict.key());
+					// the entry may have been replaced or removed since it was picked
+					if(this.cacheTable.get(internalKey) != entryToEvict.value())
+					{
+						continue;
+					}
+					this.cacheTable.remove(internalKey);
 
-					final K evictedKey   = this.objectConverter.externalize(entryToEvict.key());
+					final K evictedKey   = this.objectConverter.externalize(internalKey);
 					final V evictedValue = this.objectConverter.externalize(entryToEvict.value().value());
 
 					this.deleteCacheEntry(evictedKey);
@@ -2278,7 +2553,67 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			}
 		}
 
-		private void updateExpiryForAccess(final CachedValue cachedValue, final long now )
+		private void rescheduleExpiry(final Object internalKey, final CachedValue cachedValue)
+		{
+			if(this.expiryWheel != null)
+			{
+				this.expiryWheel.reschedule(internalKey, cachedValue);
+			}
+		}
+
+		/*
+		 * Expires all due entries of the wheel in small batches. Every entry is checked again while holding its lock,
+		 * since it may have been replaced, removed or accessed in the meantime.
+		 */
+		void purgeExpiries()
+		{
+			final ExpiryWheel expiryWheel = this.expiryWheel;
+			final long        now         = System.currentTimeMillis();
+			expiryWheel.advance(now);
+
+			List<KeyValue<Object, CachedValue>> batch;
+			while(!this.isClosed.get() && !(batch = expiryWheel.pollDue(EXPIRY_BATCH_SIZE)).isEmpty())
+			{
+				final CacheEventDispatcher<K, V> eventDispatcher = this.listenerRegistrations.size() > 0L
+					? CacheEventDispatcher.New()
+					: null;
+
+				for(final KeyValue<Object, CachedValue> entry : batch)
+				{
+					final Object internalKey = entry.key();
+					synchronized(this.cacheTable.lockFor(internalKey))
+					{
+						final CachedValue cachedValue = this.cacheTable.get(internalKey);
+						if(cachedValue != entry.value())
+						{
+							// replaced or removed, a replacement has been scheduled on its own
+							continue;
+						}
+						if(cachedValue.isExpiredAt(now))
+						{
+							this.processExpiries(
+								this.objectConverter.externalize(internalKey),
+								internalKey,
+								eventDispatcher,
+								this.objectConverter.externalize(cachedValue.value())
+							);
+						}
+						else
+						{
+							// expiry has been extended without rescheduling
+							expiryWheel.schedule(internalKey, cachedValue);
+						}
+					}
+				}
+
+				if(eventDispatcher != null)
+				{
+					eventDispatcher.dispatch(this.listenerRegistrations);
+				}
+			}
+		}
+
+		private void updateExpiryForAccess(final Object internalKey, final CachedValue cachedValue, final long now)
 		{
 			try
 			{
@@ -2286,6 +2621,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				if((duration = this.expiryPolicy.getExpiryForAccess()) != null)
 				{
 					cachedValue.expiryTime(duration.getAdjustedTime(now));
+					this.rescheduleExpiry(internalKey, cachedValue);
 				}
 			}
 			catch(final Throwable t)
@@ -2294,7 +2630,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			}
 		}
 
-		private void updateExpiryForUpdate(final CachedValue cachedValue, final long now)
+		private void updateExpiryForUpdate(final Object internalKey, final CachedValue cachedValue, final long now)
 		{
 			try
 			{
@@ -2302,6 +2638,7 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 				if((duration = this.expiryPolicy.getExpiryForUpdate()) != null)
 				{
 					cachedValue.expiryTime(duration.getAdjustedTime(now));
+					this.rescheduleExpiry(internalKey, cachedValue);
 				}
 			}
 			catch(final Throwable t)
@@ -2328,6 +2665,14 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			}
 		}
 
+		private CachedValue newCachedValue(final Object internalValue, final long creationTime, final long expiryTime)
+		{
+			return this.offHeapTier != null
+				? this.offHeapTier.createValue(internalValue, creationTime, expiryTime)
+				: CachedValue.New(internalValue, creationTime, expiryTime)
+			;
+		}
+
 		private Duration expiryForCreation()
 		{
 			// Spec says if exception happens, a default duration should be used.
@@ -2346,13 +2691,52 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 			this.executorService.submit(task);
 		}
 
+		private Map<? extends K, ? extends V> loadCacheEntries(final List<K> keys)
+		{
+			final boolean isStatisticsEnabled = this.isStatisticsEnabled.get();
+			final long    start               = isStatisticsEnabled
+				? System.nanoTime()
+				: 0
+			;
+			try
+			{
+				final Map<? extends K, ? extends V> loaded = this.cacheLoader.loadAll(keys);
+				if(isStatisticsEnabled)
+				{
+					this.cacheStatisticsMXBean.addLoadTimeNano(System.nanoTime() - start);
+				}
+				return loaded != null
+					? loaded
+					: Collections.emptyMap()
+				;
+			}
+			catch(final CacheLoaderException e)
+			{
+				throw e;
+			}
+			catch(final Exception e)
+			{
+				throw new CacheLoaderException(e);
+			}
+		}
+
 		private V loadCacheEntry(final K key, final V value)
 		{
 			if(this.cacheLoader != null && this.configuration.isReadThrough())
 			{
+				final boolean isStatisticsEnabled = this.isStatisticsEnabled.get();
+				final long    start               = isStatisticsEnabled
+					? System.nanoTime()
+					: 0
+				;
 				try
 				{
-					return this.cacheLoader.load(key);
+					final V loaded = this.cacheLoader.load(key);
+					if(isStatisticsEnabled)
+					{
+						this.cacheStatisticsMXBean.addLoadTimeNano(System.nanoTime() - start);
+					}
+					return loaded;
 				}
 				catch(final CacheLoaderException e)
 				{
@@ -2490,10 +2874,11 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 						{
 							final V value  = objectConverter.externalize(cachedValue.value(this.now));
 							this.nextEntry = CacheEntry.New(key, value);
+							Cache.Default.this.cacheTable.access(entry.key(), cachedValue);
 
 							try
 							{
-								Cache.Default.this.updateExpiryForAccess(cachedValue, this.now);
+								Cache.Default.this.updateExpiryForAccess(entry.key(), cachedValue, this.now);
 							}
 							catch(final Throwable t)
 							{
@@ -2596,6 +2981,51 @@ public interface Cache<K, V> extends javax.cache.Cache<K, V>, Unwrappable
 
 		}
 
+
+		static final class ExpiryThread extends Thread
+		{
+			// lazy reference for automatic thread termination
+			private final WeakReference<Cache.Default<?, ?>> parent;
+
+			ExpiryThread(final WeakReference<Cache.Default<?, ?>> parent)
+			{
+				super(ExpiryWheel.class.getSimpleName() + "@" + System.identityHashCode(parent));
+
+				this.parent = parent;
+				this.setDaemon(true);
+			}
+
+			@Override
+			public void run()
+			{
+				Cache.Default<?, ?> parent;
+				while((parent = this.parent.get()) != null && !parent.isClosed())
+				{
+					try
+					{
+						parent.purgeExpiries();
+					}
+					catch(final Exception e)
+					{
+						// thread may not die on any exception, just continue looping as long as parent is open
+						logger.error("Error purging expired entries of cache '{}'", parent.getName(), e);
+					}
+
+					// must clear the reference from the stack before sleeping in order for the weak reference to work
+					parent = null;
+					try
+					{
+						Thread.sleep(EXPIRY_INTERVAL_MILLIS);
+					}
+					catch(final InterruptedException e)
+					{
+						// sleep interrupted, proceed with check immediately
+					}
+				}
+			}
+
+		}
+
 	}
 
 }
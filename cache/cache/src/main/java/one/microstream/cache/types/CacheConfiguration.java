@@ -60,7 +60,9 @@ import one.microstream.storage.embedded.types.EmbeddedStorageManager;
  * <p>
  * Added features:<br>
  * - {@link #getEvictionManagerFactory()}<br>
- * - {@link #getSerializerFoundation()}
+ * - {@link #getSerializerFoundation()}<br>
+ * - {@link #getWriteBehind()}<br>
+ * - {@link #getOffHeapTierFactory()}
  * </p>
  * <p>
  * Can be adapted to MicroStream's generic {@link Configuration} layer.
@@ -1199,6 +1201,22 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 	 */
 	public SerializerFoundation<?> getSerializerFoundation();
 
+	/**
+	 * Gets the write-behind settings. If present, the {@link CacheWriter} is called asynchronously,
+	 * see {@link WriteBehindCacheWriter}. Only used if write-through is enabled.
+	 *
+	 * @return the write-behind settings or null if the writer is called synchronously
+	 */
+	public WriteBehind getWriteBehind();
+
+	/**
+	 * Gets the {@link javax.cache.configuration.Factory} for the {@link OffHeapTier}, if any.
+	 * Only used if store-by-value is enabled.
+	 *
+	 * @return the {@link OffHeapTier} {@link Factory} or null if values are held on the heap
+	 */
+	public Factory<OffHeapTier> getOffHeapTierFactory();
+
 	/**
 	 * Creates a new {@link Builder} for a {@link CacheConfiguration}.
 	 *
@@ -1540,6 +1558,35 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 	     */
 		public Builder<K, V> serializerFoundation(SerializerFoundation<?> serializerFoundation);
 
+		/**
+		 * Enables write-behind with the default settings.
+		 *
+		 * @return this
+		 * @see #writeBehind(WriteBehind)
+		 */
+		public default Builder<K, V> writeBehind()
+		{
+			return this.writeBehind(WriteBehind.New());
+		}
+
+		/**
+		 * Sets the write-behind settings. If set, the {@link CacheWriter} is called asynchronously,
+		 * with batched and coalesced changes. Only used if write-through is enabled.
+		 *
+		 * @param writeBehind the write-behind settings, or null to call the writer synchronously
+		 * @return this
+		 */
+		public Builder<K, V> writeBehind(WriteBehind writeBehind);
+
+		/**
+		 * Sets the {@link Factory} for the {@link OffHeapTier}. If set, the serialized values of a
+		 * store-by-value cache are held outside of the Java heap.
+		 *
+		 * @param offHeapTierFactory the {@link OffHeapTier} {@link Factory}, or null to hold values on the heap
+		 * @return this
+		 */
+		public Builder<K, V> offHeapTierFactory(Factory<OffHeapTier> offHeapTierFactory);
+
 		/**
 		 * Builds a {@link CacheConfiguration} based on the values of this {@link Builder}.
 		 * 
@@ -1562,6 +1609,8 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 			private boolean                                        statisticsEnabled;
 			private boolean                                        managementEnabled;
 			private SerializerFoundation<?>                        serializerFoundation;
+			private WriteBehind                                    writeBehind;
+			private Factory<OffHeapTier>                           offHeapTierFactory;
 
 			Default(final Class<K> keyType, final Class<V> valueType)
 			{
@@ -1649,6 +1698,20 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 				return this;
 			}
 
+			@Override
+			public Builder<K, V> writeBehind(final WriteBehind writeBehind)
+			{
+				this.writeBehind = writeBehind;
+				return this;
+			}
+
+			@Override
+			public Builder<K, V> offHeapTierFactory(final Factory<OffHeapTier> offHeapTierFactory)
+			{
+				this.offHeapTierFactory = offHeapTierFactory;
+				return this;
+			}
+
 			@Override
 			public CacheConfiguration<K, V> build()
 			{
@@ -1679,7 +1742,9 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 					this.storeByValue,
 					this.statisticsEnabled,
 					this.managementEnabled,
-					serializerFoundation
+					serializerFoundation,
+					this.writeBehind,
+					this.offHeapTierFactory
 				);
 			}
 
@@ -1734,16 +1799,22 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 
 			final Factory<EvictionManager<K, V>> evictionManagerFactory;
 			final SerializerFoundation<?>        serializerFoundation;
+			final WriteBehind                    writeBehind;
+			final Factory<OffHeapTier>           offHeapTierFactory;
 			if(other instanceof CacheConfiguration)
 			{
 				final CacheConfiguration<K, V> msCacheConfig = (CacheConfiguration<K, V>)other;
 				evictionManagerFactory = msCacheConfig.getEvictionManagerFactory();
 				serializerFoundation   = msCacheConfig.getSerializerFoundation();
+				writeBehind            = msCacheConfig.getWriteBehind();
+				offHeapTierFactory     = msCacheConfig.getOffHeapTierFactory();
 			}
 			else
 			{
 				evictionManagerFactory = DefaultEvictionManagerFactory();
 				serializerFoundation   = SerializerFoundation.New();
+				writeBehind            = null;
+				offHeapTierFactory     = null;
 			}
 
 			return new Default<>(
@@ -1759,7 +1830,9 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 				complete.isStoreByValue(),
 				complete.isStatisticsEnabled(),
 				complete.isManagementEnabled(),
-				serializerFoundation
+				serializerFoundation,
+				writeBehind,
+				offHeapTierFactory
 			);
 		}
 
@@ -1776,13 +1849,17 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 			other.isStoreByValue(),
 			false,
 			false,
-			SerializerFoundation.New());
+			SerializerFoundation.New(),
+			null,
+			null);
 	}
 
 	public static class Default<K, V> extends MutableConfiguration<K, V> implements CacheConfiguration<K, V>
 	{
 		private final Factory<EvictionManager<K, V>> evictionManagerFactory;
 		private final SerializerFoundation<?>        serializerFoundation;
+		private final WriteBehind                    writeBehind;
+		private final Factory<OffHeapTier>           offHeapTierFactory;
 
 		Default(
 			final Class<K>                                       keyType,
@@ -1797,7 +1874,9 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 			final boolean                                        isStoreByValue,
 			final boolean                                        isStatisticsEnabled,
 			final boolean                                        isManagementEnabled,
-			final SerializerFoundation<?>                        serializerFoundation
+			final SerializerFoundation<?>                        serializerFoundation,
+			final WriteBehind                                    writeBehind,
+			final Factory<OffHeapTier>                           offHeapTierFactory
 		)
 		{
 			super();
@@ -1818,6 +1897,8 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 			this.isStoreByValue           = isStoreByValue;
 			this.isManagementEnabled      = isManagementEnabled;
 			this.serializerFoundation = serializerFoundation;
+			this.writeBehind          = writeBehind;
+			this.offHeapTierFactory   = offHeapTierFactory;
 		}
 
 		@Override
@@ -1852,6 +1933,18 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 			return this.serializerFoundation;
 		}
 
+		@Override
+		public WriteBehind getWriteBehind()
+		{
+			return this.writeBehind;
+		}
+
+		@Override
+		public Factory<OffHeapTier> getOffHeapTierFactory()
+		{
+			return this.offHeapTierFactory;
+		}
+
 		@Override
 		public int hashCode()
 		{
@@ -1870,6 +1963,8 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 			result = prime * result + (this.valueType == null ? 0 : this.valueType.hashCode());
 			result = prime * result + (this.evictionManagerFactory == null ? 0 : this.evictionManagerFactory.hashCode());
 			result = prime * result + (this.serializerFoundation == null ? 0 : this.serializerFoundation.hashCode());
+			result = prime * result + (this.writeBehind == null ? 0 : this.writeBehind.hashCode());
+			result = prime * result + (this.offHeapTierFactory == null ? 0 : this.offHeapTierFactory.hashCode());
 			return result;
 		}
 
@@ -1993,6 +2088,28 @@ public interface CacheConfiguration<K, V> extends CompleteConfiguration<K, V>
 			{
 				return false;
 			}
+			if(this.writeBehind == null)
+			{
+				if(other.getWriteBehind() != null)
+				{
+					return false;
+				}
+			}
+			else if(!this.writeBehind.equals(other.getWriteBehind()))
+			{
+				return false;
+			}
+			if(this.offHeapTierFactory == null)
+			{
+				if(other.getOffHeapTierFactory() != null)
+				{
+					return false;
+				}
+			}
+			else if(!this.offHeapTierFactory.equals(other.getOffHeapTierFactory()))
+			{
+				return false;
+			}
 			return true;
 		}
 		
@@ -118,12 +118,26 @@ public interface CacheConfigurationBuilderConfigurationBased
 			configuration.optBoolean(STORE_BY_VALUE).ifPresent(value ->
 				builder.storeByValue(value)
 			);
+			configuration.opt(OFF_HEAP_TIER_FACTORY).ifPresent(value ->
+				builder.offHeapTierFactory(this.valueAsFactory(value))
+			);
 			configuration.optBoolean(STATISTICS_ENABLED).ifPresent(value ->
 				builder.enableStatistics(value)
 			);
 			configuration.optBoolean(MANAGEMENT_ENABLED).ifPresent(value ->
 				builder.enableManagement(value)
 			);
+			if(configuration.optBoolean(WRITE_BEHIND).orElse(false))
+			{
+				builder.writeBehind(WriteBehind.New(
+					configuration.optInteger(WRITE_BEHIND_MAX_QUEUE_SIZE)
+						.orElse(WriteBehind.Defaults.defaultMaxQueueSize()),
+					configuration.optInteger(WRITE_BEHIND_BATCH_SIZE)
+						.orElse(WriteBehind.Defaults.defaultBatchSize()),
+					configuration.optLong(WRITE_BEHIND_FLUSH_INTERVAL_MILLIS)
+						.orElse(WriteBehind.Defaults.defaultFlushIntervalMillis())
+				));
+			}
 
 			final CacheStore<K, V> cacheStore = this.buildCacheStore(configuration);
 			if(cacheStore != null)
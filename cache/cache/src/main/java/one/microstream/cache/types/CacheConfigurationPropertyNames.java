@@ -84,6 +84,31 @@ public interface CacheConfigurationPropertyNames
 	 */
 	public static final String WRITE_THROUGH                       = "write-through";
 	
+	/**
+	 * @see CacheConfiguration#getWriteBehind()
+	 */
+	public static final String WRITE_BEHIND                        = "write-behind";
+	
+	/**
+	 * @see WriteBehind#maxQueueSize()
+	 */
+	public static final String WRITE_BEHIND_MAX_QUEUE_SIZE         = "write-behind-max-queue-size";
+	
+	/**
+	 * @see WriteBehind#batchSize()
+	 */
+	public static final String WRITE_BEHIND_BATCH_SIZE             = "write-behind-batch-size";
+	
+	/**
+	 * @see WriteBehind#flushIntervalMillis()
+	 */
+	public static final String WRITE_BEHIND_FLUSH_INTERVAL_MILLIS  = "write-behind-flush-interval-millis";
+	
+	/**
+	 * @see CacheConfiguration#getOffHeapTierFactory()
+	 */
+	public static final String OFF_HEAP_TIER_FACTORY               = "off-heap-tier-factory";
+	
 	/**
 	 * @see CompleteConfiguration#isStoreByValue()
 	 */
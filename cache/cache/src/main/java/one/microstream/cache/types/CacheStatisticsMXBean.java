@@ -21,10 +21,17 @@ package one.microstream.cache.types;
  * #L%
  */
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.LongSupplier;
 
 
+/**
+ * Statistics of a {@link Cache}, extended by latency percentiles of gets, puts, removals and loads.
+ * <p>
+ * The counters are striped and the latencies are recorded in fixed-size {@link LatencyHistogram}s,
+ * so concurrently accessing threads don't contend for the same memory and statistics can stay enabled.
+ * The histograms are created when the statistics are enabled for the first time.
+ */
 public interface CacheStatisticsMXBean extends javax.cache.management.CacheStatisticsMXBean
 {
 	public void increaseCacheRemovals(final long number);
@@ -45,40 +52,116 @@ public interface CacheStatisticsMXBean extends javax.cache.management.CacheStati
 	
 	public void addRemoveTimeNano(final long duration);
 	
+	public void addLoadTimeNano(final long duration);
+	
+	/**
+	 * @return the number of calls to the cache loader
+	 */
+	public long getCacheLoads();
+	
+	/**
+	 * @return the mean time of the calls to the cache loader in microseconds
+	 */
+	public float getAverageLoadTime();
+	
+	/**
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the get time at the percentile in microseconds
+	 */
+	public float getGetTimePercentile(double percentile);
+	
+	/**
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the put time at the percentile in microseconds
+	 */
+	public float getPutTimePercentile(double percentile);
+	
+	/**
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the remove time at the percentile in microseconds
+	 */
+	public float getRemoveTimePercentile(double percentile);
+	
+	/**
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the time of the calls to the cache loader at the percentile in microseconds
+	 */
+	public float getLoadTimePercentile(double percentile);
+	
 	
 	public static class Default implements CacheStatisticsMXBean
 	{
-		private final static long     NANOSECONDS_IN_A_MICROSECOND = 1000L;
+		private final static float    NANOSECONDS_IN_A_MICROSECOND = 1000.0f;
 		
 		private final transient LongSupplier sizeSupplier;
 		
-		private final AtomicLong      cacheRemovals                = new AtomicLong();
-		private final AtomicLong      cacheExpiries                = new AtomicLong();
-		private final AtomicLong      cachePuts                    = new AtomicLong();
-		private final AtomicLong      cacheHits                    = new AtomicLong();
-		private final AtomicLong      cacheMisses                  = new AtomicLong();
-		private final AtomicLong      cacheEvictions               = new AtomicLong();
-		private final AtomicLong      cachePutTimeTakenNanos       = new AtomicLong();
-		private final AtomicLong      cacheGetTimeTakenNanos       = new AtomicLong();
-		private final AtomicLong      cacheRemoveTimeTakenNanos    = new AtomicLong();
+		private final    LongAdder  cacheRemovals                = new LongAdder();
+		private final    LongAdder  cacheExpiries                = new LongAdder();
+		private final    LongAdder  cachePuts                    = new LongAdder();
+		private final    LongAdder  cacheHits                    = new LongAdder();
+		private final    LongAdder  cacheMisses                  = new LongAdder();
+		private final    LongAdder  cacheEvictions               = new LongAdder();
+		private final    LongAdder  cachePutTimeTakenNanos       = new LongAdder();
+		private final    LongAdder  cacheGetTimeTakenNanos       = new LongAdder();
+		private final    LongAdder  cacheRemoveTimeTakenNanos    = new LongAdder();
+		private final    LongAdder  cacheLoadTimeTakenNanos      = new LongAdder();
+		private final    LongAdder  cacheLoads                   = new LongAdder();
+		private volatile Histograms histograms                   ;
+		private volatile boolean    recording                    ;
 		
 		Default(final LongSupplier sizeSupplier)
 		{
 			this.sizeSupplier = sizeSupplier;
 		}
 		
+		/**
+		 * Starts or stops the recording of latencies, the histograms are created when it is started
+		 * for the first time.
+		 * 
+		 * @param recording whether latencies are recorded
+		 */
+		synchronized void setRecording(final boolean recording)
+		{
+			if(recording && this.histograms == null)
+			{
+				this.histograms = new Histograms();
+			}
+			this.recording = recording;
+		}
+		
+		private Histograms recordingHistograms()
+		{
+			return this.recording
+				? this.histograms
+				: null
+			;
+		}
+		
+		private static float percentile(final LatencyHistogram histogram, final double percentile)
+		{
+			return histogram.valueAtPercentile(percentile) / NANOSECONDS_IN_A_MICROSECOND;
+		}
+		
 		@Override
 		public void clear()
 		{
-			this.cachePuts.set(0);
-			this.cacheMisses.set(0);
-			this.cacheRemovals.set(0);
-			this.cacheExpiries.set(0);
-			this.cacheHits.set(0);
-			this.cacheEvictions.set(0);
-			this.cacheGetTimeTakenNanos.set(0);
-			this.cachePutTimeTakenNanos.set(0);
-			this.cacheRemoveTimeTakenNanos.set(0);
+			this.cachePuts.reset();
+			this.cacheMisses.reset();
+			this.cacheRemovals.reset();
+			this.cacheExpiries.reset();
+			this.cacheHits.reset();
+			this.cacheEvictions.reset();
+			this.cacheGetTimeTakenNanos.reset();
+			this.cachePutTimeTakenNanos.reset();
+			this.cacheRemoveTimeTakenNanos.reset();
+			this.cacheLoadTimeTakenNanos.reset();
+			this.cacheLoads.reset();
+			
+			final Histograms histograms = this.histograms;
+			if(histograms != null)
+			{
+				histograms.reset();
+			}
 		}
 		
 		public long getEntryCount()
@@ -89,7 +172,7 @@ public interface CacheStatisticsMXBean extends javax.cache.management.CacheStati
 		@Override
 		public long getCacheHits()
 		{
-			return this.cacheHits.longValue();
+			return this.cacheHits.sum();
 		}
 		
 		@Override
@@ -104,7 +187,7 @@ public interface CacheStatisticsMXBean extends javax.cache.management.CacheStati
 		@Override
 		public long getCacheMisses()
 		{
-			return this.cacheMisses.longValue();
+			return this.cacheMisses.sum();
 		}
 		
 		@Override
@@ -125,128 +208,196 @@ public interface CacheStatisticsMXBean extends javax.cache.management.CacheStati
 		@Override
 		public long getCachePuts()
 		{
-			return this.cachePuts.longValue();
+			return this.cachePuts.sum();
 		}
 		
 		@Override
 		public long getCacheRemovals()
 		{
-			return this.cacheRemovals.longValue();
+			return this.cacheRemovals.sum();
 		}
 		
 		@Override
 		public long getCacheEvictions()
 		{
-			return this.cacheEvictions.longValue();
+			return this.cacheEvictions.sum();
 		}
 		
 		@Override
-		public float getAverageGetTime()
+		public long getCacheLoads()
+		{
+			return this.cacheLoads.sum();
+		}
+		
+		private static float average(final LongAdder timeTakenNanos, final long count)
 		{
-			final long cacheGetTimeTakenNanos = this.cacheGetTimeTakenNanos.longValue();
-			final long cacheGets              = this.getCacheGets();
-			return cacheGetTimeTakenNanos == 0 || cacheGets == 0
+			final long nanos = timeTakenNanos.sum();
+			return nanos == 0 || count == 0
 				? 0
-				: (cacheGetTimeTakenNanos / cacheGets) / NANOSECONDS_IN_A_MICROSECOND;
+				: nanos / count / NANOSECONDS_IN_A_MICROSECOND;
+		}
+		
+		@Override
+		public float getAverageGetTime()
+		{
+			return average(this.cacheGetTimeTakenNanos, this.getCacheGets());
 		}
 		
 		@Override
 		public float getAveragePutTime()
 		{
-			final long cachePutTimeTakenNanos = this.cachePutTimeTakenNanos.longValue();
-			final long cacheGets              = this.getCacheGets();
-			return cachePutTimeTakenNanos == 0 || cacheGets == 0
-				? 0
-				: (cachePutTimeTakenNanos / cacheGets) / NANOSECONDS_IN_A_MICROSECOND;
+			return average(this.cachePutTimeTakenNanos, this.getCachePuts());
 		}
 		
 		@Override
 		public float getAverageRemoveTime()
 		{
-			final long cacheRemoveTimeTakenNanos = this.cacheRemoveTimeTakenNanos.longValue();
-			final long cacheGets                 = this.getCacheGets();
-			return cacheRemoveTimeTakenNanos == 0 || cacheGets == 0
+			return average(this.cacheRemoveTimeTakenNanos, this.getCacheRemovals());
+		}
+		
+		@Override
+		public float getAverageLoadTime()
+		{
+			return average(this.cacheLoadTimeTakenNanos, this.getCacheLoads());
+		}
+		
+		@Override
+		public float getGetTimePercentile(final double percentile)
+		{
+			final Histograms histograms = this.histograms;
+			return histograms == null
 				? 0
-				: (cacheRemoveTimeTakenNanos / cacheGets) / NANOSECONDS_IN_A_MICROSECOND;
+				: percentile(histograms.getTimes, percentile)
+			;
+		}
+		
+		@Override
+		public float getPutTimePercentile(final double percentile)
+		{
+			final Histograms histograms = this.histograms;
+			return histograms == null
+				? 0
+				: percentile(histograms.putTimes, percentile)
+			;
+		}
+		
+		@Override
+		public float getRemoveTimePercentile(final double percentile)
+		{
+			final Histograms histograms = this.histograms;
+			return histograms == null
+				? 0
+				: percentile(histograms.removeTimes, percentile)
+			;
+		}
+		
+		@Override
+		public float getLoadTimePercentile(final double percentile)
+		{
+			final Histograms histograms = this.histograms;
+			return histograms == null
+				? 0
+				: percentile(histograms.loadTimes, percentile)
+			;
 		}
 		
 		@Override
 		public void increaseCacheRemovals(final long number)
 		{
-			this.cacheRemovals.getAndAdd(number);
+			this.cacheRemovals.add(number);
 		}
 		
 		@Override
 		public void increaseCacheExpiries(final long number)
 		{
-			this.cacheExpiries.getAndAdd(number);
+			this.cacheExpiries.add(number);
 		}
 		
 		@Override
 		public void increaseCachePuts(final long number)
 		{
-			this.cachePuts.getAndAdd(number);
+			this.cachePuts.add(number);
 		}
 		
 		@Override
 		public void increaseCacheHits(final long number)
 		{
-			this.cacheHits.getAndAdd(number);
+			this.cacheHits.add(number);
 		}
 		
 		@Override
 		public void increaseCacheMisses(final long number)
 		{
-			this.cacheMisses.getAndAdd(number);
+			this.cacheMisses.add(number);
 		}
 		
 		@Override
 		public void increaseCacheEvictions(final long number)
 		{
-			this.cacheEvictions.getAndAdd(number);
+			this.cacheEvictions.add(number);
 		}
 		
 		@Override
 		public void addGetTimeNano(final long duration)
 		{
-			if(this.cacheGetTimeTakenNanos.get() <= Long.MAX_VALUE - duration)
+			this.cacheGetTimeTakenNanos.add(duration);
+			final Histograms histograms = this.recordingHistograms();
+			if(histograms != null)
 			{
-				this.cacheGetTimeTakenNanos.addAndGet(duration);
-			}
-			else
-			{
-				// Counter full. Just reset.
-				this.clear();
-				this.cacheGetTimeTakenNanos.set(duration);
+				histograms.getTimes.record(duration);
 			}
 		}
 		
 		@Override
 		public void addPutTimeNano(final long duration)
 		{
-			if(this.cachePutTimeTakenNanos.get() <= Long.MAX_VALUE - duration)
+			this.cachePutTimeTakenNanos.add(duration);
+			final Histograms histograms = this.recordingHistograms();
+			if(histograms != null)
 			{
-				this.cachePutTimeTakenNanos.addAndGet(duration);
+				histograms.putTimes.record(duration);
 			}
-			else
+		}
+		
+		@Override
+		public void addRemoveTimeNano(final long duration)
+		{
+			this.cacheRemoveTimeTakenNanos.add(duration);
+			final Histograms histograms = this.recordingHistograms();
+			if(histograms != null)
 			{
-				this.clear();
-				this.cachePutTimeTakenNanos.set(duration);
+				histograms.removeTimes.record(duration);
 			}
 		}
 		
 		@Override
-		public void addRemoveTimeNano(final long duration)
+		public void addLoadTimeNano(final long duration)
 		{
-			if(this.cacheRemoveTimeTakenNanos.get() <= Long.MAX_VALUE - duration)
+			this.cacheLoadTimeTakenNanos.add(duration);
+			this.cacheLoads.increment();
+			final Histograms histograms = this.recordingHistograms();
+			if(histograms != null)
 			{
-				this.cacheRemoveTimeTakenNanos.addAndGet(duration);
+				histograms.loadTimes.record(duration);
 			}
-			else
+		}
+		
+		
+		static final class Histograms
+		{
+			final LatencyHistogram getTimes    = LatencyHistogram.New();
+			final LatencyHistogram putTimes    = LatencyHistogram.New();
+			final LatencyHistogram removeTimes = LatencyHistogram.New();
+			final LatencyHistogram loadTimes   = LatencyHistogram.New();
+			
+			void reset()
 			{
-				this.clear();
-				this.cacheRemoveTimeTakenNanos.set(duration);
+				this.getTimes.reset();
+				this.putTimes.reset();
+				this.removeTimes.reset();
+				this.loadTimes.reset();
 			}
+			
 		}
 		
 	}
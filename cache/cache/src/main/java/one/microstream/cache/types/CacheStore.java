@@ -20,15 +20,17 @@ package one.microstream.cache.types;
  * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
  * #L%
  */
-
 import static one.microstream.X.notNull;
 import static one.microstream.chars.XChars.notEmpty;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiPredicate;
 
 import javax.cache.Cache.Entry;
 import javax.cache.integration.CacheLoader;
@@ -37,83 +39,301 @@ import javax.cache.integration.CacheWriter;
 import javax.cache.integration.CacheWriterException;
 
 import one.microstream.collections.EqHashTable;
+import one.microstream.collections.lazy.LazyHashMap;
 import one.microstream.collections.types.XTable;
+import one.microstream.math.XMath;
+import one.microstream.persistence.types.Storer;
 import one.microstream.reference.Lazy;
 import one.microstream.storage.types.StorageManager;
+import one.microstream.typing.KeyValue;
 
 
+/**
+ * {@link CacheLoader} and {@link CacheWriter} backed by a {@link StorageManager}.
+ * <p>
+ * The entries of a cache are distributed over a fixed number of shards, each of which is a {@link LazyHashMap}
+ * of lazily referenced values. A write only stores the new value and the modified segment of the affected shard,
+ * instead of the whole table. Operations on keys of different shards don't block each other.
+ * <p>
+ * The shards are modified before their changes are committed. If a commit fails, the affected shards are
+ * stored by the next write to them in any case, so retrying a failed operation persists its changes,
+ * even if the retry itself finds nothing left to change.
+ * <p>
+ * Caches stored in the former layout, a single table per cache, are migrated on first access.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
 public interface CacheStore<K, V> extends CacheLoader<K, V>, CacheWriter<K, V>
 {
 	public Iterator<K> keys();
 	
+	/**
+	 * Removes all entries at once. Unlike {@link #deleteAll(Collection)}, the keys don't have to be known and
+	 * only the emptied shards are stored, in one commit.
+	 * 
+	 * @throws CacheWriterException if the storage fails
+	 */
+	public void clear() throws CacheWriterException;
+	
 	
 	public static <K, V> CacheStore<K, V> New(final String cacheKey, final StorageManager storage)
 	{
-		return new Default<>(cacheKey, storage);
+		return New(cacheKey, storage, Defaults.defaultShardCount());
+	}
+	
+	/**
+	 * Creates a new {@link CacheStore}. The shard count is only used for caches which are not yet contained
+	 * in the storage, existing ones keep their shard count.
+	 * 
+	 * @param <K> the key type
+	 * @param <V> the value type
+	 * @param cacheKey the slot name for the data in the storage's root, usually the cache's name
+	 * @param storage the storage to use
+	 * @param shardCount the number of independently locked and stored shards
+	 * @return a new cache store
+	 */
+	public static <K, V> CacheStore<K, V> New(
+		final String         cacheKey  ,
+		final StorageManager storage   ,
+		final int            shardCount
+	)
+	{
+		return new Default<>(
+			notEmpty(cacheKey)          ,
+			notNull(storage)            ,
+			XMath.positive(shardCount)
+		);
 	}
 	
+	
+	public interface Defaults
+	{
+		public static int defaultShardCount()
+		{
+			return 16;
+		}
+	}
+	
+	
 	public static class Default<K, V> implements CacheStore<K, V>
 	{
-		private final String                 cacheKey;
-		private final StorageManager storage;
+		private final    String                    cacheKey      ;
+		private final    StorageManager            storage       ;
+		private final    int                       shardCount    ;
+		private volatile LazyHashMap<K, Lazy<V>>[] shards        ;
+		
+		// shards with changes of a failed commit, each flag is guarded by the lock of its shard
+		private          boolean[]                 unstoredShards;
 		
-		Default(final String cacheKey, final StorageManager storage)
+		Default(final String cacheKey, final StorageManager storage, final int shardCount)
 		{
 			super();
 			
-			this.cacheKey = notEmpty(cacheKey);
-			this.storage  = notNull(storage);
+			this.cacheKey   = cacheKey  ;
+			this.storage    = storage   ;
+			this.shardCount = shardCount;
+		}
+		
+		private LazyHashMap<K, Lazy<V>>[] shards(final boolean create)
+		{
+			LazyHashMap<K, Lazy<V>>[] shards;
+			if((shards = this.shards) == null)
+			{
+				synchronized(this.storage)
+				{
+					if((shards = this.shards) == null && (shards = this.resolveShards(create)) != null)
+					{
+						// published by the volatile write of the shards
+						this.unstoredShards = new boolean[shards.length];
+						this.shards         = shards;
+					}
+				}
+			}
+			return shards;
 		}
 		
 		@SuppressWarnings("unchecked")
-		private XTable<K, Lazy<V>> cacheTable(final boolean create)
+		private LazyHashMap<K, Lazy<V>>[] resolveShards(final boolean create)
 		{
-			synchronized(this.storage)
+			if(!this.storage.isRunning())
+			{
+				this.storage.start();
+			}
+			
+			boolean                      storeRoot = false;
+			XTable<String, Lazy<Object>> root;
+			if((root = (XTable<String, Lazy<Object>>)this.storage.root()) == null)
+			{
+				this.storage.setRoot(root = EqHashTable.New());
+				storeRoot = true;
+			}
+			
+			final Object              data   = Lazy.get(root.get(this.cacheKey));
+			LazyHashMap<K, Lazy<V>>[] shards = null;
+			if(data instanceof LazyHashMap[])
+			{
+				shards = (LazyHashMap<K, Lazy<V>>[])data;
+			}
+			else if(data != null || create)
 			{
-				if(!this.storage.isRunning())
+				shards = new LazyHashMap[this.shardCount];
+				for(int i = 0; i < shards.length; i++)
 				{
-					this.storage.start();
+					shards[i] = LazyHashMap.New();
 				}
-				
-				boolean                                  storeRoot = false;
-				XTable<String, Lazy<XTable<K, Lazy<V>>>> root;
-				if((root = (XTable<String, Lazy<XTable<K, Lazy<V>>>>)this.storage.root()) == null)
+				if(data != null)
 				{
-					this.storage.setRoot(root = EqHashTable.New());
-					storeRoot = true;
+					// migrate the former layout, the already stored values are kept
+					for(final KeyValue<K, Lazy<V>> kv : (XTable<K, Lazy<V>>)data)
+					{
+						shard(shards, kv.key()).put(kv.key(), kv.value());
+					}
 				}
-				XTable<K, Lazy<V>> cacheTable;
-				if((cacheTable = Lazy.get(root.get(this.cacheKey))) == null && create)
+				root.put(this.cacheKey, Lazy.Reference(shards));
+				storeRoot = true;
+			}
+			if(storeRoot)
+			{
+				this.storage.storeRoot();
+			}
+			return shards;
+		}
+		
+		private static int shardIndex(final LazyHashMap<?, ?>[] shards, final Object key)
+		{
+			final int hash = key.hashCode();
+			return Math.floorMod(hash ^ hash >>> 16, shards.length);
+		}
+		
+		private static <K, V> LazyHashMap<K, Lazy<V>> shard(
+			final LazyHashMap<K, Lazy<V>>[] shards,
+			final Object                    key
+		)
+		{
+			return shards[shardIndex(shards, key)];
+		}
+		
+		private Lazy<V> lazy(final LazyHashMap<K, Lazy<V>>[] shards, final Object key)
+		{
+			final LazyHashMap<K, Lazy<V>> shard = shard(shards, key);
+			synchronized(shard)
+			{
+				return shard.get(key);
+			}
+		}
+		
+		/*
+		 * Applies the logic to all shards with a non-null group, while holding the locks of all of them.
+		 * The locks are acquired in ascending shard order, so concurrent updates cannot deadlock, and the storer
+		 * is committed while holding them, so the shards' states are persisted in modification order.
+		 * Shards are stored if the logic changed them or if they still have changes of a failed commit.
+		 */
+		private <T> void update(
+			final LazyHashMap<K, Lazy<V>>[]                  shards ,
+			final List<T>                                    grouped,
+			final BiPredicate<LazyHashMap<K, Lazy<V>>, T>    logic  ,
+			final Storer                                     storer
+		)
+		{
+			this.update(shards, grouped, logic, storer, new boolean[shards.length], 0);
+		}
+		
+		private <T> void update(
+			final LazyHashMap<K, Lazy<V>>[]                  shards ,
+			final List<T>                                    grouped,
+			final BiPredicate<LazyHashMap<K, Lazy<V>>, T>    logic  ,
+			final Storer                                     storer ,
+			final boolean[]                                  stored ,
+			final int                                        index
+		)
+		{
+			for(int i = index; i < shards.length; i++)
+			{
+				final T group;
+				if((group = grouped.get(i)) != null)
 				{
-					root.put(this.cacheKey, Lazy.Reference(cacheTable = EqHashTable.New()));
-					storeRoot = true;
+					final LazyHashMap<K, Lazy<V>> shard = shards[i];
+					synchronized(shard)
+					{
+						// evaluated first, the logic has to be applied in any case
+						if(logic.test(shard, group) | this.unstoredShards[i])
+						{
+							storer.store(shard);
+							stored[i] = true;
+						}
+						this.update(shards, grouped, logic, storer, stored, i + 1);
+					}
+					return;
 				}
-				if(storeRoot)
+			}
+			
+			this.commit(storer, stored);
+		}
+		
+		// must be called while holding the locks of all stored shards
+		private void commit(final Storer storer, final boolean[] stored)
+		{
+			try
+			{
+				storer.commit();
+			}
+			catch(final RuntimeException e)
+			{
+				// the shards have been modified already, so the next update has to store them in any case
+				for(int i = 0; i < stored.length; i++)
 				{
-					this.storage.storeRoot();
+					this.unstoredShards[i] |= stored[i];
 				}
-				return cacheTable;
+				throw e;
 			}
+			
+			for(int i = 0; i < stored.length; i++)
+			{
+				this.unstoredShards[i] &= !stored[i];
+			}
+		}
+		
+		private static <T> List<T> group(
+			final LazyHashMap<?, ?>[] shards,
+			final Object              key   ,
+			final T                   group
+		)
+		{
+			final List<T> grouped = new ArrayList<>(Collections.nCopies(shards.length, null));
+			grouped.set(shardIndex(shards, key), group);
+			
+			return grouped;
 		}
 		
 		@Override
-		public synchronized Iterator<K> keys()
+		public Iterator<K> keys()
 		{
-			final XTable<K, Lazy<V>> cacheTable = this.cacheTable(false);
-			return cacheTable != null
-				? cacheTable.keys().iterator()
-				: Collections.emptyIterator()
-			;
+			final LazyHashMap<K, Lazy<V>>[] shards;
+			if((shards = this.shards(false)) == null)
+			{
+				return Collections.emptyIterator();
+			}
+			
+			final List<K> keys = new ArrayList<>();
+			for(final LazyHashMap<K, Lazy<V>> shard : shards)
+			{
+				synchronized(shard)
+				{
+					keys.addAll(shard.keySet());
+				}
+			}
+			return keys.iterator();
 		}
 		
 		@Override
-		public synchronized V load(final K key) throws CacheLoaderException
+		public V load(final K key) throws CacheLoaderException
 		{
 			try
 			{
-				final XTable<K, Lazy<V>> cacheTable;
-				return (cacheTable = this.cacheTable(false)) != null
-					? Lazy.get(cacheTable.get(key))
+				final LazyHashMap<K, Lazy<V>>[] shards;
+				return (shards = this.shards(false)) != null
+					? Lazy.get(this.lazy(shards, key))
 					: null;
 			}
 			catch(final Exception e)
@@ -123,15 +343,43 @@ public interface CacheStore<K, V> extends CacheLoader<K, V>, CacheWriter<K, V>
 		}
 		
 		@Override
-		public synchronized Map<K, V> loadAll(final Iterable<? extends K> keys) throws CacheLoaderException
+		public Map<K, V> loadAll(final Iterable<? extends K> keys) throws CacheLoaderException
 		{
 			try
 			{
-				final Map<K, V>          result = new HashMap<>();
-				final XTable<K, Lazy<V>> cacheTable;
-				if((cacheTable = this.cacheTable(false)) != null)
+				final Map<K, V>                 result = new HashMap<>();
+				final LazyHashMap<K, Lazy<V>>[] shards;
+				if((shards = this.shards(false)) != null)
 				{
-					keys.forEach(key -> result.put(key, Lazy.get(cacheTable.get(key))));
+					final List<List<K>> grouped = new ArrayList<>(Collections.nCopies(shards.length, null));
+					for(final K key : keys)
+					{
+						final int index = shardIndex(shards, key);
+						if(grouped.get(index) == null)
+						{
+							grouped.set(index, new ArrayList<>());
+						}
+						grouped.get(index).add(key);
+					}
+					
+					// each shard is locked once, for all of its keys
+					final Map<K, Lazy<V>> lazies = new HashMap<>();
+					for(int i = 0; i < shards.length; i++)
+					{
+						final List<K> shardKeys;
+						if((shardKeys = grouped.get(i)) != null)
+						{
+							final LazyHashMap<K, Lazy<V>> shard = shards[i];
+							synchronized(shard)
+							{
+								shardKeys.forEach(key -> lazies.put(key, shard.get(key)));
+							}
+						}
+					}
+					
+					// one request to the storage for all values which are not loaded yet
+					Lazy.loadAll(lazies.values());
+					lazies.forEach((key, lazy) -> result.put(key, Lazy.get(lazy)));
 				}
 				return result;
 			}
@@ -142,13 +390,22 @@ public interface CacheStore<K, V> extends CacheLoader<K, V>, CacheWriter<K, V>
 		}
 		
 		@Override
-		public synchronized void write(final Entry<? extends K, ? extends V> entry) throws CacheWriterException
+		public void write(final Entry<? extends K, ? extends V> entry) throws CacheWriterException
 		{
 			try
 			{
-				final XTable<K, Lazy<V>> cacheTable = this.cacheTable(true);
-				cacheTable.put(entry.getKey(), Lazy.Reference(entry.getValue()));
-				this.storage.store(cacheTable);
+				final LazyHashMap<K, Lazy<V>>[] shards = this.shards(true);
+				final Storer                    storer = this.storage.createStorer();
+				final Lazy<V>                   value  = Lazy.Reference(entry.getValue());
+				
+				// the expensive part, storing the value, is done outside of the shard's lock
+				storer.store(value);
+				
+				this.update(shards, group(shards, entry.getKey(), value), (shard, v) ->
+				{
+					shard.put(entry.getKey(), v);
+					return true;
+				}, storer);
 			}
 			catch(final Exception e)
 			{
@@ -157,14 +414,35 @@ public interface CacheStore<K, V> extends CacheLoader<K, V>, CacheWriter<K, V>
 		}
 		
 		@Override
-		public synchronized void writeAll(final Collection<Entry<? extends K, ? extends V>> entries)
+		public void writeAll(final Collection<Entry<? extends K, ? extends V>> entries)
 			throws CacheWriterException
 		{
 			try
 			{
-				final XTable<K, Lazy<V>> cacheTable = this.cacheTable(true);
-				entries.forEach(entry -> cacheTable.put(entry.getKey(), Lazy.Reference(entry.getValue())));
-				this.storage.store(cacheTable);
+				final LazyHashMap<K, Lazy<V>>[] shards  = this.shards(true);
+				final List<Map<K, Lazy<V>>>     grouped = new ArrayList<>(Collections.nCopies(shards.length, null));
+				final Storer                    storer  = this.storage.createStorer();
+				for(final Entry<? extends K, ? extends V> entry : entries)
+				{
+					final int index = shardIndex(shards, entry.getKey());
+					if(grouped.get(index) == null)
+					{
+						grouped.set(index, new HashMap<>());
+					}
+					final Lazy<V> value = Lazy.Reference(entry.getValue());
+					storer.store(value);
+					grouped.get(index).put(entry.getKey(), value);
+				}
+				
+				// one commit for all shards, see #update
+				this.update(shards, grouped, (shard, values) ->
+				{
+					shard.putAll(values);
+					return true;
+				}, storer);
+				
+				// all entries have been written
+				entries.clear();
 			}
 			catch(final Exception e)
 			{
@@ -172,17 +450,20 @@ public interface CacheStore<K, V> extends CacheLoader<K, V>, CacheWriter<K, V>
 			}
 		}
 		
-		@SuppressWarnings("unchecked") // Object in typed interface [sigh]
 		@Override
-		public synchronized void delete(final Object key) throws CacheWriterException
+		public void delete(final Object key) throws CacheWriterException
 		{
 			try
 			{
-				final XTable<K, Lazy<V>> cacheTable;
-				if((cacheTable = this.cacheTable(false)) != null
-					&& cacheTable.removeFor((K)key) != null)
+				final LazyHashMap<K, Lazy<V>>[] shards;
+				if((shards = this.shards(false)) != null)
 				{
-					this.storage.store(cacheTable);
+					this.update(
+						shards,
+						group(shards, key, key),
+						(shard, k) -> shard.remove(k) != null,
+						this.storage.createStorer()
+					);
 				}
 			}
 			catch(final Exception e)
@@ -192,29 +473,62 @@ public interface CacheStore<K, V> extends CacheLoader<K, V>, CacheWriter<K, V>
 		}
 		
 		@Override
-		public synchronized void deleteAll(final Collection<?> keys) throws CacheWriterException
+		public void deleteAll(final Collection<?> keys) throws CacheWriterException
 		{
 			try
 			{
-				final XTable<K, Lazy<V>> cacheTable;
-				if((cacheTable = this.cacheTable(false)) != null)
+				final LazyHashMap<K, Lazy<V>>[] shards;
+				if((shards = this.shards(false)) != null)
 				{
-					boolean           changed  = false;
-					final Iterator<?> iterator = keys.iterator();
-					while(iterator.hasNext())
+					final List<List<Object>> grouped = new ArrayList<>(Collections.nCopies(shards.length, null));
+					for(final Object key : keys)
 					{
-						@SuppressWarnings("unchecked")
-						final K key = (K)iterator.next();
-						if(cacheTable.removeFor(key) != null)
+						final int index = shardIndex(shards, key);
+						if(grouped.get(index) == null)
 						{
-							iterator.remove();
-							changed = true;
+							grouped.set(index, new ArrayList<>());
 						}
+						grouped.get(index).add(key);
 					}
-					if(changed)
+					
+					this.update(shards, grouped, (shard, shardKeys) ->
 					{
-						this.storage.store(cacheTable);
-					}
+						boolean changed = false;
+						for(final Object key : shardKeys)
+						{
+							changed |= shard.remove(key) != null;
+						}
+						return changed;
+					}, this.storage.createStorer());
+				}
+				
+				// absent keys count as deleted, so a retried deletion cannot fail for already deleted keys
+				keys.clear();
+			}
+			catch(final Exception e)
+			{
+				throw new CacheWriterException(e);
+			}
+		}
+		
+		@Override
+		public void clear() throws CacheWriterException
+		{
+			try
+			{
+				final LazyHashMap<K, Lazy<V>>[] shards;
+				if((shards = this.shards(false)) != null)
+				{
+					// one commit for all shards, see #update
+					this.update(shards, Collections.nCopies(shards.length, shards), (shard, all) ->
+					{
+						if(shard.isEmpty())
+						{
+							return false;
+						}
+						shard.clear();
+						return true;
+					}, this.storage.createStorer());
 				}
 			}
 			catch(final Exception e)
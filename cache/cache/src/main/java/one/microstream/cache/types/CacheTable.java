@@ -23,17 +23,37 @@ package one.microstream.cache.types;
 
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import one.microstream.X;
-import one.microstream.collections.EqHashTable;
+import one.microstream.branching.ThrowBreak;
 import one.microstream.functional.Aggregator;
+import one.microstream.math.XMath;
 import one.microstream.typing.KeyValue;
 
-
+/**
+ * Thread-safe table holding the entries of a {@link Cache}.
+ * <p>
+ * Single operations are safe to be called concurrently. Operations which combine several calls for one key,
+ * like a read followed by a conditional write, have to be executed while holding the monitor returned by
+ * {@link #lockFor(Object)}. Different keys are guarded by different monitors, so operations on unrelated
+ * keys don't block each other. Iterations are weakly consistent, they never fail because of concurrent
+ * modifications.
+ *
+ */
 public interface CacheTable
 {
+	/**
+	 * Returns the monitor which guards compound operations on the entry of the passed key.
+	 * 
+	 * @param key the entry's key
+	 * @return the lock object for the key
+	 */
+	public Object lockFor(Object key);
+	
 	public CachedValue get(Object key);
 	
 	public boolean put(Object key, CachedValue value);
@@ -59,23 +79,87 @@ public interface CacheTable
 		long                                              length    ,
 		Comparator<? super KeyValue<Object, CachedValue>> comparator
 	);
+	
+	/**
+	 * Registers a policy which is notified about all structural changes and reported accesses of this table,
+	 * replacing a previously registered one. Passing <code>null</code> stops the tracking.
+	 * 
+	 * @param tracking the policy to notify, or <code>null</code>
+	 */
+	public void track(EvictionPolicy.Tracking tracking);
+	
+	/**
+	 * Reports an access to or an in-place update of an existing entry to the tracking policy, if any.
+	 * 
+	 * @param key the entry's key
+	 * @param value the entry's value
+	 */
+	public void access(Object key, CachedValue value);
+	
+	/**
+	 * Registers a wheel which schedules the expiry of all entries put into this table and deschedules
+	 * removed ones, replacing a previously registered one. Passing <code>null</code> stops the scheduling.
+	 * 
+	 * @param expiryWheel the wheel to schedule the entries in, or <code>null</code>
+	 */
+	public void scheduleExpiries(ExpiryWheel expiryWheel);
 			
 	
+	public static int DefaultLockStripeCount()
+	{
+		// enough stripes to make collisions of concurrently used keys unlikely
+		return Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 8 - 1) << 1;
+	}
+	
 	public static CacheTable New()
 	{
-		return new Default();
+		return New(DefaultLockStripeCount());
+	}
+	
+	/**
+	 * Creates a new {@link CacheTable} with the passed number of lock stripes, which is rounded up to
+	 * the next power of two.
+	 * 
+	 * @param lockStripeCount the number of monitors to distribute the keys on
+	 * @return a new cache table
+	 */
+	public static CacheTable New(final int lockStripeCount)
+	{
+		return new Default(
+			XMath.positive(lockStripeCount) == 1
+				? 1
+				: Integer.highestOneBit(lockStripeCount - 1) << 1
+		);
 	}
 	
 	
 	public static class Default implements CacheTable
 	{
-		final EqHashTable<Object, CachedValue> table;
+		final ConcurrentHashMap<Object, CachedValue> table      ;
+		final Object[]                               locks      ;
+		final int                                    lockRange  ;
+		volatile EvictionPolicy.Tracking             tracking   ;
+		volatile ExpiryWheel                         expiryWheel;
 		
-		Default()
+		Default(final int lockStripeCount)
 		{
 			super();
 			
-			this.table = EqHashTable.New();
+			this.table     = new ConcurrentHashMap<>();
+			this.locks     = new Object[lockStripeCount];
+			this.lockRange = lockStripeCount - 1;
+			for(int i = 0; i < lockStripeCount; i++)
+			{
+				this.locks[i] = new Object();
+			}
+		}
+		
+		@Override
+		public Object lockFor(final Object key)
+		{
+			// spread higher bits, since only the lower bits select the stripe
+			final int hash = key.hashCode();
+			return this.locks[(hash ^ hash >>> 16) & this.lockRange];
 		}
 		
 		@Override
@@ -87,32 +171,106 @@ public interface CacheTable
 		@Override
 		public boolean put(final Object key, final CachedValue value)
 		{
-			return this.table.put(key, value);
+			final CachedValue             replaced    = this.table.put(key, value);
+			final EvictionPolicy.Tracking tracking    = this.tracking;
+			final ExpiryWheel             expiryWheel = this.expiryWheel;
+			if(tracking != null)
+			{
+				if(replaced == null)
+				{
+					tracking.created(key, value);
+				}
+				else
+				{
+					tracking.updated(key, value);
+				}
+			}
+			if(expiryWheel != null)
+			{
+				expiryWheel.schedule(key, value);
+			}
+			if(replaced != null && replaced != value)
+			{
+				replaced.release();
+			}
+			
+			return replaced == null;
 		}
 		
 		@Override
 		public CachedValue remove(final Object key)
 		{
-			return this.table.removeFor(key);
+			final CachedValue             removed     = this.table.remove(key);
+			final EvictionPolicy.Tracking tracking    = this.tracking;
+			final ExpiryWheel             expiryWheel = this.expiryWheel;
+			if(removed != null)
+			{
+				if(tracking != null)
+				{
+					tracking.removed(key, removed);
+				}
+				if(expiryWheel != null)
+				{
+					expiryWheel.deschedule(key);
+				}
+				removed.release();
+			}
+			
+			return removed;
+		}
+		
+		@Override
+		public void track(final EvictionPolicy.Tracking tracking)
+		{
+			this.tracking = tracking;
+			if(tracking != null)
+			{
+				// catch up with the already existing entries. Entries put concurrently are only reweighed.
+				for(final Map.Entry<Object, CachedValue> entry : this.table.entrySet())
+				{
+					tracking.created(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+		
+		@Override
+		public void scheduleExpiries(final ExpiryWheel expiryWheel)
+		{
+			this.expiryWheel = expiryWheel;
+			if(expiryWheel != null)
+			{
+				// catch up with the already existing entries
+				for(final Map.Entry<Object, CachedValue> entry : this.table.entrySet())
+				{
+					expiryWheel.schedule(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+		
+		@Override
+		public void access(final Object key, final CachedValue value)
+		{
+			final EvictionPolicy.Tracking tracking = this.tracking;
+			if(tracking != null)
+			{
+				tracking.accessed(key, value);
+			}
 		}
 		
 		@Override
 		public Iterable<Object> keys()
 		{
-			return this.table.keys();
+			return this.table.keySet();
 		}
 		
 		@Override
 		public Iterator<KeyValue<Object, CachedValue>> iterator()
 		{
-			final Iterator<KeyValue<Object, CachedValue>> it = this.table.iterator();
-			/*
-			 * Iterator#remove is used by Cache, so we have to implement it
-			 * since EqHashTable's iterators don't.
-			 */
+			final Iterator<Map.Entry<Object, CachedValue>> it = this.table.entrySet().iterator();
+			
 			return new Iterator<KeyValue<Object, CachedValue>>()
 			{
-				KeyValue<Object, CachedValue> next;
+				Map.Entry<Object, CachedValue> current;
 				
 				@Override
 				public boolean hasNext()
@@ -123,13 +281,25 @@ public interface CacheTable
 				@Override
 				public KeyValue<Object, CachedValue> next()
 				{
-					return this.next = it.next();
+					final Map.Entry<Object, CachedValue> next = this.current = it.next();
+					return KeyValue.New(next.getKey(), next.getValue());
 				}
 				
 				@Override
 				public void remove()
 				{
-					CacheTable.Default.this.table.remove(this.next);
+					it.remove();
+					final EvictionPolicy.Tracking tracking = Default.this.tracking;
+					if(tracking != null)
+					{
+						tracking.removed(this.current.getKey(), this.current.getValue());
+					}
+					final ExpiryWheel expiryWheel = Default.this.expiryWheel;
+					if(expiryWheel != null)
+					{
+						expiryWheel.deschedule(this.current.getKey());
+					}
+					this.current.getValue().release();
 				}
 			};
 		}
@@ -137,31 +307,66 @@ public interface CacheTable
 		@Override
 		public void iterate(final Consumer<KeyValue<Object, CachedValue>> procedure)
 		{
-			this.table.iterate(procedure);
+			try
+			{
+				for(final Map.Entry<Object, CachedValue> entry : this.table.entrySet())
+				{
+					procedure.accept(KeyValue.New(entry.getKey(), entry.getValue()));
+				}
+			}
+			catch(final ThrowBreak b)
+			{
+				// abort iteration
+			}
 		}
 
 		@Override
 		public KeyValue<Object, CachedValue> search(final Predicate<? super KeyValue<Object, CachedValue>> predicate)
 		{
-			return this.table.search(predicate);
+			for(final Map.Entry<Object, CachedValue> entry : this.table.entrySet())
+			{
+				final KeyValue<Object, CachedValue> kv = KeyValue.New(entry.getKey(), entry.getValue());
+				if(predicate.test(kv))
+				{
+					return kv;
+				}
+			}
+			
+			return null;
 		}
 		
 		@Override
 		public long size()
 		{
-			return this.table.size();
+			return this.table.mappingCount();
 		}
 		
 		@Override
 		public void clear()
 		{
-			this.table.clear();
+			// remove one by one to release and deschedule exactly the removed entries
+			final ExpiryWheel expiryWheel = this.expiryWheel;
+			for(final Iterator<Map.Entry<Object, CachedValue>> it = this.table.entrySet().iterator(); it.hasNext();)
+			{
+				final Map.Entry<Object, CachedValue> entry = it.next();
+				it.remove();
+				if(expiryWheel != null)
+				{
+					expiryWheel.deschedule(entry.getKey());
+				}
+				entry.getValue().release();
+			}
+			final EvictionPolicy.Tracking tracking = this.tracking;
+			if(tracking != null)
+			{
+				tracking.cleared();
+			}
 		}
 		
 		@Override
 		public KeyValue<Object, CachedValue> min(final Comparator<? super KeyValue<Object, CachedValue>> comparator)
 		{
-			return this.table.min(comparator);
+			return this.rangeMin(0, Long.MAX_VALUE, comparator);
 		}
 				
 		@Override
@@ -171,7 +376,10 @@ public interface CacheTable
 			final Comparator<? super KeyValue<Object, CachedValue>> comparator
 		)
 		{
-			return this.table.iterate(new RangeMin<>(offset, length, comparator)).yield();
+			final RangeMin<KeyValue<Object, CachedValue>> rangeMin = new RangeMin<>(offset, length, comparator);
+			this.iterate(rangeMin);
+			
+			return rangeMin.yield();
 		}
 		
 		
@@ -21,6 +21,16 @@ package one.microstream.cache.types;
  * #L%
  */
 
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Value holder of a cache entry, including its access and modification metadata.
+ * <p>
+ * The metadata can be read and updated concurrently: changes of one thread are immediately visible
+ * to others and counters don't lose increments, e.g. when an eviction policy inspects entries
+ * while they are accessed.
+ *
+ */
 public interface CachedValue
 {
 	public long creationTime();
@@ -49,6 +59,15 @@ public interface CachedValue
 	
 	public long byteSizeEstimate();
 	
+	/**
+	 * Called when the value has been removed from its cache, to give back resources held outside of the heap.
+	 * The value must remain readable afterwards.
+	 */
+	public default void release()
+	{
+		// no-op by default
+	}
+	
 	public static CachedValue New(final Object value, final long creationTime, final long expiryTime)
 	{
 		return new Default(value, creationTime, expiryTime);
@@ -56,13 +75,20 @@ public interface CachedValue
 	
 	public static class Default implements CachedValue
 	{
-		private Object     value;
-		private final long creationTime;
-		private long       accessTime;
-		private long       accessCount;
-		private long       modificationTime;
-		private long       modificationCount;
-		private long       expiryTime;
+		private static final AtomicLongFieldUpdater<Default> ACCESS_COUNT =
+			AtomicLongFieldUpdater.newUpdater(Default.class, "accessCount")
+		;
+		private static final AtomicLongFieldUpdater<Default> MODIFICATION_COUNT =
+			AtomicLongFieldUpdater.newUpdater(Default.class, "modificationCount")
+		;
+		
+		private volatile Object value;
+		private final    long   creationTime;
+		private volatile long   accessTime;
+		private volatile long   accessCount;
+		private volatile long   modificationTime;
+		private volatile long   modificationCount;
+		private volatile long   expiryTime;
 		
 		Default(final Object value, final long creationTime, final long expiryTime)
 		{
@@ -137,7 +163,7 @@ public interface CachedValue
 		public Object value(final long accessTime)
 		{
 			this.accessTime = accessTime;
-			this.accessCount++;
+			ACCESS_COUNT.incrementAndGet(this);
 			return this.value;
 		}
 		
@@ -153,7 +179,7 @@ public interface CachedValue
 		{
 			this.modificationTime = modificationTime;
 			this.value            = value;
-			this.modificationCount++;
+			MODIFICATION_COUNT.incrementAndGet(this);
 			return this;
 		}
 		
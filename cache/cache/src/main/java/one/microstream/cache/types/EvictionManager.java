@@ -85,6 +85,23 @@ public interface EvictionManager<K, V>
 				cache.evict(entriesToEvict);
 			}
 		}
+		
+		void track(final CacheTable cacheTable)
+		{
+			if(this.evictionPolicy instanceof EvictionPolicy.Tracking)
+			{
+				cacheTable.track((EvictionPolicy.Tracking)this.evictionPolicy);
+			}
+		}
+		
+		void untrack(final CacheTable cacheTable)
+		{
+			if(this.evictionPolicy instanceof EvictionPolicy.Tracking)
+			{
+				cacheTable.track(null);
+				((EvictionPolicy.Tracking)this.evictionPolicy).cleared();
+			}
+		}
 	}
 		
 	
@@ -102,6 +119,8 @@ public interface EvictionManager<K, V>
 		{
 			if(this.listenerConfiguration == null)
 			{
+				this.track(cacheTable);
+				
 				final CacheEntryCreatedListener<K, V> entryCreatedListener = events ->
 					events.forEach(event -> this.evict(cache, cacheTable))
 				;
@@ -123,6 +142,7 @@ public interface EvictionManager<K, V>
 			if(this.listenerConfiguration != null)
 			{
 				cache.deregisterCacheEntryListener(this.listenerConfiguration);
+				this.untrack(cacheTable);
 				
 				this.listenerConfiguration = null;
 			}
@@ -156,6 +176,7 @@ public interface EvictionManager<K, V>
 			
 			if(!this.running.get())
 			{
+				this.track(cacheTable);
 				this.running.set(true);
 				new IntervalThread(new WeakReference<>(this), this.milliTimeIntervalProvider).start();
 			}
@@ -165,6 +186,10 @@ public interface EvictionManager<K, V>
 		public void uninstall(final Cache<K, V> cache, final CacheTable cacheTable)
 		{
 			this.running.set(false);
+			if(this.cacheTable != null)
+			{
+				this.untrack(this.cacheTable);
+			}
 			this.cache      = null;
 			this.cacheTable = null;
 		}
@@ -24,12 +24,16 @@ package one.microstream.cache.types;
 import static one.microstream.X.notNull;
 
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Random;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
 
 import one.microstream.X;
+import one.microstream.collections.BulkList;
 import one.microstream.collections.EqHashEnum;
 import one.microstream.collections.types.XEnum;
+import one.microstream.math.XMath;
 import one.microstream.reference._intReference;
 import one.microstream.typing.KeyValue;
 
@@ -192,6 +196,42 @@ public interface EvictionPolicy
 		);
 	}
 	
+	/**
+	 * Segmented LRU: new entries start in a probation segment and are promoted to a protected segment
+	 * when they are accessed again, so entries which are used only once are evicted first.
+	 * 
+	 * @param maxCacheSize the maximum number of entries
+	 * @return a new {@link Tracking} eviction policy
+	 */
+	public static EvictionPolicy SegmentedLeastRecentlyUsed(final long maxCacheSize)
+	{
+		return new Segmented(XMath.positive(maxCacheSize), false);
+	}
+	
+	/**
+	 * Segmented LRU which limits the summed up {@link ByteSized#byteSize()} of the values instead of the entry
+	 * count. Values which are not {@link ByteSized} weigh 1.
+	 * 
+	 * @param maxByteSize the maximum byte size of all values
+	 * @return a new {@link Tracking} eviction policy
+	 */
+	public static EvictionPolicy SizeWeightedLeastRecentlyUsed(final long maxByteSize)
+	{
+		return new Segmented(XMath.positive(maxByteSize), true);
+	}
+	
+	/**
+	 * W-TinyLFU: new entries enter a small LRU window. Entries leaving the window only replace entries of the
+	 * main segmented LRU if they have been used more frequently, which is estimated by a count-min sketch.
+	 * 
+	 * @param maxCacheSize the maximum number of entries
+	 * @return a new {@link Tracking} eviction policy
+	 */
+	public static EvictionPolicy WindowTinyLeastFrequentlyUsed(final long maxCacheSize)
+	{
+		return new WindowTinyLfu(XMath.positive(maxCacheSize));
+	}
+	
 	public static EvictionPolicy Sampling(
 		final _intReference                             elementCount,
 		final Predicate<CacheTable>                     evictionNecessity,
@@ -385,4 +425,632 @@ public interface EvictionPolicy
 		
 	}
 	
+	
+	/**
+	 * Eviction policy which keeps its own bookkeeping of the cache's entries instead of inspecting the
+	 * {@link CacheTable} on each eviction. It gets notified by the table it is registered at, see
+	 * {@link CacheTable#track(Tracking)}, so picking the entries to evict needs constant time per entry.
+	 *
+	 */
+	public static interface Tracking extends EvictionPolicy
+	{
+		/**
+		 * A new entry has been put into the table.
+		 * An already tracked key is only reweighed, e.g. when catching up with existing entries.
+		 * 
+		 * @param key the entry's key
+		 * @param value the entry's value
+		 */
+		public void created(Object key, CachedValue value);
+		
+		/**
+		 * The value of an existing entry has been replaced.
+		 * 
+		 * @param key the entry's key
+		 * @param value the entry's new value
+		 */
+		public void updated(Object key, CachedValue value);
+		
+		/**
+		 * An entry has been accessed or updated in place.
+		 * Implementations may drop notifications under contention. Notifications for untracked keys are ignored,
+		 * since accesses may be notified without holding the entry's lock, after it has been removed concurrently.
+		 * 
+		 * @param key the entry's key
+		 * @param value the entry's value
+		 */
+		public void accessed(Object key, CachedValue value);
+		
+		/**
+		 * An entry has been removed from the table.
+		 * 
+		 * @param key the entry's key
+		 * @param value the removed value
+		 */
+		public void removed(Object key, CachedValue value);
+		
+		/**
+		 * All entries have been removed from the table.
+		 */
+		public void cleared();
+		
+	}
+	
+	
+	/*
+	 * Base for tracking policies: a key to node map and doubly linked node lists, guarded by one lock.
+	 * Accesses are recorded only if the lock is free, since a lost recency update is cheaper than
+	 * serializing all readers of the cache.
+	 */
+	public static abstract class AbstractTracking implements Tracking
+	{
+		static final class Node
+		{
+			final Object key   ;
+			CachedValue  value ;
+			long         weight;
+			NodeList     list  ;
+			Node         prev  ;
+			Node         next  ;
+			
+			Node(final Object key, final CachedValue value, final long weight)
+			{
+				super();
+				
+				this.key    = key   ;
+				this.value  = value ;
+				this.weight = weight;
+			}
+			
+		}
+		
+		
+		static final class NodeList
+		{
+			// head is the least recently used node, tail the most recently used one
+			Node head  ;
+			Node tail  ;
+			long weight;
+			
+			NodeList()
+			{
+				super();
+			}
+			
+			final void addLast(final Node node)
+			{
+				node.list = this;
+				node.prev = this.tail;
+				node.next = null;
+				if(this.tail == null)
+				{
+					this.head = node;
+				}
+				else
+				{
+					this.tail.next = node;
+				}
+				this.tail    = node;
+				this.weight += node.weight;
+			}
+			
+			final void remove(final Node node)
+			{
+				if(node.prev == null)
+				{
+					this.head = node.next;
+				}
+				else
+				{
+					node.prev.next = node.next;
+				}
+				if(node.next == null)
+				{
+					this.tail = node.prev;
+				}
+				else
+				{
+					node.next.prev = node.prev;
+				}
+				node.list    = null;
+				node.prev    = null;
+				node.next    = null;
+				this.weight -= node.weight;
+			}
+			
+			final void moveToLast(final Node node)
+			{
+				if(this.tail != node)
+				{
+					this.remove(node);
+					this.addLast(node);
+				}
+			}
+			
+			final void clear()
+			{
+				this.head   = null;
+				this.tail   = null;
+				this.weight = 0;
+			}
+			
+		}
+		
+		
+		final long                  maximum    ;
+		final boolean               weighBySize;
+		final HashMap<Object, Node> nodes      ;
+		final ReentrantLock         lock       ;
+		long                        weightedSize;
+		
+		AbstractTracking(final long maximum, final boolean weighBySize)
+		{
+			super();
+			
+			this.maximum     = maximum    ;
+			this.weighBySize = weighBySize;
+			this.nodes       = new HashMap<>();
+			this.lock        = new ReentrantLock();
+		}
+		
+		final long weigh(final CachedValue value)
+		{
+			return this.weighBySize
+				? Math.max(value.byteSizeEstimate(), 1L)
+				: 1L;
+		}
+		
+		final void reweigh(final Node node, final CachedValue value)
+		{
+			node.value = value;
+			final long weight = this.weigh(value);
+			if(weight != node.weight)
+			{
+				final long delta = weight - node.weight;
+				node.weight        = weight;
+				node.list.weight  += delta;
+				this.weightedSize += delta;
+			}
+		}
+		
+		private void add(final Object key, final CachedValue value)
+		{
+			final Node node = new Node(key, value, this.weigh(value));
+			this.nodes.put(key, node);
+			this.weightedSize += node.weight;
+			this.onCreated(node);
+		}
+		
+		@Override
+		public void created(final Object key, final CachedValue value)
+		{
+			this.lock.lock();
+			try
+			{
+				final Node node = this.nodes.get(key);
+				if(node == null)
+				{
+					this.add(key, value);
+				}
+				else
+				{
+					this.reweigh(node, value);
+				}
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		@Override
+		public void updated(final Object key, final CachedValue value)
+		{
+			this.lock.lock();
+			try
+			{
+				final Node node = this.nodes.get(key);
+				if(node == null)
+				{
+					// replaced before the tracking caught up with the existing entries
+					this.add(key, value);
+				}
+				else
+				{
+					this.reweigh(node, value);
+					this.onAccessed(node);
+				}
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		@Override
+		public void accessed(final Object key, final CachedValue value)
+		{
+			if(!this.lock.tryLock())
+			{
+				return;
+			}
+			try
+			{
+				// an unknown key has been removed concurrently and may not be tracked again
+				final Node node = this.nodes.get(key);
+				if(node != null)
+				{
+					this.reweigh(node, value);
+					this.onAccessed(node);
+				}
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		@Override
+		public void removed(final Object key, final CachedValue value)
+		{
+			this.lock.lock();
+			try
+			{
+				final Node node = this.nodes.remove(key);
+				if(node != null)
+				{
+					node.list.remove(node);
+					this.weightedSize -= node.weight;
+				}
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		@Override
+		public void cleared()
+		{
+			this.lock.lock();
+			try
+			{
+				this.nodes.clear();
+				this.weightedSize = 0;
+				this.onCleared();
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		@Override
+		public Iterable<KeyValue<Object, CachedValue>> pickEntriesToEvict(final CacheTable cacheTable)
+		{
+			this.lock.lock();
+			try
+			{
+				final long excess = this.weightedSize - this.maximum;
+				if(excess <= 0)
+				{
+					return null;
+				}
+				
+				// nodes stay linked until the cache actually removes the entries, see #removed
+				final BulkList<KeyValue<Object, CachedValue>> victims = BulkList.New();
+				this.selectVictims(excess, victims);
+				
+				return victims.isEmpty()
+					? null
+					: victims;
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		static long collect(
+			final NodeList                                list   ,
+			final long                                    excess ,
+			final BulkList<KeyValue<Object, CachedValue>> victims
+		)
+		{
+			long remaining = excess;
+			for(Node node = list.head; node != null && remaining > 0; node = node.next)
+			{
+				victims.add(KeyValue.New(node.key, node.value));
+				remaining -= node.weight;
+			}
+			
+			return remaining;
+		}
+		
+		abstract void onCreated(Node node);
+		
+		abstract void onAccessed(Node node);
+		
+		abstract void onCleared();
+		
+		abstract void selectVictims(long excess, BulkList<KeyValue<Object, CachedValue>> victims);
+		
+	}
+	
+	
+	/*
+	 * Segmented LRU: a probation segment for entries which have been used once and a protected segment,
+	 * limited to 80% of the maximum, for entries which have been used again.
+	 */
+	public static class Segmented extends AbstractTracking
+	{
+		final static double PROTECTED_FACTOR = 0.8;
+		
+		final long     protectedMaximum;
+		final NodeList probation       ;
+		final NodeList protect         ;
+		
+		Segmented(final long maximum, final boolean weighBySize)
+		{
+			super(maximum, weighBySize);
+			
+			this.protectedMaximum = (long)(maximum * PROTECTED_FACTOR);
+			this.probation        = new NodeList();
+			this.protect          = new NodeList();
+		}
+		
+		@Override
+		void onCreated(final Node node)
+		{
+			this.probation.addLast(node);
+		}
+		
+		@Override
+		void onAccessed(final Node node)
+		{
+			if(node.list == this.protect)
+			{
+				this.protect.moveToLast(node);
+				return;
+			}
+			
+			this.probation.remove(node);
+			this.protect.addLast(node);
+			demote(this.protect, this.probation, this.protectedMaximum);
+		}
+		
+		static void demote(final NodeList protect, final NodeList probation, final long protectedMaximum)
+		{
+			Node head;
+			while(protect.weight > protectedMaximum && (head = protect.head) != protect.tail)
+			{
+				protect.remove(head);
+				probation.addLast(head);
+			}
+		}
+		
+		@Override
+		void onCleared()
+		{
+			this.probation.clear();
+			this.protect.clear();
+		}
+		
+		@Override
+		void selectVictims(final long excess, final BulkList<KeyValue<Object, CachedValue>> victims)
+		{
+			collect(this.protect, collect(this.probation, excess, victims), victims);
+		}
+		
+	}
+	
+	
+	/*
+	 * W-TinyLFU: new entries enter a window LRU of 1% of the maximum. Entries which are pushed out of the
+	 * window become candidates at the probation tail of the main segmented LRU. On eviction, each candidate
+	 * competes with the probation head, the one with the lower estimated frequency is evicted.
+	 * This keeps frequently used entries in the cache even if a scan floods it with one-hit entries.
+	 */
+	public static class WindowTinyLfu extends AbstractTracking
+	{
+		final static double WINDOW_FACTOR    = 0.01;
+		final static double PROTECTED_FACTOR = 0.8 ;
+		
+		final long            windowMaximum   ;
+		final long            protectedMaximum;
+		final NodeList        window          ;
+		final NodeList        probation       ;
+		final NodeList        protect         ;
+		final FrequencySketch sketch          ;
+		long                  candidates      ;
+		
+		WindowTinyLfu(final long maximum)
+		{
+			super(maximum, false);
+			
+			this.windowMaximum    = Math.max(1L, (long)(maximum * WINDOW_FACTOR));
+			this.protectedMaximum = (long)((maximum - this.windowMaximum) * PROTECTED_FACTOR);
+			this.window           = new NodeList();
+			this.probation        = new NodeList();
+			this.protect          = new NodeList();
+			this.sketch           = new FrequencySketch(maximum);
+		}
+		
+		@Override
+		void onCreated(final Node node)
+		{
+			this.sketch.increment(node.key);
+			this.window.addLast(node);
+			
+			Node head;
+			while(this.window.weight > this.windowMaximum && (head = this.window.head) != null)
+			{
+				this.window.remove(head);
+				this.probation.addLast(head);
+				this.candidates++;
+			}
+		}
+		
+		@Override
+		void onAccessed(final Node node)
+		{
+			this.sketch.increment(node.key);
+			if(node.list == this.probation)
+			{
+				this.probation.remove(node);
+				this.protect.addLast(node);
+				Segmented.demote(this.protect, this.probation, this.protectedMaximum);
+			}
+			else
+			{
+				node.list.moveToLast(node);
+			}
+		}
+		
+		@Override
+		void onCleared()
+		{
+			this.window.clear();
+			this.probation.clear();
+			this.protect.clear();
+			this.candidates = 0;
+		}
+		
+		@Override
+		void selectVictims(final long excess, final BulkList<KeyValue<Object, CachedValue>> victims)
+		{
+			// the candidates are the newest probation nodes, from the tail down to the boundary
+			Node boundary = null;
+			long count    = this.candidates;
+			for(Node node = this.probation.tail; node != null && count > 0; node = node.prev, count--)
+			{
+				boundary = node;
+			}
+			this.candidates = 0;
+			
+			long remaining = excess;
+			Node victim    = this.probation.head == boundary ? null : this.probation.head;
+			Node candidate = boundary == null ? null : this.probation.tail;
+			while(remaining > 0 && (victim != null || candidate != null))
+			{
+				final Node evicted;
+				if(candidate == null
+				|| victim != null && this.sketch.frequency(candidate.key) > this.sketch.frequency(victim.key))
+				{
+					evicted = victim;
+					victim  = victim.next == boundary ? null : victim.next;
+				}
+				else
+				{
+					evicted   = candidate;
+					candidate = candidate == boundary ? null : candidate.prev;
+				}
+				victims.add(KeyValue.New(evicted.key, evicted.value));
+				remaining -= evicted.weight;
+			}
+			
+			collect(this.window, collect(this.protect, remaining, victims), victims);
+		}
+		
+	}
+	
+	
+	/*
+	 * Count-min sketch with four 4-bit counters per key, packed into longs.
+	 * All counters are halved after a sample period of ten times the maximum size, so the estimation
+	 * adapts to changing access patterns.
+	 */
+	static final class FrequencySketch
+	{
+		static final long[] SEEDS = {
+			0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+		};
+		static final long RESET_MASK = 0x7777_7777_7777_7777L;
+		static final long ONE_MASK   = 0x1111_1111_1111_1111L;
+		
+		final long[] table     ;
+		final int    tableMask ;
+		final long   sampleSize;
+		long         size      ;
+		
+		FrequencySketch(final long maximum)
+		{
+			super();
+			
+			final int capacity = (int)Math.min(Math.max(maximum, 16L), 1L << 30);
+			final int length   = Integer.highestOneBit(capacity - 1) << 1;
+			this.table      = new long[length];
+			this.tableMask  = length - 1;
+			this.sampleSize = 10L * maximum;
+		}
+		
+		final int frequency(final Object key)
+		{
+			final int hash  = spread(key.hashCode());
+			final int start = (hash & 3) << 2;
+			int frequency = 15;
+			for(int i = 0; i < 4; i++)
+			{
+				final int count = (int)(this.table[this.indexOf(hash, i)] >>> (start + i << 2) & 0xFL);
+				frequency = Math.min(frequency, count);
+			}
+			
+			return frequency;
+		}
+		
+		final void increment(final Object key)
+		{
+			final int hash  = spread(key.hashCode());
+			final int start = (hash & 3) << 2;
+			boolean added = false;
+			for(int i = 0; i < 4; i++)
+			{
+				added |= this.incrementAt(this.indexOf(hash, i), start + i);
+			}
+			if(added && ++this.size >= this.sampleSize)
+			{
+				this.reset();
+			}
+		}
+		
+		private boolean incrementAt(final int index, final int counter)
+		{
+			final int  offset = counter << 2;
+			final long mask   = 0xFL << offset;
+			if((this.table[index] & mask) != mask)
+			{
+				this.table[index] += 1L << offset;
+				return true;
+			}
+			
+			return false;
+		}
+		
+		private void reset()
+		{
+			long odd = 0;
+			for(int i = 0; i < this.table.length; i++)
+			{
+				odd += Long.bitCount(this.table[i] & ONE_MASK);
+				this.table[i] = this.table[i] >>> 1 & RESET_MASK;
+			}
+			this.size = (this.size - (odd >>> 2)) >>> 1;
+		}
+		
+		private int indexOf(final int hash, final int i)
+		{
+			long h = (hash + SEEDS[i]) * SEEDS[i];
+			h += h >>> 32;
+			return (int)h & this.tableMask;
+		}
+		
+		private static int spread(final int hashCode)
+		{
+			int x = (hashCode >>> 16 ^ hashCode) * 0x45D9F3B;
+			x = (x >>> 16 ^ x) * 0x45D9F3B;
+			return x >>> 16 ^ x;
+		}
+		
+	}
+	
 }
@@ -0,0 +1,408 @@
+
+package one.microstream.cache.types;
+
+/*-
+ * #%L
+ * microstream-cache
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import one.microstream.typing.KeyValue;
+
+/**
+ * Hierarchical timing wheel which schedules the expiry of cache entries, so that they can be purged
+ * when they are due, instead of when they are accessed the next time.
+ * <p>
+ * Scheduling, rescheduling and descheduling an entry is O(1). The wheel has levels of increasing granularity,
+ * from about one second to about 24 days per bucket. Advancing the wheel moves the entries of all
+ * passed buckets either to the queue of due entries or, if they are not due yet, to a finer level.
+ * <p>
+ * The wheel only tells which entries are probably due, the {@link Cache} checks them again
+ * while holding the entry's lock, see {@link CachedValue#isExpiredAt(long)}.
+ */
+public interface ExpiryWheel
+{
+	/**
+	 * Schedules an entry at its current expiry time, or deschedules it if it is eternal.
+	 * Replaces a previous schedule of the same key.
+	 * 
+	 * @param key the internal key
+	 * @param value the cached value
+	 */
+	public void schedule(Object key, CachedValue value);
+	
+	/**
+	 * Reschedules an entry after its expiry time has changed. May be skipped under contention,
+	 * which is safe, since due entries are checked again before they are expired.
+	 * 
+	 * @param key the internal key
+	 * @param value the cached value
+	 */
+	public void reschedule(Object key, CachedValue value);
+	
+	public void deschedule(Object key);
+	
+	public void clear();
+	
+	public long size();
+	
+	/**
+	 * Advances the wheel to the given time, which moves all entries due until then to the queue
+	 * of due entries.
+	 * 
+	 * @param now the current time in milliseconds
+	 */
+	public void advance(long now);
+	
+	/**
+	 * Removes up to <code>maxCount</code> entries from the queue of due entries.
+	 * 
+	 * @param maxCount the maximum amount of entries to return
+	 * @return the due entries, empty if there are none
+	 */
+	public List<KeyValue<Object, CachedValue>> pollDue(int maxCount);
+	
+	
+	public static ExpiryWheel New()
+	{
+		return New(System.currentTimeMillis());
+	}
+	
+	public static ExpiryWheel New(final long startTime)
+	{
+		return new Default(startTime);
+	}
+	
+	
+	public static class Default implements ExpiryWheel
+	{
+		// buckets per level, the last level is the overflow bucket
+		final static int[] BUCKETS = {64, 64, 32, 16, 1};
+		
+		// the span of a bucket per level in milliseconds: ~1 second, ~1 minute, ~1 hour, ~1.5 days, ~24 days
+		final static long[] SPANS = {
+			1L << 10,
+			1L << 16,
+			1L << 22,
+			1L << 27,
+			1L << 31,
+			1L << 31
+		};
+		final static int[] SHIFTS = {
+			Long.numberOfTrailingZeros(SPANS[0]),
+			Long.numberOfTrailingZeros(SPANS[1]),
+			Long.numberOfTrailingZeros(SPANS[2]),
+			Long.numberOfTrailingZeros(SPANS[3]),
+			Long.numberOfTrailingZeros(SPANS[4])
+		};
+		
+		private final ReentrantLock         lock ;
+		private final HashMap<Object, Node> nodes;
+		private final Node[][]              wheel;
+		private final Node                  due  ;
+		private       long                  time ;
+		
+		Default(final long startTime)
+		{
+			super();
+			
+			this.lock  = new ReentrantLock();
+			this.nodes = new HashMap<>();
+			this.wheel = new Node[BUCKETS.length][];
+			for(int i = 0; i < BUCKETS.length; i++)
+			{
+				this.wheel[i] = new Node[BUCKETS[i]];
+				for(int j = 0; j < BUCKETS[i]; j++)
+				{
+					this.wheel[i][j] = Node.Sentinel();
+				}
+			}
+			this.due  = Node.Sentinel();
+			this.time = startTime;
+		}
+		
+		@Override
+		public void schedule(final Object key, final CachedValue value)
+		{
+			this.lock.lock();
+			try
+			{
+				this.scheduleInternal(key, value);
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		@Override
+		public void reschedule(final Object key, final CachedValue value)
+		{
+			if(this.lock.tryLock())
+			{
+				try
+				{
+					this.scheduleInternal(key, value);
+				}
+				finally
+				{
+					this.lock.unlock();
+				}
+			}
+		}
+		
+		private void scheduleInternal(final Object key, final CachedValue value)
+		{
+			final long expiryTime = value.expiryTime();
+			if(expiryTime < 0)
+			{
+				this.descheduleInternal(key);
+				return;
+			}
+			
+			Node node = this.nodes.get(key);
+			if(node == null)
+			{
+				this.nodes.put(key, node = new Node(key));
+			}
+			else
+			{
+				node.unlink();
+			}
+			node.value = value;
+			node.time  = expiryTime;
+			this.bucket(expiryTime).linkLast(node);
+		}
+		
+		@Override
+		public void deschedule(final Object key)
+		{
+			this.lock.lock();
+			try
+			{
+				this.descheduleInternal(key);
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		private void descheduleInternal(final Object key)
+		{
+			final Node node = this.nodes.remove(key);
+			if(node != null)
+			{
+				node.unlink();
+			}
+		}
+		
+		@Override
+		public void clear()
+		{
+			this.lock.lock();
+			try
+			{
+				for(final Node[] level : this.wheel)
+				{
+					for(final Node sentinel : level)
+					{
+						sentinel.clear();
+					}
+				}
+				this.due.clear();
+				this.nodes.clear();
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		@Override
+		public long size()
+		{
+			this.lock.lock();
+			try
+			{
+				return this.nodes.size();
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		/*
+		 * Entries are placed in the finest level whose range covers their remaining time.
+		 * Times in the past are placed in the current bucket, which is processed by the next advance.
+		 */
+		private Node bucket(final long expiryTime)
+		{
+			final long time     = Math.max(expiryTime, this.time);
+			final long duration = time - this.time;
+			for(int i = 0; i < BUCKETS.length - 1; i++)
+			{
+				if(duration < SPANS[i + 1])
+				{
+					return this.wheel[i][(int)(time >>> SHIFTS[i]) & BUCKETS[i] - 1];
+				}
+			}
+			
+			return this.wheel[BUCKETS.length - 1][0];
+		}
+		
+		@Override
+		public void advance(final long now)
+		{
+			this.lock.lock();
+			try
+			{
+				final long previous = this.time;
+				if(now <= previous)
+				{
+					return;
+				}
+				this.time = now;
+				
+				for(int i = 0; i < BUCKETS.length; i++)
+				{
+					final long previousTicks = previous >>> SHIFTS[i];
+					final long delta         = (now >>> SHIFTS[i]) - previousTicks;
+					if(delta <= 0L)
+					{
+						break;
+					}
+					/*
+					 * The finest level processes the buckets which have been passed. Coarser levels process
+					 * the buckets which have been entered, to cascade their entries to finer levels in time.
+					 */
+					this.expire(i, i == 0 ? previousTicks : previousTicks + 1, delta, now);
+				}
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		private void expire(final int level, final long startTicks, final long delta, final long now)
+		{
+			final Node[] buckets = this.wheel[level];
+			final int    mask    = buckets.length - 1;
+			final int    start   = (int)startTicks & mask;
+			final int    steps   = (int)Math.min(delta, buckets.length);
+			for(int i = 0; i < steps; i++)
+			{
+				final Node sentinel = buckets[start + i & mask];
+				Node       node     = sentinel.next;
+				sentinel.clear();
+				while(node != sentinel)
+				{
+					final Node next = node.next;
+					node.prev = node.next = node;
+					if(node.time <= now)
+					{
+						this.due.linkLast(node);
+					}
+					else
+					{
+						// cascade to a finer level
+						this.bucket(node.time).linkLast(node);
+					}
+					node = next;
+				}
+			}
+		}
+		
+		@Override
+		public List<KeyValue<Object, CachedValue>> pollDue(final int maxCount)
+		{
+			this.lock.lock();
+			try
+			{
+				final List<KeyValue<Object, CachedValue>> result = new ArrayList<>(Math.min(maxCount, 64));
+				Node node;
+				while(result.size() < maxCount && (node = this.due.next) != this.due)
+				{
+					node.unlink();
+					this.nodes.remove(node.key);
+					result.add(KeyValue.New(node.key, node.value));
+				}
+				
+				return result;
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		
+		static final class Node
+		{
+			final Object key  ;
+			CachedValue  value;
+			long         time ;
+			Node         prev ;
+			Node         next ;
+			
+			static Node Sentinel()
+			{
+				return new Node(null);
+			}
+			
+			Node(final Object key)
+			{
+				super();
+				
+				this.key  = key;
+				this.prev = this;
+				this.next = this;
+			}
+			
+			void linkLast(final Node node)
+			{
+				node.prev      = this.prev;
+				node.next      = this;
+				this.prev.next = node;
+				this.prev      = node;
+			}
+			
+			void unlink()
+			{
+				this.prev.next = this.next;
+				this.next.prev = this.prev;
+				this.prev      = this;
+				this.next      = this;
+			}
+			
+			void clear()
+			{
+				this.prev = this;
+				this.next = this;
+			}
+			
+		}
+		
+	}
+	
+}
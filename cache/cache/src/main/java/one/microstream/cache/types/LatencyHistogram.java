@@ -0,0 +1,242 @@
+
+package one.microstream.cache.types;
+
+/*-
+ * #%L
+ * microstream-cache
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import one.microstream.math.XMath;
+
+/**
+ * Fixed-size histogram of latencies in nanoseconds, recording values into log-linear buckets
+ * like HdrHistogram does: each power of two range is divided into the same number of linear sub-buckets,
+ * which bounds the relative error of all reported values.
+ * <p>
+ * Recording is wait-free and doesn't allocate. The counts are striped by thread to avoid contention
+ * on frequently hit buckets, reading methods sum up all stripes.
+ */
+public interface LatencyHistogram
+{
+	/**
+	 * Records a latency. Negative values are recorded as zero, values beyond the trackable range
+	 * as the highest trackable value.
+	 * 
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void record(long nanos);
+	
+	/**
+	 * @return the number of recorded values
+	 */
+	public long count();
+	
+	/**
+	 * Gets the value at the given percentile, which is the highest value which is equivalent,
+	 * in the histogram's precision, to the recorded value at this rank.
+	 * 
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the value at the percentile in nanoseconds, or 0 if nothing has been recorded
+	 */
+	public long valueAtPercentile(double percentile);
+	
+	/**
+	 * Removes all recorded values.
+	 */
+	public void reset();
+	
+	
+	public static LatencyHistogram New()
+	{
+		return New(
+			Defaults.defaultSubBucketBits(),
+			Defaults.defaultStripeCount()
+		);
+	}
+	
+	/**
+	 * Creates a new {@link LatencyHistogram}.
+	 * 
+	 * @param subBucketBits the number of bits of the linear sub-buckets, which determines the precision,
+	 * at most 16
+	 * @param stripeCount the number of count stripes, rounded up to the next power of two
+	 * @return a new histogram
+	 */
+	public static LatencyHistogram New(
+		final int subBucketBits,
+		final int stripeCount
+	)
+	{
+		if(subBucketBits > Default.MAX_SUB_BUCKET_BITS)
+		{
+			throw new IllegalArgumentException(
+				"Sub-bucket bits must not exceed " + Default.MAX_SUB_BUCKET_BITS + ": " + subBucketBits
+			);
+		}
+		
+		return new Default(
+			XMath.positive(subBucketBits),
+			XMath.pow2BoundMaxed(XMath.positive(stripeCount))
+		);
+	}
+	
+	
+	public interface Defaults
+	{
+		/**
+		 * @return 5 sub-bucket bits, which is a precision of about 3 percent
+		 */
+		public static int defaultSubBucketBits()
+		{
+			return 5;
+		}
+		
+		public static int defaultStripeCount()
+		{
+			return Math.min(4, Runtime.getRuntime().availableProcessors());
+		}
+	}
+	
+	
+	public static class Default implements LatencyHistogram
+	{
+		// highest trackable value is 2^42 - 1 nanoseconds, more than an hour
+		final static int MAX_EXPONENT        = 41;
+		final static int MAX_SUB_BUCKET_BITS = 16;
+		
+		private final int             subBucketBits;
+		private final int             subBucketCount;
+		private final int             bucketCount;
+		private final int             stripeMask;
+		private final AtomicLongArray counts;
+		
+		Default(final int subBucketBits, final int stripeCount)
+		{
+			super();
+			
+			this.subBucketBits  = subBucketBits;
+			this.subBucketCount = 1 << subBucketBits;
+			this.bucketCount    = (MAX_EXPONENT - subBucketBits + 2) * this.subBucketCount;
+			this.stripeMask     = stripeCount - 1;
+			this.counts         = new AtomicLongArray(this.bucketCount * stripeCount);
+		}
+		
+		final int index(final long value)
+		{
+			if(value < this.subBucketCount)
+			{
+				return (int)Math.max(value, 0L);
+			}
+			
+			final int exponent = Math.min(Long.SIZE - 1 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+			final int mantissa = exponent < MAX_EXPONENT || value >>> MAX_EXPONENT == 1L
+				? (int)(value >>> exponent - this.subBucketBits)
+				: (2 << this.subBucketBits) - 1 // clamped to the highest bucket
+			;
+			
+			return (exponent - this.subBucketBits + 1 << this.subBucketBits) + mantissa - this.subBucketCount;
+		}
+		
+		final long highestEquivalentValue(final int index)
+		{
+			final int bucket = index >>> this.subBucketBits;
+			if(bucket == 0)
+			{
+				return index;
+			}
+			
+			final long mantissa = this.subBucketCount + (index & this.subBucketCount - 1);
+			return (mantissa + 1 << bucket - 1) - 1;
+		}
+		
+		@Override
+		public void record(final long nanos)
+		{
+			final int stripe = (int)Thread.currentThread().getId() & this.stripeMask;
+			this.counts.incrementAndGet(stripe * this.bucketCount + this.index(nanos));
+		}
+		
+		private long[] snapshot()
+		{
+			final long[]          snapshot = new long[this.bucketCount];
+			final AtomicLongArray counts   = this.counts;
+			for(int i = 0, length = counts.length(); i < length; i++)
+			{
+				snapshot[i % this.bucketCount] += counts.get(i);
+			}
+			
+			return snapshot;
+		}
+		
+		@Override
+		public long count()
+		{
+			long count = 0;
+			for(int i = 0, length = this.counts.length(); i < length; i++)
+			{
+				count += this.counts.get(i);
+			}
+			
+			return count;
+		}
+		
+		@Override
+		public long valueAtPercentile(final double percentile)
+		{
+			if(!(percentile >= 0.0 && percentile <= 100.0))
+			{
+				throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+			}
+			
+			final long[] snapshot = this.snapshot();
+			long         total    = 0;
+			for(final long count : snapshot)
+			{
+				total += count;
+			}
+			if(total == 0)
+			{
+				return 0;
+			}
+			
+			final long rank       = Math.max(1L, (long)Math.ceil(percentile / 100.0 * total));
+			long       cumulative = 0;
+			for(int i = 0; i < snapshot.length; i++)
+			{
+				if((cumulative += snapshot[i]) >= rank)
+				{
+					return this.highestEquivalentValue(i);
+				}
+			}
+			
+			return this.highestEquivalentValue(snapshot.length - 1);
+		}
+		
+		@Override
+		public void reset()
+		{
+			for(int i = 0, length = this.counts.length(); i < length; i++)
+			{
+				this.counts.set(i, 0L);
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,685 @@
+
+package one.microstream.cache.types;
+
+/*-
+ * #%L
+ * microstream-cache
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+import static one.microstream.X.notNull;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import one.microstream.X;
+import one.microstream.collections.lazy.LazyHashMap;
+import one.microstream.math.XMath;
+import one.microstream.memory.XMemory;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.ChunksWrapper;
+import one.microstream.persistence.binary.util.Serializer;
+import one.microstream.persistence.types.Storer;
+import one.microstream.reference.Lazy;
+import one.microstream.storage.types.StorageManager;
+
+/**
+ * Storage tier for the serialized values of by-value caches, which keeps them outside of the Java heap.
+ * <p>
+ * Values are copied into blocks of direct memory slabs. Each slab is divided into blocks of one power-of-two
+ * size class, freed blocks are reused by values of the same class. The total size of all slabs is bounded by
+ * the tier's capacity. Values which don't fit, because the capacity is exhausted or they are larger than a slab,
+ * are written to an optional spill storage, or kept on the heap if there is none.
+ * <p>
+ * Only the values are moved, keys and the entries' metadata stay on the heap.
+ * <p>
+ * Values are read into a direct buffer per thread, which is reused by the thread's next read.
+ * The read data is therefore only valid until then, it has to be deserialized right away.
+ *
+ * @see CacheConfiguration#getOffHeapTierFactory()
+ */
+public interface OffHeapTier extends Closeable
+{
+	/**
+	 * Creates a {@link CachedValue} whose {@link SerializedObject} values are held by this tier.
+	 * 
+	 * @param value the initial value
+	 * @param creationTime the creation time
+	 * @param expiryTime the expiry time
+	 * @return a new cached value
+	 */
+	public CachedValue createValue(Object value, long creationTime, long expiryTime);
+	
+	/**
+	 * @return the maximum size of all slabs in bytes
+	 */
+	public long capacity();
+	
+	/**
+	 * @return the size of all occupied blocks in bytes
+	 */
+	public long usedBytes();
+	
+	/**
+	 * @return the number of values which are currently held by the spill storage
+	 */
+	public long spilledCount();
+	
+	@Override
+	public void close();
+	
+	
+	public static OffHeapTier New(final long capacity)
+	{
+		return New(capacity, Defaults.defaultSlabSize());
+	}
+	
+	/**
+	 * Creates a new {@link OffHeapTier}.
+	 * 
+	 * @param capacity the maximum size of all slabs in bytes
+	 * @param slabSize the size of a slab in bytes, rounded up to the next power of two
+	 * @return a new off-heap tier
+	 */
+	public static OffHeapTier New(final long capacity, final int slabSize)
+	{
+		return new Default(
+			XMath.positive(capacity),
+			roundSlabSize(slabSize) ,
+			null
+		);
+	}
+	
+	/**
+	 * Creates a new {@link OffHeapTier} which spills values to a storage, if they don't fit into its slabs.
+	 * The storage is used exclusively by the tier, its root is replaced and previous contents are discarded.
+	 * 
+	 * @param capacity the maximum size of all slabs in bytes
+	 * @param slabSize the size of a slab in bytes, rounded up to the next power of two
+	 * @param spillStorage the storage to write values to which don't fit into the slabs
+	 * @return a new off-heap tier
+	 */
+	public static OffHeapTier New(
+		final long           capacity    ,
+		final int            slabSize    ,
+		final StorageManager spillStorage
+	)
+	{
+		return new Default(
+			XMath.positive(capacity),
+			roundSlabSize(slabSize) ,
+			new Spill(notNull(spillStorage))
+		);
+	}
+	
+	static int roundSlabSize(final int slabSize)
+	{
+		final int size = Math.max(XMath.positive(slabSize), 1 << Default.MIN_BLOCK_SHIFT);
+		return size == Integer.highestOneBit(size)
+			? size
+			: Integer.highestOneBit(size) << 1
+		;
+	}
+	
+	
+	public interface Defaults
+	{
+		public static int defaultSlabSize()
+		{
+			return 4 * 1024 * 1024; // 4 MiB
+		}
+	}
+	
+	
+	public static class Default implements OffHeapTier
+	{
+		// smallest block is 64 bytes, which also holds the link of a free block
+		final static int MIN_BLOCK_SHIFT = 6;
+		final static long NO_BLOCK       = -1L;
+		
+		// blocks are accessed under the read lock, the free lists and the slabs' lifetime are guarded by the write lock
+		private final    long                    capacity    ;
+		private final    int                     slabSize    ;
+		private final    Spill                   spill       ;
+		private final    ReentrantReadWriteLock  lock        ;
+		private final    ThreadLocal<ByteBuffer> readBuffers ;
+		private final    long[]                  freeHeads   ;
+		private final    int[]                   carveSlabs  ;
+		private final    int[]                   carveOffsets;
+		private volatile ByteBuffer[]            slabs       ;
+		private          long                    usedBytes   ;
+		private volatile boolean                 closed      ;
+		
+		Default(final long capacity, final int slabSize, final Spill spill)
+		{
+			super();
+			
+			final int sizeClassCount = Integer.numberOfTrailingZeros(slabSize) - MIN_BLOCK_SHIFT + 1;
+			
+			this.capacity     = capacity;
+			this.slabSize     = slabSize;
+			this.spill        = spill;
+			this.lock         = new ReentrantReadWriteLock();
+			this.readBuffers  = new ThreadLocal<>();
+			this.freeHeads    = new long[sizeClassCount];
+			this.carveSlabs   = new int[sizeClassCount];
+			this.carveOffsets = new int[sizeClassCount];
+			this.slabs        = new ByteBuffer[0];
+			for(int c = 0; c < sizeClassCount; c++)
+			{
+				this.freeHeads[c]  = NO_BLOCK;
+				this.carveSlabs[c] = -1;
+			}
+		}
+		
+		@Override
+		public CachedValue createValue(final Object value, final long creationTime, final long expiryTime)
+		{
+			return new Value(this, value, creationTime, expiryTime);
+		}
+		
+		@Override
+		public long capacity()
+		{
+			return this.capacity;
+		}
+		
+		@Override
+		public long usedBytes()
+		{
+			this.lock.readLock().lock();
+			try
+			{
+				return this.usedBytes;
+			}
+			finally
+			{
+				this.lock.readLock().unlock();
+			}
+		}
+		
+		@Override
+		public long spilledCount()
+		{
+			return this.spill != null
+				? this.spill.size()
+				: 0L
+			;
+		}
+		
+		@Override
+		public void close()
+		{
+			this.lock.writeLock().lock();
+			try
+			{
+				if(this.closed)
+				{
+					return;
+				}
+				this.closed = true;
+				for(final ByteBuffer slab : this.slabs)
+				{
+					XMemory.deallocateDirectByteBuffer(slab);
+				}
+				this.slabs     = new ByteBuffer[0];
+				this.usedBytes = 0;
+			}
+			finally
+			{
+				this.lock.writeLock().unlock();
+			}
+		}
+		
+		final boolean isClosed()
+		{
+			return this.closed;
+		}
+		
+		static int sizeClass(final int length)
+		{
+			return length <= 1 << MIN_BLOCK_SHIFT
+				? 0
+				: Integer.SIZE - Integer.numberOfLeadingZeros(length - 1) - MIN_BLOCK_SHIFT
+			;
+		}
+		
+		static long handle(final int slab, final int offset)
+		{
+			return (long)slab << Integer.SIZE | offset;
+		}
+		
+		static int slab(final long handle)
+		{
+			return (int)(handle >>> Integer.SIZE);
+		}
+		
+		static int offset(final long handle)
+		{
+			return (int)handle;
+		}
+		
+		/*
+		 * Returns a block for the length or NO_BLOCK if the capacity is exhausted.
+		 * Freed blocks are reused first, then blocks are carved from the size class' current slab,
+		 * and finally a new slab is allocated for the size class.
+		 */
+		final long allocate(final int length)
+		{
+			if(length > this.slabSize)
+			{
+				return NO_BLOCK;
+			}
+			
+			final int sizeClass = sizeClass(length);
+			final int blockSize = 1 << sizeClass + MIN_BLOCK_SHIFT;
+			
+			this.lock.writeLock().lock();
+			try
+			{
+				if(this.closed)
+				{
+					return NO_BLOCK;
+				}
+				
+				final long block;
+				if(this.freeHeads[sizeClass] != NO_BLOCK)
+				{
+					block = this.freeHeads[sizeClass];
+					this.freeHeads[sizeClass] = this.slabs[slab(block)].getLong(offset(block));
+				}
+				else
+				{
+					if(this.carveSlabs[sizeClass] < 0 || this.carveOffsets[sizeClass] + blockSize > this.slabSize)
+					{
+						if(!this.addSlab(sizeClass))
+						{
+							return NO_BLOCK;
+						}
+					}
+					block = handle(this.carveSlabs[sizeClass], this.carveOffsets[sizeClass]);
+					this.carveOffsets[sizeClass] += blockSize;
+				}
+				this.usedBytes += blockSize;
+				
+				return block;
+			}
+			finally
+			{
+				this.lock.writeLock().unlock();
+			}
+		}
+		
+		private boolean addSlab(final int sizeClass)
+		{
+			final ByteBuffer[] slabs = this.slabs;
+			if((long)(slabs.length + 1) * this.slabSize > this.capacity)
+			{
+				return false;
+			}
+			
+			final ByteBuffer[] newSlabs = new ByteBuffer[slabs.length + 1];
+			System.arraycopy(slabs, 0, newSlabs, 0, slabs.length);
+			newSlabs[slabs.length] = XMemory.allocateDirectNative(this.slabSize);
+			this.slabs = newSlabs;
+			
+			this.carveSlabs[sizeClass]   = slabs.length;
+			this.carveOffsets[sizeClass] = 0;
+			
+			return true;
+		}
+		
+		final void free(final long block, final int length)
+		{
+			final int sizeClass = sizeClass(length);
+			
+			this.lock.writeLock().lock();
+			try
+			{
+				if(this.closed)
+				{
+					return;
+				}
+				// the free list is linked through the blocks themselves
+				this.slabs[slab(block)].putLong(offset(block), this.freeHeads[sizeClass]);
+				this.freeHeads[sizeClass] = block;
+				this.usedBytes -= 1 << sizeClass + MIN_BLOCK_SHIFT;
+			}
+			finally
+			{
+				this.lock.writeLock().unlock();
+			}
+		}
+		
+		final void write(final long block, final Binary data)
+		{
+			this.lock.readLock().lock();
+			try
+			{
+				// the block is gone with its slab, the value fails on its next read
+				if(this.closed)
+				{
+					return;
+				}
+				final ByteBuffer target = this.slabs[slab(block)].duplicate();
+				target.position(offset(block));
+				for(final ByteBuffer buffer : data.buffers())
+				{
+					target.put(buffer.duplicate());
+				}
+			}
+			finally
+			{
+				this.lock.readLock().unlock();
+			}
+		}
+		
+		/*
+		 * Reads the block into the current thread's read buffer, the data is valid until the thread's next read.
+		 */
+		final Binary read(final long block, final int length)
+		{
+			ByteBuffer buffer = this.readBuffers.get();
+			if(buffer == null || buffer.capacity() < length)
+			{
+				// grown to the block size, which is the upper bound of all lengths of the size class
+				buffer = XMemory.allocateDirectNative(1 << sizeClass(length) + MIN_BLOCK_SHIFT);
+				this.readBuffers.set(buffer);
+			}
+			buffer.clear();
+			
+			return this.read(block, length, buffer);
+		}
+		
+		/*
+		 * Reads the block into a new buffer, for data which outlives the thread's next read.
+		 */
+		final Binary copy(final long block, final int length)
+		{
+			return this.read(block, length, XMemory.allocateDirectNative(length));
+		}
+		
+		private Binary read(final long block, final int length, final ByteBuffer target)
+		{
+			this.lock.readLock().lock();
+			try
+			{
+				if(this.closed)
+				{
+					throw new IllegalStateException("Off-heap tier is closed");
+				}
+				final int        offset = offset(block);
+				final ByteBuffer source = this.slabs[slab(block)].duplicate();
+				source.position(offset);
+				source.limit(offset + length);
+				target.put(source);
+			}
+			finally
+			{
+				this.lock.readLock().unlock();
+			}
+			
+			// the data is read up to the limit, a reused buffer can be larger than the value
+			target.limit(length);
+			
+			return ChunksWrapper.New(target);
+		}
+		
+		static int length(final Binary data)
+		{
+			long length = 0;
+			for(final ByteBuffer buffer : data.buffers())
+			{
+				length += buffer.remaining();
+			}
+			return X.checkArrayRange(length);
+		}
+		
+		final Spill spill()
+		{
+			return this.spill;
+		}
+		
+	}
+	
+	
+	/*
+	 * Cached value whose serialized data is held in a block of the tier, in the spill storage,
+	 * or on the heap as a fallback. The location may only be changed while holding the value's monitor.
+	 */
+	static final class Value extends CachedValue.Default
+	{
+		private final OffHeapTier.Default tier    ;
+		private       long                block   ;
+		private       long                spillId ;
+		private       int                 length  ;
+		private       int                 hashCode;
+		
+		Value(
+			final OffHeapTier.Default tier        ,
+			final Object              value       ,
+			final long                creationTime,
+			final long                expiryTime
+		)
+		{
+			super(null, creationTime, expiryTime);
+			
+			this.tier    = tier;
+			this.block   = OffHeapTier.Default.NO_BLOCK;
+			this.spillId = OffHeapTier.Default.NO_BLOCK;
+			this.store(value);
+		}
+		
+		private void store(final Object value)
+		{
+			this.discard();
+			if(!(value instanceof SerializedObject))
+			{
+				super.value(value);
+				return;
+			}
+			
+			final SerializedObject serialized = (SerializedObject)value;
+			final Binary           data       = serialized.serializedData();
+			final int              length     = OffHeapTier.Default.length(data);
+			final long             block      = this.tier.allocate(length);
+			if(block != OffHeapTier.Default.NO_BLOCK)
+			{
+				this.tier.write(block, data);
+				this.block = block;
+			}
+			else if(this.tier.spill() != null)
+			{
+				this.spillId = this.tier.spill().put(XMemory.toArray(data.buffers()));
+			}
+			else
+			{
+				super.value(value);
+				return;
+			}
+			this.length   = length;
+			this.hashCode = serialized.hashCode();
+			super.value(null);
+		}
+		
+		private void discard()
+		{
+			if(this.block != OffHeapTier.Default.NO_BLOCK)
+			{
+				this.tier.free(this.block, this.length);
+				this.block = OffHeapTier.Default.NO_BLOCK;
+			}
+			else if(this.spillId != OffHeapTier.Default.NO_BLOCK)
+			{
+				this.tier.spill().remove(this.spillId);
+				this.spillId = OffHeapTier.Default.NO_BLOCK;
+			}
+		}
+		
+		private Object load()
+		{
+			if(this.block != OffHeapTier.Default.NO_BLOCK)
+			{
+				return SerializedObject.New(this.hashCode, this.tier.read(this.block, this.length));
+			}
+			if(this.spillId != OffHeapTier.Default.NO_BLOCK)
+			{
+				return SerializedObject.New(this.hashCode, Serializer.Static.toBinary(
+					this.tier.spill().get(this.spillId)
+				));
+			}
+			return super.value();
+		}
+		
+		@Override
+		public synchronized Object value()
+		{
+			return this.load();
+		}
+		
+		@Override
+		public synchronized Object value(final long accessTime)
+		{
+			super.value(accessTime);
+			return this.load();
+		}
+		
+		@Override
+		public synchronized CachedValue value(final Object value)
+		{
+			this.store(value);
+			return this;
+		}
+		
+		@Override
+		public synchronized CachedValue value(final Object value, final long modificationTime)
+		{
+			super.value(null, modificationTime);
+			this.store(value);
+			return this;
+		}
+		
+		@Override
+		public synchronized long byteSizeEstimate()
+		{
+			return this.block != OffHeapTier.Default.NO_BLOCK || this.spillId != OffHeapTier.Default.NO_BLOCK
+				? this.length
+				: super.byteSizeEstimate()
+			;
+		}
+		
+		@Override
+		public synchronized void release()
+		{
+			if(this.tier.isClosed())
+			{
+				return;
+			}
+			// keep the data readable for the remaining processing of the removal
+			if(this.block != OffHeapTier.Default.NO_BLOCK)
+			{
+				final Object value = SerializedObject.New(this.hashCode, this.tier.copy(this.block, this.length));
+				this.discard();
+				super.value(value);
+			}
+			else if(this.spillId != OffHeapTier.Default.NO_BLOCK)
+			{
+				final Object value = this.load();
+				this.discard();
+				super.value(value);
+			}
+		}
+		
+	}
+	
+	
+	/*
+	 * Spill storage, values are stored as lazily referenced byte arrays, which are cleared after each access.
+	 */
+	static final class Spill
+	{
+		private final StorageManager                  storage;
+		private final LazyHashMap<Long, Lazy<byte[]>> entries;
+		private       long                            nextId ;
+		
+		Spill(final StorageManager storage)
+		{
+			super();
+			
+			if(!storage.isRunning())
+			{
+				storage.start();
+			}
+			this.storage = storage;
+			this.entries = LazyHashMap.New();
+			
+			// spilled values don't survive the cache, previous ones are garbage collected by the storage
+			storage.setRoot(this.entries);
+			storage.storeRoot();
+		}
+		
+		final long put(final byte[] data)
+		{
+			final Lazy<byte[]> lazy   = Lazy.Reference(data);
+			final Storer       storer = this.storage.createStorer();
+			storer.store(lazy);
+			
+			final long id;
+			synchronized(this)
+			{
+				id = this.nextId++;
+				this.entries.put(id, lazy);
+				storer.store(this.entries);
+				storer.commit();
+			}
+			lazy.clear();
+			
+			return id;
+		}
+		
+		final byte[] get(final long id)
+		{
+			final Lazy<byte[]> lazy;
+			synchronized(this)
+			{
+				lazy = this.entries.get(id);
+			}
+			final byte[] data = lazy.get();
+			lazy.clear();
+			
+			return data;
+		}
+		
+		final void remove(final long id)
+		{
+			synchronized(this)
+			{
+				if(this.entries.remove(id) != null)
+				{
+					this.storage.store(this.entries);
+				}
+			}
+		}
+		
+		final synchronized long size()
+		{
+			return this.entries.size();
+		}
+		
+	}
+	
+}
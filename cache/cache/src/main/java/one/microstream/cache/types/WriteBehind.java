@@ -0,0 +1,174 @@
+
+package one.microstream.cache.types;
+
+/*-
+ * #%L
+ * microstream-cache
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+import one.microstream.chars.VarString;
+import one.microstream.math.XMath;
+
+/**
+ * Settings of the asynchronous write-behind mode of a {@link Cache}, see {@link CacheConfiguration#getWriteBehind()}.
+ * <p>
+ * Instead of calling the {@link javax.cache.integration.CacheWriter} within each write operation, the changed
+ * keys are queued and repeated changes of the same key are coalesced. The queue is flushed in batches, when the
+ * batch size is reached or the flush interval has elapsed. Write operations block while the queue is full.
+ * 
+ * @see WriteBehindCacheWriter
+ */
+public interface WriteBehind
+{
+	/**
+	 * @return the maximum number of queued keys, before write operations block
+	 */
+	public int maxQueueSize();
+	
+	/**
+	 * @return the maximum number of keys written to the underlying writer at once
+	 */
+	public int batchSize();
+	
+	/**
+	 * @return the maximum time in milliseconds a change stays in the queue
+	 */
+	public long flushIntervalMillis();
+	
+	
+	public static WriteBehind New()
+	{
+		return New(
+			Defaults.defaultMaxQueueSize()       ,
+			Defaults.defaultBatchSize()          ,
+			Defaults.defaultFlushIntervalMillis()
+		);
+	}
+	
+	public static WriteBehind New(
+		final int  maxQueueSize       ,
+		final int  batchSize          ,
+		final long flushIntervalMillis
+	)
+	{
+		return new Default(
+			XMath.positive(maxQueueSize)       ,
+			XMath.positive(batchSize)          ,
+			XMath.positive(flushIntervalMillis)
+		);
+	}
+	
+	
+	public interface Defaults
+	{
+		public static int defaultMaxQueueSize()
+		{
+			return 10_000;
+		}
+		
+		public static int defaultBatchSize()
+		{
+			return 1_000;
+		}
+		
+		public static long defaultFlushIntervalMillis()
+		{
+			return 1_000L;
+		}
+	}
+	
+	
+	public static class Default implements WriteBehind
+	{
+		private final int  maxQueueSize       ;
+		private final int  batchSize          ;
+		private final long flushIntervalMillis;
+		
+		Default(
+			final int  maxQueueSize       ,
+			final int  batchSize          ,
+			final long flushIntervalMillis
+		)
+		{
+			super();
+			
+			this.maxQueueSize        = maxQueueSize       ;
+			this.batchSize           = batchSize          ;
+			this.flushIntervalMillis = flushIntervalMillis;
+		}
+		
+		@Override
+		public int maxQueueSize()
+		{
+			return this.maxQueueSize;
+		}
+		
+		@Override
+		public int batchSize()
+		{
+			return this.batchSize;
+		}
+		
+		@Override
+		public long flushIntervalMillis()
+		{
+			return this.flushIntervalMillis;
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			final int prime  = 31;
+			int       result = 1;
+			result = prime * result + this.maxQueueSize;
+			result = prime * result + this.batchSize;
+			result = prime * result + Long.hashCode(this.flushIntervalMillis);
+			return result;
+		}
+		
+		@Override
+		public boolean equals(final Object obj)
+		{
+			if(this == obj)
+			{
+				return true;
+			}
+			if(!(obj instanceof WriteBehind))
+			{
+				return false;
+			}
+			final WriteBehind other = (WriteBehind)obj;
+			return this.maxQueueSize        == other.maxQueueSize()
+				&& this.batchSize           == other.batchSize()
+				&& this.flushIntervalMillis == other.flushIntervalMillis()
+			;
+		}
+		
+		@Override
+		public String toString()
+		{
+			return VarString.New()
+				.add("maxQueueSize=").add(this.maxQueueSize)
+				.add(", batchSize=").add(this.batchSize)
+				.add(", flushIntervalMillis=").add(this.flushIntervalMillis)
+				.toString()
+			;
+		}
+		
+	}
+	
+}
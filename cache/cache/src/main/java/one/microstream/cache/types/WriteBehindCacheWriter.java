@@ -0,0 +1,469 @@
+
+package one.microstream.cache.types;
+
+/*-
+ * #%L
+ * microstream-cache
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+import static one.microstream.X.notNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.cache.Cache.Entry;
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.integration.CacheWriter;
+import javax.cache.integration.CacheWriterException;
+
+import org.slf4j.Logger;
+
+import one.microstream.util.logging.Logging;
+
+/**
+ * {@link CacheWriter} which queues all changes and passes them to an underlying writer asynchronously,
+ * according to the {@link WriteBehind} settings.
+ * <p>
+ * Failed batches are queued again, unless the key has been changed in the meantime, and retried with the next
+ * flush. So a permanently failing writer eventually blocks the write operations of the cache, instead of losing
+ * changes silently.
+ * 
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public interface WriteBehindCacheWriter<K, V> extends CacheWriter<K, V>, Closeable
+{
+	/**
+	 * Passes all currently queued changes to the underlying writer and waits until they have been written.
+	 */
+	public void flush();
+	
+	/**
+	 * Creates a {@link CacheLoader} which returns the queued state of a key, if any,
+	 * and delegates to the passed loader otherwise.
+	 * 
+	 * @param loader the loader of the underlying store
+	 * @return a loader which is consistent with this writer's queue
+	 */
+	public CacheLoader<K, V> loader(CacheLoader<K, V> loader);
+	
+	
+	public static <K, V> WriteBehindCacheWriter<K, V> New(
+		final CacheWriter<K, V> writer  ,
+		final WriteBehind       settings
+	)
+	{
+		final Default<K, V> writeBehindWriter = new Default<>(notNull(writer), notNull(settings));
+		writeBehindWriter.start();
+		return writeBehindWriter;
+	}
+	
+	
+	public static class Default<K, V> implements WriteBehindCacheWriter<K, V>
+	{
+		private final static Logger logger = Logging.getLogger(WriteBehindCacheWriter.class);
+		
+		// queue marker for deleted keys, values may not be null
+		static final Object DELETED = new Object();
+		
+		private final CacheWriter<K, V>        writer       ;
+		private final WriteBehind              settings     ;
+		private final ReentrantLock            lock         ;
+		private final Condition                notFull      ;
+		private final Condition                flushRequired;
+		private final Condition                flushed      ;
+		private final LinkedHashMap<K, Object> queue        ;
+		private       Map<K, Object>           inFlight     ;
+		private       long                     flushRequests;
+		private       long                     flushesDone  ;
+		private       boolean                  closed       ;
+		private       Thread                   flushThread  ;
+		
+		Default(final CacheWriter<K, V> writer, final WriteBehind settings)
+		{
+			super();
+			
+			this.writer        = writer;
+			this.settings      = settings;
+			this.lock          = new ReentrantLock();
+			this.notFull       = this.lock.newCondition();
+			this.flushRequired = this.lock.newCondition();
+			this.flushed       = this.lock.newCondition();
+			this.queue         = new LinkedHashMap<>();
+			this.inFlight      = new HashMap<>();
+		}
+		
+		void start()
+		{
+			this.flushThread = new Thread(
+				this::flushLoop,
+				WriteBehindCacheWriter.class.getSimpleName() + "@" + System.identityHashCode(this)
+			);
+			this.flushThread.setDaemon(true);
+			this.flushThread.start();
+		}
+		
+		private void enqueue(final K key, final Object value)
+		{
+			this.lock.lock();
+			try
+			{
+				// replacing a queued change of the same key requires no additional space
+				while(!this.closed
+					&& this.queue.size() >= this.settings.maxQueueSize()
+					&& !this.queue.containsKey(key)
+				)
+				{
+					this.notFull.await();
+				}
+				if(this.closed)
+				{
+					throw new CacheWriterException("Write-behind writer is closed");
+				}
+				
+				this.queue.put(key, value);
+				if(this.queue.size() >= this.settings.batchSize())
+				{
+					this.flushRequired.signal();
+				}
+			}
+			catch(final InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new CacheWriterException(e);
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		@Override
+		public void write(final Entry<? extends K, ? extends V> entry) throws CacheWriterException
+		{
+			this.enqueue(entry.getKey(), entry.getValue());
+		}
+		
+		@Override
+		public void writeAll(final Collection<Entry<? extends K, ? extends V>> entries) throws CacheWriterException
+		{
+			// entries are removed when they have been queued, as demanded by the CacheWriter contract
+			for(final Iterator<Entry<? extends K, ? extends V>> iterator = entries.iterator(); iterator.hasNext();)
+			{
+				this.write(iterator.next());
+				iterator.remove();
+			}
+		}
+		
+		@SuppressWarnings("unchecked") // Object in typed interface
+		@Override
+		public void delete(final Object key) throws CacheWriterException
+		{
+			this.enqueue((K)key, DELETED);
+		}
+		
+		@Override
+		public void deleteAll(final Collection<?> keys) throws CacheWriterException
+		{
+			for(final Iterator<?> iterator = keys.iterator(); iterator.hasNext();)
+			{
+				this.delete(iterator.next());
+				iterator.remove();
+			}
+		}
+		
+		@Override
+		public void flush()
+		{
+			this.lock.lock();
+			try
+			{
+				final long request = ++this.flushRequests;
+				this.flushRequired.signal();
+				while(this.flushesDone < request && !this.closed)
+				{
+					this.flushed.await();
+				}
+			}
+			catch(final InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new CacheWriterException(e);
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		@Override
+		public void close() throws IOException
+		{
+			this.lock.lock();
+			try
+			{
+				if(this.closed)
+				{
+					return;
+				}
+				this.closed = true;
+				this.flushRequired.signal();
+				this.notFull.signalAll();
+				this.flushed.signalAll();
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+			
+			try
+			{
+				// the flush thread writes the remaining changes before it terminates
+				this.flushThread.join();
+			}
+			catch(final InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			
+			if(this.writer instanceof Closeable)
+			{
+				((Closeable)this.writer).close();
+			}
+		}
+		
+		private void flushLoop()
+		{
+			while(true)
+			{
+				final boolean closing;
+				this.lock.lock();
+				try
+				{
+					long remaining = TimeUnit.MILLISECONDS.toNanos(this.settings.flushIntervalMillis());
+					while(!this.closed
+						&& this.flushesDone == this.flushRequests
+						&& this.queue.size() < this.settings.batchSize()
+						&& remaining > 0
+					)
+					{
+						remaining = this.flushRequired.awaitNanos(remaining);
+					}
+					if(this.queue.isEmpty())
+					{
+						this.flushesDone = this.flushRequests;
+						this.flushed.signalAll();
+						if(this.closed)
+						{
+							return;
+						}
+						continue;
+					}
+					
+					// take the oldest changes, newer changes of the same keys are queued anew
+					final Map<K, Object>                inFlight = new LinkedHashMap<>();
+					final Iterator<Map.Entry<K, Object>> iterator = this.queue.entrySet().iterator();
+					while(iterator.hasNext() && inFlight.size() < this.settings.batchSize())
+					{
+						final Map.Entry<K, Object> entry = iterator.next();
+						inFlight.put(entry.getKey(), entry.getValue());
+						iterator.remove();
+					}
+					this.inFlight = inFlight;
+					this.notFull.signalAll();
+					closing = this.closed;
+				}
+				catch(final InterruptedException e)
+				{
+					// proceed with flushing
+					continue;
+				}
+				finally
+				{
+					this.lock.unlock();
+				}
+				
+				this.writeBatch(closing);
+			}
+		}
+		
+		@SuppressWarnings("unchecked") // values of deleted keys are marked
+		private void writeBatch(final boolean closing)
+		{
+			final Collection<Entry<? extends K, ? extends V>> entries = new ArrayList<>();
+			final Collection<K>                               keys    = new ArrayList<>();
+			this.inFlight.forEach((key, value) ->
+			{
+				if(value == DELETED)
+				{
+					keys.add(key);
+				}
+				else
+				{
+					entries.add(CacheEntry.New(key, (V)value));
+				}
+			});
+			
+			try
+			{
+				if(!entries.isEmpty())
+				{
+					this.writer.writeAll(entries);
+				}
+				if(!keys.isEmpty())
+				{
+					this.writer.deleteAll(keys);
+				}
+			}
+			catch(final Exception e)
+			{
+				logger.error("Write-behind flush failed, {} changes remain queued", entries.size() + keys.size(), e);
+			}
+			
+			this.lock.lock();
+			try
+			{
+				// as for the CacheWriter contract, only the failed entries and keys remain in the collections
+				if(closing)
+				{
+					if(!entries.isEmpty() || !keys.isEmpty())
+					{
+						logger.error(
+							"Write-behind writer closed, {} changes could not be written",
+							entries.size() + keys.size()
+						);
+					}
+				}
+				else if(!entries.isEmpty() || !keys.isEmpty())
+				{
+					entries.forEach(entry -> this.queue.putIfAbsent(entry.getKey(), entry.getValue()));
+					keys.forEach(key -> this.queue.putIfAbsent(key, DELETED));
+					
+					// pending flushes are done, the failed changes are retried after the next interval
+					this.flushesDone = this.flushRequests;
+					this.flushed.signalAll();
+				}
+				this.inFlight = new HashMap<>();
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		private Object pending(final Object key)
+		{
+			this.lock.lock();
+			try
+			{
+				final Object value = this.queue.get(key);
+				return value != null
+					? value
+					: this.inFlight.get(key)
+				;
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		@Override
+		public CacheLoader<K, V> loader(final CacheLoader<K, V> loader)
+		{
+			return new Loader<>(this, notNull(loader));
+		}
+		
+		
+		static final class Loader<K, V> implements CacheLoader<K, V>, Closeable
+		{
+			private final Default<K, V>     parent;
+			private final CacheLoader<K, V> loader;
+			
+			Loader(final Default<K, V> parent, final CacheLoader<K, V> loader)
+			{
+				super();
+				
+				this.parent = parent;
+				this.loader = loader;
+			}
+			
+			@SuppressWarnings("unchecked") // values of deleted keys are marked
+			@Override
+			public V load(final K key) throws CacheLoaderException
+			{
+				final Object pending = this.parent.pending(key);
+				if(pending == null)
+				{
+					return this.loader.load(key);
+				}
+				return pending == DELETED
+					? null
+					: (V)pending
+				;
+			}
+			
+			@SuppressWarnings("unchecked") // values of deleted keys are marked
+			@Override
+			public Map<K, V> loadAll(final Iterable<? extends K> keys) throws CacheLoaderException
+			{
+				final Map<K, V> result  = new HashMap<>();
+				final List<K>   missing = new ArrayList<>();
+				for(final K key : keys)
+				{
+					final Object pending = this.parent.pending(key);
+					if(pending == null)
+					{
+						missing.add(key);
+					}
+					else if(pending != DELETED)
+					{
+						result.put(key, (V)pending);
+					}
+				}
+				if(!missing.isEmpty())
+				{
+					result.putAll(this.loader.loadAll(missing));
+				}
+				return result;
+			}
+			
+			@Override
+			public void close() throws IOException
+			{
+				if(this.loader instanceof Closeable)
+				{
+					((Closeable)this.loader).close();
+				}
+			}
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,104 @@
+
+package one.microstream.cache.types;
+
+/*-
+ * #%L
+ * microstream-cache
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.cache.Caching;
+import javax.cache.configuration.Factory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class OffHeapTierTest
+{
+	private javax.cache.CacheManager              cacheManager;
+	private javax.cache.Cache<Integer, String>    cache       ;
+	
+	@BeforeEach
+	public void createCache()
+	{
+		this.cacheManager = Caching.getCachingProvider(CachingProvider.class.getName()).getCacheManager();
+		
+		final Factory<OffHeapTier> offHeapTierFactory = () -> OffHeapTier.New(64 * 1024 * 1024);
+		this.cache = this.cacheManager.createCache(
+			"offHeapTierTest",
+			CacheConfiguration.Builder(Integer.class, String.class)
+				.storeByValue()
+				.offHeapTierFactory(offHeapTierFactory)
+				.build()
+		);
+	}
+	
+	@AfterEach
+	public void closeCache()
+	{
+		this.cacheManager.close();
+	}
+	
+	private static String value(final int key)
+	{
+		// values of different size classes, so read buffers are reused for smaller values
+		final StringBuilder value = new StringBuilder("value").append(key);
+		for(int i = 0; i < key % 300; i++)
+		{
+			value.append('x');
+		}
+		return value.toString();
+	}
+	
+	@Test
+	public void putAndGet()
+	{
+		final Map<Integer, String> values = new HashMap<>();
+		for(int key = 0; key < 1000; key++)
+		{
+			values.put(key, value(key));
+			this.cache.put(key, value(key));
+		}
+		
+		for(int key = 999; key >= 0; key--)
+		{
+			Assertions.assertEquals(values.get(key), this.cache.get(key));
+		}
+		Assertions.assertEquals(values, this.cache.getAll(values.keySet()));
+	}
+	
+	@Test
+	public void replaceAndRemove()
+	{
+		this.cache.put(1, value(299));
+		this.cache.put(2, value(2));
+		
+		Assertions.assertTrue(this.cache.replace(1, value(299), value(1)));
+		Assertions.assertEquals(value(1), this.cache.get(1));
+		Assertions.assertEquals(value(2), this.cache.getAndPut(2, value(3)));
+		Assertions.assertEquals(value(3), this.cache.getAndRemove(2));
+		Assertions.assertNull(this.cache.get(2));
+		Assertions.assertEquals(value(1), this.cache.get(1));
+	}
+	
+}
@@ -20,7 +20,7 @@ package one.microstream.cache.hibernate.types;
  * #L%
  */
 
-import java.util.Collections;
+import java.util.Arrays;
 
 import org.hibernate.boot.registry.selector.SimpleStrategyRegistrationImpl;
 import org.hibernate.boot.registry.selector.StrategyRegistration;
@@ -45,6 +45,13 @@ public class CacheStrategyRegistrationProvider implements StrategyRegistrationPr
 			CacheRegionFactory.class.getName(),
 			CacheRegionFactory.class.getSimpleName()
 		);
-		return Collections.singleton(registration);
+		SimpleStrategyRegistrationImpl<RegionFactory> storageRegistration = new SimpleStrategyRegistrationImpl<>(
+			RegionFactory.class,
+			StorageRegionFactory.class,
+			"microstream-storage",
+			StorageRegionFactory.class.getName(),
+			StorageRegionFactory.class.getSimpleName()
+		);
+		return Arrays.asList(registration, storageRegistration);
 	}	
 }
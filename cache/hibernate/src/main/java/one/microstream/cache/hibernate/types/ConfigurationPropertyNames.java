@@ -22,10 +22,26 @@ package one.microstream.cache.hibernate.types;
 
 public interface ConfigurationPropertyNames
 {
-	public static final String PREFIX                      = "hibernate.cache.microstream.";
+	public static final String PREFIX                              = "hibernate.cache.microstream.";
 	                                                 
-	public static final String CACHE_MANAGER               = PREFIX + "cache-manager";
-	public static final String MISSING_CACHE_STRATEGY      = PREFIX + "missing-cache-strategy";
-	public static final String CACHE_LOCK_TIMEOUT          = PREFIX + "cache-lock-timeout";
-	public static final String CONFIGURATION_RESOURCE_NAME = PREFIX + "configuration-resource-name";
+	public static final String CACHE_MANAGER                       = PREFIX + "cache-manager";
+	public static final String MISSING_CACHE_STRATEGY              = PREFIX + "missing-cache-strategy";
+	public static final String CACHE_LOCK_TIMEOUT                  = PREFIX + "cache-lock-timeout";
+	public static final String CONFIGURATION_RESOURCE_NAME         = PREFIX + "configuration-resource-name";
+	
+	/*
+	 * Used by the StorageRegionFactory only.
+	 * The storage itself is configured by the properties prefixed with PREFIX + "storage.",
+	 * or by the resource denoted by STORAGE_CONFIGURATION_RESOURCE_NAME.
+	 */
+	public static final String STORAGE_MANAGER                     = PREFIX + "storage-manager";
+	public static final String STORAGE_CONFIGURATION_RESOURCE_NAME = PREFIX + "storage-configuration-resource-name";
+	public static final String ENTITY_NEAR_CACHE_SIZE              = PREFIX + "entity-near-cache-size";
+	public static final String COLLECTION_NEAR_CACHE_SIZE          = PREFIX + "collection-near-cache-size";
+	public static final String NATURAL_ID_NEAR_CACHE_SIZE          = PREFIX + "natural-id-near-cache-size";
+	public static final String QUERY_RESULTS_NEAR_CACHE_SIZE       = PREFIX + "query-results-near-cache-size";
+	public static final String WRITE_BEHIND                        = PREFIX + "write-behind";
+	public static final String WRITE_BEHIND_MAX_QUEUE_SIZE         = PREFIX + "write-behind-max-queue-size";
+	public static final String WRITE_BEHIND_BATCH_SIZE             = PREFIX + "write-behind-batch-size";
+	public static final String WRITE_BEHIND_FLUSH_INTERVAL_MILLIS  = PREFIX + "write-behind-flush-interval-millis";
 }
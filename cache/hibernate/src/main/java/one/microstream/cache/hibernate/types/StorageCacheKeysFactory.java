@@ -0,0 +1,187 @@
+package one.microstream.cache.hibernate.types;
+
+/*-
+ * #%L
+ * microstream-cache-hibernate
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.hibernate.cache.spi.CacheKeysFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+
+
+/**
+ * {@link CacheKeysFactory} for regions which are kept in a storage.
+ * <p>
+ * Hibernate's default keys reference the identifier's {@link Type}, which must not end up in the storage.
+ * The keys created by this factory only consist of the role, the identifier or disassembled natural-id values,
+ * and the tenant. Their hash code is derived from these values, so they are found again after a restart,
+ * provided the identifier types have value-based hash codes.
+ */
+public class StorageCacheKeysFactory implements CacheKeysFactory
+{
+	public static final StorageCacheKeysFactory INSTANCE = new StorageCacheKeysFactory();
+	
+	private static final String NATURAL_ID_SUFFIX = "##NaturalId";
+	
+	
+	public StorageCacheKeysFactory()
+	{
+		super();
+	}
+	
+	@Override
+	public Object createEntityKey(
+		final Object                    id              ,
+		final EntityPersister           persister       ,
+		final SessionFactoryImplementor factory         ,
+		final String                    tenantIdentifier
+	)
+	{
+		return new Key(persister.getRootEntityName(), id, tenantIdentifier);
+	}
+	
+	@Override
+	public Object createCollectionKey(
+		final Object                    id              ,
+		final CollectionPersister       persister       ,
+		final SessionFactoryImplementor factory         ,
+		final String                    tenantIdentifier
+	)
+	{
+		return new Key(persister.getRole(), id, tenantIdentifier);
+	}
+	
+	@Override
+	public Object createNaturalIdKey(
+		final Object[]                         naturalIdValues,
+		final EntityPersister                  persister      ,
+		final SharedSessionContractImplementor session
+	)
+	{
+		final SessionFactoryImplementor factory             = session.getFactory();
+		final Type[]                    propertyTypes       = persister.getPropertyTypes();
+		final int[]                     naturalIdProperties = persister.getNaturalIdentifierProperties();
+		final Serializable[]            values              = new Serializable[naturalIdProperties.length];
+		for(int i = 0; i < naturalIdProperties.length; i++)
+		{
+			final Type   type  = propertyTypes[naturalIdProperties[i]];
+			final Object value = naturalIdValues[i];
+			// associations are kept by their identifier, like Hibernate's own natural-id keys do
+			values[i] = type instanceof EntityType
+				&& type.getSemiResolvedType(factory).getReturnedClass().isInstance(value)
+				? (Serializable)value
+				: type.disassemble(value, session, null)
+			;
+		}
+		
+		return new Key(
+			persister.getRootEntityName() + NATURAL_ID_SUFFIX,
+			values,
+			session.getTenantIdentifier()
+		);
+	}
+	
+	@Override
+	public Object getEntityId(final Object cacheKey)
+	{
+		return ((Key)cacheKey).id;
+	}
+	
+	@Override
+	public Object getCollectionId(final Object cacheKey)
+	{
+		return ((Key)cacheKey).id;
+	}
+	
+	@Override
+	public Object[] getNaturalIdValues(final Object cacheKey)
+	{
+		return (Object[])((Key)cacheKey).id;
+	}
+	
+	
+	public static final class Key implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final String role    ;
+		private final Object id      ;
+		private final String tenantId;
+		private final int    hashCode;
+		
+		Key(final String role, final Object id, final String tenantId)
+		{
+			super();
+			
+			this.role     = role    ;
+			this.id       = id      ;
+			this.tenantId = tenantId;
+			this.hashCode = Arrays.deepHashCode(new Object[]{role, id, tenantId});
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return this.hashCode;
+		}
+		
+		@Override
+		public boolean equals(final Object obj)
+		{
+			if(obj == this)
+			{
+				return true;
+			}
+			if(!(obj instanceof Key))
+			{
+				return false;
+			}
+			
+			final Key other = (Key)obj;
+			return this.hashCode == other.hashCode
+				&& this.role.equals(other.role)
+				&& Objects.deepEquals(this.id, other.id)
+				&& Objects.equals(this.tenantId, other.tenantId)
+			;
+		}
+		
+		@Override
+		public String toString()
+		{
+			final String id = this.id instanceof Object[]
+				? Arrays.toString((Object[])this.id)
+				: String.valueOf(this.id)
+			;
+			return this.tenantId == null
+				? this.role + '#' + id
+				: this.role + '#' + id + '#' + this.tenantId
+			;
+		}
+		
+	}
+	
+}
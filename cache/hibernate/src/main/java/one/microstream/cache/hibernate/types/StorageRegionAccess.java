@@ -0,0 +1,434 @@
+package one.microstream.cache.hibernate.types;
+
+/*-
+ * #%L
+ * microstream-cache-hibernate
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.cache.CacheException;
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheWriter;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import one.microstream.cache.types.CacheEntry;
+import one.microstream.cache.types.CacheStore;
+import one.microstream.cache.types.WriteBehind;
+import one.microstream.cache.types.WriteBehindCacheWriter;
+import one.microstream.math.XMath;
+
+
+/**
+ * {@link DomainDataStorageAccess} with an on-heap near cache for the hot entries of a region, which reads through
+ * to a {@link CacheStore} holding all of the region's entries.
+ * <p>
+ * Since the store is kept in a storage, the region is warm right after a restart. Regions without a store
+ * only consist of the near cache.
+ * <p>
+ * The near cache is divided into segments, each of which evicts its least recently used entries.
+ * The store is accessed outside of the segments' locks. Each change of a segment increments its version,
+ * and values are only put into the near cache if the version has not changed since the store was accessed.
+ * So the near cache never gets out of sync with the store, concurrent changes leave the key to be loaded again.
+ * <p>
+ * Optionally, the writes are passed to the store asynchronously by a {@link WriteBehindCacheWriter}.
+ */
+public interface StorageRegionAccess extends DomainDataStorageAccess
+{
+	/**
+	 * @return the maximum number of entries held on-heap
+	 */
+	public int nearCacheSize();
+	
+	
+	/**
+	 * Creates a region which is only kept on-heap.
+	 * 
+	 * @param nearCacheSize the maximum number of entries
+	 * @return a new region access
+	 */
+	public static StorageRegionAccess New(
+		final int nearCacheSize
+	)
+	{
+		return new Default(
+			null                                ,
+			null                                ,
+			XMath.notNegative(nearCacheSize)    ,
+			Defaults.defaultSegmentCount()
+		);
+	}
+	
+	public static StorageRegionAccess New(
+		final CacheStore<Object, Object> store        ,
+		final int                        nearCacheSize
+	)
+	{
+		return New(store, nearCacheSize, Defaults.defaultSegmentCount());
+	}
+	
+	/**
+	 * Creates a region which is kept in a store, with its hot entries held on-heap.
+	 * 
+	 * @param store the store containing all of the region's entries
+	 * @param nearCacheSize the maximum number of entries held on-heap
+	 * @param segmentCount the number of independently locked near cache segments
+	 * @return a new region access
+	 */
+	public static StorageRegionAccess New(
+		final CacheStore<Object, Object> store        ,
+		final int                        nearCacheSize,
+		final int                        segmentCount
+	)
+	{
+		return new Default(
+			notNull(store)                      ,
+			null                                ,
+			XMath.notNegative(nearCacheSize)    ,
+			XMath.positive(segmentCount)
+		);
+	}
+	
+	/**
+	 * Creates a region which is kept in a store, with its hot entries held on-heap.
+	 * The writes are queued and passed to the store asynchronously.
+	 * 
+	 * @param store the store containing all of the region's entries
+	 * @param nearCacheSize the maximum number of entries held on-heap
+	 * @param segmentCount the number of independently locked near cache segments
+	 * @param writeBehind the settings of the asynchronous writes
+	 * @return a new region access
+	 */
+	public static StorageRegionAccess New(
+		final CacheStore<Object, Object> store        ,
+		final int                        nearCacheSize,
+		final int                        segmentCount ,
+		final WriteBehind                writeBehind
+	)
+	{
+		// validated before the writer's thread is started
+		XMath.notNegative(nearCacheSize);
+		XMath.positive(segmentCount);
+		
+		return new Default(
+			notNull(store)                                         ,
+			WriteBehindCacheWriter.New(store, notNull(writeBehind)),
+			nearCacheSize                                          ,
+			segmentCount
+		);
+	}
+	
+	
+	public interface Defaults
+	{
+		public static int defaultSegmentCount()
+		{
+			return XMath.pow2BoundMaxed(Runtime.getRuntime().availableProcessors() * 8);
+		}
+	}
+	
+	
+	public static class Default implements StorageRegionAccess
+	{
+		private final CacheStore<Object, Object>             store        ;
+		private final WriteBehindCacheWriter<Object, Object> writeBehind  ;
+		private final CacheLoader<Object, Object>            loader       ;
+		private final CacheWriter<Object, Object>            writer       ;
+		private final int                                    nearCacheSize;
+		private final Segment[]                              segments     ;
+		
+		Default(
+			final CacheStore<Object, Object>             store        ,
+			final WriteBehindCacheWriter<Object, Object> writeBehind  ,
+			final int                                    nearCacheSize,
+			final int                                    segmentCount
+		)
+		{
+			super();
+			
+			this.store         = store        ;
+			this.writeBehind   = writeBehind  ;
+			this.nearCacheSize = nearCacheSize;
+			
+			// queued writes are visible to loads before they reach the store
+			if(writeBehind != null)
+			{
+				this.loader = writeBehind.loader(store);
+				this.writer = writeBehind;
+			}
+			else
+			{
+				this.loader = store;
+				this.writer = store;
+			}
+			
+			// no more segments than entries, so small near caches are not divided into empty segments
+			final int count    = nearCacheSize == 0
+				? segmentCount
+				: Math.min(segmentCount, nearCacheSize)
+			;
+			final int capacity = (int)((nearCacheSize + (long)count - 1) / count);
+			this.segments      = new Segment[count];
+			for(int i = 0; i < count; i++)
+			{
+				this.segments[i] = new Segment(capacity);
+			}
+		}
+		
+		@Override
+		public int nearCacheSize()
+		{
+			return this.nearCacheSize;
+		}
+		
+		private Segment segment(final Object key)
+		{
+			final int hash = key.hashCode();
+			return this.segments[Math.floorMod(hash ^ hash >>> 16, this.segments.length)];
+		}
+		
+		private Object load(final Object key)
+		{
+			try
+			{
+				return this.loader.load(key);
+			}
+			catch(final CacheException e)
+			{
+				throw new org.hibernate.cache.CacheException(e);
+			}
+		}
+		
+		@Override
+		public Object getFromCache(
+			final Object                           key    ,
+			final SharedSessionContractImplementor session
+		)
+		{
+			final Segment segment = this.segment(key);
+			final long    version;
+			synchronized(segment)
+			{
+				final Object value = segment.get(key);
+				if(value != null || this.store == null)
+				{
+					return value;
+				}
+				version = segment.version;
+			}
+			
+			final Object value = this.load(key);
+			if(value != null)
+			{
+				synchronized(segment)
+				{
+					if(segment.version == version)
+					{
+						segment.put(key, value);
+					}
+				}
+			}
+			return value;
+		}
+		
+		@Override
+		public void putIntoCache(
+			final Object                           key    ,
+			final Object                           value  ,
+			final SharedSessionContractImplementor session
+		)
+		{
+			final Segment segment = this.segment(key);
+			if(this.store == null)
+			{
+				synchronized(segment)
+				{
+					segment.put(key, value);
+				}
+				return;
+			}
+			
+			final long version;
+			synchronized(segment)
+			{
+				// concurrent loads of the previous value are not cached
+				segment.remove(key);
+				version = ++segment.version;
+			}
+			
+			try
+			{
+				this.writer.write(CacheEntry.New(key, value));
+			}
+			catch(final CacheException e)
+			{
+				throw new org.hibernate.cache.CacheException(e);
+			}
+			
+			synchronized(segment)
+			{
+				// the value is only cached if no other write has been done in the meantime
+				if(segment.version == version)
+				{
+					segment.put(key, value);
+				}
+				segment.version++;
+			}
+		}
+		
+		@Override
+		public boolean contains(
+			final Object key
+		)
+		{
+			final Segment segment = this.segment(key);
+			synchronized(segment)
+			{
+				if(segment.containsKey(key))
+				{
+					return true;
+				}
+			}
+			
+			// the near cache is reserved for entries which are actually read
+			return this.store != null
+				&& this.load(key) != null
+			;
+		}
+		
+		@Override
+		public void evictData(
+			final Object key
+		)
+		{
+			final Segment segment = this.segment(key);
+			synchronized(segment)
+			{
+				segment.remove(key);
+				segment.version++;
+			}
+			if(this.store == null)
+			{
+				return;
+			}
+			
+			try
+			{
+				this.writer.delete(key);
+			}
+			catch(final CacheException e)
+			{
+				throw new org.hibernate.cache.CacheException(e);
+			}
+			
+			synchronized(segment)
+			{
+				// concurrent loads of the deleted value are not cached
+				segment.version++;
+			}
+		}
+		
+		@Override
+		public void evictData()
+		{
+			/*
+			 * The store is cleared at once, instead of removing the entries one by one.
+			 * Queued writes are flushed before, so they are cleared as well.
+			 * A concurrent read which has loaded an entry before is done when its segment is cleared afterwards.
+			 */
+			if(this.store != null)
+			{
+				try
+				{
+					if(this.writeBehind != null)
+					{
+						this.writeBehind.flush();
+					}
+					this.store.clear();
+				}
+				catch(final CacheException e)
+				{
+					throw new org.hibernate.cache.CacheException(e);
+				}
+			}
+			this.clearNearCache();
+		}
+		
+		private void clearNearCache()
+		{
+			for(final Segment segment : this.segments)
+			{
+				synchronized(segment)
+				{
+					segment.clear();
+					segment.version++;
+				}
+			}
+		}
+		
+		@Override
+		public void release()
+		{
+			// the store's content is kept for the next start
+			this.clearNearCache();
+			if(this.writeBehind != null)
+			{
+				try
+				{
+					// writes the remaining changes
+					this.writeBehind.close();
+				}
+				catch(final IOException e)
+				{
+					throw new org.hibernate.cache.CacheException(e);
+				}
+			}
+		}
+		
+		
+		static final class Segment extends LinkedHashMap<Object, Object>
+		{
+			private static final long serialVersionUID = 1L;
+			
+			private final int  capacity;
+			private       long version ; // incremented by each change, guarded by the segment's monitor
+			
+			Segment(final int capacity)
+			{
+				super(16, 0.75f, true);
+				
+				this.capacity = capacity;
+			}
+			
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Object, Object> eldest)
+			{
+				return this.size() > this.capacity;
+			}
+			
+		}
+		
+	}
+	
+}
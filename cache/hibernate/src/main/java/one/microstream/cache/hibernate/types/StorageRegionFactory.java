@@ -0,0 +1,368 @@
+package one.microstream.cache.hibernate.types;
+
+/*-
+ * #%L
+ * microstream-cache-hibernate
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.CacheKeysFactory;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.RegionNameQualifier;
+import org.hibernate.cache.spi.support.SimpleTimestamper;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import one.microstream.cache.types.CacheConfigurationPropertyNames;
+import one.microstream.cache.types.CacheStore;
+import one.microstream.cache.types.WriteBehind;
+import one.microstream.chars.XChars;
+import one.microstream.configuration.types.Configuration;
+import one.microstream.configuration.types.ConfigurationLoader;
+import one.microstream.configuration.types.ConfigurationMapperMap;
+import one.microstream.configuration.types.ConfigurationParserIni;
+import one.microstream.configuration.types.ConfigurationParserXml;
+import one.microstream.storage.embedded.configuration.types.EmbeddedStorageFoundationCreatorConfigurationBased;
+import one.microstream.storage.types.StorageManager;
+
+
+/**
+ * Region factory which keeps the domain data regions in a storage, see {@link StorageRegionAccess}.
+ * <p>
+ * Unlike the {@link CacheRegionFactory}, the regions don't go through a JCache cache. Each one has an on-heap
+ * near cache for its hot entries, sized by the kind of data it holds, and reads through to its part of the storage.
+ * So the second-level cache is warm right after a restart, as long as the database is not modified
+ * by others in the meantime.
+ * <p>
+ * The storage is configured by the properties prefixed with <code>hibernate.cache.microstream.storage.</code>,
+ * or by the resource denoted by {@link ConfigurationPropertyNames#STORAGE_CONFIGURATION_RESOURCE_NAME}.
+ * An explicit storage manager, which must not be used for other data, can be passed with
+ * {@link ConfigurationPropertyNames#STORAGE_MANAGER}.
+ * <p>
+ * If {@link ConfigurationPropertyNames#WRITE_BEHIND} is set to <code>true</code>, the regions write to the storage
+ * asynchronously, see {@link WriteBehind}.
+ * <p>
+ * Query results and update timestamps are only kept on-heap, since their keys reference Hibernate's internals.
+ * Reference entries (<code>hibernate.cache.use_reference_entries</code>) must not be used with this factory.
+ */
+public class StorageRegionFactory extends RegionFactoryTemplate
+{
+	public interface Defaults
+	{
+		public static int defaultEntityNearCacheSize()
+		{
+			return 10_000;
+		}
+		
+		public static int defaultCollectionNearCacheSize()
+		{
+			return 10_000;
+		}
+		
+		public static int defaultNaturalIdNearCacheSize()
+		{
+			return 1_000;
+		}
+		
+		public static int defaultQueryResultsNearCacheSize()
+		{
+			return 1_000;
+		}
+	}
+	
+	
+	private final    CacheKeysFactory cacheKeysFactory;
+	private volatile StorageManager   storageManager;
+	private final AtomicBoolean       isExplicitStorageManager = new AtomicBoolean();
+	private volatile int              entityNearCacheSize;
+	private volatile int              collectionNearCacheSize;
+	private volatile int              naturalIdNearCacheSize;
+	private volatile int              queryResultsNearCacheSize;
+	private volatile WriteBehind      writeBehind;
+	private final AtomicLong          cacheLockTimeout = new AtomicLong();
+
+	public StorageRegionFactory()
+	{
+		this(StorageCacheKeysFactory.INSTANCE);
+	}
+
+	public StorageRegionFactory(
+		final CacheKeysFactory cacheKeysFactory
+	)
+	{
+		super();
+		this.cacheKeysFactory = cacheKeysFactory;
+	}
+
+	@Override
+	protected CacheKeysFactory getImplicitCacheKeysFactory()
+	{
+		return this.cacheKeysFactory;
+	}
+
+	@Override
+	protected void prepareForUse(
+		final SessionFactoryOptions settings,
+		@SuppressWarnings("rawtypes") // superclass uses raw type
+		final Map properties
+	)
+	{
+		this.storageManager            = this.resolveStorageManager(
+			settings,
+			properties
+		);
+
+		this.entityNearCacheSize       = intSetting(
+			properties,
+			ConfigurationPropertyNames.ENTITY_NEAR_CACHE_SIZE,
+			Defaults.defaultEntityNearCacheSize()
+		);
+		this.collectionNearCacheSize   = intSetting(
+			properties,
+			ConfigurationPropertyNames.COLLECTION_NEAR_CACHE_SIZE,
+			Defaults.defaultCollectionNearCacheSize()
+		);
+		this.naturalIdNearCacheSize    = intSetting(
+			properties,
+			ConfigurationPropertyNames.NATURAL_ID_NEAR_CACHE_SIZE,
+			Defaults.defaultNaturalIdNearCacheSize()
+		);
+		this.queryResultsNearCacheSize = intSetting(
+			properties,
+			ConfigurationPropertyNames.QUERY_RESULTS_NEAR_CACHE_SIZE,
+			Defaults.defaultQueryResultsNearCacheSize()
+		);
+		this.writeBehind               = resolveWriteBehind(properties);
+
+		final Object cacheLockTimeoutConfigValue = properties.get(
+			ConfigurationPropertyNames.CACHE_LOCK_TIMEOUT
+		);
+		if(cacheLockTimeoutConfigValue != null)
+		{
+			final int lockTimeoutInMillis = cacheLockTimeoutConfigValue instanceof String
+				? Integer.decode((String)cacheLockTimeoutConfigValue)
+				: ((Number)cacheLockTimeoutConfigValue).intValue()
+			;
+			this.cacheLockTimeout.set(SimpleTimestamper.ONE_MS * lockTimeoutInMillis);
+		}
+	}
+
+	private static WriteBehind resolveWriteBehind(final Map<?, ?> properties)
+	{
+		final Object value = properties.get(ConfigurationPropertyNames.WRITE_BEHIND);
+		if(value == null || !Boolean.parseBoolean(value.toString().trim()))
+		{
+			return null;
+		}
+		
+		return WriteBehind.New(
+			intSetting(
+				properties,
+				ConfigurationPropertyNames.WRITE_BEHIND_MAX_QUEUE_SIZE,
+				WriteBehind.Defaults.defaultMaxQueueSize()
+			),
+			intSetting(
+				properties,
+				ConfigurationPropertyNames.WRITE_BEHIND_BATCH_SIZE,
+				WriteBehind.Defaults.defaultBatchSize()
+			),
+			intSetting(
+				properties,
+				ConfigurationPropertyNames.WRITE_BEHIND_FLUSH_INTERVAL_MILLIS,
+				(int)WriteBehind.Defaults.defaultFlushIntervalMillis()
+			)
+		);
+	}
+
+	private static int intSetting(
+		final Map<?, ?> properties  ,
+		final String    name        ,
+		final int       defaultValue
+	)
+	{
+		final Object value = properties.get(name);
+		return value == null
+			? defaultValue
+			: value instanceof String
+				? Integer.decode(((String)value).trim())
+				: ((Number)value).intValue()
+		;
+	}
+
+	@SuppressWarnings("rawtypes")
+	protected StorageManager resolveStorageManager(
+		final SessionFactoryOptions settings,
+		final Map properties
+	)
+	{
+		final Object explicitStorageManager = properties.get(ConfigurationPropertyNames.STORAGE_MANAGER);
+		this.isExplicitStorageManager.set(explicitStorageManager != null);
+		if(explicitStorageManager == null)
+		{
+			return this.createStorageManager(settings, properties);
+		}
+		if(explicitStorageManager instanceof StorageManager)
+		{
+			return (StorageManager)explicitStorageManager;
+		}
+		throw new CacheException("Could not use explicit StorageManager : " + explicitStorageManager);
+	}
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	protected StorageManager createStorageManager(
+		final SessionFactoryOptions settings,
+		final Map properties
+	)
+	{
+		// 1. Check for properties in context config
+		final String              prefix              = ConfigurationPropertyNames.PREFIX;
+		final String              storagePrefix       = prefix + CacheConfigurationPropertyNames.STORAGE + '.';
+		final Map<String, String> msStorageProperties = ((Map<Object, Object>)properties).entrySet().stream()
+			.filter(kv -> kv.getKey().toString().startsWith(storagePrefix))
+			.collect(Collectors.toMap(
+				kv -> kv.getKey().toString().substring(prefix.length()),
+				kv -> kv.getValue().toString()
+			))
+		;
+		Configuration storageConfiguration = msStorageProperties.isEmpty()
+			? null
+			: ConfigurationMapperMap.New()
+				.mapConfiguration(msStorageProperties)
+				.buildConfiguration()
+				.child(CacheConfigurationPropertyNames.STORAGE)
+		;
+
+		// 2. Check for configured external resource
+		if(storageConfiguration == null)
+		{
+			final String resourceName = (String)properties.get(
+				ConfigurationPropertyNames.STORAGE_CONFIGURATION_RESOURCE_NAME
+			);
+			if(XChars.isEmpty(resourceName))
+			{
+				throw new CacheException(
+					"No storage configured, set the " + storagePrefix + "* properties or "
+					+ ConfigurationPropertyNames.STORAGE_CONFIGURATION_RESOURCE_NAME
+				);
+			}
+			final URL url = settings.getServiceRegistry()
+				.getService(ClassLoaderService.class)
+				.locateResource(resourceName)
+			;
+			storageConfiguration = Configuration.Load(
+				ConfigurationLoader.New(url != null ? url.toString() : resourceName),
+				resourceName.toLowerCase().endsWith(".xml")
+					? ConfigurationParserXml.New()
+					: ConfigurationParserIni.New()
+			);
+		}
+
+		return EmbeddedStorageFoundationCreatorConfigurationBased.New(storageConfiguration)
+			.createEmbeddedStorageFoundation()
+			.createEmbeddedStorageManager()
+			.start()
+		;
+	}
+
+	@Override
+	protected void releaseFromUse()
+	{
+		final StorageManager storageManager = this.storageManager;
+		this.storageManager = null;
+		if(storageManager != null && !this.isExplicitStorageManager.get())
+		{
+			storageManager.shutdown();
+		}
+	}
+
+	@Override
+	public long getTimeout()
+	{
+		return this.cacheLockTimeout.get();
+	}
+
+	@Override
+	protected StorageRegionAccess createDomainDataStorageAccess(
+		final DomainDataRegionConfig regionConfig,
+		final DomainDataRegionBuildingContext buildingContext
+	)
+	{
+		// a region can be shared by several kinds of data, each one gets its share of the near cache
+		long nearCacheSize = 0L;
+		if(!regionConfig.getEntityCaching().isEmpty())
+		{
+			nearCacheSize += this.entityNearCacheSize;
+		}
+		if(!regionConfig.getCollectionCaching().isEmpty())
+		{
+			nearCacheSize += this.collectionNearCacheSize;
+		}
+		if(!regionConfig.getNaturalIdCaching().isEmpty())
+		{
+			nearCacheSize += this.naturalIdNearCacheSize;
+		}
+
+		final String qualifiedRegionName = RegionNameQualifier.INSTANCE.qualify(
+			regionConfig.getRegionName(),
+			buildingContext.getSessionFactory().getSessionFactoryOptions()
+		);
+		final CacheStore<Object, Object> store       = CacheStore.New(qualifiedRegionName, this.storageManager);
+		final WriteBehind                writeBehind = this.writeBehind;
+		return writeBehind == null
+			? StorageRegionAccess.New(
+				store,
+				(int)Math.min(nearCacheSize, Integer.MAX_VALUE)
+			)
+			: StorageRegionAccess.New(
+				store,
+				(int)Math.min(nearCacheSize, Integer.MAX_VALUE),
+				StorageRegionAccess.Defaults.defaultSegmentCount(),
+				writeBehind
+			)
+		;
+	}
+
+	@Override
+	protected StorageRegionAccess createQueryResultsRegionStorageAccess(
+		final String regionName,
+		final SessionFactoryImplementor sessionFactory
+	)
+	{
+		return StorageRegionAccess.New(this.queryResultsNearCacheSize);
+	}
+
+	@Override
+	protected StorageRegionAccess createTimestampsRegionStorageAccess(
+		final String regionName,
+		final SessionFactoryImplementor sessionFactory
+	)
+	{
+		// update timestamps must not be evicted, otherwise stale query results could be used
+		return StorageRegionAccess.New(Integer.MAX_VALUE);
+	}
+
+}
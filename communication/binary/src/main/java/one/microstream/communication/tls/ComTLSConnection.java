@@ -24,11 +24,6 @@ import java.io.IOException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
@@ -41,7 +36,6 @@ import javax.net.ssl.SSLSession;
 import org.slf4j.Logger;
 
 import one.microstream.com.ComException;
-import one.microstream.com.ComExceptionTimeout;
 import one.microstream.com.XSockets;
 import one.microstream.communication.types.ComConnection;
 import one.microstream.util.logging.Logging;
@@ -241,33 +235,8 @@ public class ComTLSConnection implements ComConnection
 	
 	private void readInternalWithTimeout(final ByteBuffer buffer)
 	{
-		final ExecutorService executor = Executors.newSingleThreadExecutor();
-				
-		int readResult = 0;
-		
-		try
-		{
-			readResult = executor
-				.submit(() -> { return this.channel.read(buffer); })
-				.get(this.readTimeOut, TimeUnit.MILLISECONDS);
-		}
-		catch (InterruptedException | ExecutionException e)
-		{
-			throw new ComException("reading data failed", e);
-		}
-		catch(final TimeoutException e)
-		{
-			throw new ComExceptionTimeout("read timeout after " + this.readTimeOut + " " + TimeUnit.MILLISECONDS, e);
-		}
-		finally
-		{
-			executor.shutdownNow();
-		}
-
-		if(readResult < 0)
-		{
-			throw new ComException("reading data during handshake failed");
-		}
+		// read by the calling thread, instead of a new one per read, see XSockets
+		XSockets.read(this.channel, buffer, this.readTimeOut);
 	}
 	
 	private HandshakeStatus unwrapHandshakeData() throws IOException
@@ -22,16 +22,9 @@ package one.microstream.communication.types;
 
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 
-import one.microstream.com.ComException;
-import one.microstream.com.ComExceptionTimeout;
 import one.microstream.com.XSockets;
 import one.microstream.util.logging.Logging;
 
@@ -93,28 +86,8 @@ public interface ComConnection
 	
 		public ByteBuffer readWithTimeOut(final ByteBuffer buffer, final int length)
 		{
-			final ExecutorService executor = Executors.newSingleThreadExecutor();
-								
-			try
-			{
-				executor
-					.submit(() -> { return XSockets.read(this.channel, buffer, length); })
-					.get(this.readTimeOut, TimeUnit.MILLISECONDS);
-			}
-			catch (InterruptedException | ExecutionException e)
-			{
-				throw new ComException("reading data failed", e);
-			}
-			catch(final TimeoutException e)
-			{
-				throw new ComExceptionTimeout("read timeout", e);
-			}
-			finally
-			{
-				executor.shutdownNow();
-			}
-			
-			return buffer;
+			// read by the calling thread, instead of a new one per read, see XSockets
+			return XSockets.read(this.channel, buffer, length, this.readTimeOut);
 		}
 
 		@Override
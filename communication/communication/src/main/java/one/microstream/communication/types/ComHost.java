@@ -22,8 +22,16 @@ package one.microstream.communication.types;
 
 import static one.microstream.X.mayNull;
 import static one.microstream.X.notNull;
+import static one.microstream.math.XMath.positive;
 
 import java.net.InetSocketAddress;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 
@@ -33,6 +41,15 @@ import one.microstream.util.logging.Logging;
 /**
  * Host type to listen for new connections and relay them to logic for further processing,
  * potentially in another, maybe even dedicated thread.
+ * <p>
+ * The listening thread only accepts connections. The handshake with the client and the
+ * {@link ComHostChannelAcceptor} are run by the connection executor, so a slow or stalled client
+ * doesn't block others from connecting.
+ * <p>
+ * Every served connection occupies one task of the connection executor for its whole lifetime.
+ * If the executor rejects a new connection, e.g. because its connection limit is reached,
+ * the host logs a warning, closes the connection and keeps listening. See
+ * {@link Defaults#defaultConnectionExecutor(int)} for the limit of the default executor.
  * 
  * 
  * @param <C> the communication layer type
@@ -62,14 +79,130 @@ public interface ComHost<C> extends Runnable
 		final ComConnectionHandler<C>  connectionHandler ,
 		final ComConnectionAcceptor<C> connectionAcceptor
 	)
+	{
+		return new ComHost.Default<>(
+			mayNull(address)                    ,
+			notNull(connectionHandler)          ,
+			notNull(connectionAcceptor)         ,
+			Defaults.defaultConnectionExecutor(),
+			true
+		);
+	}
+	
+	/**
+	 * Creates a new host, which accepts the connections in its default executor with the given
+	 * connection limit, see {@link Defaults#defaultConnectionExecutor(int)}.
+	 * 
+	 * @param <C> the communication layer type
+	 * @param address the address to bind to
+	 * @param connectionHandler the connection handler
+	 * @param connectionAcceptor the logic to accept a connection
+	 * @param maxConnectionThreads the maximum number of concurrently served connections without virtual threads
+	 * @return a new host
+	 */
+	public static <C> ComHost<C> New(
+		final InetSocketAddress        address             ,
+		final ComConnectionHandler<C>  connectionHandler   ,
+		final ComConnectionAcceptor<C> connectionAcceptor  ,
+		final int                      maxConnectionThreads
+	)
+	{
+		return new ComHost.Default<>(
+			mayNull(address)                                                  ,
+			notNull(connectionHandler)                                        ,
+			notNull(connectionAcceptor)                                       ,
+			Defaults.defaultConnectionExecutor(positive(maxConnectionThreads)),
+			true
+		);
+	}
+	
+	/**
+	 * Creates a new host, which accepts the connections in the given executor.
+	 * The executor is not shut down by the host.
+	 * 
+	 * @param <C> the communication layer type
+	 * @param address the address to bind to
+	 * @param connectionHandler the connection handler
+	 * @param connectionAcceptor the logic to accept a connection
+	 * @param connectionExecutor the executor running the connection acceptor
+	 * @return a new host
+	 */
+	public static <C> ComHost<C> New(
+		final InetSocketAddress        address           ,
+		final ComConnectionHandler<C>  connectionHandler ,
+		final ComConnectionAcceptor<C> connectionAcceptor,
+		final Executor                 connectionExecutor
+	)
 	{
 		return new ComHost.Default<>(
 			mayNull(address)           ,
 			notNull(connectionHandler) ,
-			notNull(connectionAcceptor)
+			notNull(connectionAcceptor),
+			notNull(connectionExecutor),
+			false
 		);
 	}
 	
+	
+	public interface Defaults
+	{
+		/**
+		 * Alias for {@code defaultConnectionExecutor(defaultMaxConnectionThreads())}.
+		 * 
+		 * @return the default executor for accepted connections
+		 */
+		public static ExecutorService defaultConnectionExecutor()
+		{
+			return defaultConnectionExecutor(defaultMaxConnectionThreads());
+		}
+		
+		/**
+		 * Runs each connection in a virtual thread, if the runtime supports them (Java 21+),
+		 * so thousands of channels are served by a few platform threads and the passed limit does not apply.
+		 * Otherwise in a pooled daemon thread, with at most {@code maxConnectionThreads} threads.
+		 * Since a served connection occupies its thread until it is closed, connections beyond this limit
+		 * are rejected: the host logs a warning and closes them right after accepting, and the client's
+		 * handshake fails. To serve more concurrent connections on older runtimes, pass a higher limit,
+		 * e.g. via {@link ComHostCreator#New(int)}, or create the host with an explicit executor.
+		 * 
+		 * @param maxConnectionThreads the maximum number of concurrently served connections without virtual threads
+		 * @return the default executor for accepted connections
+		 */
+		public static ExecutorService defaultConnectionExecutor(final int maxConnectionThreads)
+		{
+			try
+			{
+				return (ExecutorService)Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor")
+					.invoke(null)
+				;
+			}
+			catch(final ReflectiveOperationException e)
+			{
+				// virtual threads are not available
+				return new ThreadPoolExecutor(
+					0, maxConnectionThreads,
+					60L, TimeUnit.SECONDS,
+					new SynchronousQueue<>(),
+					runnable ->
+					{
+						final Thread thread = new Thread(runnable, "MicroStream-ComHostConnection");
+						thread.setDaemon(true);
+						return thread;
+					}
+				);
+			}
+		}
+		
+		/**
+		 * @return the default maximum number of concurrently served connections without virtual threads
+		 */
+		public static int defaultMaxConnectionThreads()
+		{
+			return 512;
+		}
+	}
+	
 	public final class Default<C> implements ComHost<C>
 	{
 		///////////////////////////////////////////////////////////////////////////
@@ -79,6 +212,8 @@ public interface ComHost<C> extends Runnable
 		private final InetSocketAddress        address           ;
 		private final ComConnectionHandler<C>  connectionHandler ;
 		private final ComConnectionAcceptor<C> connectionAcceptor;
+		private final Executor                 connectionExecutor;
+		private final boolean                  ownsExecutor      ;
 		
 		private transient ComConnectionListener<C> liveConnectionListener;
 		private volatile boolean stopped;
@@ -94,13 +229,17 @@ public interface ComHost<C> extends Runnable
 		Default(
 			final InetSocketAddress        address           ,
 			final ComConnectionHandler<C>  connectionHandler ,
-			final ComConnectionAcceptor<C> connectionAcceptor
+			final ComConnectionAcceptor<C> connectionAcceptor,
+			final Executor                 connectionExecutor,
+			final boolean                  ownsExecutor
 		)
 		{
 			super();
 			this.address            = address           ;
 			this.connectionHandler  = connectionHandler ;
 			this.connectionAcceptor = connectionAcceptor;
+			this.connectionExecutor = connectionExecutor;
+			this.ownsExecutor       = ownsExecutor      ;
 		}
 		
 		
@@ -149,6 +288,12 @@ public interface ComHost<C> extends Runnable
 			
 			this.stopped = true;
 			
+			if(this.ownsExecutor)
+			{
+				// running connections are not interrupted, new ones are rejected
+				((ExecutorService)this.connectionExecutor).shutdown();
+			}
+			
 			if(this.liveConnectionListener == null)
 			{
 				return;
@@ -178,24 +323,27 @@ public interface ComHost<C> extends Runnable
 			// repeatedly accept new connections until stopped.
 			while(!this.stopped)
 			{
+				final ComConnectionListener<C> connectionListener;
 				synchronized(this)
 				{
 					if(!this.isListening())
 					{
 						break;
 					}
-					
-					this.synchAcceptConnection();
+					connectionListener = this.liveConnectionListener;
 				}
+				
+				// waiting for a connection must not hold the lock, otherwise isListening would block meanwhile
+				this.acceptConnection(connectionListener);
 			}
 		}
 		
-		private void synchAcceptConnection()
+		private void acceptConnection(final ComConnectionListener<C> connectionListener)
 		{
 			final C connection;
 			try
 			{
-				connection = this.liveConnectionListener.listenForConnection();
+				connection = connectionListener.listenForConnection();
 			}
 			catch(final ComException e)
 			{
@@ -204,7 +352,25 @@ public interface ComHost<C> extends Runnable
 				return;
 			}
 			
-			this.connectionAcceptor.acceptConnection(connection, this);
+			try
+			{
+				this.connectionExecutor.execute(() ->
+					this.connectionAcceptor.acceptConnection(connection, this)
+				);
+			}
+			catch(final RejectedExecutionException e)
+			{
+				// the host has been stopped meanwhile or the executor's connection limit is reached
+				if(this.stopped)
+				{
+					logger.debug("Connection rejected", e);
+				}
+				else
+				{
+					logger.warn("Connection rejected, the connection limit is reached", e);
+				}
+				this.connectionHandler.close(connection);
+			}
 		}
 	}
 	
@@ -20,6 +20,8 @@ package one.microstream.communication.types;
  * #L%
  */
 
+import static one.microstream.math.XMath.positive;
+
 import java.net.InetSocketAddress;
 
 /**
@@ -39,18 +41,43 @@ public interface ComHostCreator<C>
 	
 	public static <C> ComHostCreator<C> New()
 	{
-		return new ComHostCreator.Default<>();
+		return New(ComHost.Defaults.defaultMaxConnectionThreads());
+	}
+	
+	/**
+	 * Creates a host creator whose hosts serve at most the given number of concurrent connections
+	 * if the runtime doesn't support virtual threads, see {@link ComHost.Defaults#defaultConnectionExecutor(int)}.
+	 * Connections beyond this limit are rejected and closed by the host.
+	 * 
+	 * @param <C> the communication layer type
+	 * @param maxConnectionThreads the maximum number of concurrently served connections without virtual threads
+	 * @return a new host creator
+	 */
+	public static <C> ComHostCreator<C> New(final int maxConnectionThreads)
+	{
+		return new ComHostCreator.Default<>(
+			positive(maxConnectionThreads)
+		);
 	}
 	
 	public final class Default<C> implements ComHostCreator<C>
 	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private final int maxConnectionThreads;
+		
+		
+		
 		///////////////////////////////////////////////////////////////////////////
 		// constructors //
 		/////////////////
 		
-		Default()
+		Default(final int maxConnectionThreads)
 		{
 			super();
+			this.maxConnectionThreads = maxConnectionThreads;
 		}
 		
 		
@@ -66,7 +93,7 @@ public interface ComHostCreator<C>
 			final ComConnectionAcceptor<C> connectionAcceptor
 		)
 		{
-			return ComHost.New(address, connectionHandler, connectionAcceptor);
+			return ComHost.New(address, connectionHandler, connectionAcceptor, this.maxConnectionThreads);
 		}
 		
 	}
@@ -0,0 +1,179 @@
+package echoexample;
+
+/*-
+ * #%L
+ * microstream-examples-communication-echo
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import one.microstream.communication.binarydynamic.ComBinaryDynamic;
+import one.microstream.communication.types.Com;
+import one.microstream.communication.types.ComChannel;
+import one.microstream.communication.types.ComClient;
+import one.microstream.communication.types.ComHost;
+
+/**
+ * Local loopback load test of the host: measures the connect rate and the echoed messages per second
+ * of many concurrent clients, while a stalled client keeps a connection open without ever handshaking.
+ * <p>
+ * Arguments: [clients] [messages per client], default 200 and 100.
+ */
+public class EchoLoadTest
+{
+	public static void main(final String[] args) throws Exception
+	{
+		final int clients  = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		final int messages = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		
+		final InetSocketAddress address = Com.localHostSocketAddress();
+		
+		final ComHost<?> host = ComBinaryDynamic.Foundation()
+			.setHostBindingAddress(address)
+			.setHostChannelAcceptor(channel ->
+			{
+				// echo until the client disconnects
+				try
+				{
+					while(true)
+					{
+						channel.send(channel.receive());
+					}
+				}
+				catch(final RuntimeException e)
+				{
+					channel.close();
+				}
+			})
+			.createHost();
+		
+		final Thread hostThread = new Thread(host, "EchoLoadTest-Host");
+		hostThread.setDaemon(true);
+		hostThread.start();
+		while(!host.isListening())
+		{
+			if(!hostThread.isAlive())
+			{
+				throw new IllegalStateException("Host could not be started at " + address);
+			}
+			Thread.sleep(10);
+		}
+		
+		// a client which connects but never handshakes must not keep the others from connecting
+		final Socket stalled = new Socket(address.getAddress(), address.getPort());
+		try
+		{
+			final ComClient<?> client = ComBinaryDynamic.Foundation()
+				.setClientTargetAddress(address)
+				.createClient();
+			
+			final ExecutorService       executor     = Executors.newFixedThreadPool(clients);
+			final CountDownLatch        start        = new CountDownLatch(1);
+			final CountDownLatch        connected    = new CountDownLatch(clients);
+			final AtomicLong            connectNanos = new AtomicLong();
+			final List<Future<Integer>> results      = new ArrayList<>();
+			
+			final long connectStart = System.nanoTime();
+			for(int c = 0; c < clients; c++)
+			{
+				results.add(executor.submit(() ->
+				{
+					start.await();
+					final ComChannel channel;
+					try
+					{
+						channel = client.connect();
+						connectNanos.accumulateAndGet(System.nanoTime() - connectStart, Math::max);
+					}
+					finally
+					{
+						// all clients start sending at the same time, failed ones must not hold up the others
+						connected.countDown();
+					}
+					connected.await();
+					
+					try(channel)
+					{
+						int echoed = 0;
+						for(int m = 0; m < messages; m++)
+						{
+							final String message = "message " + m;
+							channel.send(message);
+							if(message.equals(channel.receive()))
+							{
+								echoed++;
+							}
+						}
+						return echoed;
+					}
+				}));
+			}
+			
+			start.countDown();
+			connected.await();
+			final long messageStart = System.nanoTime();
+			long echoed = 0;
+			int  failed = 0;
+			for(final Future<Integer> result : results)
+			{
+				try
+				{
+					echoed += result.get();
+				}
+				catch(final ExecutionException e)
+				{
+					if(failed++ == 0)
+					{
+						e.getCause().printStackTrace();
+					}
+				}
+			}
+			final long messageNanos = System.nanoTime() - messageStart;
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+			
+			System.out.printf("%d of %d clients connected in %d ms (%.0f connects/s)%n",
+				clients - failed,
+				clients,
+				TimeUnit.NANOSECONDS.toMillis(connectNanos.get()),
+				(clients - failed) * 1e9 / connectNanos.get()
+			);
+			System.out.printf("%d of %d messages echoed in %d ms (%.0f messages/s)%n",
+				echoed,
+				(long)clients * messages,
+				TimeUnit.NANOSECONDS.toMillis(messageNanos),
+				echoed * 1e9 / messageNanos
+			);
+		}
+		finally
+		{
+			stalled.close();
+			host.stop();
+		}
+	}
+}
@@ -20,14 +20,17 @@ package one.microstream.persistence.binary.android.java.time;
  * #L%
  */
 
-import java.time.Duration;
-
-import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomNonReferentialFixedLength;
-import one.microstream.persistence.binary.types.Binary;
-import one.microstream.persistence.types.PersistenceLoadHandler;
-import one.microstream.persistence.types.PersistenceStoreHandler;
-
-public final class BinaryHandlerDuration extends AbstractBinaryHandlerCustomNonReferentialFixedLength<Duration>
+/**
+ * Former Android specific type handler for {@link java.time.Duration}.
+ * <p>
+ * Delegates to the default type handler of the binary persistence, so there is only one binary format
+ * per type. Data persisted with the former Android handler is loaded by a default legacy type handler.
+ * 
+ * @deprecated use {@link one.microstream.persistence.binary.java.time.BinaryHandlerDuration} or simply the
+ * default type handlers, this class will be removed in a future release.
+ */
+@Deprecated
+public final class BinaryHandlerDuration extends one.microstream.persistence.binary.java.time.BinaryHandlerDuration
 {
 	///////////////////////////////////////////////////////////////////////////
 	// static methods //
@@ -46,44 +49,7 @@ public final class BinaryHandlerDuration extends AbstractBinaryHandlerCustomNonR
 
 	BinaryHandlerDuration()
 	{
-		super(
-			Duration.class,
-			CustomFields(
-				CustomField(long.class, "nanos")
-			)
-		);
-	}
-
-
-
-	///////////////////////////////////////////////////////////////////////////
-	// methods //
-	////////////
-	
-
-	@Override
-	public final void store(
-		final Binary                          data    ,
-		final Duration                        instance,
-		final long                            objectId,
-		final PersistenceStoreHandler<Binary> handler
-	)
-	{
-		data.storeEntityHeader(Long.BYTES, this.typeId(), objectId);
-		
-		data.store_long(instance.toNanos());
-	}
-
-	@Override
-	public final Duration create(final Binary data, final PersistenceLoadHandler handler)
-	{
-		return Duration.ofNanos(data.read_long(0L));
-	}
-
-	@Override
-	public final void updateState(final Binary data, final Duration instance, final PersistenceLoadHandler handler)
-	{
-		// no-op
+		super();
 	}
 
 }
@@ -20,19 +20,18 @@ package one.microstream.persistence.binary.android.java.time;
  * #L%
  */
 
-import java.time.Instant;
-
-import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomNonReferentialFixedLength;
-import one.microstream.persistence.binary.types.Binary;
-import one.microstream.persistence.types.PersistenceLoadHandler;
-import one.microstream.persistence.types.PersistenceStoreHandler;
-
-public final class BinaryHandlerInstant extends AbstractBinaryHandlerCustomNonReferentialFixedLength<Instant>
+/**
+ * Former Android specific type handler for {@link java.time.Instant}.
+ * <p>
+ * Delegates to the default type handler of the binary persistence, so there is only one binary format
+ * per type. Data persisted with the former Android handler is loaded by a default legacy type handler.
+ * 
+ * @deprecated use {@link one.microstream.persistence.binary.java.time.BinaryHandlerInstant} or simply the
+ * default type handlers, this class will be removed in a future release.
+ */
+@Deprecated
+public final class BinaryHandlerInstant extends one.microstream.persistence.binary.java.time.BinaryHandlerInstant
 {
-	static final long BINARY_OFFSET_SECOND =                                    0L;
-	static final long BINARY_OFFSET_NANO   = BINARY_OFFSET_SECOND  + Long   .BYTES;
-	static final long BINARY_LENGTH        = BINARY_OFFSET_NANO    + Integer.BYTES;
-	
 	///////////////////////////////////////////////////////////////////////////
 	// static methods //
 	///////////////////
@@ -50,49 +49,7 @@ public final class BinaryHandlerInstant extends AbstractBinaryHandlerCustomNonRe
 
 	BinaryHandlerInstant()
 	{
-		super(
-			Instant.class,
-			CustomFields(
-				CustomField(long.class, "second"),
-				CustomField(int.class , "nano"  )
-			)
-		);
-	}
-
-
-
-	///////////////////////////////////////////////////////////////////////////
-	// methods //
-	////////////
-	
-
-	@Override
-	public final void store(
-		final Binary                          data    ,
-		final Instant                         instance,
-		final long                            objectId,
-		final PersistenceStoreHandler<Binary> handler
-	)
-	{
-		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
-		
-		data.store_long(BINARY_OFFSET_SECOND, instance.getEpochSecond());
-		data.store_int (BINARY_OFFSET_NANO  , instance.getNano()       );
-	}
-
-	@Override
-	public final Instant create(final Binary data, final PersistenceLoadHandler handler)
-	{
-		return Instant.ofEpochSecond(
-			data.read_long(BINARY_OFFSET_SECOND),
-			data.read_int (BINARY_OFFSET_NANO)
-		);
-	}
-
-	@Override
-	public final void updateState(final Binary data, final Instant instance, final PersistenceLoadHandler handler)
-	{
-		// no-op
+		super();
 	}
 
 }
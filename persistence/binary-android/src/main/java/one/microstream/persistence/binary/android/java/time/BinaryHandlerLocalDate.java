@@ -20,20 +20,18 @@ package one.microstream.persistence.binary.android.java.time;
  * #L%
  */
 
-import java.time.LocalDate;
-
-import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomNonReferentialFixedLength;
-import one.microstream.persistence.binary.types.Binary;
-import one.microstream.persistence.types.PersistenceLoadHandler;
-import one.microstream.persistence.types.PersistenceStoreHandler;
-
-public final class BinaryHandlerLocalDate extends AbstractBinaryHandlerCustomNonReferentialFixedLength<LocalDate>
+/**
+ * Former Android specific type handler for {@link java.time.LocalDate}.
+ * <p>
+ * Delegates to the default type handler of the binary persistence, so there is only one binary format
+ * per type. Data persisted with the former Android handler is loaded by a default legacy type handler.
+ * 
+ * @deprecated use {@link one.microstream.persistence.binary.java.time.BinaryHandlerLocalDate} or simply the
+ * default type handlers, this class will be removed in a future release.
+ */
+@Deprecated
+public final class BinaryHandlerLocalDate extends one.microstream.persistence.binary.java.time.BinaryHandlerLocalDate
 {
-	static final long BINARY_OFFSET_YEAR  =                                  0L;
-	static final long BINARY_OFFSET_MONTH = BINARY_OFFSET_YEAR  + Integer.BYTES;
-	static final long BINARY_OFFSET_DAY   = BINARY_OFFSET_MONTH + Short  .BYTES;
-	static final long BINARY_LENGTH       = BINARY_OFFSET_DAY   + Short  .BYTES;
-	
 	///////////////////////////////////////////////////////////////////////////
 	// static methods //
 	///////////////////
@@ -51,52 +49,7 @@ public final class BinaryHandlerLocalDate extends AbstractBinaryHandlerCustomNon
 
 	BinaryHandlerLocalDate()
 	{
-		super(
-			LocalDate.class,
-			CustomFields(
-				CustomField(int.class,   "year" ),
-				CustomField(short.class, "month"),
-				CustomField(short.class, "day"  )
-			)
-		);
-	}
-
-
-
-	///////////////////////////////////////////////////////////////////////////
-	// methods //
-	////////////
-	
-
-	@Override
-	public final void store(
-		final Binary                          data    ,
-		final LocalDate                       instance,
-		final long                            objectId,
-		final PersistenceStoreHandler<Binary> handler
-	)
-	{
-		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
-		
-		data.store_int  (BINARY_OFFSET_YEAR , instance.getYear());
-		data.store_short(BINARY_OFFSET_MONTH, (short)instance.getMonthValue());
-		data.store_short(BINARY_OFFSET_DAY  , (short)instance.getDayOfMonth());
-	}
-
-	@Override
-	public final LocalDate create(final Binary data, final PersistenceLoadHandler handler)
-	{
-		return LocalDate.of(
-			data.read_int  (BINARY_OFFSET_YEAR),
-			data.read_short(BINARY_OFFSET_MONTH),
-			data.read_short(BINARY_OFFSET_DAY)
-		);
-	}
-
-	@Override
-	public final void updateState(final Binary data, final LocalDate instance, final PersistenceLoadHandler handler)
-	{
-		// no-op
+		super();
 	}
 
 }
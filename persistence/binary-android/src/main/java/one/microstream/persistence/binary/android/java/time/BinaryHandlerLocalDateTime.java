@@ -20,24 +20,18 @@ package one.microstream.persistence.binary.android.java.time;
  * #L%
  */
 
-import java.time.LocalDateTime;
-
-import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomNonReferentialFixedLength;
-import one.microstream.persistence.binary.types.Binary;
-import one.microstream.persistence.types.PersistenceLoadHandler;
-import one.microstream.persistence.types.PersistenceStoreHandler;
-
-public final class BinaryHandlerLocalDateTime extends AbstractBinaryHandlerCustomNonReferentialFixedLength<LocalDateTime>
+/**
+ * Former Android specific type handler for {@link java.time.LocalDateTime}.
+ * <p>
+ * Delegates to the default type handler of the binary persistence, so there is only one binary format
+ * per type. Data persisted with the former Android handler is loaded by a default legacy type handler.
+ * 
+ * @deprecated use {@link one.microstream.persistence.binary.java.time.BinaryHandlerLocalDateTime} or simply the
+ * default type handlers, this class will be removed in a future release.
+ */
+@Deprecated
+public final class BinaryHandlerLocalDateTime extends one.microstream.persistence.binary.java.time.BinaryHandlerLocalDateTime
 {
-	static final long BINARY_OFFSET_YEAR   =                                   0L;
-	static final long BINARY_OFFSET_MONTH  = BINARY_OFFSET_YEAR   + Integer.BYTES;
-	static final long BINARY_OFFSET_DAY    = BINARY_OFFSET_MONTH  + Short  .BYTES;
-	static final long BINARY_OFFSET_HOUR   = BINARY_OFFSET_DAY    + Short  .BYTES;
-	static final long BINARY_OFFSET_MINUTE = BINARY_OFFSET_HOUR   + Byte   .BYTES;
-	static final long BINARY_OFFSET_SECOND = BINARY_OFFSET_MINUTE + Byte   .BYTES;
-	static final long BINARY_OFFSET_NANO   = BINARY_OFFSET_SECOND + Byte   .BYTES;
-	static final long BINARY_LENGTH        = BINARY_OFFSET_NANO   + Integer.BYTES;
-	
 	///////////////////////////////////////////////////////////////////////////
 	// static methods //
 	///////////////////
@@ -55,64 +49,7 @@ public final class BinaryHandlerLocalDateTime extends AbstractBinaryHandlerCusto
 
 	BinaryHandlerLocalDateTime()
 	{
-		super(
-			LocalDateTime.class,
-			CustomFields(
-				CustomField(int.class,   "year"  ),
-				CustomField(short.class, "month" ),
-				CustomField(short.class, "day"   ),
-				CustomField(byte.class,  "hour"  ),
-				CustomField(byte.class,  "minute"),
-				CustomField(byte.class,  "second"),
-				CustomField(int.class ,  "nano"  )
-			)
-		);
-	}
-
-
-
-	///////////////////////////////////////////////////////////////////////////
-	// methods //
-	////////////
-	
-
-	@Override
-	public final void store(
-		final Binary                          data    ,
-		final LocalDateTime                   instance,
-		final long                            objectId,
-		final PersistenceStoreHandler<Binary> handler
-	)
-	{
-		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
-		
-		data.store_int  (BINARY_OFFSET_YEAR  , instance.getYear());
-		data.store_short(BINARY_OFFSET_MONTH , (short)instance.getMonthValue());
-		data.store_short(BINARY_OFFSET_DAY   , (short)instance.getDayOfMonth());
-		data.store_byte (BINARY_OFFSET_HOUR  , (byte)instance.getHour());
-		data.store_byte (BINARY_OFFSET_MINUTE, (byte)instance.getMinute());
-		data.store_byte (BINARY_OFFSET_SECOND, (byte)instance.getSecond());
-		data.store_int  (BINARY_OFFSET_NANO  , instance.getNano());
-	}
-
-	@Override
-	public final LocalDateTime create(final Binary data, final PersistenceLoadHandler handler)
-	{
-		return LocalDateTime.of(
-			data.read_int  (BINARY_OFFSET_YEAR),
-			data.read_short(BINARY_OFFSET_MONTH),
-			data.read_short(BINARY_OFFSET_DAY),
-			data.read_byte (BINARY_OFFSET_HOUR),
-			data.read_byte (BINARY_OFFSET_MINUTE),
-			data.read_byte (BINARY_OFFSET_SECOND),
-			data.read_int  (BINARY_OFFSET_NANO)
-		);
-	}
-
-	@Override
-	public final void updateState(final Binary data, final LocalDateTime instance, final PersistenceLoadHandler handler)
-	{
-		// no-op
+		super();
 	}
 
 }
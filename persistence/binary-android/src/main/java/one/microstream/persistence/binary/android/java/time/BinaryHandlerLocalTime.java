@@ -20,21 +20,18 @@ package one.microstream.persistence.binary.android.java.time;
  * #L%
  */
 
-import java.time.LocalTime;
-
-import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomNonReferentialFixedLength;
-import one.microstream.persistence.binary.types.Binary;
-import one.microstream.persistence.types.PersistenceLoadHandler;
-import one.microstream.persistence.types.PersistenceStoreHandler;
-
-public final class BinaryHandlerLocalTime extends AbstractBinaryHandlerCustomNonReferentialFixedLength<LocalTime>
+/**
+ * Former Android specific type handler for {@link java.time.LocalTime}.
+ * <p>
+ * Delegates to the default type handler of the binary persistence, so there is only one binary format
+ * per type. Data persisted with the former Android handler is loaded by a default legacy type handler.
+ * 
+ * @deprecated use {@link one.microstream.persistence.binary.java.time.BinaryHandlerLocalTime} or simply the
+ * default type handlers, this class will be removed in a future release.
+ */
+@Deprecated
+public final class BinaryHandlerLocalTime extends one.microstream.persistence.binary.java.time.BinaryHandlerLocalTime
 {
-	static final long BINARY_OFFSET_HOUR   =                                   0L;
-	static final long BINARY_OFFSET_MINUTE = BINARY_OFFSET_HOUR   + Byte   .BYTES;
-	static final long BINARY_OFFSET_SECOND = BINARY_OFFSET_MINUTE + Byte   .BYTES;
-	static final long BINARY_OFFSET_NANO   = BINARY_OFFSET_SECOND + Byte   .BYTES;
-	static final long BINARY_LENGTH        = BINARY_OFFSET_NANO   + Integer.BYTES;
-	
 	///////////////////////////////////////////////////////////////////////////
 	// static methods //
 	///////////////////
@@ -52,55 +49,7 @@ public final class BinaryHandlerLocalTime extends AbstractBinaryHandlerCustomNon
 
 	BinaryHandlerLocalTime()
 	{
-		super(
-			LocalTime.class,
-			CustomFields(
-				CustomField(byte.class, "hour"  ),
-				CustomField(byte.class, "minute"),
-				CustomField(byte.class, "second"),
-				CustomField(int.class , "nano"  )
-			)
-		);
-	}
-
-
-
-	///////////////////////////////////////////////////////////////////////////
-	// methods //
-	////////////
-	
-
-	@Override
-	public final void store(
-		final Binary                          data    ,
-		final LocalTime                       instance,
-		final long                            objectId,
-		final PersistenceStoreHandler<Binary> handler
-	)
-	{
-		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
-		
-		data.store_byte(BINARY_OFFSET_HOUR  , (byte)instance.getHour());
-		data.store_byte(BINARY_OFFSET_MINUTE, (byte)instance.getMinute());
-		data.store_byte(BINARY_OFFSET_SECOND, (byte)instance.getSecond());
-		data.store_int (BINARY_OFFSET_NANO  , instance.getNano());
-	}
-
-	@Override
-	public final LocalTime create(final Binary data, final PersistenceLoadHandler handler)
-	{
-		return LocalTime.of(
-			data.read_byte(BINARY_OFFSET_HOUR),
-			data.read_byte(BINARY_OFFSET_MINUTE),
-			data.read_byte(BINARY_OFFSET_SECOND),
-			data.read_int (BINARY_OFFSET_NANO)
-		);
-	}
-
-	@Override
-	public final void updateState(final Binary data, final LocalTime instance, final PersistenceLoadHandler handler)
-	{
-		// no-op
+		super();
 	}
 
 }
@@ -20,19 +20,18 @@ package one.microstream.persistence.binary.android.java.time;
  * #L%
  */
 
-import java.time.MonthDay;
-
-import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomNonReferentialFixedLength;
-import one.microstream.persistence.binary.types.Binary;
-import one.microstream.persistence.types.PersistenceLoadHandler;
-import one.microstream.persistence.types.PersistenceStoreHandler;
-
-public final class BinaryHandlerMonthDay extends AbstractBinaryHandlerCustomNonReferentialFixedLength<MonthDay>
+/**
+ * Former Android specific type handler for {@link java.time.MonthDay}.
+ * <p>
+ * Delegates to the default type handler of the binary persistence, so there is only one binary format
+ * per type. Data persisted with the former Android handler is loaded by a default legacy type handler.
+ * 
+ * @deprecated use {@link one.microstream.persistence.binary.java.time.BinaryHandlerMonthDay} or simply the
+ * default type handlers, this class will be removed in a future release.
+ */
+@Deprecated
+public final class BinaryHandlerMonthDay extends one.microstream.persistence.binary.java.time.BinaryHandlerMonthDay
 {
-	static final long BINARY_OFFSET_MONTH =                                  0L;
-	static final long BINARY_OFFSET_DAY   = BINARY_OFFSET_MONTH + Integer.BYTES;
-	static final long BINARY_LENGTH       = BINARY_OFFSET_DAY   + Integer.BYTES;
-	
 	///////////////////////////////////////////////////////////////////////////
 	// static methods //
 	///////////////////
@@ -50,49 +49,7 @@ public final class BinaryHandlerMonthDay extends AbstractBinaryHandlerCustomNonR
 
 	BinaryHandlerMonthDay()
 	{
-		super(
-			MonthDay.class,
-			CustomFields(
-				CustomField(int.class, "month"),
-				CustomField(int.class, "day"  )
-			)
-		);
-	}
-
-
-
-	///////////////////////////////////////////////////////////////////////////
-	// methods //
-	////////////
-	
-
-	@Override
-	public final void store(
-		final Binary                          data    ,
-		final MonthDay                        instance,
-		final long                            objectId,
-		final PersistenceStoreHandler<Binary> handler
-	)
-	{
-		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
-		
-		data.store_int(BINARY_OFFSET_MONTH, instance.getMonthValue());
-		data.store_int(BINARY_OFFSET_DAY  , instance.getDayOfMonth());
-	}
-
-	@Override
-	public final MonthDay create(final Binary data, final PersistenceLoadHandler handler)
-	{
-		return MonthDay.of(
-			data.read_int(BINARY_OFFSET_MONTH),
-			data.read_int(BINARY_OFFSET_DAY)
-		);
-	}
-
-	@Override
-	public final void updateState(final Binary data, final MonthDay instance, final PersistenceLoadHandler handler)
-	{
-		// no-op
+		super();
 	}
 
 }
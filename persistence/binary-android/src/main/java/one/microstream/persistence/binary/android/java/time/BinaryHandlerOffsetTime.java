@@ -20,23 +20,18 @@ package one.microstream.persistence.binary.android.java.time;
  * #L%
  */
 
-import java.time.OffsetTime;
-import java.time.ZoneOffset;
-
-import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomNonReferentialFixedLength;
-import one.microstream.persistence.binary.types.Binary;
-import one.microstream.persistence.types.PersistenceLoadHandler;
-import one.microstream.persistence.types.PersistenceStoreHandler;
-
-public final class BinaryHandlerOffsetTime extends AbstractBinaryHandlerCustomNonReferentialFixedLength<OffsetTime>
+/**
+ * Former Android specific type handler for {@link java.time.OffsetTime}.
+ * <p>
+ * Delegates to the default type handler of the binary persistence, so there is only one binary format
+ * per type. Data persisted with the former Android handler is loaded by a default legacy type handler.
+ * 
+ * @deprecated use {@link one.microstream.persistence.binary.java.time.BinaryHandlerOffsetTime} or simply the
+ * default type handlers, this class will be removed in a future release.
+ */
+@Deprecated
+public final class BinaryHandlerOffsetTime extends one.microstream.persistence.binary.java.time.BinaryHandlerOffsetTime
 {
-	static final long BINARY_OFFSET_HOUR   =                                   0L;
-	static final long BINARY_OFFSET_MINUTE = BINARY_OFFSET_HOUR   + Byte   .BYTES;
-	static final long BINARY_OFFSET_SECOND = BINARY_OFFSET_MINUTE + Byte   .BYTES;
-	static final long BINARY_OFFSET_NANO   = BINARY_OFFSET_SECOND + Byte   .BYTES;
-	static final long BINARY_OFFSET_OFFSET = BINARY_OFFSET_NANO   + Integer.BYTES;
-	static final long BINARY_LENGTH        = BINARY_OFFSET_OFFSET + Integer.BYTES;
-	
 	///////////////////////////////////////////////////////////////////////////
 	// static methods //
 	///////////////////
@@ -54,58 +49,7 @@ public final class BinaryHandlerOffsetTime extends AbstractBinaryHandlerCustomNo
 
 	BinaryHandlerOffsetTime()
 	{
-		super(
-			OffsetTime.class,
-			CustomFields(
-				CustomField(byte.class, "hour"  ),
-				CustomField(byte.class, "minute"),
-				CustomField(byte.class, "second"),
-				CustomField(int.class , "nano"  ),
-				CustomField(int.class , "offset")
-			)
-		);
-	}
-
-
-
-	///////////////////////////////////////////////////////////////////////////
-	// methods //
-	////////////
-	
-
-	@Override
-	public final void store(
-		final Binary                          data    ,
-		final OffsetTime                       instance,
-		final long                            objectId,
-		final PersistenceStoreHandler<Binary> handler
-	)
-	{
-		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
-		
-		data.store_byte(BINARY_OFFSET_HOUR  , (byte)instance.getHour());
-		data.store_byte(BINARY_OFFSET_MINUTE, (byte)instance.getMinute());
-		data.store_byte(BINARY_OFFSET_SECOND, (byte)instance.getSecond());
-		data.store_int (BINARY_OFFSET_NANO  , instance.getNano());
-		data.store_int (BINARY_OFFSET_OFFSET, instance.getOffset().getTotalSeconds());
-	}
-
-	@Override
-	public final OffsetTime create(final Binary data, final PersistenceLoadHandler handler)
-	{
-		return OffsetTime.of(
-			data.read_byte(BINARY_OFFSET_HOUR),
-			data.read_byte(BINARY_OFFSET_MINUTE),
-			data.read_byte(BINARY_OFFSET_SECOND),
-			data.read_int(BINARY_OFFSET_NANO),
-			ZoneOffset.ofTotalSeconds(data.read_int(BINARY_OFFSET_OFFSET))
-		);
-	}
-
-	@Override
-	public final void updateState(final Binary data, final OffsetTime instance, final PersistenceLoadHandler handler)
-	{
-		// no-op
+		super();
 	}
 
 }
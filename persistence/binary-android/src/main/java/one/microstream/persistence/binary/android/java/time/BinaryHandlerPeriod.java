@@ -20,20 +20,18 @@ package one.microstream.persistence.binary.android.java.time;
  * #L%
  */
 
-import java.time.Period;
-
-import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomNonReferentialFixedLength;
-import one.microstream.persistence.binary.types.Binary;
-import one.microstream.persistence.types.PersistenceLoadHandler;
-import one.microstream.persistence.types.PersistenceStoreHandler;
-
-public final class BinaryHandlerPeriod extends AbstractBinaryHandlerCustomNonReferentialFixedLength<Period>
+/**
+ * Former Android specific type handler for {@link java.time.Period}.
+ * <p>
+ * Delegates to the default type handler of the binary persistence, so there is only one binary format
+ * per type. Data persisted with the former Android handler is loaded by a default legacy type handler.
+ * 
+ * @deprecated use {@link one.microstream.persistence.binary.java.time.BinaryHandlerPeriod} or simply the
+ * default type handlers, this class will be removed in a future release.
+ */
+@Deprecated
+public final class BinaryHandlerPeriod extends one.microstream.persistence.binary.java.time.BinaryHandlerPeriod
 {
-	static final long BINARY_OFFSET_YEARS  =                                   0L;
-	static final long BINARY_OFFSET_MONTHS = BINARY_OFFSET_YEARS  + Integer.BYTES;
-	static final long BINARY_OFFSET_DAYS   = BINARY_OFFSET_MONTHS + Integer.BYTES;
-	static final long BINARY_LENGTH        = BINARY_OFFSET_DAYS   + Integer.BYTES;
-	
 	///////////////////////////////////////////////////////////////////////////
 	// static methods //
 	///////////////////
@@ -51,52 +49,7 @@ public final class BinaryHandlerPeriod extends AbstractBinaryHandlerCustomNonRef
 
 	BinaryHandlerPeriod()
 	{
-		super(
-			Period.class,
-			CustomFields(
-				CustomField(int.class, "years" ),
-				CustomField(int.class, "months"),
-				CustomField(int.class, "days"  )
-			)
-		);
-	}
-
-
-
-	///////////////////////////////////////////////////////////////////////////
-	// methods //
-	////////////
-	
-
-	@Override
-	public final void store(
-		final Binary                          data    ,
-		final Period                          instance,
-		final long                            objectId,
-		final PersistenceStoreHandler<Binary> handler
-	)
-	{
-		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
-		
-		data.store_int(BINARY_OFFSET_YEARS , instance.getYears());
-		data.store_int(BINARY_OFFSET_MONTHS, instance.getMonths());
-		data.store_int(BINARY_OFFSET_DAYS  , instance.getDays());
-	}
-
-	@Override
-	public final Period create(final Binary data, final PersistenceLoadHandler handler)
-	{
-		return Period.of(
-			data.read_int(BINARY_OFFSET_YEARS),
-			data.read_int(BINARY_OFFSET_MONTHS),
-			data.read_int(BINARY_OFFSET_DAYS)
-		);
-	}
-
-	@Override
-	public final void updateState(final Binary data, final Period instance, final PersistenceLoadHandler handler)
-	{
-		// no-op
+		super();
 	}
 
 }
@@ -20,14 +20,17 @@ package one.microstream.persistence.binary.android.java.time;
  * #L%
  */
 
-import java.time.Year;
-
-import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomNonReferentialFixedLength;
-import one.microstream.persistence.binary.types.Binary;
-import one.microstream.persistence.types.PersistenceLoadHandler;
-import one.microstream.persistence.types.PersistenceStoreHandler;
-
-public final class BinaryHandlerYear extends AbstractBinaryHandlerCustomNonReferentialFixedLength<Year>
+/**
+ * Former Android specific type handler for {@link java.time.Year}.
+ * <p>
+ * Delegates to the default type handler of the binary persistence, so there is only one binary format
+ * per type. Data persisted with the former Android handler is loaded by a default legacy type handler.
+ * 
+ * @deprecated use {@link one.microstream.persistence.binary.java.time.BinaryHandlerYear} or simply the
+ * default type handlers, this class will be removed in a future release.
+ */
+@Deprecated
+public final class BinaryHandlerYear extends one.microstream.persistence.binary.java.time.BinaryHandlerYear
 {
 	///////////////////////////////////////////////////////////////////////////
 	// static methods //
@@ -46,44 +49,7 @@ public final class BinaryHandlerYear extends AbstractBinaryHandlerCustomNonRefer
 
 	BinaryHandlerYear()
 	{
-		super(
-			Year.class,
-			CustomFields(
-				CustomField(int.class, "year")
-			)
-		);
-	}
-
-
-
-	///////////////////////////////////////////////////////////////////////////
-	// methods //
-	////////////
-	
-
-	@Override
-	public final void store(
-		final Binary                          data    ,
-		final Year                            instance,
-		final long                            objectId,
-		final PersistenceStoreHandler<Binary> handler
-	)
-	{
-		data.storeEntityHeader(Integer.BYTES, this.typeId(), objectId);
-		
-		data.store_long(instance.getValue());
-	}
-
-	@Override
-	public final Year create(final Binary data, final PersistenceLoadHandler handler)
-	{
-		return Year.of(data.read_int(0L));
-	}
-
-	@Override
-	public final void updateState(final Binary data, final Year instance, final PersistenceLoadHandler handler)
-	{
-		// no-op
+		super();
 	}
 
 }
@@ -20,19 +20,18 @@ package one.microstream.persistence.binary.android.java.time;
  * #L%
  */
 
-import java.time.YearMonth;
-
-import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomNonReferentialFixedLength;
-import one.microstream.persistence.binary.types.Binary;
-import one.microstream.persistence.types.PersistenceLoadHandler;
-import one.microstream.persistence.types.PersistenceStoreHandler;
-
-public final class BinaryHandlerYearMonth extends AbstractBinaryHandlerCustomNonReferentialFixedLength<YearMonth>
+/**
+ * Former Android specific type handler for {@link java.time.YearMonth}.
+ * <p>
+ * Delegates to the default type handler of the binary persistence, so there is only one binary format
+ * per type. Data persisted with the former Android handler is loaded by a default legacy type handler.
+ * 
+ * @deprecated use {@link one.microstream.persistence.binary.java.time.BinaryHandlerYearMonth} or simply the
+ * default type handlers, this class will be removed in a future release.
+ */
+@Deprecated
+public final class BinaryHandlerYearMonth extends one.microstream.persistence.binary.java.time.BinaryHandlerYearMonth
 {
-	static final long BINARY_OFFSET_YEAR  =                                  0L;
-	static final long BINARY_OFFSET_MONTH = BINARY_OFFSET_YEAR  + Integer.BYTES;
-	static final long BINARY_LENGTH       = BINARY_OFFSET_MONTH + Integer.BYTES;
-	
 	///////////////////////////////////////////////////////////////////////////
 	// static methods //
 	///////////////////
@@ -50,49 +49,7 @@ public final class BinaryHandlerYearMonth extends AbstractBinaryHandlerCustomNon
 
 	BinaryHandlerYearMonth()
 	{
-		super(
-			YearMonth.class,
-			CustomFields(
-				CustomField(int.class, "year" ),
-				CustomField(int.class, "month")
-			)
-		);
-	}
-
-
-
-	///////////////////////////////////////////////////////////////////////////
-	// methods //
-	////////////
-	
-
-	@Override
-	public final void store(
-		final Binary                          data    ,
-		final YearMonth                       instance,
-		final long                            objectId,
-		final PersistenceStoreHandler<Binary> handler
-	)
-	{
-		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
-
-		data.store_int(BINARY_OFFSET_YEAR , instance.getYear());
-		data.store_int(BINARY_OFFSET_MONTH, instance.getMonthValue());
-	}
-
-	@Override
-	public final YearMonth create(final Binary data, final PersistenceLoadHandler handler)
-	{
-		return YearMonth.of(
-			data.read_int(BINARY_OFFSET_YEAR),
-			data.read_int(BINARY_OFFSET_MONTH)
-		);
-	}
-
-	@Override
-	public final void updateState(final Binary data, final YearMonth instance, final PersistenceLoadHandler handler)
-	{
-		// no-op
+		super();
 	}
 
 }
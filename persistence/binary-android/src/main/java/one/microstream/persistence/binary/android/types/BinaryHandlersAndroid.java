@@ -37,13 +37,27 @@ import one.microstream.persistence.binary.types.Binary;
 import one.microstream.persistence.types.PersistenceTypeHandlerRegistration;
 
 /**
- * Registeres special type handlers written for Android.
- * Some of them have to sacrifice referencial integrity for funcionality.
+ * Registers the former type handlers for java.time types written for Android.
+ * <p>
+ * The java.time types are now handled by the default value type handlers of the binary persistence, which
+ * store plain values without any references and work on Android as well. The former Android handlers are
+ * deprecated delegates to them and data persisted with the former Android formats is loaded by default
+ * legacy type handlers, so there is only one binary format per type.
  * <p>
  * See <a href="https://github.com/microstream-one/microstream/issues/245#issuecomment-921660371">Issue</a> for further details.
  */
 public final class BinaryHandlersAndroid
 {
+	/**
+	 * Registers the deprecated Android java.time type handlers, which delegate to the default type handlers.
+	 * Not required anymore, since the default type handlers cover the java.time types on Android.
+	 * 
+	 * @param <F> the executor type
+	 * @param executor the type handler registration executor
+	 * @return the passed executor
+	 * @deprecated the java.time types are handled by default, this method will be removed in a future release.
+	 */
+	@Deprecated
 	public static <F extends PersistenceTypeHandlerRegistration.Executor<Binary>> F registerAndroidTypeHandlers(final F executor)
 	{
 		executor.executeTypeHandlerRegistration((r, c) ->
@@ -0,0 +1,593 @@
+package one.microstream.persistence.binary.jdk17.types;
+
+/*-
+ * #%L
+ * microstream-persistence-binary-jdk17
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+
+import one.microstream.collections.EqHashTable;
+import one.microstream.memory.XMemory;
+import one.microstream.persistence.binary.exceptions.BinaryPersistenceException;
+import one.microstream.persistence.binary.types.BinaryFieldsAccessor;
+import one.microstream.persistence.types.PersistenceEagerStoringFieldEvaluator;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceStoreHandler;
+import one.microstream.persistence.types.PersistenceTypeDefinitionMemberFieldReflective;
+
+/**
+ * Generates a {@link BinaryFieldsAccessor} class specialized for one entity type at runtime
+ * and defines it as a hidden class (see {@link MethodHandles.Lookup#defineHiddenClass}).
+ * <p>
+ * The generated methods contain one unrolled, branch-free copy sequence per persistent field with all memory
+ * offsets and binary offsets being constants, calling the {@link XMemory} primitives directly. This replaces the
+ * loop over {@link one.microstream.persistence.binary.types.BinaryValueStorer} and
+ * {@link one.microstream.persistence.binary.types.BinaryValueSetter} arrays with their per-field
+ * virtual calls by code the JIT can inline completely.
+ * <p>
+ * Only the native byte order is supported.
+ */
+public final class BinaryFieldsAccessorGenerator
+{
+	///////////////////////////////////////////////////////////////////////////
+	// constants //
+	//////////////
+	
+	/**
+	 * Byte code size up to which HotSpot compiles a method, see <code>-XX:-DontCompileHugeMethods</code>.
+	 * Larger generated methods would only ever be interpreted and be slower than the reflective handling.
+	 */
+	static final int HUGE_METHOD_LIMIT = 8000;
+	
+	/**
+	 * Maximum byte code size per field in each of the generated methods (reference fields).
+	 */
+	static final int MAX_FIELD_CODE_SIZE = 22;
+	
+	/**
+	 * Maximum number of fields to generate code for, so the generated methods, including their final return
+	 * instruction, stay within the {@link #HUGE_METHOD_LIMIT}.
+	 */
+	static final int MAX_FIELD_COUNT = (HUGE_METHOD_LIMIT - 1) / MAX_FIELD_CODE_SIZE;
+	
+	static final int
+		CLASS_FILE_MAGIC   = 0xCAFEBABE,
+		CLASS_FILE_VERSION = 61        , // Java 17
+		ACC_PUBLIC         = 0x0001    ,
+		ACC_FINAL          = 0x0010    ,
+		ACC_SUPER          = 0x0020
+	;
+	
+	static final byte
+		CONSTANT_Utf8               =  1,
+		CONSTANT_Long               =  5,
+		CONSTANT_Class              =  7,
+		CONSTANT_Methodref          = 10,
+		CONSTANT_InterfaceMethodref = 11,
+		CONSTANT_NameAndType        = 12
+	;
+	
+	static final int
+		ALOAD_0         = 0x2A,
+		ALOAD_1         = 0x2B,
+		ALOAD_3         = 0x2D,
+		ALOAD           = 0x19,
+		LLOAD_1         = 0x1F,
+		LLOAD_2         = 0x20,
+		LDC2_W          = 0x14,
+		LADD            = 0x61,
+		INVOKESPECIAL   = 0xB7,
+		INVOKESTATIC    = 0xB8,
+		INVOKEINTERFACE = 0xB9,
+		RETURN          = 0xB1
+	;
+	
+	static final String
+		TYPE_OBJECT         = "java/lang/Object",
+		TYPE_MEMORY         = XMemory.class.getName().replace('.', '/'),
+		TYPE_ACCESSOR       = BinaryFieldsAccessor.class.getName().replace('.', '/'),
+		TYPE_STORE_HANDLER  = PersistenceStoreHandler.class.getName().replace('.', '/'),
+		TYPE_LOAD_HANDLER   = PersistenceLoadHandler.class.getName().replace('.', '/'),
+		GENERATED_TYPE_NAME = BinaryFieldsAccessorGenerator.class.getPackageName().replace('.', '/')
+			+ "/GeneratedBinaryFieldsAccessor"
+	;
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+	
+	/**
+	 * Queries whether a specialized accessor can be generated for the passed number of persistent fields.
+	 *
+	 * @param fieldCount the number of persistent fields.
+	 * @return whether {@link #generate} can handle that many fields.
+	 */
+	public static boolean isGeneratable(final long fieldCount)
+	{
+		return fieldCount <= MAX_FIELD_COUNT;
+	}
+	
+	/**
+	 * Generates, defines and instantiates a {@link BinaryFieldsAccessor} for the passed members.
+	 *
+	 * @param entityType the type whose instances shall be accessed.
+	 * @param members the persistent members in persisted order.
+	 * @param memoryOffsets the memory offsets of the members' fields, in the same order.
+	 * @param eagerEvaluator the evaluator to determine eagerly stored reference fields.
+	 * @return a new {@link BinaryFieldsAccessor} instance specialized for the passed members.
+	 */
+	public static BinaryFieldsAccessor generate(
+		final Class<?>                                                          entityType    ,
+		final Iterable<? extends PersistenceTypeDefinitionMemberFieldReflective> members       ,
+		final long[]                                                            memoryOffsets ,
+		final PersistenceEagerStoringFieldEvaluator                             eagerEvaluator
+	)
+	{
+		final byte[] classBytes = new BinaryFieldsAccessorGenerator(entityType, members, memoryOffsets, eagerEvaluator)
+			.generateClassBytes()
+		;
+		
+		try
+		{
+			final MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classBytes, true);
+			
+			return (BinaryFieldsAccessor)lookup.lookupClass().getConstructor().newInstance();
+		}
+		catch(final ReflectiveOperationException | LinkageError e)
+		{
+			throw new BinaryPersistenceException(
+				"Could not generate " + BinaryFieldsAccessor.class.getSimpleName() + " for " + entityType,
+				e
+			);
+		}
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// instance fields //
+	////////////////////
+	
+	private final Class<?>                                                          entityType    ;
+	private final Iterable<? extends PersistenceTypeDefinitionMemberFieldReflective> members       ;
+	private final long[]                                                            memoryOffsets ;
+	private final PersistenceEagerStoringFieldEvaluator                             eagerEvaluator;
+	
+	private final ByteArrayOutputStream        constantsBytes  = new ByteArrayOutputStream();
+	private final DataOutputStream             constants       = new DataOutputStream(this.constantsBytes);
+	private final EqHashTable<Object, Integer> constantIndices = EqHashTable.New();
+	private       int                          constantCount   = 1; // index 0 is never used
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+	
+	BinaryFieldsAccessorGenerator(
+		final Class<?>                                                          entityType    ,
+		final Iterable<? extends PersistenceTypeDefinitionMemberFieldReflective> members       ,
+		final long[]                                                            memoryOffsets ,
+		final PersistenceEagerStoringFieldEvaluator                             eagerEvaluator
+	)
+	{
+		super();
+		this.entityType     = entityType    ;
+		this.members        = members       ;
+		this.memoryOffsets  = memoryOffsets ;
+		this.eagerEvaluator = eagerEvaluator;
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+	
+	final byte[] generateClassBytes()
+	{
+		try
+		{
+			return this.internalGenerateClassBytes();
+		}
+		catch(final IOException e)
+		{
+			// cannot happen for in-memory streams
+			throw new BinaryPersistenceException(e);
+		}
+	}
+	
+	private byte[] internalGenerateClassBytes() throws IOException
+	{
+		final int thisClass  = this.constantClass(GENERATED_TYPE_NAME);
+		final int superClass = this.constantClass(TYPE_OBJECT);
+		final int iface      = this.constantClass(TYPE_ACCESSOR);
+		final int code       = this.constantUtf8("Code");
+		
+		final byte[] init  = this.generateConstructor();
+		final byte[] store = this.generateStoreFields();
+		final byte[] set   = this.generateSetFields();
+		
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+			256 + this.constantsBytes.size() + init.length + store.length + set.length
+		);
+		final DataOutputStream out = new DataOutputStream(bytes);
+		
+		out.writeInt(CLASS_FILE_MAGIC);
+		out.writeShort(0);
+		out.writeShort(CLASS_FILE_VERSION);
+		
+		// all constants must have been registered before the constant pool is written
+		final int initName  = this.constantUtf8("<init>");
+		final int initType  = this.constantUtf8("()V");
+		final int storeName = this.constantUtf8("storeFields");
+		final int storeType = this.constantUtf8("(L" + TYPE_OBJECT + ";JL" + TYPE_STORE_HANDLER + ";)V");
+		final int setName   = this.constantUtf8("setFields");
+		final int setType   = this.constantUtf8("(JL" + TYPE_OBJECT + ";L" + TYPE_LOAD_HANDLER + ";)V");
+		
+		out.writeShort(this.constantCount);
+		this.constants.flush();
+		this.constantsBytes.writeTo(out);
+		
+		out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+		out.writeShort(thisClass);
+		out.writeShort(superClass);
+		out.writeShort(1); // interfaces
+		out.writeShort(iface);
+		out.writeShort(0); // fields
+		
+		out.writeShort(3); // methods
+		writeMethod(out, initName , initType , code, 1, 1, init );
+		writeMethod(out, storeName, storeType, code, 6, 5, store);
+		writeMethod(out, setName  , setType  , code, 8, 5, set  );
+		
+		out.writeShort(0); // class attributes
+		out.flush();
+		
+		return bytes.toByteArray();
+	}
+	
+	private static void writeMethod(
+		final DataOutputStream out      ,
+		final int              name     ,
+		final int              type     ,
+		final int              code     ,
+		final int              maxStack ,
+		final int              maxLocals,
+		final byte[]           byteCode
+	)
+		throws IOException
+	{
+		out.writeShort(ACC_PUBLIC);
+		out.writeShort(name);
+		out.writeShort(type);
+		out.writeShort(1); // attributes: only code
+		out.writeShort(code);
+		out.writeInt(2 + 2 + 4 + byteCode.length + 2 + 2);
+		out.writeShort(maxStack);
+		out.writeShort(maxLocals);
+		out.writeInt(byteCode.length);
+		out.write(byteCode);
+		out.writeShort(0); // exception table
+		out.writeShort(0); // code attributes. No stack map frames required for branch-free code.
+	}
+	
+	private byte[] generateConstructor() throws IOException
+	{
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream      out   = new DataOutputStream(bytes);
+		
+		out.writeByte(ALOAD_0);
+		out.writeByte(INVOKESPECIAL);
+		out.writeShort(this.constantMethod(TYPE_OBJECT, "<init>", "()V"));
+		out.writeByte(RETURN);
+		
+		return bytes.toByteArray();
+	}
+	
+	// locals: 0 = this, 1 = source instance, 2-3 = target address, 4 = store handler
+	private byte[] generateStoreFields() throws IOException
+	{
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream      out   = new DataOutputStream(bytes);
+		
+		long binaryOffset = 0;
+		int  i            = 0;
+		for(final PersistenceTypeDefinitionMemberFieldReflective member : this.members)
+		{
+			// target address
+			out.writeByte(LLOAD_2);
+			out.writeByte(LDC2_W);
+			out.writeShort(this.constantLong(binaryOffset));
+			out.writeByte(LADD);
+			
+			if(member.isReference())
+			{
+				final boolean isEager = this.eagerEvaluator.isEagerStoring(this.entityType, member.field());
+				
+				out.writeByte(ALOAD);
+				out.writeByte(4);
+				this.writeInstanceRead(out, ALOAD_1, this.memoryOffsets[i], "Object", "L" + TYPE_OBJECT + ";");
+				out.writeByte(INVOKEINTERFACE);
+				out.writeShort(this.constantInterfaceMethod(
+					TYPE_STORE_HANDLER, isEager ? "applyEager" : "apply", "(L" + TYPE_OBJECT + ";)J"
+				));
+				out.writeByte(2);
+				out.writeByte(0);
+				this.writeInvokeMemory(out, "set_long", "(JJ)V");
+			}
+			else
+			{
+				final String name       = member.type().getName();
+				final String descriptor = descriptor(member.type());
+				this.writeInstanceRead(out, ALOAD_1, this.memoryOffsets[i], "_" + name, descriptor);
+				this.writeInvokeMemory(out, "set_" + name, "(J" + descriptor + ")V");
+			}
+			
+			binaryOffset += member.persistentMinimumLength();
+			i++;
+		}
+		out.writeByte(RETURN);
+		
+		return bytes.toByteArray();
+	}
+	
+	// locals: 0 = this, 1-2 = source address, 3 = target instance, 4 = load handler
+	private byte[] generateSetFields() throws IOException
+	{
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream      out   = new DataOutputStream(bytes);
+		
+		long binaryOffset = 0;
+		int  i            = 0;
+		for(final PersistenceTypeDefinitionMemberFieldReflective member : this.members)
+		{
+			// target instance and memory offset
+			out.writeByte(ALOAD_3);
+			out.writeByte(LDC2_W);
+			out.writeShort(this.constantLong(this.memoryOffsets[i]));
+			
+			if(member.isReference())
+			{
+				out.writeByte(ALOAD);
+				out.writeByte(4);
+				this.writeAddressRead(out, binaryOffset, "_long", "J");
+				out.writeByte(INVOKEINTERFACE);
+				out.writeShort(this.constantInterfaceMethod(
+					TYPE_LOAD_HANDLER, "lookupObject", "(J)L" + TYPE_OBJECT + ";"
+				));
+				out.writeByte(3);
+				out.writeByte(0);
+				this.writeInvokeMemory(out, "setObject", "(L" + TYPE_OBJECT + ";JL" + TYPE_OBJECT + ";)V");
+			}
+			else
+			{
+				final String name       = member.type().getName();
+				final String descriptor = descriptor(member.type());
+				this.writeAddressRead(out, binaryOffset, "_" + name, descriptor);
+				this.writeInvokeMemory(out, "set_" + name, "(L" + TYPE_OBJECT + ";J" + descriptor + ")V");
+			}
+			
+			binaryOffset += member.persistentMinimumLength();
+			i++;
+		}
+		out.writeByte(RETURN);
+		
+		return bytes.toByteArray();
+	}
+	
+	private void writeInstanceRead(
+		final DataOutputStream out          ,
+		final int              loadInstance ,
+		final long             memoryOffset ,
+		final String           suffix       ,
+		final String           descriptor
+	)
+		throws IOException
+	{
+		out.writeByte(loadInstance);
+		out.writeByte(LDC2_W);
+		out.writeShort(this.constantLong(memoryOffset));
+		this.writeInvokeMemory(out, "get" + suffix, "(L" + TYPE_OBJECT + ";J)" + descriptor);
+	}
+	
+	private void writeAddressRead(
+		final DataOutputStream out         ,
+		final long             binaryOffset,
+		final String           suffix      ,
+		final String           descriptor
+	)
+		throws IOException
+	{
+		out.writeByte(LLOAD_1);
+		out.writeByte(LDC2_W);
+		out.writeShort(this.constantLong(binaryOffset));
+		out.writeByte(LADD);
+		this.writeInvokeMemory(out, "get" + suffix, "(J)" + descriptor);
+	}
+	
+	private void writeInvokeMemory(final DataOutputStream out, final String name, final String descriptor)
+		throws IOException
+	{
+		out.writeByte(INVOKESTATIC);
+		out.writeShort(this.constantMethod(TYPE_MEMORY, name, descriptor));
+	}
+	
+	private static String descriptor(final Class<?> primitiveType)
+	{
+		if(primitiveType == byte.class)
+		{
+			return "B";
+		}
+		if(primitiveType == boolean.class)
+		{
+			return "Z";
+		}
+		if(primitiveType == short.class)
+		{
+			return "S";
+		}
+		if(primitiveType == char.class)
+		{
+			return "C";
+		}
+		if(primitiveType == int.class)
+		{
+			return "I";
+		}
+		if(primitiveType == float.class)
+		{
+			return "F";
+		}
+		if(primitiveType == long.class)
+		{
+			return "J";
+		}
+		if(primitiveType == double.class)
+		{
+			return "D";
+		}
+		
+		throw new BinaryPersistenceException("Not a primitive type: " + primitiveType);
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// constant pool //
+	//////////////////
+	
+	private int constant(final Object key)
+	{
+		final Integer index = this.constantIndices.get(key);
+		
+		return index == null ? 0 : index;
+	}
+	
+	private int register(final Object key, final int slots)
+	{
+		final int index = this.constantCount;
+		this.constantIndices.add(key, index);
+		this.constantCount += slots;
+		
+		return index;
+	}
+	
+	private int constantUtf8(final String value) throws IOException
+	{
+		final String key = "U:" + value;
+		final int existing = this.constant(key);
+		if(existing != 0)
+		{
+			return existing;
+		}
+		
+		this.constants.writeByte(CONSTANT_Utf8);
+		this.constants.writeUTF(value);
+		
+		return this.register(key, 1);
+	}
+	
+	private int constantLong(final long value) throws IOException
+	{
+		final Long key = value;
+		final int existing = this.constant(key);
+		if(existing != 0)
+		{
+			return existing;
+		}
+		
+		this.constants.writeByte(CONSTANT_Long);
+		this.constants.writeLong(value);
+		
+		// long constants occupy two constant pool slots
+		return this.register(key, 2);
+	}
+	
+	private int constantClass(final String internalName) throws IOException
+	{
+		final String key = "C:" + internalName;
+		final int existing = this.constant(key);
+		if(existing != 0)
+		{
+			return existing;
+		}
+		
+		final int name = this.constantUtf8(internalName);
+		this.constants.writeByte(CONSTANT_Class);
+		this.constants.writeShort(name);
+		
+		return this.register(key, 1);
+	}
+	
+	private int constantNameAndType(final String name, final String descriptor) throws IOException
+	{
+		final String key = "N:" + name + ":" + descriptor;
+		final int existing = this.constant(key);
+		if(existing != 0)
+		{
+			return existing;
+		}
+		
+		final int nameIndex = this.constantUtf8(name);
+		final int typeIndex = this.constantUtf8(descriptor);
+		this.constants.writeByte(CONSTANT_NameAndType);
+		this.constants.writeShort(nameIndex);
+		this.constants.writeShort(typeIndex);
+		
+		return this.register(key, 1);
+	}
+	
+	private int constantMethod(final String owner, final String name, final String descriptor)
+		throws IOException
+	{
+		return this.constantMember(CONSTANT_Methodref, owner, name, descriptor);
+	}
+	
+	private int constantInterfaceMethod(final String owner, final String name, final String descriptor)
+		throws IOException
+	{
+		return this.constantMember(CONSTANT_InterfaceMethodref, owner, name, descriptor);
+	}
+	
+	private int constantMember(final byte tag, final String owner, final String name, final String descriptor)
+		throws IOException
+	{
+		final String key = "M" + tag + ":" + owner + "." + name + descriptor;
+		final int existing = this.constant(key);
+		if(existing != 0)
+		{
+			return existing;
+		}
+		
+		final int ownerIndex       = this.constantClass(owner);
+		final int nameAndTypeIndex = this.constantNameAndType(name, descriptor);
+		this.constants.writeByte(tag);
+		this.constants.writeShort(ownerIndex);
+		this.constants.writeShort(nameAndTypeIndex);
+		
+		return this.register(key, 1);
+	}
+	
+}
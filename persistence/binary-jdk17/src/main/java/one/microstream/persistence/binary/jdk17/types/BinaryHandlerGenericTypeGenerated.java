@@ -0,0 +1,143 @@
+package one.microstream.persistence.binary.jdk17.types;
+
+/*-
+ * #%L
+ * microstream-persistence-binary-jdk17
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+
+import java.lang.reflect.Field;
+
+import one.microstream.collections.types.XGettingEnum;
+import one.microstream.persistence.binary.internal.AbstractBinaryHandlerReflective;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.BinaryFieldsAccessor;
+import one.microstream.persistence.types.PersistenceEagerStoringFieldEvaluator;
+import one.microstream.persistence.types.PersistenceFieldLengthResolver;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceStoreHandler;
+import one.microstream.persistence.types.PersistenceTypeInstantiator;
+
+/**
+ * Generic type handler that copies field values via a {@link BinaryFieldsAccessor} generated specifically
+ * for the handled type instead of iterating per-field storers and setters.
+ *
+ * @param <T> the handled type.
+ * @see BinaryFieldsAccessorGenerator
+ */
+public final class BinaryHandlerGenericTypeGenerated<T> extends AbstractBinaryHandlerReflective<T>
+{
+	public static <T> BinaryHandlerGenericTypeGenerated<T> New(
+		final Class<T>                               type                      ,
+		final String                                 typeName                  ,
+		final XGettingEnum<Field>                    persistableFields         ,
+		final XGettingEnum<Field>                    persisterFields           ,
+		final PersistenceFieldLengthResolver         lengthResolver            ,
+		final PersistenceEagerStoringFieldEvaluator  eagerStoringFieldEvaluator,
+		final PersistenceTypeInstantiator<Binary, T> instantiator
+	)
+	{
+		return new BinaryHandlerGenericTypeGenerated<>(
+			type                      ,
+			typeName                  ,
+			persistableFields         ,
+			persisterFields           ,
+			lengthResolver            ,
+			eagerStoringFieldEvaluator,
+			instantiator
+		);
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// instance fields //
+	////////////////////
+	
+	private final PersistenceTypeInstantiator<Binary, T> instantiator;
+	private final BinaryFieldsAccessor                   accessor    ;
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	protected BinaryHandlerGenericTypeGenerated(
+		final Class<T>                               type                      ,
+		final String                                 typeName                  ,
+		final XGettingEnum<Field>                    persistableFields         ,
+		final XGettingEnum<Field>                    persisterFields           ,
+		final PersistenceFieldLengthResolver         lengthResolver            ,
+		final PersistenceEagerStoringFieldEvaluator  eagerStoringFieldEvaluator,
+		final PersistenceTypeInstantiator<Binary, T> instantiator
+	)
+	{
+		// generated accessors only support the native byte order
+		super(type, typeName, persistableFields, persisterFields, lengthResolver, eagerStoringFieldEvaluator, false);
+		this.instantiator = notNull(instantiator);
+		this.accessor     = BinaryFieldsAccessorGenerator.generate(
+			type,
+			this.storingMembers(),
+			objectFieldOffsets(type, this.storingMembers()),
+			eagerStoringFieldEvaluator
+		);
+	}
+
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+	
+	@Override
+	public final T create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		return this.instantiator.instantiate(data);
+	}
+	
+	@Override
+	public final void store(
+		final Binary                          data    ,
+		final T                               instance,
+		final long                            objectId,
+		final PersistenceStoreHandler<Binary> handler
+	)
+	{
+		data.storeFixedSize(
+			handler                             ,
+			this.membersPersistedLengthMinimum(),
+			this.typeId()                       ,
+			objectId                            ,
+			instance                            ,
+			this.accessor
+		);
+	}
+	
+	@Override
+	protected final void updateFixedSizeState(
+		final Binary                 data    ,
+		final T                      instance,
+		final PersistenceLoadHandler handler
+	)
+	{
+		data.updateFixedSize(instance, this.accessor, handler);
+	}
+
+}
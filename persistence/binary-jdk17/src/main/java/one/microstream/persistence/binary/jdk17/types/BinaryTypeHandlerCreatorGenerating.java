@@ -0,0 +1,148 @@
+package one.microstream.persistence.binary.jdk17.types;
+
+/*-
+ * #%L
+ * microstream-persistence-binary-jdk17
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+
+import java.lang.reflect.Field;
+
+import one.microstream.collections.types.XGettingEnum;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.BinaryPersistenceFoundation;
+import one.microstream.persistence.binary.types.BinaryTypeHandlerCreator;
+import one.microstream.persistence.types.PersistenceEagerStoringFieldEvaluator;
+import one.microstream.persistence.types.PersistenceFieldLengthResolver;
+import one.microstream.persistence.types.PersistenceTypeAnalyzer;
+import one.microstream.persistence.types.PersistenceTypeHandler;
+import one.microstream.persistence.types.PersistenceTypeHandlerManager;
+import one.microstream.persistence.types.PersistenceTypeInstantiatorProvider;
+import one.microstream.persistence.types.PersistenceTypeResolver;
+import one.microstream.reference.Referencing;
+import one.microstream.reflect.XReflect;
+
+/**
+ * {@link BinaryTypeHandlerCreator} that creates generic type handlers with runtime generated field accessors
+ * (see {@link BinaryHandlerGenericTypeGenerated}) instead of reflective per-field handling.
+ * <p>
+ * Usage is opt-in by setting it as the type handler creator of a foundation:
+ * <pre>{@code
+ * foundation.setTypeHandlerCreator(BinaryTypeHandlerCreatorGenerating.New(foundation));
+ * }</pre>
+ * Types that cannot be handled by generated code (records, switched byte order or an excessive number of fields)
+ * are handled by the default logic.
+ */
+public class BinaryTypeHandlerCreatorGenerating extends BinaryTypeHandlerCreator.Default
+{
+	public static BinaryTypeHandlerCreatorGenerating New(final BinaryPersistenceFoundation<?> foundation)
+	{
+		return New(
+			foundation.getTypeAnalyzer()               ,
+			foundation.getTypeResolver()               ,
+			foundation.getFieldFixedLengthResolver()   ,
+			foundation.getReferenceFieldEagerEvaluator(),
+			foundation.getInstantiatorProvider()       ,
+			foundation::getTypeHandlerManager          ,
+			foundation.isByteOrderMismatch()
+		);
+	}
+	
+	public static BinaryTypeHandlerCreatorGenerating New(
+		final PersistenceTypeAnalyzer                            typeAnalyzer              ,
+		final PersistenceTypeResolver                            typeResolver              ,
+		final PersistenceFieldLengthResolver                     lengthResolver            ,
+		final PersistenceEagerStoringFieldEvaluator              eagerStoringFieldEvaluator,
+		final PersistenceTypeInstantiatorProvider<Binary>        instantiatorProvider      ,
+		final Referencing<PersistenceTypeHandlerManager<Binary>> typeHandlerManager        ,
+		final boolean                                            switchByteOrder
+	)
+	{
+		return new BinaryTypeHandlerCreatorGenerating(
+			notNull(typeAnalyzer)              ,
+			notNull(typeResolver)              ,
+			notNull(lengthResolver)            ,
+			notNull(eagerStoringFieldEvaluator),
+			notNull(instantiatorProvider)      ,
+			notNull(typeHandlerManager)        ,
+			switchByteOrder
+		);
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	protected BinaryTypeHandlerCreatorGenerating(
+		final PersistenceTypeAnalyzer                            typeAnalyzer              ,
+		final PersistenceTypeResolver                            typeResolver              ,
+		final PersistenceFieldLengthResolver                     lengthResolver            ,
+		final PersistenceEagerStoringFieldEvaluator              eagerStoringFieldEvaluator,
+		final PersistenceTypeInstantiatorProvider<Binary>        instantiatorProvider      ,
+		final Referencing<PersistenceTypeHandlerManager<Binary>> typeHandlerManager        ,
+		final boolean                                            switchByteOrder
+	)
+	{
+		super(
+			typeAnalyzer              ,
+			typeResolver              ,
+			lengthResolver            ,
+			eagerStoringFieldEvaluator,
+			instantiatorProvider      ,
+			typeHandlerManager        ,
+			switchByteOrder
+		);
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+	
+	@Override
+	protected <T> PersistenceTypeHandler<Binary, T> internalCreateTypeHandlerGeneric(
+		final Class<T>            type             ,
+		final XGettingEnum<Field> persistableFields,
+		final XGettingEnum<Field> persisterFields
+	)
+	{
+		if(persistableFields.isEmpty()
+			|| XReflect.isRecord(type)
+			|| this.isSwitchByteOrder()
+			|| !BinaryFieldsAccessorGenerator.isGeneratable(persistableFields.size())
+		)
+		{
+			return super.internalCreateTypeHandlerGeneric(type, persistableFields, persisterFields);
+		}
+		
+		return BinaryHandlerGenericTypeGenerated.New(
+			type                                           ,
+			this.deriveTypeName(type)                      ,
+			persistableFields                              ,
+			persisterFields                                ,
+			this.lengthResolver()                          ,
+			this.eagerStoringFieldEvaluator()              ,
+			this.instantiatorProvider().provideTypeInstantiator(type)
+		);
+	}
+	
+}
@@ -26,6 +26,15 @@ import one.microstream.persistence.binary.types.Binary;
 import one.microstream.persistence.types.PersistenceReferenceLoader;
 import one.microstream.persistence.types.PersistenceStoreHandler;
 
+/**
+ * Abstract type handler for {@link StringBuilder} and {@link StringBuffer}, storing the capacity followed by
+ * the chars in the compact string layout (see {@link BinaryHandlerString}).
+ * <p>
+ * Instances persisted with the former layout of capacity and one UTF-16 char list are read via
+ * {@link AbstractBinaryLegacyTypeHandlerAbstractStringBuilder}.
+ *
+ * @param <B> the handled type
+ */
 public abstract class AbstractBinaryHandlerAbstractStringBuilder<B/*extends AbstractStringBuilder*/>
 extends AbstractBinaryHandlerCustom<B>
 {
@@ -37,7 +46,7 @@ extends AbstractBinaryHandlerCustom<B>
 	
 	protected static final long
 		OFFSET_CAPACITY = 0                                ,
-		OFFSET_CHARS    = OFFSET_CAPACITY + LENGTH_CAPACITY
+		OFFSET_CODER    = OFFSET_CAPACITY + LENGTH_CAPACITY
 	;
 
 
@@ -52,7 +61,8 @@ extends AbstractBinaryHandlerCustom<B>
 			type,
 			CustomFields(
 				CustomField(long.class, "capacity"),
-				chars("value")
+				CustomField(byte.class, "coder"   ),
+				bytes("value")
 			)
 		);
 	}
@@ -71,14 +81,14 @@ extends AbstractBinaryHandlerCustom<B>
 		final PersistenceStoreHandler<Binary> handler
 	)
 	{
-		// capacity + list header + list data
-		final long contentLength = Binary.toBinaryListTotalByteLength(
-			LENGTH_CAPACITY + (long)chars.length * Character.BYTES
-		);
+		final boolean latin1 = Binary.isLatin1(chars, 0, chars.length);
+		
+		// capacity + coder + list header + list data
+		final long contentLength = LENGTH_CAPACITY + Binary.calculateBinaryLengthCharsCompact(chars.length, latin1);
 		
 		data.storeEntityHeader(contentLength, this.typeId(), objectId);
 		data.store_long(OFFSET_CAPACITY, capacity);
-		data.storeCharsAsList(OFFSET_CHARS, chars, 0, chars.length);
+		data.storeCharsCompact(OFFSET_CODER, chars, 0, chars.length, latin1);
 	}
 	
 	protected final int readCapacity(final Binary data)
@@ -88,7 +98,7 @@ extends AbstractBinaryHandlerCustom<B>
 	
 	protected final char[] readChars(final Binary data)
 	{
-		return data.build_chars(OFFSET_CHARS);
+		return data.build_charsCompact(OFFSET_CODER);
 	}
 	
 	@Override
@@ -0,0 +1,109 @@
+package one.microstream.persistence.binary.java.lang;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import one.microstream.X;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.BinaryLegacyTypeHandler;
+import one.microstream.persistence.types.PersistenceReferenceLoader;
+
+/**
+ * Abstract legacy type handler for {@link StringBuilder} and {@link StringBuffer} instances persisted with
+ * the former layout of capacity and one UTF-16 char list, see {@link AbstractBinaryHandlerAbstractStringBuilder}.
+ *
+ * @param <B> the handled type
+ */
+public abstract class AbstractBinaryLegacyTypeHandlerAbstractStringBuilder<B/*extends AbstractStringBuilder*/>
+extends BinaryLegacyTypeHandler.AbstractCustom<B>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// constants //
+	//////////////
+	
+	protected static final long LENGTH_CAPACITY = Long.BYTES;
+	
+	protected static final long
+		OFFSET_CAPACITY = 0                                ,
+		OFFSET_CHARS    = OFFSET_CAPACITY + LENGTH_CAPACITY
+	;
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	protected AbstractBinaryLegacyTypeHandlerAbstractStringBuilder(final Class<B> type)
+	{
+		super(
+			type,
+			CustomFields(
+				CustomField(long.class, "capacity"),
+				chars("value")
+			)
+		);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+	
+	protected final int readCapacity(final Binary data)
+	{
+		return X.checkArrayRange(data.read_long(OFFSET_CAPACITY));
+	}
+	
+	protected final char[] readChars(final Binary data)
+	{
+		return data.build_chars(OFFSET_CHARS);
+	}
+	
+	@Override
+	public final boolean hasPersistedReferences()
+	{
+		return false;
+	}
+	
+	@Override
+	public final boolean hasPersistedVariableLength()
+	{
+		return true;
+	}
+
+	@Override
+	public final boolean hasVaryingPersistedLengthInstances()
+	{
+		return false;
+	}
+	
+	@Override
+	public final void iterateLoadableReferences(
+		final Binary                     data    ,
+		final PersistenceReferenceLoader iterator
+	)
+	{
+		// no references
+	}
+
+}
@@ -0,0 +1,369 @@
+package one.microstream.persistence.binary.java.lang;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.function.Consumer;
+
+import one.microstream.collections.BulkList;
+import one.microstream.persistence.binary.exceptions.BinaryPersistenceException;
+import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustom;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.BinaryPersistence;
+import one.microstream.persistence.types.PersistenceFunction;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceReferenceLoader;
+import one.microstream.persistence.types.PersistenceStoreHandler;
+import one.microstream.persistence.types.PersistenceTypeDefinitionMemberFieldGeneric;
+import one.microstream.reflect.XReflect;
+
+/**
+ * Generic type handler for record classes (see {@link XReflect#isRecord(Class)}).
+ * <p>
+ * The fields of a record cannot be set via low-level memory access, so record instances are created
+ * by calling their canonical constructor with the persisted component values.
+ * The persisted layout is the same as for generic type handlers: all reference components in declared
+ * order, followed by all primitive components in declared order.
+ * <p>
+ * Since a record requires all of its component values at creation time, its creation is deferred by the loader
+ * until the referenced instances are available (see {@link #requiresReferencesForCreation()}). They are loaded
+ * in the same loading process as the record itself and resolved via {@link PersistenceLoadHandler#lookupObject(long)}.
+ *
+ * @param <T> the handled record type
+ */
+public final class BinaryHandlerRecord<T> extends AbstractBinaryHandlerCustom<T>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+
+	public static <T> BinaryHandlerRecord<T> New(final Class<T> type)
+	{
+		return New(type, deriveTypeName(type));
+	}
+
+	public static <T> BinaryHandlerRecord<T> New(final Class<T> type, final String typeName)
+	{
+		if(!XReflect.isRecord(notNull(type)))
+		{
+			throw new BinaryPersistenceException("Not a record class: " + type.getName());
+		}
+
+		// the instance fields of a record are exactly its components in declared order.
+		final BulkList<Field> instanceFields = BulkList.New();
+		for(final Field field : type.getDeclaredFields())
+		{
+			if(XReflect.isInstanceField(field))
+			{
+				instanceFields.add(field);
+			}
+		}
+		final Field[] components = instanceFields.toArray(Field.class);
+
+		final Class<?>[] componentTypes = new Class<?>[components.length];
+		for(int i = 0; i < components.length; i++)
+		{
+			componentTypes[i] = components[i].getType();
+		}
+
+		// persisted order: all references first, then all primitives. Both in declared order.
+		final Field[] fields           = new Field[components.length];
+		final int[]   parameterIndices = new int[components.length];
+		int f = 0;
+		for(int i = 0; i < components.length; i++)
+		{
+			if(!componentTypes[i].isPrimitive())
+			{
+				parameterIndices[f] = i;
+				fields[f++] = XReflect.setAccessible(type, components[i]);
+			}
+		}
+		final int referenceCount = f;
+		for(int i = 0; i < components.length; i++)
+		{
+			if(componentTypes[i].isPrimitive())
+			{
+				parameterIndices[f] = i;
+				fields[f++] = XReflect.setAccessible(type, components[i]);
+			}
+		}
+
+		return new BinaryHandlerRecord<>(
+			type                                                                          ,
+			notNull(typeName)                                                             ,
+			XReflect.setAccessible(XReflect.getDeclaredConstructor(type, componentTypes)),
+			fields                                                                        ,
+			parameterIndices                                                              ,
+			referenceCount
+		);
+	}
+
+	private static PersistenceTypeDefinitionMemberFieldGeneric[] deriveMembers(final Field[] fields)
+	{
+		final PersistenceTypeDefinitionMemberFieldGeneric[] members =
+			new PersistenceTypeDefinitionMemberFieldGeneric[fields.length]
+		;
+		for(int i = 0; i < fields.length; i++)
+		{
+			members[i] = CustomField(fields[i].getType(), fields[i].getName());
+		}
+
+		return members;
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// instance fields //
+	////////////////////
+
+	private final Constructor<T> constructor     ;
+	private final Field[]        fields          ;
+	private final int[]          parameterIndices;
+	private final long[]         binaryOffsets   ;
+	private final int            referenceCount  ;
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	BinaryHandlerRecord(
+		final Class<T>       type            ,
+		final String         typeName        ,
+		final Constructor<T> constructor     ,
+		final Field[]        fields          ,
+		final int[]          parameterIndices,
+		final int            referenceCount
+	)
+	{
+		super(type, typeName, CustomFields(deriveMembers(fields)));
+		this.constructor      = constructor     ;
+		this.fields           = fields          ;
+		this.parameterIndices = parameterIndices;
+		this.referenceCount   = referenceCount  ;
+		this.binaryOffsets    = new long[fields.length];
+
+		long offset = 0;
+		for(int i = 0; i < fields.length; i++)
+		{
+			this.binaryOffsets[i] = offset;
+			offset += BinaryPersistence.resolveFieldBinaryLength(fields[i].getType());
+		}
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	@Override
+	public boolean hasPersistedReferences()
+	{
+		return this.referenceCount > 0;
+	}
+
+	@Override
+	public boolean hasVaryingPersistedLengthInstances()
+	{
+		return false;
+	}
+
+	@Override
+	public boolean requiresReferencesForCreation()
+	{
+		return this.referenceCount > 0;
+	}
+
+	@Override
+	public void store(
+		final Binary                          data    ,
+		final T                               instance,
+		final long                            objectId,
+		final PersistenceStoreHandler<Binary> handler
+	)
+	{
+		data.storeEntityHeader(this.membersPersistedLengthMaximum(), this.typeId(), objectId);
+
+		for(int i = 0; i < this.referenceCount; i++)
+		{
+			data.store_long(
+				this.binaryOffsets[i],
+				handler.apply(XReflect.getFieldValue(this.fields[i], instance))
+			);
+		}
+		for(int i = this.referenceCount; i < this.fields.length; i++)
+		{
+			storePrimitive(data, this.binaryOffsets[i], this.fields[i], instance);
+		}
+	}
+
+	@Override
+	public T create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		final Object[] arguments = new Object[this.fields.length];
+		for(int i = 0; i < this.referenceCount; i++)
+		{
+			arguments[this.parameterIndices[i]] = handler.lookupObject(data.read_long(this.binaryOffsets[i]));
+		}
+		for(int i = this.referenceCount; i < this.fields.length; i++)
+		{
+			arguments[this.parameterIndices[i]] = readPrimitive(data, this.binaryOffsets[i], this.fields[i].getType());
+		}
+
+		try
+		{
+			return this.constructor.newInstance(arguments);
+		}
+		catch(final ReflectiveOperationException | RuntimeException e)
+		{
+			throw new BinaryPersistenceException(
+				"Could not create record instance of type " + this.type().getName(),
+				e
+			);
+		}
+	}
+
+	@Override
+	public void updateState(final Binary data, final T instance, final PersistenceLoadHandler handler)
+	{
+		// no-op, records are immutable and completely created in #create
+	}
+
+	@Override
+	public void iterateInstanceReferences(final T instance, final PersistenceFunction iterator)
+	{
+		for(int i = 0; i < this.referenceCount; i++)
+		{
+			iterator.apply(XReflect.getFieldValue(this.fields[i], instance));
+		}
+	}
+
+	@Override
+	public void iterateLoadableReferences(final Binary data, final PersistenceReferenceLoader iterator)
+	{
+		data.iterateReferenceRange(0, Binary.referenceBinaryLength(this.referenceCount), iterator);
+	}
+
+	@Override
+	public <C extends Consumer<? super Class<?>>> C iterateMemberTypes(final C logic)
+	{
+		for(final Field field : this.fields)
+		{
+			logic.accept(field.getType());
+		}
+
+		return logic;
+	}
+
+	private static void storePrimitive(
+		final Binary data    ,
+		final long   offset  ,
+		final Field  field   ,
+		final Object instance
+	)
+	{
+		final Class<?> type  = field.getType();
+		final Object   value = XReflect.getFieldValue(field, instance);
+		if(type == int.class)
+		{
+			data.store_int(offset, (Integer)value);
+		}
+		else if(type == long.class)
+		{
+			data.store_long(offset, (Long)value);
+		}
+		else if(type == double.class)
+		{
+			data.store_double(offset, (Double)value);
+		}
+		else if(type == boolean.class)
+		{
+			data.store_boolean(offset, (Boolean)value);
+		}
+		else if(type == float.class)
+		{
+			data.store_float(offset, (Float)value);
+		}
+		else if(type == byte.class)
+		{
+			data.store_byte(offset, (Byte)value);
+		}
+		else if(type == short.class)
+		{
+			data.store_short(offset, (Short)value);
+		}
+		else if(type == char.class)
+		{
+			data.store_char(offset, (Character)value);
+		}
+		else
+		{
+			// not reachable for the eight primitive types.
+			throw new BinaryPersistenceException("Unknown primitive type: " + type);
+		}
+	}
+
+	private static Object readPrimitive(final Binary data, final long offset, final Class<?> type)
+	{
+		if(type == int.class)
+		{
+			return data.read_int(offset);
+		}
+		if(type == long.class)
+		{
+			return data.read_long(offset);
+		}
+		if(type == double.class)
+		{
+			return data.read_double(offset);
+		}
+		if(type == boolean.class)
+		{
+			return data.read_boolean(offset);
+		}
+		if(type == float.class)
+		{
+			return data.read_float(offset);
+		}
+		if(type == byte.class)
+		{
+			return data.read_byte(offset);
+		}
+		if(type == short.class)
+		{
+			return data.read_short(offset);
+		}
+		if(type == char.class)
+		{
+			return data.read_char(offset);
+		}
+
+		// not reachable for the eight primitive types.
+		throw new BinaryPersistenceException("Unknown primitive type: " + type);
+	}
+
+}
@@ -25,6 +25,14 @@ import one.microstream.persistence.binary.types.Binary;
 import one.microstream.persistence.types.PersistenceLoadHandler;
 import one.microstream.persistence.types.PersistenceStoreHandler;
 
+/**
+ * Type handler for {@link String} instances using a compact binary layout: a coder byte followed by
+ * a list of bytes, containing 1 byte per char if all chars are Latin-1 chars and 2 bytes per char otherwise.
+ * This mirrors the compact strings of the JDK and halves the persisted size of most strings.
+ * <p>
+ * Strings persisted with the former layout of one UTF-16 char list are read via
+ * {@link BinaryLegacyTypeHandlerString}.
+ */
 public final class BinaryHandlerString extends AbstractBinaryHandlerCustomValueVariableLength<String, String>
 {
 	///////////////////////////////////////////////////////////////////////////
@@ -47,7 +55,8 @@ public final class BinaryHandlerString extends AbstractBinaryHandlerCustomValueV
 		super(
 			String.class,
 			CustomFields(
-				chars("value")
+				CustomField(byte.class, "coder"),
+				bytes("value")
 			)
 		);
 	}
@@ -66,13 +75,13 @@ public final class BinaryHandlerString extends AbstractBinaryHandlerCustomValueV
 		final PersistenceStoreHandler<Binary> handler
 	)
 	{
-		data.storeStringSingleValue(this.typeId(), objectId, instance);
+		data.storeStringCompactSingleValue(this.typeId(), objectId, instance);
 	}
 
 	@Override
 	public String create(final Binary data, final PersistenceLoadHandler handler)
 	{
-		return data.buildString();
+		return data.buildStringCompact();
 	}
 	
 	
@@ -91,7 +100,7 @@ public final class BinaryHandlerString extends AbstractBinaryHandlerCustomValueV
 	@Override
 	public String getValidationStateFromBinary(final Binary data)
 	{
-		return data.buildString();
+		return data.buildStringCompact();
 	}
 
 }
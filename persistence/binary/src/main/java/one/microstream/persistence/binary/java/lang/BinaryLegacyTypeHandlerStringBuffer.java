@@ -0,0 +1,71 @@
+package one.microstream.persistence.binary.java.lang;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+
+// legacy type handler for StringBuffer instances persisted with a UTF-16 char list, see BinaryHandlerStringBuffer
+public final class BinaryLegacyTypeHandlerStringBuffer extends AbstractBinaryLegacyTypeHandlerAbstractStringBuilder<StringBuffer>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+
+	public static BinaryLegacyTypeHandlerStringBuffer New()
+	{
+		return new BinaryLegacyTypeHandlerStringBuffer();
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	BinaryLegacyTypeHandlerStringBuffer()
+	{
+		super(StringBuffer.class);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	@Override
+	public final StringBuffer create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		return new StringBuffer(this.readCapacity(data));
+	}
+
+	@Override
+	public void updateState(final Binary data, final StringBuffer instance, final PersistenceLoadHandler handler)
+	{
+		instance.delete(0, instance.length());
+		
+		instance.ensureCapacity(this.readCapacity(data));
+		instance.append(this.readChars(data));
+	}
+
+}
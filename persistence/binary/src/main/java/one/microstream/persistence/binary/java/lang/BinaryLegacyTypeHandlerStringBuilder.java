@@ -0,0 +1,71 @@
+package one.microstream.persistence.binary.java.lang;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+
+// legacy type handler for StringBuilder instances persisted with a UTF-16 char list, see BinaryHandlerStringBuilder
+public final class BinaryLegacyTypeHandlerStringBuilder extends AbstractBinaryLegacyTypeHandlerAbstractStringBuilder<StringBuilder>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+
+	public static BinaryLegacyTypeHandlerStringBuilder New()
+	{
+		return new BinaryLegacyTypeHandlerStringBuilder();
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	BinaryLegacyTypeHandlerStringBuilder()
+	{
+		super(StringBuilder.class);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	@Override
+	public final StringBuilder create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		return new StringBuilder(this.readCapacity(data));
+	}
+
+	@Override
+	public void updateState(final Binary data, final StringBuilder instance, final PersistenceLoadHandler handler)
+	{
+		instance.delete(0, instance.length());
+		
+		instance.ensureCapacity(this.readCapacity(data));
+		instance.append(this.readChars(data));
+	}
+
+}
@@ -0,0 +1,102 @@
+package one.microstream.persistence.binary.java.time;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import one.microstream.collections.types.XGettingSequence;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.BinaryLegacyTypeHandler;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceReferenceLoader;
+import one.microstream.persistence.types.PersistenceTypeDefinitionMember;
+
+/**
+ * Abstract legacy type handler for java.time types that are composed of other java.time instances and
+ * were persisted with the generic JDK layout, i.e. as references to their components, before dedicated
+ * value type handlers existed. Such layouts cannot be mapped to the plain values of the current type handlers
+ * by the generic legacy type mapping.
+ * <p>
+ * Like for other immutable types with references, the referenced components are required to create the instance,
+ * so its creation is deferred until they are loaded (see {@link #requiresReferencesForCreation()}).
+ *
+ * @param <T> the handled type
+ */
+public abstract class AbstractBinaryLegacyTypeHandlerTimeReferencing<T> extends BinaryLegacyTypeHandler.AbstractCustom<T>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	protected AbstractBinaryLegacyTypeHandlerTimeReferencing(
+		final Class<T>                                                    type   ,
+		final XGettingSequence<? extends PersistenceTypeDefinitionMember> members
+	)
+	{
+		super(type, members);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	protected static <R> R resolveReference(
+		final Binary                 data          ,
+		final int                    referenceIndex,
+		final Class<R>               type          ,
+		final PersistenceLoadHandler handler
+	)
+	{
+		return type.cast(handler.lookupObject(data.read_long(Binary.referenceBinaryLength(referenceIndex))));
+	}
+
+	@Override
+	public boolean hasPersistedReferences()
+	{
+		return true;
+	}
+
+	@Override
+	public boolean requiresReferencesForCreation()
+	{
+		return true;
+	}
+
+	@Override
+	public boolean hasVaryingPersistedLengthInstances()
+	{
+		return false;
+	}
+
+	@Override
+	public void updateState(final Binary data, final T instance, final PersistenceLoadHandler handler)
+	{
+		// no-op, immutable instance is completely created in #create
+	}
+
+	@Override
+	public void iterateLoadableReferences(final Binary data, final PersistenceReferenceLoader iterator)
+	{
+		// all members are references
+		data.iterateReferenceRange(0, Binary.referenceBinaryLength(this.allMembers().size()), iterator);
+	}
+
+}
@@ -0,0 +1,135 @@
+package one.microstream.persistence.binary.java.time;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.time.LocalTime;
+
+import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomValueFixedLength;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceStoreHandler;
+
+// custom type handler for local time, persisted as plain values without any references
+public class BinaryHandlerLocalTime extends AbstractBinaryHandlerCustomValueFixedLength<LocalTime, LocalTime>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// constants //
+	//////////////
+
+	static final long
+		BINARY_OFFSET_HOUR   =                                    0,
+		BINARY_OFFSET_MINUTE = BINARY_OFFSET_HOUR   + Byte   .BYTES,
+		BINARY_OFFSET_SECOND = BINARY_OFFSET_MINUTE + Byte   .BYTES,
+		BINARY_OFFSET_NANO   = BINARY_OFFSET_SECOND + Byte   .BYTES,
+		BINARY_LENGTH        = BINARY_OFFSET_NANO   + Integer.BYTES
+	;
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+
+	public static BinaryHandlerLocalTime New()
+	{
+		return new BinaryHandlerLocalTime();
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	protected BinaryHandlerLocalTime()
+	{
+		/*
+		 * The field names match the JDK's private fields, so instances persisted with the generic handler
+		 * are mapped to this handler by the default legacy type mapping.
+		 */
+		super(
+			LocalTime.class,
+			CustomFields(
+				CustomField(byte.class, "hour"  ),
+				CustomField(byte.class, "minute"),
+				CustomField(byte.class, "second"),
+				CustomField(int .class, "nano"  )
+			)
+		);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	private static LocalTime binaryState(final Binary data)
+	{
+		return LocalTime.of(
+			data.read_byte(BINARY_OFFSET_HOUR),
+			data.read_byte(BINARY_OFFSET_MINUTE),
+			data.read_byte(BINARY_OFFSET_SECOND),
+			data.read_int (BINARY_OFFSET_NANO)
+		);
+	}
+
+	@Override
+	public void store(
+		final Binary                          data,
+		final LocalTime                       instance,
+		final long                            objectId,
+		final PersistenceStoreHandler<Binary> handler
+	)
+	{
+		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
+		data.store_byte(BINARY_OFFSET_HOUR  , (byte)instance.getHour());
+		data.store_byte(BINARY_OFFSET_MINUTE, (byte)instance.getMinute());
+		data.store_byte(BINARY_OFFSET_SECOND, (byte)instance.getSecond());
+		data.store_int (BINARY_OFFSET_NANO  , instance.getNano());
+	}
+
+	@Override
+	public LocalTime create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		return binaryState(data);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// validation //
+	///////////////
+
+	// immutable value type, so the instance itself is its validation state
+	@Override
+	public LocalTime getValidationStateFromInstance(final LocalTime instance)
+	{
+		return instance;
+	}
+
+	@Override
+	public LocalTime getValidationStateFromBinary(final Binary data)
+	{
+		return binaryState(data);
+	}
+
+}
@@ -0,0 +1,131 @@
+package one.microstream.persistence.binary.java.time;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.time.Period;
+
+import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomValueFixedLength;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceStoreHandler;
+
+// custom type handler for period, persisted as plain values without any references
+public class BinaryHandlerPeriod extends AbstractBinaryHandlerCustomValueFixedLength<Period, Period>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// constants //
+	//////////////
+
+	static final long
+		BINARY_OFFSET_YEARS  =                                    0,
+		BINARY_OFFSET_MONTHS = BINARY_OFFSET_YEARS  + Integer.BYTES,
+		BINARY_OFFSET_DAYS   = BINARY_OFFSET_MONTHS + Integer.BYTES,
+		BINARY_LENGTH        = BINARY_OFFSET_DAYS   + Integer.BYTES
+	;
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+
+	public static BinaryHandlerPeriod New()
+	{
+		return new BinaryHandlerPeriod();
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	protected BinaryHandlerPeriod()
+	{
+		/*
+		 * The field names match the JDK's private fields, so instances persisted with the generic handler
+		 * are mapped to this handler by the default legacy type mapping.
+		 */
+		super(
+			Period.class,
+			CustomFields(
+				CustomField(int.class, "years" ),
+				CustomField(int.class, "months"),
+				CustomField(int.class, "days"  )
+			)
+		);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	private static Period binaryState(final Binary data)
+	{
+		return Period.of(
+			data.read_int(BINARY_OFFSET_YEARS),
+			data.read_int(BINARY_OFFSET_MONTHS),
+			data.read_int(BINARY_OFFSET_DAYS)
+		);
+	}
+
+	@Override
+	public void store(
+		final Binary                          data,
+		final Period                          instance,
+		final long                            objectId,
+		final PersistenceStoreHandler<Binary> handler
+	)
+	{
+		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
+		data.store_int(BINARY_OFFSET_YEARS , instance.getYears());
+		data.store_int(BINARY_OFFSET_MONTHS, instance.getMonths());
+		data.store_int(BINARY_OFFSET_DAYS  , instance.getDays());
+	}
+
+	@Override
+	public Period create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		return binaryState(data);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// validation //
+	///////////////
+
+	// immutable value type, so the instance itself is its validation state
+	@Override
+	public Period getValidationStateFromInstance(final Period instance)
+	{
+		return instance;
+	}
+
+	@Override
+	public Period getValidationStateFromBinary(final Binary data)
+	{
+		return binaryState(data);
+	}
+
+}
@@ -0,0 +1,127 @@
+package one.microstream.persistence.binary.java.time;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.time.YearMonth;
+
+import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomValueFixedLength;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceStoreHandler;
+
+// custom type handler for year month, persisted as plain values without any references
+public class BinaryHandlerYearMonth extends AbstractBinaryHandlerCustomValueFixedLength<YearMonth, YearMonth>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// constants //
+	//////////////
+
+	static final long
+		BINARY_OFFSET_YEAR  =                                   0,
+		BINARY_OFFSET_MONTH = BINARY_OFFSET_YEAR  + Integer.BYTES,
+		BINARY_LENGTH       = BINARY_OFFSET_MONTH + Integer.BYTES
+	;
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+
+	public static BinaryHandlerYearMonth New()
+	{
+		return new BinaryHandlerYearMonth();
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	protected BinaryHandlerYearMonth()
+	{
+		/*
+		 * The field names match the JDK's private fields, so instances persisted with the generic handler
+		 * are mapped to this handler by the default legacy type mapping.
+		 */
+		super(
+			YearMonth.class,
+			CustomFields(
+				CustomField(int.class, "year" ),
+				CustomField(int.class, "month")
+			)
+		);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	private static YearMonth binaryState(final Binary data)
+	{
+		return YearMonth.of(
+			data.read_int(BINARY_OFFSET_YEAR),
+			data.read_int(BINARY_OFFSET_MONTH)
+		);
+	}
+
+	@Override
+	public void store(
+		final Binary                          data,
+		final YearMonth                       instance,
+		final long                            objectId,
+		final PersistenceStoreHandler<Binary> handler
+	)
+	{
+		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
+		data.store_int(BINARY_OFFSET_YEAR , instance.getYear());
+		data.store_int(BINARY_OFFSET_MONTH, instance.getMonthValue());
+	}
+
+	@Override
+	public YearMonth create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		return binaryState(data);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// validation //
+	///////////////
+
+	// immutable value type, so the instance itself is its validation state
+	@Override
+	public YearMonth getValidationStateFromInstance(final YearMonth instance)
+	{
+		return instance;
+	}
+
+	@Override
+	public YearMonth getValidationStateFromBinary(final Binary data)
+	{
+		return binaryState(data);
+	}
+
+}
@@ -0,0 +1,169 @@
+package one.microstream.persistence.binary.java.time;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomValueVariableLength;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceStoreHandler;
+
+// custom type handler for zoned date time, persisted as plain values and the zone's id without any references
+public class BinaryHandlerZonedDateTime
+extends AbstractBinaryHandlerCustomValueVariableLength<ZonedDateTime, ZonedDateTime>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// constants //
+	//////////////
+
+	static final long
+		BINARY_OFFSET_YEAR   =                                    0,
+		BINARY_OFFSET_MONTH  = BINARY_OFFSET_YEAR   + Integer.BYTES,
+		BINARY_OFFSET_DAY    = BINARY_OFFSET_MONTH  + Short  .BYTES,
+		BINARY_OFFSET_HOUR   = BINARY_OFFSET_DAY    + Short  .BYTES,
+		BINARY_OFFSET_MINUTE = BINARY_OFFSET_HOUR   + Byte   .BYTES,
+		BINARY_OFFSET_SECOND = BINARY_OFFSET_MINUTE + Byte   .BYTES,
+		BINARY_OFFSET_NANO   = BINARY_OFFSET_SECOND + Byte   .BYTES,
+		BINARY_OFFSET_OFFSET = BINARY_OFFSET_NANO   + Integer.BYTES,
+		BINARY_OFFSET_ZONE   = BINARY_OFFSET_OFFSET + Integer.BYTES
+	;
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+
+	public static BinaryHandlerZonedDateTime New()
+	{
+		return new BinaryHandlerZonedDateTime();
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	protected BinaryHandlerZonedDateTime()
+	{
+		/*
+		 * Generic handling would persist the JDK's fields as references to separate LocalDateTime, ZoneOffset
+		 * and ZoneId instances. Instances persisted that way are handled by BinaryLegacyTypeHandlerZonedDateTime.
+		 * The offset is required in addition to the zone to resolve local date times in an overlap unambiguously.
+		 */
+		super(
+			ZonedDateTime.class,
+			CustomFields(
+				CustomField(int  .class, "year"  ),
+				CustomField(short.class, "month" ),
+				CustomField(short.class, "day"   ),
+				CustomField(byte .class, "hour"  ),
+				CustomField(byte .class, "minute"),
+				CustomField(byte .class, "second"),
+				CustomField(int  .class, "nano"  ),
+				CustomField(int  .class, "offset"),
+				chars("zone")
+			)
+		);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	private static ZonedDateTime binaryState(final Binary data)
+	{
+		final LocalDateTime dateTime = LocalDateTime.of(
+			data.read_int  (BINARY_OFFSET_YEAR),
+			data.read_short(BINARY_OFFSET_MONTH),
+			data.read_short(BINARY_OFFSET_DAY),
+			data.read_byte (BINARY_OFFSET_HOUR),
+			data.read_byte (BINARY_OFFSET_MINUTE),
+			data.read_byte (BINARY_OFFSET_SECOND),
+			data.read_int  (BINARY_OFFSET_NANO)
+		);
+
+		return ZonedDateTime.ofLocal(
+			dateTime,
+			ZoneId.of(data.buildString(BINARY_OFFSET_ZONE)),
+			ZoneOffset.ofTotalSeconds(data.read_int(BINARY_OFFSET_OFFSET))
+		);
+	}
+
+	@Override
+	public void store(
+		final Binary                          data    ,
+		final ZonedDateTime                   instance,
+		final long                            objectId,
+		final PersistenceStoreHandler<Binary> handler
+	)
+	{
+		final String zoneId = instance.getZone().getId();
+
+		data.storeEntityHeader(
+			BINARY_OFFSET_ZONE + Binary.calculateBinaryLengthChars(zoneId.length()),
+			this.typeId(),
+			objectId
+		);
+		data.store_int       (BINARY_OFFSET_YEAR  , instance.getYear());
+		data.store_short     (BINARY_OFFSET_MONTH , (short)instance.getMonthValue());
+		data.store_short     (BINARY_OFFSET_DAY   , (short)instance.getDayOfMonth());
+		data.store_byte      (BINARY_OFFSET_HOUR  , (byte)instance.getHour());
+		data.store_byte      (BINARY_OFFSET_MINUTE, (byte)instance.getMinute());
+		data.store_byte      (BINARY_OFFSET_SECOND, (byte)instance.getSecond());
+		data.store_int       (BINARY_OFFSET_NANO  , instance.getNano());
+		data.store_int       (BINARY_OFFSET_OFFSET, instance.getOffset().getTotalSeconds());
+		data.storeStringValue(BINARY_OFFSET_ZONE  , zoneId);
+	}
+
+	@Override
+	public ZonedDateTime create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		return binaryState(data);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// validation //
+	///////////////
+
+	// immutable value type, so the instance itself is its validation state
+	@Override
+	public ZonedDateTime getValidationStateFromInstance(final ZonedDateTime instance)
+	{
+		return instance;
+	}
+
+	@Override
+	public ZonedDateTime getValidationStateFromBinary(final Binary data)
+	{
+		return binaryState(data);
+	}
+
+}
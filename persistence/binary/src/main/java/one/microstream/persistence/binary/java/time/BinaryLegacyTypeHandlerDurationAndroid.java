@@ -0,0 +1,94 @@
+package one.microstream.persistence.binary.java.time;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.time.Duration;
+
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.BinaryLegacyTypeHandler;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceReferenceLoader;
+
+// legacy type handler for durations persisted as total nanoseconds by the former Android handler, see BinaryHandlerDuration
+public final class BinaryLegacyTypeHandlerDurationAndroid extends BinaryLegacyTypeHandler.AbstractCustom<Duration>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+
+	public static BinaryLegacyTypeHandlerDurationAndroid New()
+	{
+		return new BinaryLegacyTypeHandlerDurationAndroid();
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	BinaryLegacyTypeHandlerDurationAndroid()
+	{
+		super(
+			Duration.class,
+			CustomFields(
+				CustomField(long.class, "nanos")
+			)
+		);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	@Override
+	public Duration create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		return Duration.ofNanos(data.read_long(0));
+	}
+
+	@Override
+	public boolean hasPersistedReferences()
+	{
+		return false;
+	}
+
+	@Override
+	public boolean hasVaryingPersistedLengthInstances()
+	{
+		return false;
+	}
+
+	@Override
+	public void updateState(final Binary data, final Duration instance, final PersistenceLoadHandler handler)
+	{
+		// no-op, immutable instance is completely created in #create
+	}
+
+	@Override
+	public void iterateLoadableReferences(final Binary data, final PersistenceReferenceLoader iterator)
+	{
+		// no references
+	}
+
+}
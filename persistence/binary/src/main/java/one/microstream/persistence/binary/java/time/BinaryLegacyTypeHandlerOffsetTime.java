@@ -0,0 +1,74 @@
+package one.microstream.persistence.binary.java.time;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+
+// legacy type handler for offset time persisted with the generic JDK layout, see BinaryHandlerOffsetTime
+public final class BinaryLegacyTypeHandlerOffsetTime extends AbstractBinaryLegacyTypeHandlerTimeReferencing<OffsetTime>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+
+	public static BinaryLegacyTypeHandlerOffsetTime New()
+	{
+		return new BinaryLegacyTypeHandlerOffsetTime();
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	BinaryLegacyTypeHandlerOffsetTime()
+	{
+		super(
+			OffsetTime.class,
+			CustomFields(
+				CustomField(LocalTime .class, "time"  ),
+				CustomField(ZoneOffset.class, "offset")
+			)
+		);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	@Override
+	public OffsetTime create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		return OffsetTime.of(
+			resolveReference(data, 0, LocalTime .class, handler),
+			resolveReference(data, 1, ZoneOffset.class, handler)
+		);
+	}
+
+}
@@ -0,0 +1,131 @@
+package one.microstream.persistence.binary.java.time;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.BinaryLegacyTypeHandler;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceReferenceLoader;
+
+/*
+ * Legacy type handler for zoned date times persisted without their offset by the former Android handler,
+ * see BinaryHandlerZonedDateTime. Local date times in an overlap resolve to the earlier offset, as they did before.
+ */
+public final class BinaryLegacyTypeHandlerZonedDateTimeAndroid extends BinaryLegacyTypeHandler.AbstractCustom<ZonedDateTime>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// constants //
+	//////////////
+
+	static final long
+		BINARY_OFFSET_YEAR   =                                    0,
+		BINARY_OFFSET_MONTH  = BINARY_OFFSET_YEAR   + Integer.BYTES,
+		BINARY_OFFSET_DAY    = BINARY_OFFSET_MONTH  + Short  .BYTES,
+		BINARY_OFFSET_HOUR   = BINARY_OFFSET_DAY    + Short  .BYTES,
+		BINARY_OFFSET_MINUTE = BINARY_OFFSET_HOUR   + Byte   .BYTES,
+		BINARY_OFFSET_SECOND = BINARY_OFFSET_MINUTE + Byte   .BYTES,
+		BINARY_OFFSET_NANO   = BINARY_OFFSET_SECOND + Byte   .BYTES,
+		BINARY_OFFSET_ID     = BINARY_OFFSET_NANO   + Integer.BYTES
+	;
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+
+	public static BinaryLegacyTypeHandlerZonedDateTimeAndroid New()
+	{
+		return new BinaryLegacyTypeHandlerZonedDateTimeAndroid();
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	BinaryLegacyTypeHandlerZonedDateTimeAndroid()
+	{
+		super(
+			ZonedDateTime.class,
+			CustomFields(
+				CustomField(int  .class, "year"  ),
+				CustomField(short.class, "month" ),
+				CustomField(short.class, "day"   ),
+				CustomField(byte .class, "hour"  ),
+				CustomField(byte .class, "minute"),
+				CustomField(byte .class, "second"),
+				CustomField(int  .class, "nano"  ),
+				chars("id")
+			)
+		);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	@Override
+	public ZonedDateTime create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		return ZonedDateTime.of(
+			data.read_int  (BINARY_OFFSET_YEAR),
+			data.read_short(BINARY_OFFSET_MONTH),
+			data.read_short(BINARY_OFFSET_DAY),
+			data.read_byte (BINARY_OFFSET_HOUR),
+			data.read_byte (BINARY_OFFSET_MINUTE),
+			data.read_byte (BINARY_OFFSET_SECOND),
+			data.read_int  (BINARY_OFFSET_NANO),
+			ZoneId.of(data.buildString(BINARY_OFFSET_ID))
+		);
+	}
+
+	@Override
+	public boolean hasPersistedReferences()
+	{
+		return false;
+	}
+
+	@Override
+	public boolean hasVaryingPersistedLengthInstances()
+	{
+		return true;
+	}
+
+	@Override
+	public void updateState(final Binary data, final ZonedDateTime instance, final PersistenceLoadHandler handler)
+	{
+		// no-op, immutable instance is completely created in #create
+	}
+
+	@Override
+	public void iterateLoadableReferences(final Binary data, final PersistenceReferenceLoader iterator)
+	{
+		// no references
+	}
+
+}
@@ -0,0 +1,127 @@
+package one.microstream.persistence.binary.java.util;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.util.UUID;
+
+import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomValueFixedLength;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceStoreHandler;
+
+// custom type handler for UUID, persisted as plain values without any references
+public final class BinaryHandlerUUID extends AbstractBinaryHandlerCustomValueFixedLength<UUID, UUID>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// constants //
+	//////////////
+
+	static final long
+		BINARY_OFFSET_MOST_SIG_BITS  =                                            0,
+		BINARY_OFFSET_LEAST_SIG_BITS = BINARY_OFFSET_MOST_SIG_BITS  + Long   .BYTES,
+		BINARY_LENGTH                = BINARY_OFFSET_LEAST_SIG_BITS + Long   .BYTES
+	;
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+
+	public static BinaryHandlerUUID New()
+	{
+		return new BinaryHandlerUUID();
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	BinaryHandlerUUID()
+	{
+		/*
+		 * The field names match the JDK's private fields, so instances persisted with the generic handler
+		 * are mapped to this handler by the default legacy type mapping.
+		 */
+		super(
+			UUID.class,
+			CustomFields(
+				CustomField(long.class, "mostSigBits" ),
+				CustomField(long.class, "leastSigBits")
+			)
+		);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	private static UUID binaryState(final Binary data)
+	{
+		return new UUID(
+			data.read_long(BINARY_OFFSET_MOST_SIG_BITS),
+			data.read_long(BINARY_OFFSET_LEAST_SIG_BITS)
+		);
+	}
+
+	@Override
+	public void store(
+		final Binary                          data,
+		final UUID                            instance,
+		final long                            objectId,
+		final PersistenceStoreHandler<Binary> handler
+	)
+	{
+		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
+		data.store_long(BINARY_OFFSET_MOST_SIG_BITS , instance.getMostSignificantBits());
+		data.store_long(BINARY_OFFSET_LEAST_SIG_BITS, instance.getLeastSignificantBits());
+	}
+
+	@Override
+	public UUID create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		return binaryState(data);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// validation //
+	///////////////
+
+	// immutable value type, so the instance itself is its validation state
+	@Override
+	public UUID getValidationStateFromInstance(final UUID instance)
+	{
+		return instance;
+	}
+
+	@Override
+	public UUID getValidationStateFromBinary(final Binary data)
+	{
+		return binaryState(data);
+	}
+
+}
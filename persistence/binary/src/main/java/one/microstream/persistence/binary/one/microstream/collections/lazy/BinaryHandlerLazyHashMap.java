@@ -0,0 +1,154 @@
+package one.microstream.persistence.binary.one.microstream.collections.lazy;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.util.ArrayList;
+
+import one.microstream.collections.lazy.LazyHashMap;
+import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomCollection;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.types.PersistenceFunction;
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceReferenceLoader;
+import one.microstream.persistence.types.PersistenceStoreHandler;
+
+
+public final class BinaryHandlerLazyHashMap extends AbstractBinaryHandlerCustomCollection<LazyHashMap<?, ?>>
+{
+	///////////////////////////////////////////////////////////////////////////
+	// constants //
+	//////////////
+
+	static final long
+		BINARY_OFFSET_DIRECTORY        = 0                                                    ,
+		BINARY_OFFSET_MAX_SEGMENT_SIZE = BINARY_OFFSET_DIRECTORY + Binary.objectIdByteLength(),
+		BINARY_LENGTH                  = BINARY_OFFSET_MAX_SEGMENT_SIZE + Integer.BYTES
+	;
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+
+	@SuppressWarnings({"unchecked",  "rawtypes"})
+	private static Class<LazyHashMap<?, ?>> handledType()
+	{
+		// no idea how to get ".class" to work otherwise
+		return (Class)LazyHashMap.class;
+	}
+
+	public static BinaryHandlerLazyHashMap New()
+	{
+		return new BinaryHandlerLazyHashMap();
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+
+	BinaryHandlerLazyHashMap()
+	{
+		super(
+			handledType(),
+			CustomFields(
+				CustomField(ArrayList.class, "directory"     ),
+				CustomField(int.class      , "maxSegmentSize")
+			)
+		);
+	}
+
+
+
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+
+	@Override
+	public void store(
+		final Binary                          data    ,
+		final LazyHashMap<?, ?>               instance,
+		final long                            objectId,
+		final PersistenceStoreHandler<Binary> handler
+	)
+	{
+		// modified parts would be skipped as already stored instances, so they have to be stored eagerly.
+		handler.registerCommitAction(instance.$processModified(handler::applyEager));
+
+		data.storeEntityHeader(BINARY_LENGTH, this.typeId(), objectId);
+		data.store_long(BINARY_OFFSET_DIRECTORY       , handler.apply(instance.$directory()));
+		data.store_int (BINARY_OFFSET_MAX_SEGMENT_SIZE, instance.maxSegmentSize()           );
+	}
+
+	@Override
+	public LazyHashMap<?, ?> create(final Binary data, final PersistenceLoadHandler handler)
+	{
+		return LazyHashMap.New(data.read_int(BINARY_OFFSET_MAX_SEGMENT_SIZE));
+	}
+
+	@Override
+	public void updateState(
+		final Binary                 data    ,
+		final LazyHashMap<?, ?>      instance,
+		final PersistenceLoadHandler handler
+	)
+	{
+		instance.$setDirectory((ArrayList<?>)handler.lookupObject(data.read_long(BINARY_OFFSET_DIRECTORY)));
+	}
+
+	@Override
+	public void complete(
+		final Binary                 data    ,
+		final LazyHashMap<?, ?>      instance,
+		final PersistenceLoadHandler handler
+	)
+	{
+		// the size has to be derived from the segments, which are only guaranteed to be built at this point.
+		instance.$complete();
+	}
+
+	@Override
+	public void iterateLoadableReferences(final Binary data, final PersistenceReferenceLoader iterator)
+	{
+		iterator.acceptObjectId(data.read_long(BINARY_OFFSET_DIRECTORY));
+	}
+
+	@Override
+	public void iterateInstanceReferences(final LazyHashMap<?, ?> instance, final PersistenceFunction iterator)
+	{
+		iterator.apply(instance.$directory());
+	}
+
+	@Override
+	public final boolean hasPersistedVariableLength()
+	{
+		return false;
+	}
+
+	@Override
+	public final boolean hasVaryingPersistedLengthInstances()
+	{
+		return false;
+	}
+
+}
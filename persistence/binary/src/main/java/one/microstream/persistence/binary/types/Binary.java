@@ -25,6 +25,7 @@ import static one.microstream.X.mayNull;
 import static one.microstream.X.notNull;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -126,6 +127,20 @@ public abstract class Binary implements Chunk
 		SIZED_ARRAY_OFFSET_ELEMENTS = SIZED_ARRAY_LENGTH_HEADER  // the element list begins after the header
 	;
 	
+	/* compact string binary layout:
+	 * [1 byte coder][list of bytes: 1 byte per char for Latin-1 or 2 bytes per char for UTF-16]
+	 * The list's element count is always its byte count, so generic tooling sees a valid [byte] list.
+	 */
+	private static final byte
+		STRING_CODER_LATIN1 = 0,
+		STRING_CODER_UTF16  = 1
+	;
+	
+	private static final long
+		COMPACT_STRING_OFFSET_CODER = 0L                                      ,
+		COMPACT_STRING_OFFSET_BYTES = COMPACT_STRING_OFFSET_CODER + Byte.BYTES
+	;
+	
 	/**
 	 * Obviously 2 references: the key and the value.
 	 */
@@ -273,6 +288,61 @@ public abstract class Binary implements Chunk
 	{
 		return toBinaryListTotalByteLength(count << 1);  // header plus 2 bytes per char
 	}
+	
+	/**
+	 * Queries whether all passed chars can be represented in Latin-1 (ISO-8859-1), i.e. whether
+	 * they can be stored with 1 byte per char in the compact string binary layout.
+	 * 
+	 * @param chars the chars to be checked.
+	 * @param offset the index of the first char to be checked.
+	 * @param length the number of chars to be checked.
+	 * @return whether all chars in the passed range are Latin-1 chars.
+	 * 
+	 * @see #storeCharsCompact(long, char[], int, int, boolean)
+	 */
+	public static boolean isLatin1(final char[] chars, final int offset, final int length)
+	{
+		final int bound = offset + length;
+		for(int i = offset; i < bound; i++)
+		{
+			if(chars[i] > 0xFF)
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	public static long calculateBinaryLengthCharsCompact(final long count, final boolean latin1)
+	{
+		// coder byte plus list header plus 1 or 2 bytes per char
+		return COMPACT_STRING_OFFSET_BYTES + toBinaryListTotalByteLength(latin1 ? count : count << 1);
+	}
+	
+	/**
+	 * The coder of the compact string binary layout for 1 byte per char (Latin-1).
+	 * 
+	 * @return the Latin-1 coder value.
+	 * 
+	 * @see #storeCharsCompact(long, char[], int, int, boolean)
+	 */
+	public static byte compactStringCoderLatin1()
+	{
+		return STRING_CODER_LATIN1;
+	}
+	
+	/**
+	 * The coder of the compact string binary layout for 2 bytes per char (UTF-16).
+	 * 
+	 * @return the UTF-16 coder value.
+	 * 
+	 * @see #storeCharsCompact(long, char[], int, int, boolean)
+	 */
+	public static byte compactStringCoderUtf16()
+	{
+		return STRING_CODER_UTF16;
+	}
 		
 	
 	
@@ -1172,6 +1242,76 @@ public abstract class Binary implements Chunk
 		this.storeCharsAsList(binaryOffset, chars, offset, length);
 	}
 	
+	public final void storeStringCompactSingleValue(
+		final long   typeId  ,
+		final long   objectId,
+		final String string
+	)
+	{
+		this.storeStringCompactSingleValue(typeId, objectId, XChars.readChars(string));
+	}
+	
+	public final void storeStringCompactSingleValue(
+		final long   typeId  ,
+		final long   objectId,
+		final char[] chars
+	)
+	{
+		final boolean latin1 = isLatin1(chars, 0, chars.length);
+		this.storeEntityHeader(
+			calculateBinaryLengthCharsCompact(chars.length, latin1),
+			typeId,
+			objectId
+		);
+		this.storeCharsCompact(0, chars, 0, chars.length, latin1);
+	}
+	
+	/**
+	 * Stores the passed chars in the compact string binary layout: a coder byte followed by a list of bytes
+	 * containing either 1 byte per char (Latin-1) or 2 bytes per char (UTF-16, in the binary's byte order).
+	 * The list's element count is always its byte count.
+	 * 
+	 * @param memoryOffset the offset of the coder byte.
+	 * @param chars the chars to be stored.
+	 * @param offset the index of the first char to be stored.
+	 * @param length the number of chars to be stored.
+	 * @param latin1 whether all chars to be stored are Latin-1 chars, see {@link #isLatin1(char[], int, int)}.
+	 * @return the address right after the stored data.
+	 */
+	public final long storeCharsCompact(
+		final long    memoryOffset,
+		final char[]  chars       ,
+		final int     offset      ,
+		final int     length      ,
+		final boolean latin1
+	)
+	{
+		final long listOffset          = memoryOffset + COMPACT_STRING_OFFSET_BYTES;
+		final long elementsDataAddress = this.address + listOffset + LIST_OFFSET_ELEMENTS;
+		
+		if(latin1)
+		{
+			this.store_byte(memoryOffset + COMPACT_STRING_OFFSET_CODER, STRING_CODER_LATIN1);
+			this.storeListHeader(listOffset, length, length);
+			for(int i = 0; i < length; i++)
+			{
+				this.set_byteToAddress(elementsDataAddress + i, (byte)chars[offset + i]);
+			}
+			
+			return elementsDataAddress + length;
+		}
+		
+		final long elementsBinaryLength = (long)length * Character.BYTES;
+		this.store_byte(memoryOffset + COMPACT_STRING_OFFSET_CODER, STRING_CODER_UTF16);
+		this.storeListHeader(listOffset, elementsBinaryLength, elementsBinaryLength);
+		for(int i = 0; i < length; i++)
+		{
+			this.set_charToAddress(elementsDataAddress + ((long)i << 1), chars[offset + i]);
+		}
+
+		return elementsDataAddress + elementsBinaryLength;
+	}
+	
 	
 	public final void storeReferences(
 		final long                typeId      ,
@@ -1220,6 +1360,19 @@ public abstract class Binary implements Chunk
 			address = storers[i].storeValueFromMemory(instance, memoryOffsets[i], address, handler);
 		}
 	}
+	
+	public final void storeFixedSize(
+		final PersistenceStoreHandler<Binary> handler      ,
+		final long                            contentLength,
+		final long                            typeId       ,
+		final long                            objectId     ,
+		final Object                          instance     ,
+		final BinaryFieldsAccessor            accessor
+	)
+	{
+		this.storeEntityHeader(contentLength, typeId, objectId);
+		accessor.storeFields(instance, this.address, handler);
+	}
 
 	public final String[] buildStrings(final long stringsListOffset)
 	{
@@ -1410,6 +1563,66 @@ public abstract class Binary implements Chunk
 		// since Java 9, there is no sane way to build a string without copying the loaded data multiple times.
 		return String.valueOf(this.build_chars(offset));
 	}
+	
+	public final String buildStringCompact()
+	{
+		return this.buildStringCompact(0);
+	}
+	
+	public final String buildStringCompact(final long offset)
+	{
+		if(this.read_byte(offset + COMPACT_STRING_OFFSET_CODER) == STRING_CODER_LATIN1)
+		{
+			// the JDK stores Latin-1 strings compactly as well, so this is a plain copy of the bytes.
+			return new String(this.build_bytes(offset + COMPACT_STRING_OFFSET_BYTES), StandardCharsets.ISO_8859_1);
+		}
+		
+		return String.valueOf(this.build_charsCompact(offset));
+	}
+	
+	/**
+	 * Builds the chars stored in the compact string binary layout at the passed offset.
+	 * 
+	 * @param offset the offset of the coder byte.
+	 * @return the loaded chars.
+	 * 
+	 * @see #storeCharsCompact(long, char[], int, int, boolean)
+	 */
+	public final char[] build_charsCompact(final long offset)
+	{
+		final long listOffset = offset + COMPACT_STRING_OFFSET_BYTES;
+		final long byteCount  = this.getBinaryListElementCountValidating(listOffset, Byte.BYTES);
+		final long address    = this.binaryListElementsAddress(listOffset);
+		
+		final byte coder = this.read_byte(offset + COMPACT_STRING_OFFSET_CODER);
+		if(coder == STRING_CODER_LATIN1)
+		{
+			final char[] chars = new char[X.checkArrayRange(byteCount)];
+			for(int i = 0; i < chars.length; i++)
+			{
+				chars[i] = (char)(this.get_byteFromAddress(address + i) & 0xFF);
+			}
+			
+			return chars;
+		}
+		if(coder != STRING_CODER_UTF16 || (byteCount & 1) != 0)
+		{
+			throw new BinaryPersistenceExceptionInvalidListElements(
+				this.getBuildItemTotalLength(),
+				this.getBuildItemObjectId(),
+				this.getBuildItemTypeId(),
+				listOffset,
+				this.getBinaryListTotalByteLength(listOffset),
+				byteCount,
+				Character.BYTES
+			);
+		}
+		
+		final char[] chars = new char[X.checkArrayRange(byteCount >>> 1)];
+		this.update_charsFromAddress(address, chars);
+		
+		return chars;
+	}
 
 	
 	public final byte[] create_bytes()
@@ -2075,6 +2288,15 @@ public abstract class Binary implements Chunk
 			address = setters[i].setValueToMemory(address, instance, memoryOffsets[i], handler);
 		}
 	}
+	
+	public final void updateFixedSize(
+		final Object                 instance,
+		final BinaryFieldsAccessor   accessor,
+		final PersistenceLoadHandler handler
+	)
+	{
+		accessor.setFields(this.loadItemEntityContentAddress(), instance, handler);
+	}
 
 		
 	/**
@@ -0,0 +1,301 @@
+package one.microstream.persistence.binary.types;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+import static one.microstream.math.XMath.positive;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import one.microstream.persistence.binary.exceptions.BinaryPersistenceException;
+import one.microstream.persistence.binary.internal.AbstractBinaryHandlerCustomValue;
+import one.microstream.persistence.binary.internal.AbstractBinaryHandlerReflective;
+import one.microstream.persistence.types.PersistenceTypeHandler;
+
+/**
+ * Strategy type to distribute the building (state initialization) of loaded instances
+ * across multiple threads.
+ * <p>
+ * Building an instance via {@link PersistenceTypeHandler#initializeState} or
+ * {@link PersistenceTypeHandler#updateState} is independent of all other instances for type handlers that
+ * only set the state of the instance itself (e.g. reflective handlers and value handlers). For large load
+ * requests (e.g. loading all instances of a set of types), the build items handled by such type handlers
+ * can be partitioned and built concurrently. All other build items as well as the completion of all
+ * instances are still processed by the loading thread in their original order.
+ * <p>
+ * Note that by default, no parallelization is done at all, see {@link #Serial()}.
+ */
+public interface BinaryBuildParallelizer
+{
+	/**
+	 * Returns the number of partitions the build items handled by parallel buildable type handlers shall be
+	 * split into for the passed total number of build items. A value of 1 or lower means serial building.
+	 *
+	 * @param buildItemCount the total number of build items of the current load process.
+	 * @return the number of partitions to be built concurrently.
+	 */
+	public int partitionCount(long buildItemCount);
+
+	/**
+	 * Queries whether instances of the type handled by the passed type handler can be built
+	 * concurrently with the instances of all other types, i.e. whether the type handler's
+	 * state initialization only affects the passed instance itself and only reads
+	 * the passed {@link one.microstream.persistence.types.PersistenceLoadHandler}.
+	 *
+	 * @param typeHandler the type handler to be queried.
+	 * @return whether the type handler's instances are parallel buildable.
+	 */
+	public boolean isParallelBuildable(PersistenceTypeHandler<Binary, ?> typeHandler);
+
+	/**
+	 * Executes all passed tasks and waits for all of them to terminate.
+	 * If any task throws an exception, it is rethrown after all tasks have terminated.
+	 *
+	 * @param tasks the tasks to be executed.
+	 */
+	public void executeAll(Runnable[] tasks);
+
+
+
+	/**
+	 * Creates a {@link BinaryBuildParallelizer} that never parallelizes the building of instances.
+	 * This is the default.
+	 *
+	 * @return a serial {@link BinaryBuildParallelizer}.
+	 */
+	public static BinaryBuildParallelizer Serial()
+	{
+		return new BinaryBuildParallelizer.Serial();
+	}
+
+	/**
+	 * Pseudo-constructor method to create a new {@link BinaryBuildParallelizer} instance using
+	 * the common {@link ForkJoinPool}, a parallelism equal to the number of available processors
+	 * and a default threshold.
+	 *
+	 * @return a new {@link BinaryBuildParallelizer} instance.
+	 */
+	public static BinaryBuildParallelizer New()
+	{
+		return New(
+			ForkJoinPool.commonPool(),
+			Runtime.getRuntime().availableProcessors(),
+			Defaults.defaultThreshold()
+		);
+	}
+
+	/**
+	 * Pseudo-constructor method to create a new {@link BinaryBuildParallelizer} instance.
+	 *
+	 * @param executor the executor to run the build partitions.
+	 * @param parallelism the maximum number of partitions to be built concurrently.
+	 * @param threshold the minimum number of build items per partition.
+	 *        Load requests with fewer build items are built serially.
+	 * @return a new {@link BinaryBuildParallelizer} instance.
+	 */
+	public static BinaryBuildParallelizer New(
+		final Executor executor   ,
+		final int      parallelism,
+		final int      threshold
+	)
+	{
+		return new BinaryBuildParallelizer.Default(
+			notNull(executor)   ,
+			positive(parallelism),
+			positive(threshold)
+		);
+	}
+
+
+
+	public interface Defaults
+	{
+		/**
+		 * The default minimum number of build items per partition.
+		 * Building a few thousand simple instances is faster than dispatching them to other threads.
+		 *
+		 * @return the default threshold.
+		 */
+		public static int defaultThreshold()
+		{
+			return 10_000;
+		}
+	}
+
+
+
+	public final class Serial implements BinaryBuildParallelizer
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+
+		Serial()
+		{
+			super();
+		}
+
+
+
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+
+		@Override
+		public final int partitionCount(final long buildItemCount)
+		{
+			return 1;
+		}
+
+		@Override
+		public final boolean isParallelBuildable(final PersistenceTypeHandler<Binary, ?> typeHandler)
+		{
+			return false;
+		}
+
+		@Override
+		public final void executeAll(final Runnable[] tasks)
+		{
+			for(final Runnable task : tasks)
+			{
+				task.run();
+			}
+		}
+
+	}
+
+
+
+	public class Default implements BinaryBuildParallelizer
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+
+		private final Executor executor   ;
+		private final int      parallelism;
+		private final int      threshold  ;
+
+
+
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+
+		protected Default(
+			final Executor executor   ,
+			final int      parallelism,
+			final int      threshold
+		)
+		{
+			super();
+			this.executor    = executor   ;
+			this.parallelism = parallelism;
+			this.threshold   = threshold  ;
+		}
+
+
+
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+
+		@Override
+		public int partitionCount(final long buildItemCount)
+		{
+			return (int)Math.max(1, Math.min(this.parallelism, buildItemCount / this.threshold));
+		}
+
+		@Override
+		public boolean isParallelBuildable(final PersistenceTypeHandler<Binary, ?> typeHandler)
+		{
+			/*
+			 * Reflective handlers only set the fields of the instance itself and value handlers
+			 * create their instances completely in #create, which is always done serially.
+			 * Custom handlers might do anything (register at managers, fill collections, etc.), so they
+			 * are not parallelized unless a subclass of this type decides otherwise.
+			 */
+			return typeHandler instanceof AbstractBinaryHandlerReflective
+				|| typeHandler instanceof AbstractBinaryHandlerCustomValue
+			;
+		}
+
+		@Override
+		public void executeAll(final Runnable[] tasks)
+		{
+			final CountDownLatch latch    = new CountDownLatch(tasks.length);
+			final Throwable[]    problems = new Throwable[tasks.length];
+
+			for(int i = 0; i < tasks.length; i++)
+			{
+				final int      index = i;
+				final Runnable task  = tasks[i];
+				this.executor.execute(() ->
+				{
+					try
+					{
+						task.run();
+					}
+					catch(final Throwable t)
+					{
+						problems[index] = t;
+					}
+					finally
+					{
+						latch.countDown();
+					}
+				});
+			}
+
+			try
+			{
+				latch.await();
+			}
+			catch(final InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new BinaryPersistenceException("Interrupted while building instances", e);
+			}
+
+			// the latch guarantees visibility of all problems and all built instances.
+			for(final Throwable problem : problems)
+			{
+				if(problem == null)
+				{
+					continue;
+				}
+				if(problem instanceof RuntimeException)
+				{
+					throw (RuntimeException)problem;
+				}
+				if(problem instanceof Error)
+				{
+					throw (Error)problem;
+				}
+				throw new BinaryPersistenceException("Exception while building instances", problem);
+			}
+		}
+
+	}
+
+}
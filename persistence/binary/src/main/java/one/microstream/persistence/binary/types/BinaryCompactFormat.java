@@ -0,0 +1,683 @@
+package one.microstream.persistence.binary.types;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import static one.microstream.X.notNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import one.microstream.bytes.VarByte;
+import one.microstream.collections.BulkList;
+import one.microstream.collections.HashTable;
+import one.microstream.collections.types.XGettingSequence;
+import one.microstream.memory.XMemory;
+import one.microstream.persistence.binary.exceptions.BinaryPersistenceException;
+import one.microstream.persistence.types.PersistenceTypeDescriptionMember;
+import one.microstream.persistence.types.PersistenceTypeDescriptionMemberFieldGenericComplex;
+import one.microstream.persistence.types.PersistenceTypeHandler;
+import one.microstream.persistence.types.PersistenceTypeHandlerLookup;
+
+/**
+ * Codec between the regular binary format of entities and a compact byte format for serialized entity data,
+ * see {@link one.microstream.persistence.binary.util.Serializer#CompactBytes()}.
+ * <p>
+ * The format only applies to the output of a serializer. It is not a storage format: the storage keeps writing
+ * the regular format to its data files, since it addresses entities in the files and in its cache by their fixed
+ * header offsets and its garbage collector reads references at fixed offsets. A compact format for data files
+ * would have to be supported by all of these parts and is not provided by this type.
+ * <p>
+ * The regular format uses fixed-length values to allow direct memory access: every entity carries a 24 byte
+ * header (length, TypeId, ObjectId), every reference is an 8 byte ObjectId and every list carries a 16 byte
+ * header (byte length, element count). For graphs of small entities, this is a considerable part of the data.
+ * The compact format encodes
+ * <ul>
+ * <li>the entity content length as a variable-length integer ("varint"),</li>
+ * <li>the TypeId and ObjectId as varint deltas to the preceding entity's TypeId and ObjectId,</li>
+ * <li>the references of an entity, including the ones in lists, as varint deltas to the entity's own ObjectId,</li>
+ * <li>list headers as varints of the element count and, for lists of primitive values, of the byte length.</li>
+ * </ul>
+ * Primitive values are kept as they are. The layout of a type's entities is derived from its type definition
+ * (like the storage's reference traversal) and written once along with the type's first entity, so reading
+ * the compact format requires no type information at all. Entities that do not match their type's layout,
+ * e.g. of types that are unknown when encoding, are kept as they are.
+ * <p>
+ * The compact format starts with a marker that can never be the start of the regular format,
+ * so {@link #toBinary(byte[])} reads both formats side by side.
+ */
+public interface BinaryCompactFormat
+{
+	/**
+	 * Encodes the passed entity data in the regular binary format into the compact format.
+	 *
+	 * @param data the entity data to be encoded.
+	 * @return the entity data in the compact format.
+	 */
+	public byte[] toBytes(Binary data);
+	
+	/**
+	 * Decodes the passed bytes into entity data in the regular binary format.
+	 * Bytes that are not in the compact format (see {@link #isCompact(byte[])}) are wrapped as they are.
+	 *
+	 * @param bytes the bytes in the compact or in the regular format.
+	 * @return the entity data in the regular binary format.
+	 */
+	public Binary toBinary(byte[] bytes);
+	
+	
+	
+	/**
+	 * Queries whether the passed bytes are in the compact format.
+	 *
+	 * @param bytes the bytes to be queried.
+	 * @return whether the passed bytes start with the marker of the compact format.
+	 */
+	public static boolean isCompact(final byte[] bytes)
+	{
+		if(bytes.length < Default.MARKER.length)
+		{
+			return false;
+		}
+		for(int i = 0; i < Default.MARKER.length; i++)
+		{
+			// the version is validated when decoding, so that unsupported versions are reported as such.
+			if(i != Default.MARKER_VERSION_INDEX && bytes[i] != Default.MARKER[i])
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Pseudo-constructor method to create a new {@link BinaryCompactFormat} instance.
+	 *
+	 * @param typeHandlerLookup the lookup to determine the layout of a type's entities when encoding.
+	 * @param switchByteOrder whether the entity data in the regular format has a byte order
+	 *        other than the native one.
+	 * @return a new {@link BinaryCompactFormat} instance.
+	 */
+	public static BinaryCompactFormat New(
+		final PersistenceTypeHandlerLookup<Binary> typeHandlerLookup,
+		final boolean                              switchByteOrder
+	)
+	{
+		return new BinaryCompactFormat.Default(
+			notNull(typeHandlerLookup),
+			switchByteOrder
+		);
+	}
+	
+	
+	
+	public final class Default implements BinaryCompactFormat
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// constants //
+		//////////////
+		
+		/*
+		 * The first and the last byte are negative, so read as an entity length in any byte order,
+		 * the marker is a negative value, which is impossible for the regular format.
+		 * The byte in between the name and the last byte is the format version.
+		 */
+		static final byte[] MARKER = {(byte)0xCB, 'M', 'S', 'C', 'B', 'F', 2, (byte)0xCB};
+		
+		static final int MARKER_VERSION_INDEX = 6;
+		
+		private static final int VARINT_PAYLOAD_BITS = 7   ;
+		private static final int VARINT_PAYLOAD_MASK = 0x7F;
+		private static final int VARINT_CONTINUATION = 0x80;
+		
+		// kinds of the parts of an entity layout
+		static final int
+			LAYOUT_END            = 0,
+			LAYOUT_REFERENCES     = 1,
+			LAYOUT_BYTES          = 2,
+			LAYOUT_PRIMITIVE_LIST = 3,
+			LAYOUT_COMPLEX_LIST   = 4
+		;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// static methods //
+		///////////////////
+		
+		static long zigZag(final long value)
+		{
+			return value << 1 ^ value >> Long.SIZE - 1;
+		}
+		
+		static long unZigZag(final long value)
+		{
+			return value >>> 1 ^ -(value & 1);
+		}
+		
+		static void writeVarLong(final VarByte target, final long value)
+		{
+			long v = value;
+			while((v & ~VARINT_PAYLOAD_MASK) != 0)
+			{
+				target.append((byte)(v & VARINT_PAYLOAD_MASK | VARINT_CONTINUATION));
+				v >>>= VARINT_PAYLOAD_BITS;
+			}
+			target.append((byte)v);
+		}
+		
+		static long readVarLong(final ByteBuffer source)
+		{
+			long value = 0;
+			for(int shift = 0; shift < Long.SIZE; shift += VARINT_PAYLOAD_BITS)
+			{
+				final byte b = source.get();
+				value |= (long)(b & VARINT_PAYLOAD_MASK) << shift;
+				if((b & VARINT_CONTINUATION) == 0)
+				{
+					return value;
+				}
+			}
+			
+			throw new BinaryPersistenceException("Invalid variable-length value at position " + source.position());
+		}
+		
+		static void copy(final ByteBuffer source, final int length, final VarByte target)
+		{
+			target.append(source.array(), source.arrayOffset() + source.position(), length);
+			source.position(source.position() + length);
+		}
+		
+		static void copy(final ByteBuffer source, final int length, final ByteBuffer target)
+		{
+			target.put(source.array(), source.arrayOffset() + source.position(), length);
+			source.position(source.position() + length);
+		}
+		
+		/**
+		 * Derives the layout of entities from the passed members in the same way as the reference traversal
+		 * of the storage (see {@link BinaryReferenceTraverser.Static#deriveReferenceTraversers}).
+		 * 
+		 * @param members the members of the type definition.
+		 * @return the derived layout, empty if the members cannot be represented.
+		 */
+		static Part[] deriveLayout(final XGettingSequence<? extends PersistenceTypeDescriptionMember> members)
+		{
+			final BulkList<Part> layout = BulkList.New();
+			
+			int references = 0, bytes = 0;
+			for(final PersistenceTypeDescriptionMember member : members)
+			{
+				if(member.isVariableLength() || !member.isReference())
+				{
+					references = Part.add(layout, LAYOUT_REFERENCES, references);
+				}
+				if(member.isVariableLength() || member.isReference())
+				{
+					bytes = Part.add(layout, LAYOUT_BYTES, bytes);
+				}
+				
+				if(member.isVariableLength())
+				{
+					if(member instanceof PersistenceTypeDescriptionMemberFieldGenericComplex)
+					{
+						final Part[] elementLayout = deriveLayout(
+							((PersistenceTypeDescriptionMemberFieldGenericComplex)member).members()
+						);
+						if(elementLayout.length == 0)
+						{
+							return Part.NONE;
+						}
+						layout.add(new Part(LAYOUT_COMPLEX_LIST, 0, elementLayout));
+					}
+					else if(member.hasReferences())
+					{
+						return Part.NONE;
+					}
+					else
+					{
+						// anything else like [byte] and [char] are lists of primitive values
+						layout.add(new Part(LAYOUT_PRIMITIVE_LIST, 0, null));
+					}
+				}
+				else if(member.isReference())
+				{
+					references++;
+				}
+				else
+				{
+					bytes += (int)member.persistentMinimumLength();
+				}
+			}
+			Part.add(layout, LAYOUT_REFERENCES, references);
+			Part.add(layout, LAYOUT_BYTES, bytes);
+			
+			return layout.toArray(Part.class);
+		}
+		
+		static void writeLayout(final VarByte target, final Part[] layout)
+		{
+			for(final Part part : layout)
+			{
+				writeVarLong(target, part.kind);
+				if(part.kind == LAYOUT_COMPLEX_LIST)
+				{
+					writeLayout(target, part.elementLayout);
+				}
+				else if(part.kind != LAYOUT_PRIMITIVE_LIST)
+				{
+					writeVarLong(target, part.length);
+				}
+			}
+			writeVarLong(target, LAYOUT_END);
+		}
+		
+		static Part[] readLayout(final ByteBuffer source)
+		{
+			final BulkList<Part> layout = BulkList.New();
+			for(int kind; (kind = (int)readVarLong(source)) != LAYOUT_END;)
+			{
+				switch(kind)
+				{
+					case LAYOUT_REFERENCES:
+					case LAYOUT_BYTES:
+					{
+						layout.add(new Part(kind, (int)readVarLong(source), null));
+						break;
+					}
+					case LAYOUT_PRIMITIVE_LIST:
+					{
+						layout.add(new Part(kind, 0, null));
+						break;
+					}
+					case LAYOUT_COMPLEX_LIST:
+					{
+						layout.add(new Part(kind, 0, readLayout(source)));
+						break;
+					}
+					default:
+					{
+						throw new BinaryPersistenceException(
+							"Invalid layout part " + kind + " at position " + source.position()
+						);
+					}
+				}
+			}
+			
+			return layout.toArray(Part.class);
+		}
+		
+		/**
+		 * Encodes the content of an entity according to its layout or only validates it if no target is passed.
+		 * 
+		 * @param layout the layout of the entity.
+		 * @param source the regular entity data, positioned at the content to be encoded.
+		 * @param bound the bound of the content to be encoded.
+		 * @param objectId the ObjectId of the entity.
+		 * @param target the target to encode to or <code>null</code> to only validate.
+		 * @return whether the content matches the layout.
+		 */
+		static boolean encode(
+			final Part[]     layout  ,
+			final ByteBuffer source  ,
+			final int        bound   ,
+			final long       objectId,
+			final VarByte    target
+		)
+		{
+			for(final Part part : layout)
+			{
+				final int remaining = bound - source.position();
+				switch(part.kind)
+				{
+					case LAYOUT_REFERENCES:
+					{
+						if(part.length > remaining / Binary.objectIdByteLength())
+						{
+							return false;
+						}
+						for(int i = 0; i < part.length; i++)
+						{
+							final long referenceId = source.getLong();
+							if(target != null)
+							{
+								// 0 is the null id, all other ids are shifted by one.
+								writeVarLong(target, referenceId == 0 ? 0 : zigZag(referenceId - objectId) + 1);
+							}
+						}
+						break;
+					}
+					case LAYOUT_BYTES:
+					{
+						if(part.length > remaining)
+						{
+							return false;
+						}
+						if(target != null)
+						{
+							copy(source, part.length, target);
+						}
+						else
+						{
+							source.position(source.position() + part.length);
+						}
+						break;
+					}
+					default:
+					{
+						if(remaining < Binary.binaryListMinimumLength())
+						{
+							return false;
+						}
+						
+						final int  listOffset    = source.position();
+						final long listLength    = source.getLong();
+						final long elementCount  = source.getLong();
+						final long contentLength = Binary.toBinaryListContentByteLength(listLength);
+						if(listLength > remaining || contentLength < 0 || elementCount < 0
+						|| part.kind == LAYOUT_COMPLEX_LIST && elementCount > contentLength
+						)
+						{
+							return false;
+						}
+						
+						final int listBound = listOffset + (int)listLength;
+						if(target != null)
+						{
+							writeVarLong(target, elementCount);
+						}
+						if(part.kind == LAYOUT_PRIMITIVE_LIST)
+						{
+							if(target != null)
+							{
+								writeVarLong(target, contentLength);
+								copy(source, (int)contentLength, target);
+							}
+							source.position(listBound);
+							break;
+						}
+						for(long i = 0; i < elementCount; i++)
+						{
+							if(!encode(part.elementLayout, source, listBound, objectId, target))
+							{
+								return false;
+							}
+						}
+						if(source.position() != listBound)
+						{
+							return false;
+						}
+					}
+				}
+			}
+			
+			return true;
+		}
+		
+		static void decode(final Part[] layout, final ByteBuffer source, final long objectId, final ByteBuffer target)
+		{
+			for(final Part part : layout)
+			{
+				switch(part.kind)
+				{
+					case LAYOUT_REFERENCES:
+					{
+						for(int i = 0; i < part.length; i++)
+						{
+							final long value = readVarLong(source);
+							target.putLong(value == 0 ? 0 : unZigZag(value - 1) + objectId);
+						}
+						break;
+					}
+					case LAYOUT_BYTES:
+					{
+						copy(source, part.length, target);
+						break;
+					}
+					case LAYOUT_PRIMITIVE_LIST:
+					{
+						final long elementCount  = readVarLong(source);
+						final long contentLength = readVarLong(source);
+						target.putLong(Binary.toBinaryListTotalByteLength(contentLength));
+						target.putLong(elementCount);
+						copy(source, (int)contentLength, target);
+						break;
+					}
+					default:
+					{
+						// the list length is only known after the elements have been decoded.
+						final int  listOffset   = target.position();
+						final long elementCount = readVarLong(source);
+						target.putLong(0);
+						target.putLong(elementCount);
+						for(long i = 0; i < elementCount; i++)
+						{
+							decode(part.elementLayout, source, objectId, target);
+						}
+						target.putLong(listOffset, target.position() - listOffset);
+					}
+				}
+			}
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private final PersistenceTypeHandlerLookup<Binary> typeHandlerLookup;
+		private final ByteOrder                            byteOrder        ;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		Default(
+			final PersistenceTypeHandlerLookup<Binary> typeHandlerLookup,
+			final boolean                              switchByteOrder
+		)
+		{
+			super();
+			this.typeHandlerLookup = typeHandlerLookup;
+			this.byteOrder         = switchByteOrder
+				? ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN
+				: ByteOrder.nativeOrder()
+			;
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		private Part[] layout(final long typeId)
+		{
+			final PersistenceTypeHandler<Binary, ?> typeHandler = this.typeHandlerLookup.lookupTypeHandler(typeId);
+			
+			// entities of unknown types are simply not compacted
+			return typeHandler == null
+				? Part.NONE
+				: deriveLayout(typeHandler.instanceMembers())
+			;
+		}
+		
+		@Override
+		public byte[] toBytes(final Binary data)
+		{
+			final byte[]     regular = XMemory.toArray(data.buffers());
+			final ByteBuffer source  = ByteBuffer.wrap(regular).order(this.byteOrder);
+			final VarByte    target  = VarByte.New(regular.length / 2 + MARKER.length);
+			
+			final HashTable<Long, Part[]> layouts = HashTable.New();
+			
+			target.append(MARKER);
+			writeVarLong(target, regular.length);
+			
+			long previousTypeId   = 0;
+			long previousObjectId = 0;
+			while(source.hasRemaining())
+			{
+				final int  entityOffset  = source.position();
+				final long contentLength = Binary.entityContentLength(source.getLong());
+				final long typeId        = source.getLong();
+				final long objectId      = source.getLong();
+				if(contentLength < 0 || contentLength > source.remaining())
+				{
+					throw new BinaryPersistenceException("Invalid entity length at position " + entityOffset);
+				}
+				
+				final int contentOffset = source.position();
+				final int contentBound  = contentOffset + (int)contentLength;
+				
+				Part[] layout = layouts.get(typeId);
+				final boolean firstOfType = layout == null;
+				if(firstOfType)
+				{
+					layouts.add(typeId, layout = this.layout(typeId));
+				}
+				
+				// content that does not match the layout, e.g. written by a custom handler, is kept as it is.
+				final boolean compact = encode(layout, source, contentBound, objectId, null)
+					&& source.position() == contentBound
+				;
+				source.position(contentOffset);
+				
+				writeVarLong(target, contentLength << 1 | (compact ? 1 : 0));
+				writeVarLong(target, zigZag(typeId - previousTypeId));
+				writeVarLong(target, zigZag(objectId - previousObjectId));
+				if(firstOfType)
+				{
+					writeLayout(target, layout);
+				}
+				
+				if(compact)
+				{
+					encode(layout, source, contentBound, objectId, target);
+				}
+				else
+				{
+					copy(source, (int)contentLength, target);
+				}
+				
+				previousTypeId   = typeId  ;
+				previousObjectId = objectId;
+			}
+			
+			return target.toByteArray();
+		}
+		
+		@Override
+		public Binary toBinary(final byte[] bytes)
+		{
+			if(!isCompact(bytes))
+			{
+				final ByteBuffer buffer = XMemory.allocateDirectNative(bytes.length);
+				buffer.put(bytes);
+				return ChunksWrapper.New(buffer);
+			}
+			if(bytes[MARKER_VERSION_INDEX] != MARKER[MARKER_VERSION_INDEX])
+			{
+				throw new BinaryPersistenceException(
+					"Unsupported compact format version " + bytes[MARKER_VERSION_INDEX]
+					+ ", supported is version " + MARKER[MARKER_VERSION_INDEX] + "."
+				);
+			}
+			
+			final ByteBuffer source = ByteBuffer.wrap(bytes, MARKER.length, bytes.length - MARKER.length);
+			final ByteBuffer target = XMemory.allocateDirectNative(readVarLong(source)).order(this.byteOrder);
+			
+			final HashTable<Long, Part[]> layouts = HashTable.New();
+			
+			long typeId   = 0;
+			long objectId = 0;
+			while(source.hasRemaining())
+			{
+				final long    lengthAndFlag = readVarLong(source);
+				final long    contentLength = lengthAndFlag >>> 1;
+				final boolean compact       = (lengthAndFlag & 1) != 0;
+				typeId   += unZigZag(readVarLong(source));
+				objectId += unZigZag(readVarLong(source));
+				
+				Part[] layout = layouts.get(typeId);
+				if(layout == null)
+				{
+					layouts.add(typeId, layout = readLayout(source));
+				}
+				
+				target.putLong(Binary.entityTotalLength(contentLength));
+				target.putLong(typeId);
+				target.putLong(objectId);
+				
+				if(compact)
+				{
+					decode(layout, source, objectId, target);
+				}
+				else
+				{
+					copy(source, (int)contentLength, target);
+				}
+			}
+			
+			// ChunksWrapper uses the position as the length of the data.
+			return ChunksWrapper.New(target.order(ByteOrder.nativeOrder()));
+		}
+		
+		
+		
+		/**
+		 * A part of the layout of an entity's content, see {@link Default#deriveLayout}.
+		 */
+		static final class Part
+		{
+			static final Part[] NONE = new Part[0];
+			
+			static int add(final BulkList<Part> layout, final int kind, final int length)
+			{
+				if(length != 0)
+				{
+					layout.add(new Part(kind, length, null));
+				}
+				
+				return 0;
+			}
+			
+			final int    kind         ;
+			final int    length       ;
+			final Part[] elementLayout;
+			
+			Part(final int kind, final int length, final Part[] elementLayout)
+			{
+				super();
+				this.kind          = kind         ;
+				this.length        = length       ;
+				this.elementLayout = elementLayout;
+			}
+			
+		}
+		
+	}
+	
+}
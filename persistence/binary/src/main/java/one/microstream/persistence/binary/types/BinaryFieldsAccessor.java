@@ -0,0 +1,58 @@
+package one.microstream.persistence.binary.types;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceStoreHandler;
+
+/**
+ * Type that copies all persistent field values of a fixed-length entity type at once,
+ * as an alternative to the per-field iteration over {@link BinaryValueStorer} and
+ * {@link BinaryValueSetter} instances.
+ * <p>
+ * Implementations are typically specialized for one particular type and are created at runtime.
+ *
+ * @see Binary#storeFixedSize(PersistenceStoreHandler, long, long, long, Object, BinaryFieldsAccessor)
+ * @see Binary#updateFixedSize(Object, BinaryFieldsAccessor, PersistenceLoadHandler)
+ */
+public interface BinaryFieldsAccessor
+{
+	/**
+	 * Copies all persistent field values from the passed instance to the binary form starting at
+	 * the passed absolute memory address, translating references to object ids via the passed handler.
+	 *
+	 * @param source the instance to read the field values from.
+	 * @param targetAddress the absolute memory address of the entity content.
+	 * @param handler the handler to translate references to object ids.
+	 */
+	public void storeFields(Object source, long targetAddress, PersistenceStoreHandler<Binary> handler);
+	
+	/**
+	 * Copies all persistent field values from the binary form starting at the passed absolute memory address
+	 * to the passed instance, resolving object ids via the passed handler.
+	 *
+	 * @param sourceAddress the absolute memory address of the entity content.
+	 * @param target the instance to set the field values to.
+	 * @param handler the handler to resolve object ids.
+	 */
+	public void setFields(long sourceAddress, Object target, PersistenceLoadHandler handler);
+	
+}
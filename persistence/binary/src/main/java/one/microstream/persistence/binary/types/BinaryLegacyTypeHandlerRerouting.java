@@ -98,15 +98,41 @@ extends AbstractBinaryLegacyTypeHandlerTranslating<T>
 	// methods //
 	////////////
 
+	@Override
+	public final boolean requiresReferencesForCreation()
+	{
+		return this.typeHandler() instanceof BinaryTypeHandler
+			&& ((BinaryTypeHandler<T>)this.typeHandler()).requiresReferencesForCreation()
+		;
+	}
+
 	@Override
 	public final void iterateLoadableReferences(final Binary rawData, final PersistenceReferenceLoader iterator)
 	{
+		// if the creation is deferred (see #requiresReferencesForCreation), the load data is not relayouted, yet.
+		this.ensureNewBinaryLayout(rawData);
 		rawData.iterateReferences(this.newBinaryLayoutReferenceTraversers, iterator);
 	}
 
 	@Override
 	protected T internalCreate(final Binary rawData, final PersistenceLoadHandler handler)
 	{
+		this.ensureNewBinaryLayout(rawData);
+
+		// the current type handler can now create a new instance with correctly rearranged raw values
+		final T instance = this.typeHandler().create(rawData, handler);
+
+		return instance;
+	}
+
+	private void ensureNewBinaryLayout(final Binary rawData)
+	{
+		// relayouting replaces the legacy type id by the current one, so it is done exactely once.
+		if(rawData.getBuildItemTypeId() == this.typeHandler().typeId())
+		{
+			return;
+		}
+
 		final long entityContentLength = this.typeHandler().membersPersistedLengthMaximum();
 
 		// kept and new header values
@@ -131,11 +157,6 @@ extends AbstractBinaryLegacyTypeHandlerTranslating<T>
 
 		// registered here to ensure deallocating raw memory at the end of the building process. Neither sooner nor later.
 		rawData.registerHelper(directByteBuffer, directByteBuffer);
-
-		// the current type handler can now create a new instance with correctly rearranged raw values
-		final T instance = this.typeHandler().create(rawData, handler);
-
-		return instance;
 	}
 
 	@Override
@@ -34,6 +34,7 @@ public class BinaryLoadItem extends Binary
 
 	PersistenceTypeHandler<Binary, Object> handler;
 	Object existingInstance, createdInstance;
+	boolean creationDeferred, built;
 	BinaryLoadItem next, link;
 
 
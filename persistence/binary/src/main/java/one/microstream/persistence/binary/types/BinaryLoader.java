@@ -24,6 +24,7 @@ import static one.microstream.X.notNull;
 
 import java.nio.ByteBuffer;
 import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 import org.slf4j.Logger;
 
@@ -73,6 +74,27 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 		final LoadItemsChain                       loadItems      ,
 		final boolean                              switchByteOrder
 	)
+	{
+		return New(
+			typeLookup,
+			registry,
+			persister,
+			sourceSupplier,
+			loadItems,
+			switchByteOrder,
+			BinaryBuildParallelizer.Serial()
+		);
+	}
+
+	public static BinaryLoader.Default New(
+		final PersistenceTypeHandlerLookup<Binary> typeLookup       ,
+		final PersistenceObjectRegistry            registry         ,
+		final Persister                            persister        ,
+		final PersistenceSourceSupplier<Binary>    sourceSupplier   ,
+		final LoadItemsChain                       loadItems        ,
+		final boolean                              switchByteOrder  ,
+		final BinaryBuildParallelizer              buildParallelizer
+	)
 	{
 		return new BinaryLoader.Default(
 			notNull(typeLookup),
@@ -80,7 +102,8 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 			notNull(persister),
 			notNull(sourceSupplier),
 			notNull(loadItems),
-			switchByteOrder
+			switchByteOrder,
+			notNull(buildParallelizer)
 		);
 	}
 
@@ -107,9 +130,13 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 		private final PersistenceSourceSupplier<Binary>    sourceSupplier   ;
 		private final LoadItemsChain                       loadItems        ;
 		private final boolean                              switchByteOrder  ;
+		private final BinaryBuildParallelizer              buildParallelizer;
 		
 		private final BulkList<XGettingCollection<? extends Binary>> anchor = new BulkList<>();
 		
+		// total length of all entity data read since the last clearing of the build items.
+		private long loadedLength;
+		
 		/* (17.10.2013 TM)XXX: refactor to builditems instance similar to ... idk storer or so.
 		 * Also, loadItems and buildItems could be combined to produce less memory waste and
 		 * maybe speed up loading.
@@ -132,21 +159,23 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 		/////////////////
 
 		Default(
-			final PersistenceTypeHandlerLookup<Binary> typeLookup     ,
-			final PersistenceObjectRegistry            objectRegistry ,
-			final Persister                            persister      ,
-			final PersistenceSourceSupplier<Binary>    sourceSupplier ,
-			final LoadItemsChain                       loadItems      ,
-			final boolean                              switchByteOrder
+			final PersistenceTypeHandlerLookup<Binary> typeLookup       ,
+			final PersistenceObjectRegistry            objectRegistry   ,
+			final Persister                            persister        ,
+			final PersistenceSourceSupplier<Binary>    sourceSupplier   ,
+			final LoadItemsChain                       loadItems        ,
+			final boolean                              switchByteOrder  ,
+			final BinaryBuildParallelizer              buildParallelizer
 		)
 		{
 			super();
-			this.typeHandlerLookup = typeLookup     ;
-			this.objectRegistry    = objectRegistry ;
-			this.persister         = persister      ;
-			this.sourceSupplier    = sourceSupplier ;
-			this.loadItems         = loadItems      ;
-			this.switchByteOrder   = switchByteOrder;
+			this.typeHandlerLookup = typeLookup       ;
+			this.objectRegistry    = objectRegistry   ;
+			this.persister         = persister        ;
+			this.sourceSupplier    = sourceSupplier   ;
+			this.loadItems         = loadItems        ;
+			this.switchByteOrder   = switchByteOrder  ;
+			this.buildParallelizer = buildParallelizer;
 		}
 
 
@@ -164,6 +193,8 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 		@Override
 		public void readBinaryEntities(final ByteBuffer entitiesData)
 		{
+			this.loadedLength += entitiesData.limit();
+			
 			if(this.switchByteOrder)
 			{
 				this.internalReadBinaryEntitiesByteReversing(entitiesData);
@@ -229,13 +260,68 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 			loadItem.handler = this.lookupTypeHandler(loadItem.getBuildItemTypeId());
 			if((loadItem.existingInstance = this.objectRegistry.lookupObject(loadItem.getBuildItemObjectId())) == null)
 			{
-				loadItem.createdInstance = loadItem.handler.create(loadItem, this);
+				if(requiresReferencesForCreation(loadItem.handler))
+				{
+					// created on demand once all referenced entities have been read, see #getEffectiveInstance
+					loadItem.creationDeferred = true;
+				}
+				else
+				{
+					loadItem.createdInstance = loadItem.handler.create(loadItem, this);
+				}
 			}
 			
 			// register build item
 			this.putBuildItem(loadItem);
 		}
 		
+		private static boolean requiresReferencesForCreation(final PersistenceTypeHandler<Binary, ?> typeHandler)
+		{
+			return typeHandler instanceof BinaryTypeHandler
+				&& ((BinaryTypeHandler<?>)typeHandler).requiresReferencesForCreation()
+			;
+		}
+		
+		private void createDeferredInstance(final BinaryLoadItem entry)
+		{
+			/*
+			 * Reset first, so that a cyclic lookup during the creation, which is impossible for immutable types
+			 * anyway, yields null instead of recursing endlessly.
+			 * Referenced instances requiring deferred creation themselves are created on demand when looked up.
+			 */
+			entry.creationDeferred = false;
+			
+			// the creation may use the referenced instances' state (e.g. the id of a zone), so they are built first.
+			entry.handler.iterateLoadableReferences(entry, new PersistenceReferenceLoader()
+			{
+				@Override
+				public void acceptObjectId(final long objectId)
+				{
+					Default.this.buildReferencedInstance(objectId);
+				}
+				
+				@Override
+				public void requireReferenceEager(final long objectId)
+				{
+					Default.this.buildReferencedInstance(objectId);
+				}
+			});
+			
+			entry.createdInstance = entry.handler.create(entry, this);
+		}
+		
+		private void buildReferencedInstance(final long objectId)
+		{
+			final BinaryLoadItem item = this.lookupLoadItem(objectId);
+			if(item == null || !item.hasData() || item.built)
+			{
+				return;
+			}
+			
+			logger.trace("Updating {} ahead of a referencing instance", item);
+			this.buildInstance(item, this.getEffectiveInstance(item));
+		}
+		
 		// CHECKSTYLE.OFF: FinalParameters: this method is just an outsourced scroll-helper
 		protected void handleAllReferences(BinaryLoadItem item)
 		{
@@ -323,6 +409,10 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 			{
 				return entry.existingInstance;
 			}
+			if(entry.creationDeferred)
+			{
+				this.createDeferredInstance(entry);
+			}
 			if(entry.createdInstance == null)
 			{
 				return null;
@@ -415,6 +505,13 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 
 		private void buildInstances()
 		{
+			final int partitionCount = this.buildParallelizer.partitionCount(this.buildItemsSize);
+			if(partitionCount > 1)
+			{
+				this.buildInstancesParallel();
+				return;
+			}
+			
 			for(BinaryLoadItem entry = this.buildItemsHead.next; entry != null; entry = entry.next)
 			{
 				// dummy-buildItems for skipping (filtering) OIDs don't have data and can and may not update anything.
@@ -466,19 +563,7 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 				logger.trace("Updating {}", entry);
 //				XDebug.println("Updating " + entry);
 				
-				// (26.08.2019 TM)NOTE: paradigm change: #create may return null. Required for handling deleted enums.
-				final Object effectiveInstance = this.getEffectiveInstance(entry);
-				if(effectiveInstance != null)
-				{
-					if(effectiveInstance == entry.createdInstance)
-					{
-						entry.handler.initializeState(entry, effectiveInstance, this);
-					}
-					else
-					{
-						entry.handler.updateState(entry, effectiveInstance, this);
-					}
-				}
+				this.buildInstance(entry, this.getEffectiveInstance(entry));
 				
 				// (26.08.2019 TM)NOTE: old version
 //				entry.handler.update(
@@ -488,6 +573,83 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 //				);
 			}
 		}
+		
+		private void buildInstance(final BinaryLoadItem entry, final Object effectiveInstance)
+		{
+			// instances referenced by deferred creations are built ahead, see #createDeferredInstance
+			if(entry.built)
+			{
+				return;
+			}
+			entry.built = true;
+			
+			// (26.08.2019 TM)NOTE: paradigm change: #create may return null. Required for handling deleted enums.
+			if(effectiveInstance == null)
+			{
+				return;
+			}
+			
+			if(effectiveInstance == entry.createdInstance)
+			{
+				entry.handler.initializeState(entry, effectiveInstance, this);
+			}
+			else
+			{
+				entry.handler.updateState(entry, effectiveInstance, this);
+			}
+		}
+		
+		private void buildInstancesParallel()
+		{
+			/*
+			 * Step 1: Determine the effective instances of ALL build items in the loading thread, in order.
+			 * This is the only part that registers instances in the object registry and modifies build items
+			 * (see #getEffectiveInstance). Afterwards, looking up build instances (e.g. for references) is
+			 * read-only and can safely be done by multiple threads concurrently.
+			 * Items whose type handler is not parallel buildable are built right away, exactely like in serial
+			 * building, since their building logic might affect the object registry (e.g. registering constants).
+			 */
+			final BinaryLoadItem[] parallelItems = new BinaryLoadItem[this.buildItemsSize];
+			int parallelItemCount = 0;
+			for(BinaryLoadItem entry = this.buildItemsHead.next; entry != null; entry = entry.next)
+			{
+				if(!entry.hasData())
+				{
+					continue;
+				}
+				
+				final Object effectiveInstance = this.getEffectiveInstance(entry);
+				if(effectiveInstance != null && this.buildParallelizer.isParallelBuildable(entry.handler))
+				{
+					parallelItems[parallelItemCount++] = entry;
+				}
+				else
+				{
+					logger.trace("Updating {}", entry);
+					this.buildInstance(entry, effectiveInstance);
+				}
+			}
+			
+			// Step 2: build the collected items concurrently in contiguous partitions.
+			final int        itemCount      = parallelItemCount;
+			final int        partitionCount = this.buildParallelizer.partitionCount(itemCount);
+			final Runnable[] partitions     = new Runnable[partitionCount];
+			for(int p = 0; p < partitionCount; p++)
+			{
+				final int startIndex = (int)((long)itemCount *  p      / partitionCount);
+				final int boundIndex = (int)((long)itemCount * (p + 1) / partitionCount);
+				partitions[p] = () ->
+				{
+					for(int i = startIndex; i < boundIndex; i++)
+					{
+						this.buildInstance(parallelItems[i], parallelItems[i].existingInstance);
+					}
+				};
+			}
+			
+			logger.debug("Building {} instances in {} partitions", itemCount, partitionCount);
+			this.buildParallelizer.executeAll(partitions);
+		}
 
 		private void completeInstances()
 		{
@@ -725,6 +887,7 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 			}
 			
 			this.buildItemsSize = 0;
+			this.loadedLength   = 0;
 			this.anchor.clear(); // release helper anchor to allow the chunks to be collected
 		}
 
@@ -876,6 +1039,23 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 				return instance;
 			}
 		}
+		
+		@Override
+		public final Object getObject(final long objectId, final LongConsumer loadedLengthReceiver)
+		{
+			synchronized(this.objectRegistry)
+			{
+				this.requireReference(objectId);
+				this.readLoadOidData();
+				this.build();
+				final Object instance     = this.getBuildInstance(objectId);
+				final long   loadedLength = this.loadedLength;
+				this.clearBuildItems();
+				loadedLengthReceiver.accept(loadedLength);
+				
+				return instance;
+			}
+		}
 
 		@Override
 		public final <C extends Consumer<Object>> C collect(final C collector, final long... objectIds)
@@ -942,7 +1122,8 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 		// instance fields //
 		////////////////////
 		
-		private final boolean switchByteOrder;
+		private final boolean                 switchByteOrder  ;
+		private final BinaryBuildParallelizer buildParallelizer;
 		
 		
 		
@@ -951,9 +1132,18 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 		/////////////////
 		
 		CreatorSimple(final boolean switchByteOrder)
+		{
+			this(switchByteOrder, BinaryBuildParallelizer.Serial());
+		}
+		
+		public CreatorSimple(
+			final boolean                 switchByteOrder  ,
+			final BinaryBuildParallelizer buildParallelizer
+		)
 		{
 			super();
-			this.switchByteOrder = switchByteOrder;
+			this.switchByteOrder   = switchByteOrder           ;
+			this.buildParallelizer = notNull(buildParallelizer);
 		}
 
 
@@ -976,7 +1166,8 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 				persister,
 				source,
 				new LoadItemsChain.Simple(),
-				this.switchByteOrder
+				this.switchByteOrder,
+				this.buildParallelizer
 			);
 		}
 
@@ -992,6 +1183,7 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 
 		private final boolean                    switchByteOrder     ;
 		private final BinaryChannelCountProvider channelCountProvider;
+		private final BinaryBuildParallelizer    buildParallelizer   ;
 
 
 
@@ -1003,10 +1195,20 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 			final BinaryChannelCountProvider channelCountProvider,
 			final boolean                    switchByteOrder
 		)
+		{
+			this(channelCountProvider, switchByteOrder, BinaryBuildParallelizer.Serial());
+		}
+
+		public CreatorChannelHashing(
+			final BinaryChannelCountProvider channelCountProvider,
+			final boolean                    switchByteOrder     ,
+			final BinaryBuildParallelizer    buildParallelizer
+		)
 		{
 			super();
-			this.switchByteOrder      = switchByteOrder     ;
-			this.channelCountProvider = channelCountProvider;
+			this.switchByteOrder      = switchByteOrder           ;
+			this.channelCountProvider = channelCountProvider      ;
+			this.buildParallelizer    = notNull(buildParallelizer);
 		}
 
 
@@ -1029,7 +1231,8 @@ public interface BinaryLoader extends PersistenceLoader, PersistenceLoadHandler
 				persister,
 				sourceSupplier,
 				new LoadItemsChain.ChannelHashing(this.channelCountProvider.getChannelCount()),
-				this.switchByteOrder
+				this.switchByteOrder,
+				this.buildParallelizer
 			);
 		}
 
@@ -58,6 +58,9 @@ import one.microstream.persistence.binary.java.lang.BinaryHandlerShort;
 import one.microstream.persistence.binary.java.lang.BinaryHandlerString;
 import one.microstream.persistence.binary.java.lang.BinaryHandlerStringBuffer;
 import one.microstream.persistence.binary.java.lang.BinaryHandlerStringBuilder;
+import one.microstream.persistence.binary.java.lang.BinaryLegacyTypeHandlerString;
+import one.microstream.persistence.binary.java.lang.BinaryLegacyTypeHandlerStringBuffer;
+import one.microstream.persistence.binary.java.lang.BinaryLegacyTypeHandlerStringBuilder;
 import one.microstream.persistence.binary.java.lang.BinaryHandlerVoid;
 import one.microstream.persistence.binary.java.math.BinaryHandlerBigDecimal;
 import one.microstream.persistence.binary.java.math.BinaryHandlerBigInteger;
@@ -71,7 +74,26 @@ import one.microstream.persistence.binary.java.nio.file.BinaryHandlerPath;
 import one.microstream.persistence.binary.java.sql.BinaryHandlerSqlDate;
 import one.microstream.persistence.binary.java.sql.BinaryHandlerSqlTime;
 import one.microstream.persistence.binary.java.sql.BinaryHandlerSqlTimestamp;
+import one.microstream.persistence.binary.java.time.BinaryHandlerDuration;
+import one.microstream.persistence.binary.java.time.BinaryHandlerInstant;
+import one.microstream.persistence.binary.java.time.BinaryHandlerLocalDate;
+import one.microstream.persistence.binary.java.time.BinaryHandlerLocalDateTime;
+import one.microstream.persistence.binary.java.time.BinaryHandlerLocalTime;
+import one.microstream.persistence.binary.java.time.BinaryHandlerMonthDay;
+import one.microstream.persistence.binary.java.time.BinaryHandlerOffsetDateTime;
+import one.microstream.persistence.binary.java.time.BinaryHandlerOffsetTime;
+import one.microstream.persistence.binary.java.time.BinaryHandlerPeriod;
+import one.microstream.persistence.binary.java.time.BinaryHandlerYear;
+import one.microstream.persistence.binary.java.time.BinaryHandlerYearMonth;
 import one.microstream.persistence.binary.java.time.BinaryHandlerZoneOffset;
+import one.microstream.persistence.binary.java.time.BinaryHandlerZonedDateTime;
+import one.microstream.persistence.binary.java.time.BinaryLegacyTypeHandlerDurationAndroid;
+import one.microstream.persistence.binary.java.time.BinaryLegacyTypeHandlerInstantAndroid;
+import one.microstream.persistence.binary.java.time.BinaryLegacyTypeHandlerLocalDateTime;
+import one.microstream.persistence.binary.java.time.BinaryLegacyTypeHandlerOffsetDateTime;
+import one.microstream.persistence.binary.java.time.BinaryLegacyTypeHandlerOffsetTime;
+import one.microstream.persistence.binary.java.time.BinaryLegacyTypeHandlerZonedDateTime;
+import one.microstream.persistence.binary.java.time.BinaryLegacyTypeHandlerZonedDateTimeAndroid;
 import one.microstream.persistence.binary.java.util.BinaryHandlerArrayDeque;
 import one.microstream.persistence.binary.java.util.BinaryHandlerArrayList;
 import one.microstream.persistence.binary.java.util.BinaryHandlerCopyOnWriteArrayList;
@@ -94,6 +116,7 @@ import one.microstream.persistence.binary.java.util.BinaryHandlerProperties;
 import one.microstream.persistence.binary.java.util.BinaryHandlerStack;
 import one.microstream.persistence.binary.java.util.BinaryHandlerTreeMap;
 import one.microstream.persistence.binary.java.util.BinaryHandlerTreeSet;
+import one.microstream.persistence.binary.java.util.BinaryHandlerUUID;
 import one.microstream.persistence.binary.java.util.BinaryHandlerVector;
 import one.microstream.persistence.binary.java.util.BinaryHandlerWeakHashMap;
 import one.microstream.persistence.binary.java.util.concurrent.BinaryHandlerConcurrentHashMap;
@@ -116,12 +139,15 @@ import one.microstream.persistence.binary.one.microstream.collections.BinaryHand
 import one.microstream.persistence.binary.one.microstream.collections.BinaryHandlerHashTable;
 import one.microstream.persistence.binary.one.microstream.collections.BinaryHandlerLimitList;
 import one.microstream.persistence.binary.one.microstream.collections.BinaryHandlerSingleton;
+import one.microstream.persistence.binary.one.microstream.collections.lazy.BinaryHandlerLazyArrayList;
+import one.microstream.persistence.binary.one.microstream.collections.lazy.BinaryHandlerLazyHashMap;
 import one.microstream.persistence.binary.one.microstream.reference.BinaryHandlerLazyDefault;
 import one.microstream.persistence.binary.one.microstream.util.BinaryHandlerSubstituterDefault;
 import one.microstream.persistence.internal.PersistenceTypeDictionaryFileHandler;
 import one.microstream.persistence.types.Persistence;
 import one.microstream.persistence.types.PersistenceCustomTypeHandlerRegistry;
 import one.microstream.persistence.types.PersistenceFunction;
+import one.microstream.persistence.types.PersistenceLegacyTypeHandler;
 import one.microstream.persistence.types.PersistenceSizedArrayLengthController;
 import one.microstream.persistence.types.PersistenceTypeDictionary;
 import one.microstream.persistence.types.PersistenceTypeHandler;
@@ -173,10 +199,36 @@ public final class BinaryPersistence extends Persistence
 			.registerTypeHandlers(defaultCustomHandlers(controller))
 			.registerTypeHandlers(customHandlers)
 		;
+		defaultCustomTypeHandlerRegistry.registerLegacyTypeHandlers(createDefaultLegacyTypeHandlers());
 
 		return defaultCustomTypeHandlerRegistry;
 	}
 
+	public static final XGettingSequence<? extends PersistenceLegacyTypeHandler<Binary, ?>> createDefaultLegacyTypeHandlers()
+	{
+		/*
+		 * Types that were handled generically before dedicated type handlers were introduced and whose
+		 * generic layout cannot be mapped to the current one automatically (references instead of values).
+		 * All other formerly generically handled types are mapped by the generic legacy type mapping.
+		 */
+		return ConstList.New(
+			BinaryLegacyTypeHandlerLocalDateTime.New()       ,
+			BinaryLegacyTypeHandlerOffsetTime.New()          ,
+			BinaryLegacyTypeHandlerOffsetDateTime.New()      ,
+			BinaryLegacyTypeHandlerZonedDateTime.New()       ,
+
+			// layouts of the former separate Android type handlers, so that their data can be loaded on any platform.
+			BinaryLegacyTypeHandlerDurationAndroid.New()     ,
+			BinaryLegacyTypeHandlerInstantAndroid.New()      ,
+			BinaryLegacyTypeHandlerZonedDateTimeAndroid.New(),
+
+			// former native UTF-16 layouts of the types now persisted in the compact string layout.
+			BinaryLegacyTypeHandlerString.New()              ,
+			BinaryLegacyTypeHandlerStringBuffer.New()        ,
+			BinaryLegacyTypeHandlerStringBuilder.New()
+		);
+	}
+
 	static final void initializeNativeTypeId(
 		final PersistenceTypeHandler<Binary, ?> typeHandler       ,
 		final PersistenceTypeIdLookup           nativeTypeIdLookup
@@ -220,10 +272,6 @@ public final class BinaryPersistence extends Persistence
 			BinaryHandlerVoid.New()     ,
 			BinaryHandlerObject.New()   ,
 
-			BinaryHandlerString.New()       ,
-			BinaryHandlerStringBuffer.New() ,
-			BinaryHandlerStringBuilder.New(),
-
 			BinaryHandlerNativeArray_byte.New()   ,
 			BinaryHandlerNativeArray_boolean.New(),
 			BinaryHandlerNativeArray_short.New()  ,
@@ -253,7 +301,21 @@ public final class BinaryPersistence extends Persistence
 			BinaryHandlerURI.New(),
 			BinaryHandlerURL.New(),
 
-			BinaryHandlerZoneOffset.New(),
+			BinaryHandlerZoneOffset.New()    ,
+			BinaryHandlerInstant.New()       ,
+			BinaryHandlerDuration.New()      ,
+			BinaryHandlerPeriod.New()        ,
+			BinaryHandlerYear.New()          ,
+			BinaryHandlerYearMonth.New()     ,
+			BinaryHandlerMonthDay.New()      ,
+			BinaryHandlerLocalDate.New()     ,
+			BinaryHandlerLocalTime.New()     ,
+			BinaryHandlerLocalDateTime.New() ,
+			BinaryHandlerOffsetTime.New()    ,
+			BinaryHandlerOffsetDateTime.New(),
+			BinaryHandlerZonedDateTime.New() ,
+
+			BinaryHandlerUUID.New(),
 
 			// non-sensical handlers required for confused developers
 			BinaryHandlerSqlDate.New()     ,
@@ -380,7 +442,14 @@ public final class BinaryPersistence extends Persistence
 			BinaryHandlerEqHashTable.New()          ,
 			BinaryHandlerEqConstHashTable.New()     ,
 			BinaryHandlerSingleton.New()            ,
-			BinaryHandlerSubstituterDefault.New()
+			BinaryHandlerSubstituterDefault.New()   ,
+			BinaryHandlerLazyArrayList.New()        ,
+			BinaryHandlerLazyHashMap.New()          ,
+
+			// compact string layouts, the former native layouts are mapped by legacy type handlers.
+			BinaryHandlerString.New()               ,
+			BinaryHandlerStringBuffer.New()         ,
+			BinaryHandlerStringBuilder.New()
 			/* (29.10.2013 TM)TODO: more MicroStream default custom handlers
 			 * - VarString
 			 * - VarByte
@@ -25,6 +25,7 @@ import one.microstream.collections.EqHashTable;
 import one.microstream.collections.types.XEnum;
 import one.microstream.collections.types.XTable;
 import one.microstream.persistence.binary.one.microstream.persistence.types.BinaryRootReferenceProvider;
+import one.microstream.persistence.index.IndexRegistry;
 import one.microstream.persistence.types.PersistenceCustomTypeHandlerRegistry;
 import one.microstream.persistence.types.PersistenceCustomTypeHandlerRegistryEnsurer;
 import one.microstream.persistence.types.PersistenceFoundation;
@@ -54,6 +55,10 @@ extends PersistenceFoundation<Binary, F>
 	public BinaryValueTranslatorMappingProvider getValueTranslatorMappingProvider();
 	
 	public BinaryValueTranslatorProvider getValueTranslatorProvider();
+	
+	public IndexRegistry getIndexRegistry();
+	
+	public BinaryBuildParallelizer getBuildParallelizer();
 			
 	
 	
@@ -73,6 +78,26 @@ extends PersistenceFoundation<Binary, F>
 		BinaryValueTranslatorMappingProvider valueTranslatorMappingProvider
 	);
 	
+	public F setIndexRegistry(
+		IndexRegistry indexRegistry
+	);
+	
+	/**
+	 * Sets the {@link BinaryBuildParallelizer} used by the default loader creator to build loaded instances,
+	 * see {@link #getBuilderCreator()}. By default, loaded instances are built serially,
+	 * see {@link BinaryBuildParallelizer#Serial()}.
+	 * <p>
+	 * Note that setting a custom loader creator via {@link #setBuilderCreator} replaces the default one,
+	 * so the passed instance is not used in that case.
+	 * 
+	 * @param buildParallelizer the {@link BinaryBuildParallelizer} to be used.
+	 * 
+	 * @return {@literal this} to allow method chaining.
+	 */
+	public F setBuildParallelizer(
+		BinaryBuildParallelizer buildParallelizer
+	);
+	
 	@Override
 	public PersistenceManager<Binary> createPersistenceManager();
 
@@ -95,6 +120,8 @@ extends PersistenceFoundation<Binary, F>
 		private XEnum<BinaryValueTranslatorKeyBuilder> translatorKeyBuilders  ;
 		private BinaryValueTranslatorMappingProvider   valueTranslatorMapping ;
 		private BinaryValueTranslatorProvider          valueTranslatorProvider;
+		private IndexRegistry                          indexRegistry          ;
+		private BinaryBuildParallelizer                buildParallelizer      ;
 		
 		
 		
@@ -169,6 +196,28 @@ extends PersistenceFoundation<Binary, F>
 			return this.valueTranslatorProvider;
 		}
 		
+		@Override
+		public IndexRegistry getIndexRegistry()
+		{
+			if(this.indexRegistry == null)
+			{
+				this.indexRegistry = this.dispatch(this.ensureIndexRegistry());
+			}
+			
+			return this.indexRegistry;
+		}
+		
+		@Override
+		public BinaryBuildParallelizer getBuildParallelizer()
+		{
+			if(this.buildParallelizer == null)
+			{
+				this.buildParallelizer = this.dispatch(this.ensureBuildParallelizer());
+			}
+			
+			return this.buildParallelizer;
+		}
+		
 		
 		
 		///////////////////////////////////////////////////////////////////////////
@@ -203,6 +252,20 @@ extends PersistenceFoundation<Binary, F>
 			return this.$();
 		}
 		
+		@Override
+		public F setIndexRegistry(final IndexRegistry indexRegistry)
+		{
+			this.indexRegistry = indexRegistry;
+			return this.$();
+		}
+		
+		@Override
+		public F setBuildParallelizer(final BinaryBuildParallelizer buildParallelizer)
+		{
+			this.buildParallelizer = buildParallelizer;
+			return this.$();
+		}
+		
 	
 
 		///////////////////////////////////////////////////////////////////////////
@@ -214,6 +277,7 @@ extends PersistenceFoundation<Binary, F>
 		{
 			return BinaryStorer.Creator(
 				() -> 1,
+				this.getIndexRegistry(),
 				this.isByteOrderMismatch()
 			);
 		}
@@ -222,7 +286,8 @@ extends PersistenceFoundation<Binary, F>
 		protected BinaryLoader.Creator ensureBuilderCreator()
 		{
 			return new BinaryLoader.CreatorSimple(
-				this.isByteOrderMismatch()
+				this.isByteOrderMismatch(),
+				this.getBuildParallelizer()
 			);
 		}
 
@@ -321,6 +386,16 @@ extends PersistenceFoundation<Binary, F>
 			);
 		}
 		
+		protected IndexRegistry ensureIndexRegistry()
+		{
+			return IndexRegistry.New();
+		}
+		
+		protected BinaryBuildParallelizer ensureBuildParallelizer()
+		{
+			return BinaryBuildParallelizer.Serial();
+		}
+		
 	}
 
 }
@@ -29,8 +29,10 @@ import static one.microstream.util.logging.Logging.LazyArgInContext;
 
 import org.slf4j.Logger;
 
+import one.microstream.collections.BulkList;
 import one.microstream.hashing.XHashing;
 import one.microstream.math.XMath;
+import one.microstream.persistence.index.IndexRegistry;
 import one.microstream.persistence.types.PersistenceAcceptor;
 import one.microstream.persistence.types.PersistenceEagerStoringFieldEvaluator;
 import one.microstream.persistence.types.PersistenceLocalObjectIdRegistry;
@@ -108,6 +110,7 @@ public interface BinaryStorer extends PersistenceStorer
 		private final ObjectSwizzling                       objectRetriever;
 		private final PersistenceTypeHandlerManager<Binary> typeManager    ;
 		private final PersistenceTarget<Binary>             target         ;
+		private final IndexRegistry                         indexRegistry  ;
 		
 		// channel hashing fields
 		private final BufferSizeProviderIncremental bufferSizeProvider;
@@ -134,6 +137,9 @@ public interface BinaryStorer extends PersistenceStorer
 		private Item[] hashSlots;
 		private int    hashRange;
 		private long   itemCount;
+		
+		// actions to be executed after a successful commit, see #registerCommitAction
+		private BulkList<Runnable> commitActions;
 
 		/*
 		 * item hashing structures get initialized lazily for the following reasons:
@@ -154,6 +160,7 @@ public interface BinaryStorer extends PersistenceStorer
 			final PersistenceTypeHandlerManager<Binary> typeManager       ,
 			final PersistenceTarget<Binary>             target            ,
 			final BufferSizeProviderIncremental         bufferSizeProvider,
+			final IndexRegistry                         indexRegistry     ,
 			final int                                   channelCount      ,
 			final boolean                               switchByteOrder
 		)
@@ -164,6 +171,7 @@ public interface BinaryStorer extends PersistenceStorer
 			this.typeManager        = notNull(typeManager)       ;
 			this.target             = notNull(target)            ;
 			this.bufferSizeProvider = notNull(bufferSizeProvider);
+			this.indexRegistry      = notNull(indexRegistry)     ;
 			this.chunksHashRange    =         channelCount - 1   ;
 			this.switchByteOrder    =         switchByteOrder    ;
 			
@@ -269,6 +277,8 @@ public interface BinaryStorer extends PersistenceStorer
 				// initializing/clearing item chain
 				(this.tail = this.head).next = null;
 				
+				this.commitActions = BulkList.New();
+				
 				this.synchCreateStoringChunksBuffers();
 			}
 		}
@@ -460,6 +470,27 @@ public interface BinaryStorer extends PersistenceStorer
 			}
 		}
 
+		/**
+		 * Discards the data written so far and stores all items handled by this storer again,
+		 * e.g. because their state has been changed during the commit.
+		 */
+		protected final void restoreItems()
+		{
+			synchronized(this.head)
+			{
+				this.synchCreateStoringChunksBuffers();
+			}
+			
+			// items added while storing again are processed by the same iteration.
+			for(Item item = this.head.next; item != null; item = item.next)
+			{
+				if(!isSkipItem(item))
+				{
+					this.storeItem(item);
+				}
+			}
+		}
+
 		@Override
 		public final long store(final Object root)
 		{
@@ -519,6 +550,13 @@ public interface BinaryStorer extends PersistenceStorer
 				// must validate here, too, in case the WriteController disabled writing during the storer's existence.
 				this.target.validateIsStoringEnabled();
 				
+				// index changes caused by the stored entities are stored as part of the same commit.
+				if(this.indexRegistry.update(this, this))
+				{
+					// an updated index has already been written with its outdated state by this storer.
+					this.restoreItems();
+				}
+				
 				final Binary writeData;
 				synchronized(this.head)
 				{
@@ -535,6 +573,8 @@ public interface BinaryStorer extends PersistenceStorer
 					this.typeManager.clearStorePendingRoots();
 					this.objectManager.mergeEntries(this);
 				}
+				
+				this.commitActions.iterate(Runnable::run);
 			}
 			this.clear();
 			
@@ -544,6 +584,15 @@ public interface BinaryStorer extends PersistenceStorer
 			return null;
 		}
 		
+		@Override
+		public final void registerCommitAction(final Runnable action)
+		{
+			synchronized(this.head)
+			{
+				this.commitActions.add(notNull(action));
+			}
+		}
+		
 		public final long lookupOid(final Object object)
 		{
 			synchronized(this.head)
@@ -794,6 +843,7 @@ public interface BinaryStorer extends PersistenceStorer
 			final PersistenceTypeHandlerManager<Binary> typeManager       ,
 			final PersistenceTarget<Binary>             target            ,
 			final BufferSizeProviderIncremental         bufferSizeProvider,
+			final IndexRegistry                         indexRegistry     ,
 			final int                                   channelCount      ,
 			final boolean                               switchByteOrder
 		)
@@ -804,6 +854,7 @@ public interface BinaryStorer extends PersistenceStorer
 				typeManager       ,
 				target            ,
 				bufferSizeProvider,
+				indexRegistry     ,
 				channelCount      ,
 				switchByteOrder
 			);
@@ -872,9 +923,19 @@ public interface BinaryStorer extends PersistenceStorer
 		final BinaryChannelCountProvider channelCountProvider,
 		final boolean                    switchByteOrder
 	)
+	{
+		return Creator(channelCountProvider, IndexRegistry.New(), switchByteOrder);
+	}
+	
+	public static BinaryStorer.Creator Creator(
+		final BinaryChannelCountProvider channelCountProvider,
+		final IndexRegistry              indexRegistry       ,
+		final boolean                    switchByteOrder
+	)
 	{
 		return new BinaryStorer.Creator.Default(
 			notNull(channelCountProvider),
+			notNull(indexRegistry)       ,
 			        switchByteOrder
 		);
 	}
@@ -921,6 +982,7 @@ public interface BinaryStorer extends PersistenceStorer
 
 
 			private final BinaryChannelCountProvider channelCountProvider;
+			private final IndexRegistry              indexRegistry       ;
 			private final boolean                    switchByteOrder     ;
 
 
@@ -931,11 +993,13 @@ public interface BinaryStorer extends PersistenceStorer
 
 			protected Abstract(
 				final BinaryChannelCountProvider channelCountProvider,
+				final IndexRegistry              indexRegistry       ,
 				final boolean                    switchByteOrder
 			)
 			{
 				super();
 				this.channelCountProvider = channelCountProvider;
+				this.indexRegistry        = indexRegistry       ;
 				this.switchByteOrder      = switchByteOrder     ;
 			}
 
@@ -950,6 +1014,11 @@ public interface BinaryStorer extends PersistenceStorer
 				return this.channelCountProvider.getChannelCount();
 			}
 			
+			protected IndexRegistry indexRegistry()
+			{
+				return this.indexRegistry;
+			}
+			
 			protected boolean switchByteOrder()
 			{
 				return this.switchByteOrder;
@@ -961,10 +1030,11 @@ public interface BinaryStorer extends PersistenceStorer
 		{
 			Default(
 				final BinaryChannelCountProvider channelCountProvider,
+				final IndexRegistry              indexRegistry       ,
 				final boolean                    switchByteOrder
 			)
 			{
-				super(channelCountProvider, switchByteOrder);
+				super(channelCountProvider, indexRegistry, switchByteOrder);
 			}
 
 			@Override
@@ -984,6 +1054,7 @@ public interface BinaryStorer extends PersistenceStorer
 					typeManager           ,
 					target                ,
 					bufferSizeProvider    ,
+					this.indexRegistry()  ,
 					this.channelCount()   ,
 					this.switchByteOrder()
 				);
@@ -1008,6 +1079,7 @@ public interface BinaryStorer extends PersistenceStorer
 					typeManager           ,
 					target                ,
 					bufferSizeProvider    ,
+					this.indexRegistry()  ,
 					this.channelCount()   ,
 					this.switchByteOrder()
 				);
@@ -22,6 +22,8 @@ package one.microstream.persistence.binary.types;
 
 import java.lang.reflect.Field;
 
+import one.microstream.persistence.types.PersistenceLoadHandler;
+import one.microstream.persistence.types.PersistenceReferenceLoader;
 import one.microstream.persistence.types.PersistenceTypeDefinitionMemberFieldReflective;
 import one.microstream.persistence.types.PersistenceTypeHandler;
 import one.microstream.reflect.XReflect;
@@ -34,6 +36,26 @@ public interface BinaryTypeHandler<T> extends PersistenceTypeHandler<Binary, T>
 		return Binary.class;
 	}
 	
+	/**
+	 * Defines whether instances of the handled type can only be created with their referenced instances, e.g.
+	 * for immutable types like records that get all of their component values passed to their constructor.
+	 * <p>
+	 * For such handlers, the loader defers calling {@link #create(Binary, PersistenceLoadHandler)} until all
+	 * referenced entities of the loading process have been read, so that the referenced instances can be
+	 * resolved via {@link PersistenceLoadHandler#lookupObject(long)}. The references have to be registered
+	 * by {@link #iterateLoadableReferences(Binary, PersistenceReferenceLoader)} as usual.
+	 * <p>
+	 * The referenced instances are built before, so their state can be used for the creation. Referenced instances
+	 * that require deferred creation themselves are created first. Consequently, such instances must not reference
+	 * each other in a cycle, which is impossible for immutable types anyway.
+	 * 
+	 * @return whether creating instances requires the referenced instances.
+	 */
+	public default boolean requiresReferencesForCreation()
+	{
+		return false;
+	}
+	
 	public abstract class Abstract<T>
 	extends PersistenceTypeHandler.Abstract<Binary, T>
 	implements BinaryTypeHandler<T>
@@ -41,6 +41,7 @@ import one.microstream.persistence.binary.internal.BinaryHandlerGenericType;
 import one.microstream.persistence.binary.internal.BinaryHandlerStateless;
 import one.microstream.persistence.binary.internal.BinaryHandlerUnpersistable;
 import one.microstream.persistence.binary.java.lang.BinaryHandlerNativeArrayObject;
+import one.microstream.persistence.binary.java.lang.BinaryHandlerRecord;
 import one.microstream.persistence.binary.java.util.BinaryHandlerGenericCollection;
 import one.microstream.persistence.binary.java.util.BinaryHandlerGenericList;
 import one.microstream.persistence.binary.java.util.BinaryHandlerGenericMap;
@@ -60,6 +61,7 @@ import one.microstream.persistence.types.PersistenceTypeHandlerManager;
 import one.microstream.persistence.types.PersistenceTypeInstantiatorProvider;
 import one.microstream.persistence.types.PersistenceTypeResolver;
 import one.microstream.reference.Referencing;
+import one.microstream.reflect.XReflect;
 
 
 public interface BinaryTypeHandlerCreator extends PersistenceTypeHandlerCreator<Binary>
@@ -132,7 +134,7 @@ public interface BinaryTypeHandlerCreator extends PersistenceTypeHandlerCreator<
 		// constructors //
 		/////////////////
 
-		Default(
+		protected Default(
 			final PersistenceTypeAnalyzer                              typeAnalyzer              ,
 			final PersistenceTypeResolver                              typeResolver              ,
 			final PersistenceFieldLengthResolver                       lengthResolver            ,
@@ -150,6 +152,22 @@ public interface BinaryTypeHandlerCreator extends PersistenceTypeHandlerCreator<
 
 
 
+		///////////////////////////////////////////////////////////////////////////
+		// getters //
+		////////////
+		
+		protected final PersistenceTypeInstantiatorProvider<Binary> instantiatorProvider()
+		{
+			return this.instantiatorProvider;
+		}
+		
+		protected final boolean isSwitchByteOrder()
+		{
+			return this.switchByteOrder;
+		}
+
+
+
 		///////////////////////////////////////////////////////////////////////////
 		// methods //
 		////////////
@@ -253,6 +271,12 @@ public interface BinaryTypeHandlerCreator extends PersistenceTypeHandlerCreator<
 				return this.internalCreateTypeHandlerGenericStateless(type);
 			}
 
+			if(XReflect.isRecord(type))
+			{
+				// the final fields of records cannot be set via memory access, so they are created via their constructor
+				return BinaryHandlerRecord.New(type, this.deriveTypeName(type));
+			}
+
 			// default implementation simply always uses a blank memory instantiator
 			return BinaryHandlerGenericType.New(
 				type,
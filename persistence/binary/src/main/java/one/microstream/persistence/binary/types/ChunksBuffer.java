@@ -197,6 +197,7 @@ public class ChunksBuffer extends Binary implements MemoryRangeReader
 			buffers[i] = null;
 		}
 		this.setCurrent(buffers[this.currentBuffersIndex = 0]);
+		this.totalLength = 0;
 	}
 
 	/**
@@ -316,6 +317,20 @@ public class ChunksBuffer extends Binary implements MemoryRangeReader
 	{
 		return this.totalLength;
 	}
+	
+	/**
+	 * Returns the length of all data stored so far, including the data in the current, not yet
+	 * completed buffer.
+	 * 
+	 * @return the length of all stored data
+	 */
+	public final long storedLength()
+	{
+		return this.currentBuffer == null
+			? this.totalLength
+			: this.totalLength + this.currentAddress - this.currentBufferStartAddress
+		;
+	}
 
 	@Override
 	public final long loadItemEntityContentAddress()
@@ -0,0 +1,543 @@
+package one.microstream.persistence.binary.util;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+import one.microstream.collections.BulkList;
+import one.microstream.collections.types.XGettingCollection;
+import one.microstream.exceptions.IORuntimeException;
+import one.microstream.memory.XMemory;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.BinaryCompactFormat;
+import one.microstream.persistence.binary.types.ChunksWrapper;
+import one.microstream.persistence.types.PersistenceContextDispatcher;
+import one.microstream.persistence.types.PersistenceLoader;
+import one.microstream.persistence.types.PersistenceManager;
+import one.microstream.persistence.types.PersistenceObjectRegistry;
+import one.microstream.persistence.types.PersistenceSource;
+import one.microstream.persistence.types.PersistenceSourceSupplier;
+import one.microstream.persistence.types.PersistenceStorer;
+import one.microstream.persistence.types.Persister;
+
+/**
+ * A thread-safe {@link Serializer} that can be used by any number of threads concurrently without locking.
+ * <p>
+ * Every thread using an instance gets its own storer, loader and buffers, which are reused for all subsequent calls
+ * of that thread. So apart from the serialized instances and the medium instances, hardly any garbage is produced
+ * for a warm set of types.
+ * <p>
+ * Additionally, instances can be serialized directly into a {@link ByteBuffer} or an {@link OutputStream} and
+ * deserialized from a {@link ByteBuffer}. These methods always use the byte format of {@link Serializer#Bytes()}.
+ *
+ * @param <M> the medium type
+ */
+public interface ConcurrentSerializer<M> extends Serializer<M>
+{
+	/**
+	 * Serializes the given object graph into the passed buffer, starting at its current position.
+	 * If the buffer has not enough space remaining, nothing is written.
+	 *
+	 * @param object the graph's root
+	 * @param target the buffer to write to
+	 * @return the number of written bytes
+	 * @throws BufferOverflowException if the buffer has not enough space remaining
+	 */
+	public int serialize(Object object, ByteBuffer target);
+	
+	/**
+	 * Serializes the given object graph into the passed stream.
+	 *
+	 * @param object the graph's root
+	 * @param target the stream to write to
+	 * @return the number of written bytes
+	 * @throws IORuntimeException if writing to the stream fails
+	 */
+	public long serialize(Object object, OutputStream target);
+	
+	/**
+	 * Recreates an object graph based on the remaining bytes of the passed buffer.
+	 * The buffer's position is advanced to its limit.
+	 *
+	 * @param <T> the object's type
+	 * @param source the buffer to read from
+	 * @return the deserialized object graph
+	 */
+	public <T> T deserialize(ByteBuffer source);
+	
+	
+	
+	public static ConcurrentSerializer<byte[]> Bytes()
+	{
+		return Bytes(SerializerFoundation.New());
+	}
+	
+	public static ConcurrentSerializer<byte[]> Bytes(final SerializerFoundation<?> foundation)
+	{
+		// no conversion functions means to use the reusable buffers directly.
+		return new ConcurrentSerializer.Default<>(notNull(foundation), null, null);
+	}
+	
+	public static ConcurrentSerializer<byte[]> CompactBytes()
+	{
+		return CompactBytes(SerializerFoundation.New());
+	}
+	
+	public static ConcurrentSerializer<byte[]> CompactBytes(final SerializerFoundation<?> foundation)
+	{
+		final BinaryCompactFormat format = BinaryCompactFormat.New(
+			foundation.getTypeHandlerManager(),
+			foundation.isByteOrderMismatch()
+		);
+		
+		return New(
+			foundation     ,
+			format::toBytes,
+			format::toBinary
+		);
+	}
+	
+	/**
+	 * Creates a new {@link ConcurrentSerializer} for the passed medium conversion functions.
+	 * <p>
+	 * Note that the {@link Binary} instance passed to the <code>toMedium</code> function is only valid during the
+	 * function call, since its buffers are reused afterwards. So the function must copy its content.
+	 *
+	 * @param <M> the medium type
+	 * @param foundation the foundation to be used
+	 * @param toMedium the function converting serialized data into the medium type
+	 * @param toBinary the function converting the medium type into data to be deserialized
+	 * @return a new concurrent serializer
+	 */
+	public static <M> ConcurrentSerializer<M> New(
+		final SerializerFoundation<?> foundation,
+		final Function<Binary, M>     toMedium  ,
+		final Function<M, Binary>     toBinary
+	)
+	{
+		return new ConcurrentSerializer.Default<>(
+			notNull(foundation),
+			notNull(toMedium  ),
+			notNull(toBinary  )
+		);
+	}
+	
+	
+	
+	public static class Default<M> implements ConcurrentSerializer<M>
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// constants //
+		//////////////
+		
+		// size of the array used to transfer bytes from direct buffers to streams
+		static final int TRANSFER_BUFFER_SIZE = 8192;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private final SerializerFoundation<?>    foundation        ;
+		private final Function<Binary, M>        toMedium          ; // null means byte[] in the default format
+		private final Function<M, Binary>        toBinary          ; // null means byte[] in the default format
+		private final PersistenceManager<Binary> persistenceManager;
+		private final Persister                  persister         ;
+		private final ThreadLocal<Worker>        workers           ;
+		private final BulkList<Worker>           allWorkers        ;
+		private       boolean                    closed            ;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		Default(
+			final SerializerFoundation<?> foundation,
+			final Function<Binary, M>     toMedium  ,
+			final Function<M, Binary>     toBinary
+		)
+		{
+			super();
+			this.foundation = foundation;
+			this.toMedium   = toMedium  ;
+			this.toBinary   = toBinary  ;
+			this.workers    = new ThreadLocal<>();
+			this.allWorkers = BulkList.New();
+			
+			// initializes the type handling and all shared parts of the foundation before any concurrent use.
+			final Source source = () -> {
+				throw new UnsupportedOperationException();
+			};
+			final Target target = data -> {
+				throw new UnsupportedOperationException();
+			};
+			this.persistenceManager = foundation.createPersistenceManager(source, target);
+			this.persister = foundation.getPersister() != null
+				? foundation.getPersister()
+				: this.persistenceManager
+			;
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		private Worker worker()
+		{
+			final Worker worker = this.workers.get();
+			if(worker != null && !worker.closed)
+			{
+				return worker;
+			}
+			
+			return this.createWorker();
+		}
+		
+		private synchronized Worker createWorker()
+		{
+			if(this.closed)
+			{
+				throw new IllegalStateException("Serializer is closed");
+			}
+			
+			final Worker worker = new Worker(this.foundation, this.persister);
+			this.workers.set(worker);
+			this.allWorkers.add(worker);
+			
+			return worker;
+		}
+		
+		@SuppressWarnings("unchecked") // the worker's medium is produced by this instance's toMedium
+		@Override
+		public M serialize(final Object object)
+		{
+			final Worker worker = this.worker();
+			worker.toMedium = this.toMedium != null
+				? this.toMedium
+				: this::toBytes
+			;
+			worker.serialize(object);
+			
+			return (M)worker.consumeMedium();
+		}
+		
+		@SuppressWarnings("unchecked") // M is byte[] if no conversion function is present
+		private M toBytes(final Binary data)
+		{
+			return (M)Serializer.Static.toBytes(data);
+		}
+		
+		@Override
+		public int serialize(final Object object, final ByteBuffer target)
+		{
+			final Worker worker = this.worker();
+			worker.targetBuffer = notNull(target);
+			worker.serialize(object);
+			
+			return (int)worker.consumeLength();
+		}
+		
+		@Override
+		public long serialize(final Object object, final OutputStream target)
+		{
+			final Worker worker = this.worker();
+			worker.targetStream = notNull(target);
+			worker.serialize(object);
+			
+			return worker.consumeLength();
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		public <T> T deserialize(final M data)
+		{
+			final Worker worker = this.worker();
+			
+			return this.toBinary != null
+				? (T)worker.deserialize(this.toBinary.apply(data))
+				: (T)worker.deserialize((byte[])data)
+			;
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		public <T> T deserialize(final ByteBuffer source)
+		{
+			return (T)this.worker().deserialize(source);
+		}
+		
+		@Override
+		public synchronized void close()
+		{
+			if(this.closed)
+			{
+				return;
+			}
+			
+			// workers still in use by other threads are only discarded after their current call.
+			for(final Worker worker : this.allWorkers)
+			{
+				worker.closed = true;
+			}
+			this.allWorkers.clear();
+			this.workers.remove();
+			
+			this.persistenceManager.objectRegistry().truncateAll();
+			this.persistenceManager.close();
+			this.closed = true;
+		}
+		
+		
+		
+		static final class Worker implements Serializer.Target, Serializer.Source, PersistenceSourceSupplier<Binary>
+		{
+			///////////////////////////////////////////////////////////////////////////
+			// instance fields //
+			////////////////////
+			
+			private final PersistenceStorer                 storer        ;
+			private final PersistenceLoader                 loader        ;
+			private final PersistenceObjectRegistry         loaderRegistry;
+			private final BulkList<Binary>                  inputs        ;
+			private final byte[]                            transfer      ;
+			private       ByteBuffer                        inputBuffer   ;
+			
+			// the output of the current call, exactly one of them is set.
+			private       Function<Binary, ?>               toMedium      ;
+			private       ByteBuffer                        targetBuffer  ;
+			private       OutputStream                      targetStream  ;
+			private       Object                            medium        ;
+			private       long                              length        ;
+			
+			volatile boolean closed;
+			
+			
+			
+			///////////////////////////////////////////////////////////////////////////
+			// constructors //
+			/////////////////
+			
+			Worker(final SerializerFoundation<?> foundation, final Persister persister)
+			{
+				super();
+				final PersistenceContextDispatcher<Binary> dispatcher = foundation.getContextDispatcher();
+				
+				this.storer = new Serializer.Default.SerializerStorer(
+					dispatcher.dispatchObjectManager(foundation.getObjectManager()),
+					persister                                                      ,
+					foundation.getTypeHandlerManager()                             ,
+					this                                                           ,
+					foundation.getBufferSizeProvider()                             ,
+					foundation.isByteOrderMismatch()                               ,
+					true
+				);
+				this.loaderRegistry = dispatcher.dispatchObjectRegistry(foundation.getObjectRegistry());
+				this.loader         = foundation.getBuilderCreator().createLoader(
+					dispatcher.dispatchTypeHandlerLookup(foundation.getTypeHandlerManager()),
+					this.loaderRegistry,
+					persister          ,
+					this
+				);
+				this.inputs   = BulkList.New(1);
+				this.transfer = new byte[TRANSFER_BUFFER_SIZE];
+			}
+			
+			
+			
+			///////////////////////////////////////////////////////////////////////////
+			// methods //
+			////////////
+			
+			final void serialize(final Object object)
+			{
+				try
+				{
+					this.storer.store(object);
+					this.storer.commit();
+				}
+				catch(final RuntimeException e)
+				{
+					// discard partial state to keep the worker usable
+					this.storer.clear();
+					throw e;
+				}
+				finally
+				{
+					this.toMedium     = null;
+					this.targetBuffer = null;
+					this.targetStream = null;
+				}
+			}
+			
+			final Object consumeMedium()
+			{
+				final Object medium = this.medium;
+				this.medium = null;
+				
+				return medium;
+			}
+			
+			final long consumeLength()
+			{
+				final long length = this.length;
+				this.length = 0;
+				
+				return length;
+			}
+			
+			@Override
+			public void write(final Binary data)
+			{
+				// called by the storer's commit, before its buffers are cleared for reuse.
+				if(this.toMedium != null)
+				{
+					this.medium = this.toMedium.apply(data);
+				}
+				else if(this.targetBuffer != null)
+				{
+					this.length = writeTo(data, this.targetBuffer);
+				}
+				else
+				{
+					this.length = this.writeTo(data, this.targetStream);
+				}
+			}
+			
+			private static long writeTo(final Binary data, final ByteBuffer target)
+			{
+				final long length = data.totalLength();
+				if(length > target.remaining())
+				{
+					throw new BufferOverflowException();
+				}
+				for(final ByteBuffer buffer : data.buffers())
+				{
+					target.put(buffer);
+				}
+				
+				return length;
+			}
+			
+			private long writeTo(final Binary data, final OutputStream target)
+			{
+				final byte[] transfer = this.transfer;
+				long length = 0;
+				try
+				{
+					for(final ByteBuffer buffer : data.buffers())
+					{
+						while(buffer.hasRemaining())
+						{
+							final int count = Math.min(buffer.remaining(), transfer.length);
+							buffer.get(transfer, 0, count);
+							target.write(transfer, 0, count);
+							length += count;
+						}
+					}
+				}
+				catch(final IOException e)
+				{
+					throw new IORuntimeException(e);
+				}
+				
+				return length;
+			}
+			
+			private ByteBuffer ensureInputBuffer(final int length)
+			{
+				if(this.inputBuffer == null || this.inputBuffer.capacity() < length)
+				{
+					if(this.inputBuffer != null)
+					{
+						XMemory.deallocateDirectByteBuffer(this.inputBuffer);
+					}
+					this.inputBuffer = XMemory.allocateDirectNative(Math.max(length, TRANSFER_BUFFER_SIZE));
+				}
+				this.inputBuffer.clear();
+				
+				return this.inputBuffer;
+			}
+			
+			final Object deserialize(final byte[] bytes)
+			{
+				final ByteBuffer buffer = this.ensureInputBuffer(bytes.length);
+				buffer.put(bytes).flip();
+				
+				return this.deserialize(ChunksWrapper.New(buffer));
+			}
+			
+			final Object deserialize(final ByteBuffer source)
+			{
+				final ByteBuffer buffer = this.ensureInputBuffer(source.remaining());
+				buffer.put(source).flip();
+				
+				return this.deserialize(ChunksWrapper.New(buffer));
+			}
+			
+			final Object deserialize(final Binary data)
+			{
+				this.inputs.add(data);
+				try
+				{
+					return this.loader.get();
+				}
+				finally
+				{
+					// all instances of this call are released, only the constants remain.
+					this.inputs.clear();
+					this.loaderRegistry.clear();
+				}
+			}
+			
+			@Override
+			public XGettingCollection<? extends Binary> read()
+			{
+				return this.inputs;
+			}
+			
+			@Override
+			public PersistenceSource<Binary> source()
+			{
+				return this;
+			}
+			
+			@Override
+			public Object getObject(final long objectId)
+			{
+				throw new UnsupportedOperationException("Lazy references cannot be deserialized");
+			}
+			
+		}
+		
+	}
+	
+}
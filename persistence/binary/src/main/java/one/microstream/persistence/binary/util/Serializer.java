@@ -31,6 +31,7 @@ import one.microstream.collections.types.XGettingCollection;
 import one.microstream.hashing.XHashing;
 import one.microstream.memory.XMemory;
 import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.BinaryCompactFormat;
 import one.microstream.persistence.binary.types.BinaryStorer;
 import one.microstream.persistence.binary.types.ChunksBuffer;
 import one.microstream.persistence.binary.types.ChunksBufferByteReversing;
@@ -107,6 +108,36 @@ public interface Serializer<M> extends AutoCloseable
 		);
 	}
 	
+	public static Serializer<byte[]> CompactBytes()
+	{
+		return CompactBytes(SerializerFoundation.New());
+	}
+	
+	/**
+	 * Creates a serializer using the compact byte format of {@link BinaryCompactFormat}, which encodes
+	 * entity headers, references and list headers with variable length. Deserializing accepts both the compact format
+	 * and the regular format of {@link #Bytes(SerializerFoundation)}.
+	 * <p>
+	 * Note that the compact format only applies to the bytes created by this serializer,
+	 * it is not used for the data files of a storage.
+	 * 
+	 * @param foundation the foundation to be used
+	 * @return a new compact bytes serializer
+	 */
+	public static Serializer<byte[]> CompactBytes(final SerializerFoundation<?> foundation)
+	{
+		final BinaryCompactFormat format = BinaryCompactFormat.New(
+			foundation.getTypeHandlerManager(),
+			foundation.isByteOrderMismatch()
+		);
+		
+		return New(
+			foundation     ,
+			format::toBytes,
+			format::toBinary
+		);
+	}
+	
 	public static <M> Serializer<M> New(
 		final Function<Binary, M> toMedium,
 		final Function<M, Binary> toBinary
@@ -321,6 +352,9 @@ public interface Serializer<M> extends AutoCloseable
 			
 			private final BufferSizeProviderIncremental bufferSizeProvider;
 			
+			// whether the target consumes written data right away, so buffers and slots can be reused.
+			private final boolean reuseBuffers;
+			
 			private ChunksBuffer[] chunks;
 
 			final   Item                    head = new Item(null, 0L, null, null);
@@ -335,6 +369,27 @@ public interface Serializer<M> extends AutoCloseable
 				final BufferSizeProviderIncremental         bufferSizeProvider,
 				final boolean                               switchByteOrder
 			)
+			{
+				this(
+					objectManager     ,
+					objectRetriever   ,
+					typeManager       ,
+					target            ,
+					bufferSizeProvider,
+					switchByteOrder   ,
+					false
+				);
+			}
+			
+			SerializerStorer(
+				final PersistenceObjectManager<Binary>      objectManager     ,
+				final ObjectSwizzling                       objectRetriever   ,
+				final PersistenceTypeHandlerManager<Binary> typeManager       ,
+				final PersistenceTarget<Binary>             target            ,
+				final BufferSizeProviderIncremental         bufferSizeProvider,
+				final boolean                               switchByteOrder   ,
+				final boolean                               reuseBuffers
+			)
 			{
 				super();
 				this.objectManager      = notNull(objectManager)     ;
@@ -343,6 +398,7 @@ public interface Serializer<M> extends AutoCloseable
 				this.target             = notNull(target)            ;
 				this.bufferSizeProvider = notNull(bufferSizeProvider);
 				this.switchByteOrder    =         switchByteOrder    ;
+				this.reuseBuffers       =         reuseBuffers       ;
 				
 				this.defaultInitialize();
 			}
@@ -410,10 +466,18 @@ public interface Serializer<M> extends AutoCloseable
 
 			protected void internalInitialize(final int hashLength)
 			{
-				this.hashSlots = HashTable.NewCustom(hashLength);
-				
 				// initializing/clearing item chain
 				(this.tail = this.head).next = null;
+				
+				// tables grown by a big graph are not reused to keep clearing them cheap.
+				if(this.reuseBuffers && this.hashSlots != null && this.hashSlots.size() <= hashLength)
+				{
+					this.hashSlots.clear();
+					this.chunks[0].clear();
+					return;
+				}
+				
+				this.hashSlots = HashTable.NewCustom(hashLength);
 
 				final ChunksBuffer[] chunks = this.chunks = new ChunksBuffer[1];
 				chunks[0] = this.switchByteOrder
@@ -516,10 +580,39 @@ public interface Serializer<M> extends AutoCloseable
 				for(Item item = this.tail; item != null; item = item.next)
 				{
 					item.typeHandler.store(this.chunks[0], item.instance, item.oid, this);
+					this.afterEntityStored(this.chunks[0]);
 				}
 
 				return rootOid;
 			}
+			
+			/**
+			 * Callback after each entity has been written to the passed buffer while traversing a graph.
+			 * Does nothing by default.
+			 * 
+			 * @param chunk the buffer the entity has been written to
+			 */
+			protected void afterEntityStored(final ChunksBuffer chunk)
+			{
+				// no-op by default
+			}
+			
+			/**
+			 * Writes all entities stored so far to the target and clears the buffer while keeping the
+			 * registered instances, so that the current graph can be continued with a bounded buffer.
+			 * This requires the target to consume the written data right away.
+			 */
+			protected final void flushEntities()
+			{
+				if(this.chunks[0].storedLength() == 0)
+				{
+					return;
+				}
+				
+				this.target.validateIsStoringEnabled();
+				this.target.write(this.chunks[0].complete());
+				this.chunks[0].clear();
+			}
 
 			@Override
 			public final long store(final Object root)
@@ -0,0 +1,530 @@
+package one.microstream.persistence.binary.util;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+import static one.microstream.math.XMath.positive;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import one.microstream.X;
+import one.microstream.collections.BulkList;
+import one.microstream.exceptions.IORuntimeException;
+import one.microstream.memory.XMemory;
+import one.microstream.persistence.binary.exceptions.BinaryPersistenceException;
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.BinaryEntityDataReader;
+import one.microstream.persistence.binary.types.ChunksBuffer;
+import one.microstream.persistence.binary.types.ChunksWrapper;
+import one.microstream.persistence.binary.util.Serializer.Default.SerializerStorer;
+import one.microstream.persistence.types.PersistenceContextDispatcher;
+import one.microstream.persistence.types.PersistenceManager;
+import one.microstream.persistence.types.PersistenceObjectManager;
+import one.microstream.persistence.types.PersistenceTarget;
+import one.microstream.persistence.types.PersistenceTypeHandlerManager;
+import one.microstream.persistence.types.Persister;
+import one.microstream.reference.ObjectSwizzling;
+import one.microstream.util.BufferSizeProviderIncremental;
+
+/**
+ * A serializer that writes object graphs to a {@link WritableByteChannel} and reads them from a
+ * {@link ReadableByteChannel} in frames, instead of assembling the complete serialized graph in memory first.
+ * <p>
+ * While a graph is traversed, the stored entities are written out each time the buffered data exceeds the
+ * flush threshold, so the buffer size is bounded by the threshold plus the size of the biggest entity.
+ * Type information, as provided by the foundation's {@link SerializerTypeInfoStrategy}, is written in between
+ * the entities whenever new types have been encountered.
+ * <p>
+ * When reading, instances are created while their frames arrive. Since entities may reference entities of later
+ * frames, the references are resolved after the last frame, so the read entity data is held until then.
+ * <p>
+ * A stream consists of frames with a header of one byte for the frame kind and eight bytes for the payload length,
+ * followed by the payload: type descriptions as UTF-8 text, entity data or nothing for the final frame.
+ */
+public interface StreamingSerializer extends Closeable
+{
+	/**
+	 * Serializes the passed object graph to the passed channel.
+	 * 
+	 * @param object the graph's root
+	 * @param target the channel to write to
+	 * @return the number of written bytes
+	 * @throws IORuntimeException if writing to the channel fails
+	 */
+	public long serialize(Object object, WritableByteChannel target);
+	
+	/**
+	 * Reads an object graph from the passed channel. Exactly the bytes of one serialized graph are read.
+	 * 
+	 * @param <T> the object's type
+	 * @param source the channel to read from
+	 * @return the deserialized object graph
+	 * @throws IORuntimeException if reading from the channel fails or the channel ends prematurely
+	 */
+	public <T> T deserialize(ReadableByteChannel source);
+	
+	@Override
+	public void close();
+	
+	
+	
+	public static StreamingSerializer New()
+	{
+		return New(SerializerFoundation.New());
+	}
+	
+	public static StreamingSerializer New(final SerializerFoundation<?> foundation)
+	{
+		return New(foundation, Defaults.defaultFlushThreshold());
+	}
+	
+	/**
+	 * Creates a new {@link StreamingSerializer}.
+	 * 
+	 * @param foundation the foundation to be used
+	 * @param flushThreshold the buffered length in bytes at which stored entities are written to the channel
+	 * @return a new streaming serializer
+	 */
+	public static StreamingSerializer New(
+		final SerializerFoundation<?> foundation    ,
+		final long                    flushThreshold
+	)
+	{
+		return new StreamingSerializer.Default(
+			notNull(foundation)     ,
+			positive(flushThreshold)
+		);
+	}
+	
+	
+	
+	public interface Defaults
+	{
+		/**
+		 * The default buffered length at which stored entities are written to the channel.
+		 *
+		 * @return the default flush threshold.
+		 */
+		public static long defaultFlushThreshold()
+		{
+			return 1024 * 1024; // 1 MiB
+		}
+	}
+	
+	
+	
+	public static class Default implements StreamingSerializer
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// constants //
+		//////////////
+		
+		static final byte FRAME_TYPES    = 1;
+		static final byte FRAME_ENTITIES = 2;
+		static final byte FRAME_END      = 3;
+		
+		static final int FRAME_HEADER_LENGTH = Byte.BYTES + Long.BYTES;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private final SerializerFoundation<?>    foundation            ;
+		private final long                       flushThreshold        ;
+		private final ByteBuffer                 frameHeader           ;
+		private       PersistenceManager<Binary> persistenceManager    ;
+		private       StreamingStorer            storer                ;
+		private       SerializerTypeInfoStrategy typeInfoStrategy      ;
+		private       TypeDefinitionBuilder      typeDefinitionBuilder ;
+		private       TypeDefinitionImporter     typeDefinitionImporter;
+		private       byte[]                     typeInfo              ; // last written type information
+		private       WritableByteChannel        output                ;
+		private       long                       outputLength          ;
+		private       Binary                     input                 ;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		Default(final SerializerFoundation<?> foundation, final long flushThreshold)
+		{
+			super();
+			this.foundation     = foundation    ;
+			this.flushThreshold = flushThreshold;
+			this.frameHeader    = ByteBuffer.allocate(FRAME_HEADER_LENGTH);
+			this.initialize();
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		private void initialize()
+		{
+			final Serializer.Source source = ()   -> X.Constant(this.input);
+			final Serializer.Target target = data -> this.writeEntities(data);
+			
+			this.persistenceManager = this.foundation.createPersistenceManager(source, target);
+			
+			final PersistenceContextDispatcher<Binary> dispatcher = this.foundation.getContextDispatcher();
+			final Persister persister = this.foundation.getPersister() != null
+				? this.foundation.getPersister()
+				: this.persistenceManager
+			;
+			this.storer = new StreamingStorer(
+				dispatcher.dispatchObjectManager(this.foundation.getObjectManager())          ,
+				persister                                                                     ,
+				dispatcher.dispatchTypeHandlerManager(this.foundation.getTypeHandlerManager()),
+				target                                                                        ,
+				this.foundation.getBufferSizeProvider()                                       ,
+				this.foundation.isByteOrderMismatch()                                         ,
+				this.flushThreshold
+			);
+			
+			this.typeDefinitionBuilder = new TypeDefinitionBuilder.Default(
+				this.foundation.getTypeDictionaryParser(),
+				this.foundation.getTypeDefinitionCreator(),
+				this.foundation.getTypeDescriptionResolverProvider()
+			);
+			this.typeDefinitionImporter = new TypeDefinitionImporter.Default(
+				this.foundation.getTypeHandlerManager(),
+				this.foundation.getTypeHandlerEnsurer()
+			);
+			this.typeInfoStrategy = this.foundation.getSerializerTypeInfoStrategyCreator().create(
+				this.persistenceManager
+			);
+		}
+		
+		private void ensureOpen()
+		{
+			if(this.persistenceManager == null)
+			{
+				throw new IllegalStateException("Serializer is closed");
+			}
+		}
+		
+		@Override
+		public synchronized long serialize(final Object object, final WritableByteChannel target)
+		{
+			this.ensureOpen();
+			this.output       = notNull(target);
+			this.outputLength = 0;
+			try
+			{
+				this.writeTypeInfo(true);
+				this.storer.store(object);
+				this.storer.commit();
+				this.writeFrameHeader(FRAME_END, 0);
+				
+				return this.outputLength;
+			}
+			catch(final RuntimeException e)
+			{
+				// discard partial state to keep the serializer usable
+				this.storer.clear();
+				throw e;
+			}
+			finally
+			{
+				this.output = null;
+			}
+		}
+		
+		private void writeTypeInfo(final boolean streamStart)
+		{
+			if(this.typeInfo == null || this.typeInfoStrategy.hasUpdate())
+			{
+				this.typeInfo = String.join("\n", this.typeInfoStrategy.get().getSerializedTypes())
+					.getBytes(StandardCharsets.UTF_8)
+				;
+			}
+			else if(!streamStart || this.typeInfoStrategy.includeOnce())
+			{
+				return;
+			}
+			
+			this.writeFrameHeader(FRAME_TYPES, this.typeInfo.length);
+			this.write(ByteBuffer.wrap(this.typeInfo));
+		}
+		
+		private void writeEntities(final Binary data)
+		{
+			// called by the storer, either while traversing the graph or on commit.
+			if(data.totalLength() == 0)
+			{
+				return;
+			}
+			
+			// the types of all entities in the frame are registered before the entities are stored.
+			this.writeTypeInfo(false);
+			this.writeFrameHeader(FRAME_ENTITIES, data.totalLength());
+			for(final ByteBuffer buffer : data.buffers())
+			{
+				this.write(buffer);
+			}
+		}
+		
+		private void writeFrameHeader(final byte kind, final long length)
+		{
+			this.frameHeader.clear();
+			this.frameHeader.put(kind).putLong(length).flip();
+			this.write(this.frameHeader);
+		}
+		
+		private void write(final ByteBuffer buffer)
+		{
+			try
+			{
+				while(buffer.hasRemaining())
+				{
+					this.outputLength += this.output.write(buffer);
+				}
+			}
+			catch(final IOException e)
+			{
+				throw new IORuntimeException(e);
+			}
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		public synchronized <T> T deserialize(final ReadableByteChannel source)
+		{
+			this.ensureOpen();
+			final StreamedEntities input = new StreamedEntities(notNull(source), this::importTypeInfo);
+			this.input = input;
+			try
+			{
+				return (T)this.persistenceManager.get();
+			}
+			finally
+			{
+				this.input = null;
+				input.release();
+			}
+		}
+		
+		private void importTypeInfo(final String typeInfo)
+		{
+			if(typeInfo.isEmpty())
+			{
+				return;
+			}
+			
+			this.typeDefinitionImporter.importTypeDefinitions(
+				this.typeDefinitionBuilder.buildTypeDefinitions(typeInfo)
+			);
+		}
+		
+		@Override
+		public synchronized void close()
+		{
+			if(this.persistenceManager != null)
+			{
+				this.persistenceManager.objectRegistry().truncateAll();
+				this.persistenceManager.close();
+				this.persistenceManager = null;
+				this.storer             = null;
+				this.input              = null;
+			}
+		}
+		
+		
+		
+		static final class StreamingStorer extends SerializerStorer
+		{
+			///////////////////////////////////////////////////////////////////////////
+			// instance fields //
+			////////////////////
+			
+			private final long flushThreshold;
+			
+			
+			
+			///////////////////////////////////////////////////////////////////////////
+			// constructors //
+			/////////////////
+			
+			StreamingStorer(
+				final PersistenceObjectManager<Binary>      objectManager     ,
+				final ObjectSwizzling                       objectRetriever   ,
+				final PersistenceTypeHandlerManager<Binary> typeManager       ,
+				final PersistenceTarget<Binary>             target            ,
+				final BufferSizeProviderIncremental         bufferSizeProvider,
+				final boolean                               switchByteOrder   ,
+				final long                                  flushThreshold
+			)
+			{
+				super(
+					objectManager     ,
+					objectRetriever   ,
+					typeManager       ,
+					target            ,
+					bufferSizeProvider,
+					switchByteOrder   ,
+					true
+				);
+				this.flushThreshold = flushThreshold;
+			}
+			
+			
+			
+			///////////////////////////////////////////////////////////////////////////
+			// methods //
+			////////////
+			
+			@Override
+			protected void afterEntityStored(final ChunksBuffer chunk)
+			{
+				if(chunk.storedLength() >= this.flushThreshold)
+				{
+					this.flushEntities();
+				}
+			}
+			
+		}
+		
+		
+		
+		/**
+		 * Entity data that is read frame by frame from a channel while the loader iterates it.
+		 * The read frames are kept until {@link #release()}, since the loader references their memory.
+		 */
+		static final class StreamedEntities extends ChunksWrapper
+		{
+			///////////////////////////////////////////////////////////////////////////
+			// instance fields //
+			////////////////////
+			
+			private final ReadableByteChannel  source          ;
+			private final Consumer<String>     typeInfoImporter;
+			private final ByteBuffer           frameHeader     ;
+			private final BulkList<ByteBuffer> frames          ;
+			
+			
+			
+			///////////////////////////////////////////////////////////////////////////
+			// constructors //
+			/////////////////
+			
+			StreamedEntities(final ReadableByteChannel source, final Consumer<String> typeInfoImporter)
+			{
+				super(new ByteBuffer[0]);
+				this.source           = source          ;
+				this.typeInfoImporter = typeInfoImporter;
+				this.frameHeader      = ByteBuffer.allocate(FRAME_HEADER_LENGTH);
+				this.frames           = BulkList.New();
+			}
+			
+			
+			
+			///////////////////////////////////////////////////////////////////////////
+			// methods //
+			////////////
+			
+			@Override
+			public void iterateEntityData(final BinaryEntityDataReader reader)
+			{
+				while(true)
+				{
+					this.frameHeader.clear();
+					this.read(this.frameHeader);
+					this.frameHeader.flip();
+					
+					final byte kind   = this.frameHeader.get();
+					final int  length = X.checkArrayRange(this.frameHeader.getLong());
+					switch(kind)
+					{
+						case FRAME_TYPES:
+						{
+							final byte[] typeInfo = new byte[length];
+							this.read(ByteBuffer.wrap(typeInfo));
+							this.typeInfoImporter.accept(new String(typeInfo, StandardCharsets.UTF_8));
+							break;
+						}
+						case FRAME_ENTITIES:
+						{
+							final ByteBuffer frame = XMemory.allocateDirectNative(length);
+							this.frames.add(frame);
+							this.read(frame);
+							frame.flip();
+							
+							// creates the frame's instances right away, references are resolved by the loader later.
+							reader.readBinaryEntities(frame);
+							break;
+						}
+						case FRAME_END:
+						{
+							return;
+						}
+						default:
+						{
+							throw new BinaryPersistenceException("Unknown frame kind: " + kind);
+						}
+					}
+				}
+			}
+			
+			private void read(final ByteBuffer buffer)
+			{
+				try
+				{
+					while(buffer.hasRemaining())
+					{
+						if(this.source.read(buffer) < 0)
+						{
+							throw new EOFException("Channel ended before the serialized graph was complete");
+						}
+					}
+				}
+				catch(final IOException e)
+				{
+					throw new IORuntimeException(e);
+				}
+			}
+			
+			final void release()
+			{
+				for(final ByteBuffer frame : this.frames)
+				{
+					XMemory.deallocateDirectByteBuffer(frame);
+				}
+				this.frames.clear();
+			}
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,157 @@
+package one.microstream.persistence.binary.types;
+
+/*-
+ * #%L
+ * microstream-persistence-binary
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import one.microstream.persistence.binary.exceptions.BinaryPersistenceException;
+import one.microstream.persistence.binary.util.Serializer;
+import one.microstream.persistence.binary.util.SerializerFoundation;
+
+
+public class BinaryCompactFormatTest
+{
+	static final class Node
+	{
+		final String               name    ;
+		final int                  value   ;
+		final Node                 next    ;
+		final List<Node>           children = new ArrayList<>();
+		final Map<String, Integer> values   = new HashMap<>();
+		int[]                      numbers ;
+		Object[]                   objects ;
+		char[]                     chars   ;
+		
+		Node(final String name, final int value, final Node next)
+		{
+			super();
+			this.name  = name ;
+			this.value = value;
+			this.next  = next ;
+		}
+	}
+	
+	// a graph of small entities with lists of references, primitive lists and key-value lists
+	private static List<Node> graph()
+	{
+		final List<Node> nodes = new ArrayList<>();
+		Node previous = null;
+		for(int i = 0; i < 1_000; i++)
+		{
+			final Node node = new Node(i % 3 == 0 ? "node " + i + " \u20AC" : "node " + i, i, previous);
+			if(i % 10 == 0)
+			{
+				node.numbers = new int[]{i, -i, Integer.MAX_VALUE};
+				node.objects = new Object[]{node, null, "object " + i};
+				node.chars   = ("chars " + i).toCharArray();
+				node.values.put("key " + i, i);
+			}
+			if(i % 5 == 0 && previous != null)
+			{
+				previous.children.add(node);
+			}
+			nodes.add(node);
+			previous = node;
+		}
+		
+		return nodes;
+	}
+	
+	private static void assertEqualGraphs(final List<Node> expected, final List<Node> actual)
+	{
+		Assertions.assertEquals(expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++)
+		{
+			final Node e = expected.get(i);
+			final Node a = actual.get(i);
+			Assertions.assertEquals(e.name, a.name);
+			Assertions.assertEquals(e.value, a.value);
+			Assertions.assertSame(i == 0 ? null : actual.get(i - 1), a.next);
+			Assertions.assertEquals(e.children.size(), a.children.size());
+			for(int c = 0; c < e.children.size(); c++)
+			{
+				Assertions.assertSame(actual.get(e.children.get(c).value), a.children.get(c));
+			}
+			Assertions.assertEquals(e.values, a.values);
+			Assertions.assertArrayEquals(e.numbers, a.numbers);
+			Assertions.assertArrayEquals(e.chars, a.chars);
+			if(e.objects == null)
+			{
+				Assertions.assertNull(a.objects);
+			}
+			else
+			{
+				Assertions.assertEquals(Arrays.asList(a, null, e.objects[2]), Arrays.asList(a.objects));
+			}
+		}
+	}
+	
+	@Test
+	void roundTrip()
+	{
+		final List<Node>         graph      = graph();
+		final Serializer<byte[]> serializer = Serializer.CompactBytes();
+		final byte[]             bytes      = serializer.serialize(graph);
+		
+		Assertions.assertTrue(BinaryCompactFormat.isCompact(bytes));
+		assertEqualGraphs(graph, serializer.deserialize(bytes));
+	}
+	
+	@Test
+	void compactIsSmaller()
+	{
+		final List<Node> graph   = graph();
+		final byte[]     regular = Serializer.Bytes().serialize(graph);
+		final byte[]     compact = Serializer.CompactBytes().serialize(graph);
+		
+		Assertions.assertTrue(compact.length < regular.length / 3, compact.length + " of " + regular.length);
+	}
+	
+	@Test
+	void readsRegularFormat()
+	{
+		// both serializers have to use the same type ids
+		final SerializerFoundation<?> foundation = SerializerFoundation.New();
+		final List<Node>              graph      = graph();
+		final byte[]                  regular    = Serializer.Bytes(foundation).serialize(graph);
+		
+		Assertions.assertFalse(BinaryCompactFormat.isCompact(regular));
+		assertEqualGraphs(graph, Serializer.CompactBytes(foundation).deserialize(regular));
+	}
+	
+	@Test
+	void rejectsUnsupportedVersion()
+	{
+		final Serializer<byte[]> serializer = Serializer.CompactBytes();
+		final byte[]             bytes      = serializer.serialize(graph());
+		bytes[BinaryCompactFormat.Default.MARKER_VERSION_INDEX]++;
+		
+		Assertions.assertThrows(BinaryPersistenceException.class, () -> serializer.deserialize(bytes));
+	}
+	
+}
@@ -0,0 +1,67 @@
+package one.microstream.persistence.index;
+
+/*-
+ * #%L
+ * microstream-persistence
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.util.function.Function;
+
+import one.microstream.collections.lazy.LazyHashMap;
+
+
+/**
+ * An {@link Index} for equality lookups. The key groups are held in a {@link LazyHashMap}, so only
+ * the changed segments have to be stored and unused segments can be unloaded.
+ * <p>
+ * Indices with few distinct keys (typically implemented as bitmap indices) are covered by this type as well,
+ * their query results can be combined via {@link Index#intersect(long[], long[])} and
+ * {@link Index#unite(long[], long[])}.
+ *
+ * @param <E> the type of the indexed entities
+ * @param <K> the type of the index keys
+ */
+public interface HashIndex<E, K> extends Index<E, K>
+{
+	public static <E, K> HashIndex<E, K> New(
+		final Class<E>                         entityType  ,
+		final Function<? super E, ? extends K> keyExtractor
+	)
+	{
+		return new HashIndex.Default<>(entityType, keyExtractor);
+	}
+	
+	
+	
+	public final class Default<E, K> extends Index.Abstract<E, K> implements HashIndex<E, K>
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		Default(
+			final Class<E>                         entityType  ,
+			final Function<? super E, ? extends K> keyExtractor
+		)
+		{
+			super(entityType, LazyHashMap.New(), keyExtractor);
+		}
+		
+	}
+	
+}
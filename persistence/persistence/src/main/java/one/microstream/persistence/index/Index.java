@@ -0,0 +1,531 @@
+package one.microstream.persistence.index;
+
+/*-
+ * #%L
+ * microstream-persistence
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import one.microstream.collections.lazy.LazyHashMap;
+import one.microstream.persistence.types.PersistenceStoreHandler;
+import one.microstream.persistence.types.PersistenceStoring;
+import one.microstream.reference.ObjectSwizzling;
+import one.microstream.reference.Swizzling;
+
+
+/**
+ * A persistent secondary index over entities of a certain type, mapping keys extracted from the entities
+ * to the object ids of the entities.
+ * <p>
+ * A registered index (see {@link IndexRegistry}) is updated incrementally for every entity that is stored and
+ * the index changes are stored as part of the same commit. Queries only yield object ids, so matching entities
+ * can be loaded selectively (see {@link #resolve(ObjectSwizzling, Class, long[])}) without loading any
+ * non-matching entities.
+ * <p>
+ * Indices are persisted as part of the entity graph like any other instance. The key extractor logic cannot
+ * be persisted, though, and must be set again via {@link #setKeyExtractor(Function)} after loading an index.
+ * Extracted keys must be immutable values (e.g. {@link String}s or numbers).
+ *
+ * @param <E> the type of the indexed entities
+ * @param <K> the type of the index keys
+ */
+public interface Index<E, K>
+{
+	public Class<E> entityType();
+	
+	public Function<? super E, ? extends K> keyExtractor();
+	
+	public Index<E, K> setKeyExtractor(Function<? super E, ? extends K> keyExtractor);
+	
+	/**
+	 * Returns the number of indexed entities.
+	 * 
+	 * @return the number of indexed entities.
+	 */
+	public long size();
+	
+	/**
+	 * Returns the object ids of all entities with a key equal to the passed key in ascending order.
+	 * 
+	 * @param key the key to be looked up.
+	 * @return the object ids of all matching entities.
+	 */
+	public long[] objectIds(K key);
+	
+	public int count(K key);
+	
+	/**
+	 * Indexes the passed entity under the key extracted from it, replacing any previous key
+	 * of the passed object id.
+	 * 
+	 * @param objectId the object id of the entity.
+	 * @param entity the entity to be indexed.
+	 */
+	public void update(long objectId, E entity);
+	
+	/**
+	 * Removes the passed object id from this index. Since removing an entity from the entity graph
+	 * cannot be detected by storing, this has to be done explicitly.
+	 * 
+	 * @param objectId the object id of the entity to be removed.
+	 * @return whether the object id has been indexed.
+	 */
+	public boolean remove(long objectId);
+	
+	/**
+	 * Stores all parts of this index that have been changed since they have been stored last.
+	 * <p>
+	 * If the passed storing instance commits separately (i.e. is a {@link PersistenceStoreHandler} like a storer),
+	 * the changes are only marked as stored once it has committed successfully, so they are stored again
+	 * if its commit fails.
+	 * 
+	 * @param storing the storing instance to be used.
+	 */
+	public void storeChanges(PersistenceStoring storing);
+	
+	
+	
+	/**
+	 * Loads the entities identified by the passed object ids in one request (see
+	 * {@link ObjectSwizzling#collect(java.util.function.Consumer, long...)}).
+	 * 
+	 * @param <E> the type of the entities.
+	 * @param retriever the retriever to load the entities.
+	 * @param type the type of the entities.
+	 * @param objectIds the object ids of the entities, typically the result of an index query.
+	 * @return the entities in the order of the passed object ids.
+	 */
+	public static <E> List<E> resolve(
+		final ObjectSwizzling retriever,
+		final Class<E>        type     ,
+		final long[]          objectIds
+	)
+	{
+		final List<E> entities = new ArrayList<>(objectIds.length);
+		retriever.collect(e -> entities.add(type.cast(e)), objectIds);
+		
+		return entities;
+	}
+	
+	/**
+	 * Intersects the passed ascendingly sorted object ids, e.g. to combine the results of multiple index queries.
+	 * 
+	 * @param objectIds1 the first sorted object ids.
+	 * @param objectIds2 the second sorted object ids.
+	 * @return the sorted object ids contained in both arrays.
+	 */
+	public static long[] intersect(final long[] objectIds1, final long[] objectIds2)
+	{
+		final long[] result = new long[Math.min(objectIds1.length, objectIds2.length)];
+		int i1 = 0, i2 = 0, r = 0;
+		while(i1 < objectIds1.length && i2 < objectIds2.length)
+		{
+			if(objectIds1[i1] < objectIds2[i2])
+			{
+				i1++;
+			}
+			else if(objectIds1[i1] > objectIds2[i2])
+			{
+				i2++;
+			}
+			else
+			{
+				result[r++] = objectIds1[i1++];
+				i2++;
+			}
+		}
+		
+		return Arrays.copyOf(result, r);
+	}
+	
+	/**
+	 * Unites the passed ascendingly sorted object ids, e.g. to combine the results of multiple index queries.
+	 * 
+	 * @param objectIds1 the first sorted object ids.
+	 * @param objectIds2 the second sorted object ids.
+	 * @return the sorted object ids contained in either array.
+	 */
+	public static long[] unite(final long[] objectIds1, final long[] objectIds2)
+	{
+		final long[] result = new long[objectIds1.length + objectIds2.length];
+		int i1 = 0, i2 = 0, r = 0;
+		while(i1 < objectIds1.length && i2 < objectIds2.length)
+		{
+			if(objectIds1[i1] < objectIds2[i2])
+			{
+				result[r++] = objectIds1[i1++];
+			}
+			else if(objectIds1[i1] > objectIds2[i2])
+			{
+				result[r++] = objectIds2[i2++];
+			}
+			else
+			{
+				result[r++] = objectIds1[i1++];
+				i2++;
+			}
+		}
+		while(i1 < objectIds1.length)
+		{
+			result[r++] = objectIds1[i1++];
+		}
+		while(i2 < objectIds2.length)
+		{
+			result[r++] = objectIds2[i2++];
+		}
+		
+		return Arrays.copyOf(result, r);
+	}
+	
+	
+	
+	/**
+	 * Common logic of index implementations, mapping keys to {@link ObjectIdSet}s and object ids to keys.
+	 * The latter is required to remove an object id from its previous key group when an entity is updated.
+	 * <p>
+	 * Changes are tracked by an increasing modification count: a part of the index is unstored if it has been
+	 * modified after the modification count that has been committed last.
+	 *
+	 * @param <E> the type of the indexed entities
+	 * @param <K> the type of the index keys
+	 */
+	public abstract class Abstract<E, K> implements Index<E, K>
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private final Class<E>                  entityType;
+		private final Map<K, ObjectIdSet>       groups    ;
+		private final LazyHashMap<Long, Object> keys      ;
+		
+		// runtime state that is not persisted //
+		
+		private transient Function<? super E, ? extends K> keyExtractor           ;
+		private transient HashSet<ObjectIdSet>             changedGroups          ;
+		private transient long                             groupsModification     ;
+		private transient long                             keysModification       ;
+		private transient long                             modificationCount      ;
+		private transient long                             storedModificationCount;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		protected Abstract(
+			final Class<E>                         entityType  ,
+			final Map<K, ObjectIdSet>              groups      ,
+			final Function<? super E, ? extends K> keyExtractor
+		)
+		{
+			super();
+			this.entityType   = notNull(entityType)  ;
+			this.groups       = notNull(groups)      ;
+			this.keyExtractor = notNull(keyExtractor);
+			this.keys         = LazyHashMap.New()    ;
+			this.groupsModification = this.modified();
+			this.keysModification   = this.modified();
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		protected final Map<K, ObjectIdSet> groups()
+		{
+			return this.groups;
+		}
+		
+		/**
+		 * Defines which keys are indexed at all. Entities with other keys are not contained in any key group.
+		 * 
+		 * @param key the key to be checked.
+		 * @return whether the key can be indexed.
+		 */
+		protected boolean isIndexable(final K key)
+		{
+			return true;
+		}
+		
+		/**
+		 * Called after a key group has been created, e.g. to maintain additional structures over the keys.
+		 * 
+		 * @param key the key of the created group.
+		 */
+		protected void groupAdded(final K key)
+		{
+			// no-op by default
+		}
+		
+		/**
+		 * Called after a key group has been removed, e.g. to maintain additional structures over the keys.
+		 * 
+		 * @param key the key of the removed group.
+		 */
+		protected void groupRemoved(final K key)
+		{
+			// no-op by default
+		}
+		
+		/**
+		 * Increments the modification count, to be called for every modification of a part of this index.
+		 * 
+		 * @return the new modification count, identifying the modification.
+		 */
+		protected final long modified()
+		{
+			return ++this.modificationCount;
+		}
+		
+		/**
+		 * Determines whether a modification has not been committed, yet.
+		 * 
+		 * @param modification the modification count returned by {@link #modified()} or 0 for no modification.
+		 * @return whether the modified part has to be stored.
+		 */
+		protected final boolean isUnstored(final long modification)
+		{
+			return modification > this.storedModificationCount;
+		}
+		
+		/**
+		 * Stores the unstored changes of additional structures maintained by an implementation
+		 * (see {@link #isUnstored(long)}). Called by {@link #storeChanges(PersistenceStoring)}.
+		 * 
+		 * @param storing the storing instance to be used.
+		 */
+		protected void storeAdditionalChanges(final PersistenceStoring storing)
+		{
+			// no-op by default
+		}
+		
+		@Override
+		public final Class<E> entityType()
+		{
+			return this.entityType;
+		}
+		
+		@Override
+		public final synchronized Function<? super E, ? extends K> keyExtractor()
+		{
+			return this.keyExtractor;
+		}
+		
+		@Override
+		public final synchronized Index<E, K> setKeyExtractor(final Function<? super E, ? extends K> keyExtractor)
+		{
+			this.keyExtractor = notNull(keyExtractor);
+			return this;
+		}
+		
+		@Override
+		public final synchronized long size()
+		{
+			return this.keys.size();
+		}
+		
+		@Override
+		public final synchronized long[] objectIds(final K key)
+		{
+			final ObjectIdSet group = this.groups.get(key);
+			
+			return group == null
+				? new long[0]
+				: group.toArray()
+			;
+		}
+		
+		@Override
+		public final synchronized int count(final K key)
+		{
+			final ObjectIdSet group = this.groups.get(key);
+			
+			return group == null
+				? 0
+				: group.size()
+			;
+		}
+		
+		@Override
+		public final synchronized void update(final long objectId, final E entity)
+		{
+			if(this.keyExtractor == null)
+			{
+				throw new IllegalStateException(
+					"No key extractor set for index of " + this.entityType.getName() + "."
+				);
+			}
+			if(!Swizzling.isProperId(objectId))
+			{
+				return;
+			}
+			
+			final K key = this.keyExtractor.apply(entity);
+			if(this.keys.containsKey(objectId))
+			{
+				@SuppressWarnings("unchecked") // safety of cast guaranteed by logic
+				final K oldKey = (K)this.keys.get(objectId);
+				if(Objects.equals(oldKey, key))
+				{
+					return;
+				}
+				this.removeFromGroup(oldKey, objectId);
+			}
+			
+			this.keys.put(objectId, key);
+			this.keysModification = this.modified();
+			this.addToGroup(key, objectId);
+		}
+		
+		@Override
+		public final synchronized boolean remove(final long objectId)
+		{
+			if(!this.keys.containsKey(objectId))
+			{
+				return false;
+			}
+			
+			@SuppressWarnings("unchecked") // safety of cast guaranteed by logic
+			final K oldKey = (K)this.keys.remove(objectId);
+			this.keysModification = this.modified();
+			this.removeFromGroup(oldKey, objectId);
+			
+			return true;
+		}
+		
+		private void addToGroup(final K key, final long objectId)
+		{
+			if(!this.isIndexable(key))
+			{
+				return;
+			}
+			
+			ObjectIdSet group = this.groups.get(key);
+			if(group == null)
+			{
+				this.groups.put(key, group = ObjectIdSet.New());
+				this.groupsModification = this.modified();
+				this.groupAdded(key);
+			}
+			group.add(objectId);
+			this.changedGroups().add(group);
+		}
+		
+		private void removeFromGroup(final K key, final long objectId)
+		{
+			if(!this.isIndexable(key))
+			{
+				return;
+			}
+			
+			final ObjectIdSet group = this.groups.get(key);
+			if(group == null || !group.remove(objectId))
+			{
+				return;
+			}
+			if(group.isEmpty())
+			{
+				// a removed group is not referenced anymore and does not have to be stored.
+				this.groups.remove(key);
+				this.groupsModification = this.modified();
+				this.groupRemoved(key);
+				this.changedGroups().remove(group);
+			}
+			else
+			{
+				this.changedGroups().add(group);
+			}
+		}
+		
+		private HashSet<ObjectIdSet> changedGroups()
+		{
+			// transient fields are not initialized for loaded instances.
+			if(this.changedGroups == null)
+			{
+				this.changedGroups = new HashSet<>();
+			}
+			
+			return this.changedGroups;
+		}
+		
+		@Override
+		public final synchronized void storeChanges(final PersistenceStoring storing)
+		{
+			// changed groups are already known instances and would be skipped by lazy storing.
+			final HashMap<ObjectIdSet, Long> storedGroups = new HashMap<>();
+			for(final ObjectIdSet group : this.changedGroups())
+			{
+				storedGroups.put(group, group.storeChanges(storing));
+			}
+			if(this.isUnstored(this.groupsModification))
+			{
+				storing.store(this.groups);
+			}
+			if(this.isUnstored(this.keysModification))
+			{
+				storing.store(this.keys);
+			}
+			this.storeAdditionalChanges(storing);
+			
+			// the changes are only marked as stored after a successful commit, otherwise they are stored again.
+			final long modificationCount = this.modificationCount;
+			final Runnable commitAction = () -> this.changesStored(modificationCount, storedGroups);
+			if(storing instanceof PersistenceStoreHandler)
+			{
+				((PersistenceStoreHandler<?>)storing).registerCommitAction(commitAction);
+			}
+			else
+			{
+				// storing instances that do not commit separately have committed when storing returns.
+				commitAction.run();
+			}
+		}
+		
+		private synchronized void changesStored(
+			final long                       modificationCount,
+			final HashMap<ObjectIdSet, Long> storedGroups
+		)
+		{
+			this.storedModificationCount = Math.max(this.storedModificationCount, modificationCount);
+			storedGroups.forEach((group, groupModificationCount) ->
+			{
+				group.changesStored(groupModificationCount);
+				if(!group.hasUnstoredChanges())
+				{
+					this.changedGroups().remove(group);
+				}
+			});
+		}
+		
+	}
+	
+}
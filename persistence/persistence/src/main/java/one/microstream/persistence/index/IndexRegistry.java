@@ -0,0 +1,204 @@
+package one.microstream.persistence.index;
+
+/*-
+ * #%L
+ * microstream-persistence
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+
+import one.microstream.collections.BulkList;
+import one.microstream.collections.HashEnum;
+import one.microstream.collections.HashTable;
+import one.microstream.persistence.types.PersistenceLocalObjectIdRegistry;
+import one.microstream.persistence.types.PersistenceStoring;
+
+
+/**
+ * Runtime registry of the {@link Index} instances that are updated whenever entities are stored.
+ * <p>
+ * The registry itself is not persisted. Indices are typically referenced by the application's root instance,
+ * so after loading them, their key extractors have to be set and they have to be registered again.
+ */
+public interface IndexRegistry
+{
+	/**
+	 * Registers the passed index to be updated whenever entities are stored.
+	 * 
+	 * @param index the index to be registered.
+	 * @return this.
+	 * @throws IllegalStateException if no key extractor is set for the passed index.
+	 */
+	public IndexRegistry register(Index<?, ?> index);
+	
+	public boolean unregister(Index<?, ?> index);
+	
+	public boolean isEmpty();
+	
+	/**
+	 * Updates all registered indices for the passed stored entries and stores the resulting index changes
+	 * via the passed storing instance, so they become part of the same commit.
+	 * 
+	 * @param storedEntries the entries (object id and instance) being stored.
+	 * @param storing the storing instance to store the changes of the indices.
+	 * @return whether an updated index is itself one of the stored entries, meaning the state stored
+	 *         for it is outdated and has to be stored again.
+	 */
+	public boolean update(PersistenceLocalObjectIdRegistry<?> storedEntries, PersistenceStoring storing);
+	
+	
+	
+	public static IndexRegistry New()
+	{
+		return new IndexRegistry.Default();
+	}
+	
+	public final class Default implements IndexRegistry
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// static methods //
+		///////////////////
+		
+		private static <E> void update(final Index<E, ?> index, final long objectId, final Object instance)
+		{
+			index.update(objectId, index.entityType().cast(instance));
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private final BulkList<Index<?, ?>>                      indices        = BulkList.New() ;
+		private final HashTable<Class<?>, BulkList<Index<?, ?>>> indicesPerType = HashTable.New();
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		Default()
+		{
+			super();
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		@Override
+		public final synchronized IndexRegistry register(final Index<?, ?> index)
+		{
+			// validated right away, since failing to update the index would let every commit fail.
+			if(notNull(index).keyExtractor() == null)
+			{
+				throw new IllegalStateException(
+					"No key extractor set for index of " + index.entityType().getName() + "."
+				);
+			}
+			if(!this.indices.containsId(index))
+			{
+				this.indices.add(index);
+				this.indicesPerType.clear();
+			}
+			
+			return this;
+		}
+		
+		@Override
+		public final synchronized boolean unregister(final Index<?, ?> index)
+		{
+			if(this.indices.removeOne(index))
+			{
+				this.indicesPerType.clear();
+				return true;
+			}
+			
+			return false;
+		}
+		
+		@Override
+		public final synchronized boolean isEmpty()
+		{
+			return this.indices.isEmpty();
+		}
+		
+		private BulkList<Index<?, ?>> indices(final Class<?> type)
+		{
+			// cached per concrete type, so subclasses of indexed entity types are indexed, too.
+			return this.indicesPerType.ensure(type, t ->
+			{
+				final BulkList<Index<?, ?>> matching = BulkList.New();
+				for(final Index<?, ?> index : this.indices)
+				{
+					if(index.entityType().isAssignableFrom(t))
+					{
+						matching.add(index);
+					}
+				}
+				
+				return matching;
+			});
+		}
+		
+		@Override
+		public final synchronized boolean update(
+			final PersistenceLocalObjectIdRegistry<?> storedEntries,
+			final PersistenceStoring                  storing
+		)
+		{
+			if(this.indices.isEmpty())
+			{
+				return false;
+			}
+			
+			final HashEnum<Index<?, ?>> updated = HashEnum.New();
+			final HashEnum<Index<?, ?>> stored  = HashEnum.New();
+			storedEntries.iterateMergeableEntries((objectId, instance) ->
+			{
+				if(instance == null)
+				{
+					return;
+				}
+				if(instance instanceof Index)
+				{
+					stored.add((Index<?, ?>)instance);
+				}
+				for(final Index<?, ?> index : this.indices(instance.getClass()))
+				{
+					update(index, objectId, instance);
+					updated.add(index);
+				}
+			});
+			
+			// must be done after the iteration as storing adds entries to the iterated storer.
+			for(final Index<?, ?> index : updated)
+			{
+				index.storeChanges(storing);
+			}
+			
+			return updated.containsSearched(stored::contains);
+		}
+		
+	}
+	
+}
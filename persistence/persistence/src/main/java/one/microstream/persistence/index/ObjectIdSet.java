@@ -0,0 +1,394 @@
+package one.microstream.persistence.index;
+
+/*-
+ * #%L
+ * microstream-persistence
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import one.microstream.persistence.types.PersistenceStoring;
+import one.microstream.reference.Swizzling;
+
+
+/**
+ * A compact set of object ids, implemented as open addressing hash tables of primitive <code>long</code> values
+ * with linear probing.
+ * <p>
+ * Since the object id 0 represents <code>null</code>, it can never be contained and marks free slots.
+ * The object ids are distributed over segments of bounded length (see {@link Defaults#maximumSegmentCapacity()}),
+ * so storing the changes of a large set only has to store the changed segments instead of all object ids.
+ * Instances only consist of primitive arrays and their size, so they are persisted as compactly as possible
+ * by the default generic type handling.
+ * <p>
+ * Note that this implementation is not synchronized.
+ */
+public final class ObjectIdSet
+{
+	///////////////////////////////////////////////////////////////////////////
+	// static methods //
+	///////////////////
+	
+	public static ObjectIdSet New()
+	{
+		return new ObjectIdSet(new long[][]{new long[Defaults.defaultCapacity()]}, 0);
+	}
+	
+	private static long spread(final long objectId)
+	{
+		// object ids are mostly consecutive, so they are spread before being distributed.
+		return objectId * 0x9E3779B97F4A7C15L;
+	}
+	
+	private static int segmentIndex(final long objectId, final int segmentCount)
+	{
+		return (int)(spread(objectId) >>> 32) & segmentCount - 1;
+	}
+	
+	private static int hash(final long objectId, final int mask)
+	{
+		final long spread = spread(objectId);
+		
+		return (int)(spread ^ spread >>> 32) & mask;
+	}
+	
+	private static void insert(final long[] segment, final long objectId)
+	{
+		final int mask = segment.length - 1;
+		
+		int i = hash(objectId, mask);
+		while(segment[i] != 0)
+		{
+			i = i + 1 & mask;
+		}
+		segment[i] = objectId;
+	}
+	
+	private static boolean exceedsLoadFactor(final int size, final int capacity)
+	{
+		// load factor 0.75
+		return size * 4L > capacity * 3L;
+	}
+	
+	
+	
+	public interface Defaults
+	{
+		public static int defaultCapacity()
+		{
+			// must be a power of 2
+			return 8;
+		}
+		
+		public static int maximumSegmentCapacity()
+		{
+			// must be a power of 2. Bounds the amount of data stored for a change to 8 KB.
+			return 1024;
+		}
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// instance fields //
+	////////////////////
+	
+	private long[][] segments;
+	private int      size    ;
+	
+	// runtime state that is not persisted //
+	
+	private transient int[]  segmentSizes           ;
+	private transient long[] segmentModifications   ;
+	private transient long   segmentsModification   ;
+	private transient long   modificationCount      ;
+	private transient long   storedModificationCount;
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// constructors //
+	/////////////////
+	
+	ObjectIdSet(final long[][] segments, final int size)
+	{
+		super();
+		this.segments = segments;
+		this.size     = size    ;
+	}
+	
+	
+	
+	///////////////////////////////////////////////////////////////////////////
+	// methods //
+	////////////
+	
+	public final int size()
+	{
+		return this.size;
+	}
+	
+	public final boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+	
+	public final boolean contains(final long objectId)
+	{
+		final long[] segment = this.segments[segmentIndex(objectId, this.segments.length)];
+		final int    mask    = segment.length - 1;
+		
+		for(int i = hash(objectId, mask); segment[i] != 0; i = i + 1 & mask)
+		{
+			if(segment[i] == objectId)
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	public final boolean add(final long objectId)
+	{
+		if(Swizzling.isNullId(objectId))
+		{
+			throw new IllegalArgumentException("The null object id cannot be contained.");
+		}
+		if(this.contains(objectId))
+		{
+			return false;
+		}
+		
+		int s = segmentIndex(objectId, this.segments.length);
+		if(exceedsLoadFactor(this.segmentSizes()[s] + 1, this.segments[s].length))
+		{
+			if(this.segments[s].length < Defaults.maximumSegmentCapacity())
+			{
+				this.rebuildSegment(s, this.segments[s].length * 2);
+			}
+			else
+			{
+				this.split();
+				s = segmentIndex(objectId, this.segments.length);
+			}
+		}
+		insert(this.segments[s], objectId);
+		this.segmentSizes[s]++;
+		this.size++;
+		this.segmentModified(s);
+		
+		return true;
+	}
+	
+	public final boolean remove(final long objectId)
+	{
+		final int    s       = segmentIndex(objectId, this.segments.length);
+		final long[] segment = this.segments[s];
+		final int    mask    = segment.length - 1;
+		
+		int gap = hash(objectId, mask);
+		while(segment[gap] != objectId)
+		{
+			if(segment[gap] == 0)
+			{
+				return false;
+			}
+			gap = gap + 1 & mask;
+		}
+		
+		// backward shift deletion keeps all probe sequences intact without requiring tombstones.
+		for(int i = gap + 1 & mask; segment[i] != 0; i = i + 1 & mask)
+		{
+			// an entry may be shifted into the gap if the gap lies between its home slot and its current slot.
+			if((i - hash(segment[i], mask) & mask) >= (i - gap & mask))
+			{
+				segment[gap] = segment[i];
+				gap = i;
+			}
+		}
+		segment[gap] = 0;
+		this.segmentSizes()[s]--;
+		this.size--;
+		this.segmentModified(s);
+		
+		return true;
+	}
+	
+	/**
+	 * Returns all contained object ids in ascending order.
+	 * 
+	 * @return a new array containing all object ids of this set.
+	 */
+	public final long[] toArray()
+	{
+		final long[] objectIds = new long[this.size];
+		int i = 0;
+		for(final long[] segment : this.segments)
+		{
+			for(final long objectId : segment)
+			{
+				if(objectId != 0)
+				{
+					objectIds[i++] = objectId;
+				}
+			}
+		}
+		Arrays.sort(objectIds);
+		
+		return objectIds;
+	}
+	
+	private int[] segmentSizes()
+	{
+		// transient fields are not initialized for loaded instances.
+		if(this.segmentSizes == null)
+		{
+			final int[] segmentSizes = new int[this.segments.length];
+			for(int s = 0; s < this.segments.length; s++)
+			{
+				for(final long objectId : this.segments[s])
+				{
+					if(objectId != 0)
+					{
+						segmentSizes[s]++;
+					}
+				}
+			}
+			this.segmentSizes = segmentSizes;
+		}
+		
+		return this.segmentSizes;
+	}
+	
+	private long[] segmentModifications()
+	{
+		// transient fields are not initialized for loaded instances.
+		if(this.segmentModifications == null)
+		{
+			this.segmentModifications = new long[this.segments.length];
+		}
+		
+		return this.segmentModifications;
+	}
+	
+	private void segmentModified(final int s)
+	{
+		this.segmentModifications()[s] = ++this.modificationCount;
+	}
+	
+	private void rebuildSegment(final int s, final int capacity)
+	{
+		final long[] segment = new long[capacity];
+		for(final long objectId : this.segments[s])
+		{
+			if(objectId != 0)
+			{
+				insert(segment, objectId);
+			}
+		}
+		
+		// the new segment is stored along with the segments array that references it.
+		this.segments[s] = segment;
+		this.segmentsModification = ++this.modificationCount;
+	}
+	
+	private void split()
+	{
+		// every segment is split in two by one more bit of the spread object ids.
+		final int      count    = this.segments.length * 2;
+		final int[]    sizes    = new int[count];
+		final long[][] segments = new long[count][];
+		for(final long[] segment : this.segments)
+		{
+			for(final long objectId : segment)
+			{
+				if(objectId != 0)
+				{
+					sizes[segmentIndex(objectId, count)]++;
+				}
+			}
+		}
+		for(int s = 0; s < count; s++)
+		{
+			int capacity = Defaults.defaultCapacity();
+			while(exceedsLoadFactor(sizes[s], capacity))
+			{
+				capacity *= 2;
+			}
+			segments[s] = new long[capacity];
+		}
+		for(final long[] segment : this.segments)
+		{
+			for(final long objectId : segment)
+			{
+				if(objectId != 0)
+				{
+					insert(segments[segmentIndex(objectId, count)], objectId);
+				}
+			}
+		}
+		
+		// the new segments are stored along with the new segments array that references them.
+		this.segments             = segments;
+		this.segmentSizes         = sizes;
+		this.segmentModifications = new long[count];
+		this.segmentsModification = ++this.modificationCount;
+	}
+	
+	final boolean hasUnstoredChanges()
+	{
+		return this.modificationCount > this.storedModificationCount;
+	}
+	
+	/**
+	 * Stores the changes of this set that have not been marked as stored, i.e. this instance and its changed
+	 * segments. Since the segments are modified in place, they are already known instances and would be skipped
+	 * by lazy storing, so they are stored explicitly.
+	 * 
+	 * @param storing the storing instance to be used.
+	 * @return the modification count of the stored state, to be passed to {@link #changesStored(long)}
+	 *         once the changes have been committed.
+	 */
+	final long storeChanges(final PersistenceStoring storing)
+	{
+		storing.store(this);
+		if(this.segmentsModification > this.storedModificationCount)
+		{
+			storing.store(this.segments);
+		}
+		
+		final long[] segmentModifications = this.segmentModifications();
+		for(int s = 0; s < segmentModifications.length; s++)
+		{
+			if(segmentModifications[s] > this.storedModificationCount)
+			{
+				storing.store(this.segments[s]);
+			}
+		}
+		
+		return this.modificationCount;
+	}
+	
+	final void changesStored(final long modificationCount)
+	{
+		// modifications after the stored state remain unstored.
+		this.storedModificationCount = Math.max(this.storedModificationCount, modificationCount);
+	}
+	
+}
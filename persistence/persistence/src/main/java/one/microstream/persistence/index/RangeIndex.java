@@ -0,0 +1,201 @@
+package one.microstream.persistence.index;
+
+/*-
+ * #%L
+ * microstream-persistence
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import one.microstream.collections.lazy.LazyArrayList;
+import one.microstream.collections.lazy.LazyHashMap;
+import one.microstream.persistence.types.PersistenceStoring;
+
+
+/**
+ * An {@link Index} for equality and range lookups over naturally ordered keys.
+ * <p>
+ * Like for {@link HashIndex}, the key groups are held in a {@link LazyHashMap}. The distinct keys are additionally
+ * held in ascending order in a {@link LazyArrayList}, which is binary searched for range lookups. So only the
+ * changed segments of both have to be stored and a range lookup only loads the segments it touches.
+ * <p>
+ * Entities with a <code>null</code> key are not contained in any key group.
+ *
+ * @param <E> the type of the indexed entities
+ * @param <K> the type of the index keys
+ */
+public interface RangeIndex<E, K extends Comparable<? super K>> extends Index<E, K>
+{
+	/**
+	 * Returns the object ids of all entities with a key in the passed range in ascending order.
+	 * 
+	 * @param lowerInclusive the lower bound of the range or <code>null</code> for no lower bound.
+	 * @param upperExclusive the upper bound of the range or <code>null</code> for no upper bound.
+	 * @return the object ids of all matching entities.
+	 */
+	public long[] objectIds(K lowerInclusive, K upperExclusive);
+	
+	
+	
+	public static <E, K extends Comparable<? super K>> RangeIndex<E, K> New(
+		final Class<E>                         entityType  ,
+		final Function<? super E, ? extends K> keyExtractor
+	)
+	{
+		return new RangeIndex.Default<>(entityType, keyExtractor);
+	}
+	
+	
+	
+	public final class Default<E, K extends Comparable<? super K>>
+	extends Index.Abstract<E, K>
+	implements RangeIndex<E, K>
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+		
+		private final LazyArrayList<K> sortedKeys;
+		
+		// runtime state that is not persisted //
+		
+		private transient long sortedKeysModification;
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+		
+		Default(
+			final Class<E>                         entityType  ,
+			final Function<? super E, ? extends K> keyExtractor
+		)
+		{
+			super(entityType, LazyHashMap.New(), keyExtractor);
+			this.sortedKeys             = LazyArrayList.New();
+			this.sortedKeysModification = this.modified()   ;
+		}
+		
+		
+		
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+		
+		@Override
+		protected boolean isIndexable(final K key)
+		{
+			return key != null;
+		}
+		
+		/**
+		 * Binary searches the sorted keys, only loading the segments of the probed positions.
+		 * 
+		 * @param key the key to be searched.
+		 * @return the index of the key if contained, otherwise <code>-(insertion index + 1)</code>.
+		 */
+		private int search(final K key)
+		{
+			int low  = 0;
+			int high = this.sortedKeys.size() - 1;
+			while(low <= high)
+			{
+				final int mid        = low + high >>> 1;
+				final int comparison = this.sortedKeys.get(mid).compareTo(key);
+				if(comparison < 0)
+				{
+					low = mid + 1;
+				}
+				else if(comparison > 0)
+				{
+					high = mid - 1;
+				}
+				else
+				{
+					return mid;
+				}
+			}
+			
+			return -(low + 1);
+		}
+		
+		@Override
+		protected void groupAdded(final K key)
+		{
+			this.sortedKeys.add(-(this.search(key) + 1), key);
+			this.sortedKeysModification = this.modified();
+		}
+		
+		@Override
+		protected void groupRemoved(final K key)
+		{
+			this.sortedKeys.remove(this.search(key));
+			this.sortedKeysModification = this.modified();
+		}
+		
+		@Override
+		protected void storeAdditionalChanges(final PersistenceStoring storing)
+		{
+			if(this.isUnstored(this.sortedKeysModification))
+			{
+				storing.store(this.sortedKeys);
+			}
+		}
+		
+		@Override
+		public final synchronized long[] objectIds(final K lowerInclusive, final K upperExclusive)
+		{
+			final int size = this.sortedKeys.size();
+			
+			int bound = size;
+			if(upperExclusive != null)
+			{
+				final int index = this.search(upperExclusive);
+				bound = index < 0 ? -(index + 1) : index;
+			}
+			int start = 0;
+			if(lowerInclusive != null)
+			{
+				final int index = this.search(lowerInclusive);
+				start = index < 0 ? -(index + 1) : index;
+			}
+			
+			// every object id is contained in exactly one group, so concatenating and sorting suffices.
+			long[] objectIds = new long[0];
+			int    count     = 0;
+			for(int i = start; i < bound; i++)
+			{
+				final long[] groupObjectIds = this.groups().get(this.sortedKeys.get(i)).toArray();
+				if(count + groupObjectIds.length > objectIds.length)
+				{
+					objectIds = Arrays.copyOf(objectIds, Math.max(objectIds.length * 2, count + groupObjectIds.length));
+				}
+				System.arraycopy(groupObjectIds, 0, objectIds, count, groupObjectIds.length);
+				count += groupObjectIds.length;
+			}
+			objectIds = Arrays.copyOf(objectIds, count);
+			Arrays.sort(objectIds);
+			
+			return objectIds;
+		}
+		
+	}
+	
+}
@@ -323,11 +323,11 @@ public class Persistence
 		NATIVE_TYPES.add(Class          .class, TID_Class            );
 		NATIVE_TYPES.add(Enum           .class, TID_Enum             );
 
-		NATIVE_TYPES.add(String         .class, TID_String           );
+		/* String, StringBuffer and StringBuilder are no longer native types since they are persisted in the
+		 * compact string layout with regular TypeIds. Their TypeIds stay reserved for data in the former layout.
+		 */
 		// stupid default visibility on such a common type.
 		NATIVE_TYPES.add(StringBuffer.class.getSuperclass(), TID_AbstractStringBuilder);
-		NATIVE_TYPES.add(StringBuffer   .class, TID_StringBuffer     );
-		NATIVE_TYPES.add(StringBuilder  .class, TID_StringBuilder    );
 
 		NATIVE_TYPES.add(java.io  .File      .class, TID_java_io_File        );
 		NATIVE_TYPES.add(java.util.Date      .class, TID_java_util_Date      );
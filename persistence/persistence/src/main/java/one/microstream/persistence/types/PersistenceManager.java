@@ -24,9 +24,12 @@ import static one.microstream.X.mayNull;
 import static one.microstream.X.notNull;
 
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 import one.microstream.X;
+import one.microstream.collections.BulkList;
 import one.microstream.util.BufferSizeProviderIncremental;
 
 
@@ -392,7 +395,43 @@ ByteOrderTargeting<PersistenceManager<D>>
 		@Override
 		public final <C extends Consumer<Object>> C collect(final C collector, final long... objectIds)
 		{
-			return this.createLoader().collect(collector, objectIds);
+			/*
+			 * Like in #getObject, still registered instances are used as they are instead of being reloaded,
+			 * which would overwrite their current state. Only the missing instances are loaded in one batch.
+			 */
+			final Object[] instances    = new Object[objectIds.length];
+			final long[]   missingIds   = new long[objectIds.length];
+			int            missingCount = 0;
+			for(int i = 0; i < objectIds.length; i++)
+			{
+				if((instances[i] = this.objectManager.lookupObject(objectIds[i])) == null)
+				{
+					missingIds[missingCount++] = objectIds[i];
+				}
+			}
+			
+			if(missingCount > 0)
+			{
+				// the loader collects one instance per passed id in order, so they fill the gaps in order.
+				final BulkList<Object> loaded = this.createLoader().collect(
+					BulkList.New(missingCount),
+					missingCount == objectIds.length ? objectIds : Arrays.copyOf(missingIds, missingCount)
+				);
+				for(int i = 0, l = 0; i < instances.length; i++)
+				{
+					if(instances[i] == null)
+					{
+						instances[i] = loaded.at(l++);
+					}
+				}
+			}
+			
+			for(final Object instance : instances)
+			{
+				collector.accept(instance);
+			}
+			
+			return collector;
 		}
 
 		@Override
@@ -405,6 +444,17 @@ ByteOrderTargeting<PersistenceManager<D>>
 			}
 			return this.createLoader().getObject(objectId);
 		}
+		
+		@Override
+		public final Object getObject(final long objectId, final LongConsumer loadedLengthReceiver)
+		{
+			final Object cachedInstance;
+			if((cachedInstance = this.objectManager.lookupObject(objectId)) != null)
+			{
+				return cachedInstance;
+			}
+			return this.createLoader().getObject(objectId, loadedLengthReceiver);
+		}
 
 		@Override
 		public final PersistenceLoader createLoader()
@@ -47,6 +47,7 @@ public interface PersistenceRetrieving extends ObjectSwizzling
 	@Override
 	public Object getObject(long objectId);
 
+	@Override
 	public <C extends Consumer<Object>> C collect(C collector, long... objectIds);
 
 //	public <T, C extends Collector<? super T>> C collectByType(C collector, Class<T> type);
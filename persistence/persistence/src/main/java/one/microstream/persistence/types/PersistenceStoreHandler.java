@@ -51,4 +51,16 @@ public interface PersistenceStoreHandler<D> extends PersistenceFunction
 	
 	public ObjectSwizzling getObjectRetriever();
 	
+	/**
+	 * Registers an action to be executed once the handled instances have been committed successfully, e.g. to
+	 * mark the stored state of an instance as persisted. The action is not executed if the commit fails.<br>
+	 * By default, the action is executed right away, for implementations that do not commit separately.
+	 * 
+	 * @param action the action to be executed after a successful commit
+	 */
+	public default void registerCommitAction(final Runnable action)
+	{
+		action.run();
+	}
+	
 }
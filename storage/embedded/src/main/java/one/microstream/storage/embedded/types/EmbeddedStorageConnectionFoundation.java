@@ -185,7 +185,8 @@ extends BinaryPersistenceFoundation<F>
 		{
 			return new BinaryLoader.CreatorChannelHashing(
 				this.getStorageSystem().operationController().channelCountProvider(),
-				this.isByteOrderMismatch()
+				this.isByteOrderMismatch(),
+				this.getBuildParallelizer()
 			);
 		}
 
@@ -194,6 +195,7 @@ extends BinaryPersistenceFoundation<F>
 		{
 			return BinaryStorer.Creator(
 				this.getStorageSystem().channelCountProvider(),
+				this.getIndexRegistry(),
 				this.isByteOrderMismatch()
 			);
 		}
@@ -27,6 +27,7 @@ import org.slf4j.Logger;
 
 import one.microstream.exceptions.MissingFoundationPartException;
 import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.BinaryBuildParallelizer;
 import one.microstream.persistence.types.Persistence;
 import one.microstream.persistence.types.PersistenceObjectIdProvider;
 import one.microstream.persistence.types.PersistenceRefactoringMappingProvider;
@@ -364,6 +365,20 @@ extends StorageFoundation<F>, PersistenceTypeHandlerRegistration.Executor<Binary
 	 */
 	public F setRefactoringMappingProvider(PersistenceRefactoringMappingProvider refactoringMappingProvider);
 
+	/**
+	 * Sets the passed {@link BinaryBuildParallelizer} instance to the
+	 * {@link EmbeddedStorageConnectionFoundation} instance provided by {@link #getConnectionFoundation()}.
+	 * It is used to build loaded instances in parallel for large loads, e.g.
+	 * {@code .setBuildParallelizer(BinaryBuildParallelizer.New())}. By default, loaded instances are built serially.
+	 *
+	 * @param buildParallelizer the instance to be used.
+	 *
+	 * @return {@literal this} to allow method chaining.
+	 *
+	 * @see EmbeddedStorageConnectionFoundation#setBuildParallelizer(BinaryBuildParallelizer)
+	 */
+	public F setBuildParallelizer(BinaryBuildParallelizer buildParallelizer);
+
 	public F registerTypeHandler(PersistenceTypeHandler<Binary, ?> typeHandler);
 
 	public F registerTypeHandlers(Iterable<? extends PersistenceTypeHandler<Binary, ?>> typeHandlers);
@@ -671,6 +686,15 @@ extends StorageFoundation<F>, PersistenceTypeHandlerRegistration.Executor<Binary
 			return this.$();
 		}
 
+		@Override
+		public F setBuildParallelizer(
+			final BinaryBuildParallelizer buildParallelizer
+		)
+		{
+			this.getConnectionFoundation().setBuildParallelizer(buildParallelizer);
+			return this.$();
+		}
+
 		@Override
 		public F setTimestampProvider(
 			final StorageTimestampProvider timestampProvider
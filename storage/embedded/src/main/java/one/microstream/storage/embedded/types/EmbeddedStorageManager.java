@@ -23,6 +23,7 @@ package one.microstream.storage.embedded.types;
 import static one.microstream.X.notNull;
 
 import java.util.Arrays;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.slf4j.Logger;
@@ -50,6 +51,8 @@ import one.microstream.storage.types.Database;
 import one.microstream.storage.types.StorageConfiguration;
 import one.microstream.storage.types.StorageConnection;
 import one.microstream.storage.types.StorageEntityCacheEvaluator;
+import one.microstream.storage.types.StorageEntityDataPredicate;
+import one.microstream.storage.types.StorageEntityScanResult;
 import one.microstream.storage.types.StorageEntityTypeExportFileProvider;
 import one.microstream.storage.types.StorageEntityTypeExportStatistics;
 import one.microstream.storage.types.StorageEntityTypeHandler;
@@ -540,6 +543,16 @@ public interface EmbeddedStorageManager extends StorageManager
 			this.singletonConnection().exportChannels(fileProvider, performGarbageCollection);
 		}
 
+		@Override
+		public final StorageEntityScanResult scanEntities(
+			final long[]                                                                           typeIds            ,
+			final Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ,
+			final String...                                                                        projectedFieldNames
+		)
+		{
+			return this.singletonConnection().scanEntities(typeIds, filterProvider, projectedFieldNames);
+		}
+
 		@Override
 		public final StorageEntityTypeExportStatistics exportTypes(
 			final StorageEntityTypeExportFileProvider         exportFileProvider,
@@ -0,0 +1,132 @@
+package one.microstream.storage.embedded.types;
+
+/*-
+ * #%L
+ * microstream-storage-embedded
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import one.microstream.persistence.binary.types.Binary;
+import one.microstream.persistence.binary.types.BinaryBuildParallelizer;
+import one.microstream.persistence.types.PersistenceTypeHandler;
+
+
+/**
+ * Loads a large entity graph with a {@link BinaryBuildParallelizer} set at the {@link EmbeddedStorageFoundation}.
+ */
+public class BuildParallelizerTest
+{
+	@TempDir
+	Path storageDirectory;
+	
+	static final class Item
+	{
+		final int    number;
+		final String name  ;
+		
+		Item(final int number)
+		{
+			super();
+			this.number = number;
+			this.name   = "item" + number;
+		}
+	}
+	
+	// counts the parallel executions of the wrapped parallelizer
+	static final class CountingParallelizer implements BinaryBuildParallelizer
+	{
+		final BinaryBuildParallelizer delegate  ;
+		final AtomicInteger           executions = new AtomicInteger();
+		
+		CountingParallelizer(final BinaryBuildParallelizer delegate)
+		{
+			super();
+			this.delegate = delegate;
+		}
+		
+		@Override
+		public int partitionCount(final long buildItemCount)
+		{
+			return this.delegate.partitionCount(buildItemCount);
+		}
+		
+		@Override
+		public boolean isParallelBuildable(final PersistenceTypeHandler<Binary, ?> typeHandler)
+		{
+			return this.delegate.isParallelBuildable(typeHandler);
+		}
+		
+		@Override
+		public void executeAll(final Runnable[] tasks)
+		{
+			this.executions.incrementAndGet();
+			this.delegate.executeAll(tasks);
+		}
+	}
+	
+	@Test
+	void loadsInParallel()
+	{
+		final List<Item> items = new ArrayList<>();
+		for(int i = 0; i < 20_000; i++)
+		{
+			items.add(new Item(i));
+		}
+		EmbeddedStorage.start(items, this.storageDirectory).shutdown();
+		
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			final CountingParallelizer parallelizer = new CountingParallelizer(
+				BinaryBuildParallelizer.New(executor, 4, 1_000)
+			);
+			
+			try(final EmbeddedStorageManager storage = EmbeddedStorage.Foundation(this.storageDirectory)
+				.setBuildParallelizer(parallelizer)
+				.start()
+			)
+			{
+				@SuppressWarnings("unchecked")
+				final List<Item> loaded = (List<Item>)storage.root();
+				
+				Assertions.assertTrue(parallelizer.executions.get() > 0);
+				Assertions.assertEquals(items.size(), loaded.size());
+				for(int i = 0; i < items.size(); i++)
+				{
+					Assertions.assertEquals(i         , loaded.get(i).number);
+					Assertions.assertEquals("item" + i, loaded.get(i).name  );
+				}
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+	
+}
@@ -0,0 +1,125 @@
+package one.microstream.storage.embedded.types;
+
+/*-
+ * #%L
+ * microstream-storage-embedded
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import one.microstream.afs.nio.types.NioFileSystem;
+import one.microstream.afs.types.ADirectory;
+import one.microstream.afs.types.AFile;
+import one.microstream.afs.types.AReadableFile;
+import one.microstream.storage.types.StorageDataConverterCsvConfiguration;
+import one.microstream.storage.types.StorageDataConverterTypeBinaryToCsv;
+import one.microstream.storage.types.StorageDataConverterTypeCsvToBinary;
+import one.microstream.storage.types.StorageEntityTypeConversionFileProvider;
+import one.microstream.storage.types.StorageEntityTypeExportFileProvider;
+import one.microstream.storage.types.StorageEntityTypeExportStatistics;
+
+
+/**
+ * Converts exported strings in the compact string binary layout to CSV and back.
+ */
+public class CsvStringConversionTest
+{
+	@TempDir
+	Path location;
+	
+	@Test
+	void stringsRoundTrip() throws Exception
+	{
+		final List<Object> root = new ArrayList<>();
+		root.add("plain");
+		root.add("with \"quotes\"");
+		root.add("caf\u00E9");
+		root.add("5 \u20AC");
+		root.add(new StringBuilder("builder \u20AC"));
+		root.add(new StringBuffer("buffer"));
+		
+		final NioFileSystem fileSystem = NioFileSystem.New();
+		final ADirectory    exportDir  = fileSystem.ensureDirectoryPath(this.location.resolve("export").toString());
+		final ADirectory    csvDir     = fileSystem.ensureDirectoryPath(this.location.resolve("csv"   ).toString());
+		final ADirectory    binDir     = fileSystem.ensureDirectoryPath(this.location.resolve("bin"   ).toString());
+		
+		try(final EmbeddedStorageManager storage = EmbeddedStorage.start(root, this.location.resolve("storage")))
+		{
+			final StorageEntityTypeExportStatistics result = storage.createConnection().exportTypes(
+				new StorageEntityTypeExportFileProvider.Default(exportDir, "bin"),
+				typeHandler -> typeHandler.type() == String.class
+					|| typeHandler.type() == StringBuilder.class
+					|| typeHandler.type() == StringBuffer.class
+			);
+			
+			final StorageDataConverterTypeBinaryToCsv toCsv = new StorageDataConverterTypeBinaryToCsv.UTF8(
+				StorageDataConverterCsvConfiguration.defaultConfiguration(),
+				new StorageEntityTypeConversionFileProvider.Default(csvDir, "csv"),
+				storage.typeDictionary(),
+				null,
+				4096,
+				4096
+			);
+			final StorageDataConverterTypeCsvToBinary<AFile> toBinary = StorageDataConverterTypeCsvToBinary.New(
+				StorageDataConverterCsvConfiguration.defaultConfiguration(),
+				storage.typeDictionary(),
+				new StorageEntityTypeConversionFileProvider.Default(binDir, "bin")
+			);
+			
+			final StringBuilder csv = new StringBuilder();
+			for(final StorageEntityTypeExportStatistics.TypeStatistic type : result.typeStatistics().values())
+			{
+				final AReadableFile exported = type.file().useReading();
+				try
+				{
+					toCsv.convertDataFile(exported);
+				}
+				finally
+				{
+					exported.release();
+				}
+				
+				final Path csvFile = this.location.resolve("csv").resolve(type.typeName() + "_" + type.typeId() + ".csv");
+				csv.append(new String(Files.readAllBytes(csvFile), StandardCharsets.UTF_8));
+				
+				toBinary.convertCsv(csvDir.ensureFile(csvFile.getFileName().toString()));
+				
+				// the binary data converted back from the CSV must be exactly the exported data
+				Assertions.assertArrayEquals(
+					Files.readAllBytes(this.location.resolve("export").resolve(exported.identifier())),
+					Files.readAllBytes(this.location.resolve("bin").resolve(type.typeName() + "_" + type.typeId() + ".bin"))
+				);
+			}
+			
+			// strings are exported as readable literals, not as their bytes
+			for(final String expected : new String[]{"plain", "caf\u00E9", "5 \u20AC", "builder \u20AC", "buffer"})
+			{
+				Assertions.assertTrue(csv.indexOf("\"" + expected + "\"") >= 0, expected);
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,199 @@
+package one.microstream.storage.embedded.types;
+
+/*-
+ * #%L
+ * microstream-storage-embedded
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import one.microstream.persistence.index.HashIndex;
+import one.microstream.storage.types.StorageWriteController;
+
+
+/**
+ * Stores entities with a registered {@link HashIndex} and checks the index state after restarting the storage.
+ */
+public class IndexStoringTest
+{
+	@TempDir
+	Path storageDirectory;
+	
+	static final class Item
+	{
+		String key;
+		
+		Item(final String key)
+		{
+			super();
+			this.key = key;
+		}
+	}
+	
+	static final class Root
+	{
+		final HashIndex<Item, String> index = HashIndex.New(Item.class, item -> item.key);
+		final List<Item>              items = new ArrayList<>();
+	}
+	
+	// allows to let the commits fail after the index changes have been stored
+	static final class FailingWriteController implements StorageWriteController
+	{
+		boolean writable = true;
+		
+		@Override
+		public boolean isWritable()
+		{
+			return this.writable;
+		}
+		
+		@Override
+		public boolean isStoringEnabled()
+		{
+			return true;
+		}
+		
+		@Override
+		public boolean isFileCleanupEnabled()
+		{
+			return true;
+		}
+		
+		@Override
+		public boolean isBackupEnabled()
+		{
+			return true;
+		}
+		
+		@Override
+		public boolean isDeletionDirectoryEnabled()
+		{
+			return true;
+		}
+		
+		@Override
+		public boolean isFileDeletionEnabled()
+		{
+			return true;
+		}
+	}
+	
+	private EmbeddedStorageManager start(final Root root, final StorageWriteController writeController)
+	{
+		final EmbeddedStorageFoundation<?> foundation = EmbeddedStorage.Foundation(this.storageDirectory);
+		if(writeController != null)
+		{
+			foundation.setWriteController(writeController);
+		}
+		final EmbeddedStorageManager storage = foundation.start(root);
+		
+		final Root effectiveRoot = (Root)storage.root();
+		effectiveRoot.index.setKeyExtractor(item -> item.key);
+		foundation.getConnectionFoundation().getIndexRegistry().register(effectiveRoot.index);
+		
+		return storage;
+	}
+	
+	private EmbeddedStorageManager restart(final EmbeddedStorageManager storage)
+	{
+		storage.shutdown();
+		
+		return this.start(null, null);
+	}
+	
+	private static long[] objectIds(final EmbeddedStorageManager storage, final List<Item> items)
+	{
+		return items.stream().mapToLong(storage.persistenceManager()::ensureObjectId).sorted().toArray();
+	}
+	
+	@Test
+	void largeGroups()
+	{
+		final Root                   root    = new Root();
+		final EmbeddedStorageManager storage = this.start(root, null);
+		
+		// groups exceeding the maximum segment length are split into multiple segments.
+		final List<Item> even = new ArrayList<>();
+		final List<Item> odd  = new ArrayList<>();
+		for(int i = 0; i < 10_000; i++)
+		{
+			final Item item = new Item(i % 2 == 0 ? "even" : "odd");
+			(i % 2 == 0 ? even : odd).add(item);
+			root.items.add(item);
+		}
+		storage.store(root.items);
+		
+		// changes of single segments
+		for(int i = 0; i < 100; i++)
+		{
+			final Item item = even.remove(even.size() - 1 - i * 7);
+			item.key = "odd";
+			odd.add(item);
+			storage.store(item);
+		}
+		final long[] evenObjectIds = objectIds(storage, even);
+		final long[] oddObjectIds  = objectIds(storage, odd);
+		
+		try(final EmbeddedStorageManager restarted = this.restart(storage))
+		{
+			final Root loaded = (Root)restarted.root();
+			Assertions.assertArrayEquals(evenObjectIds, loaded.index.objectIds("even"));
+			Assertions.assertArrayEquals(oddObjectIds, loaded.index.objectIds("odd"));
+			Assertions.assertEquals(10_000, loaded.index.size());
+		}
+	}
+	
+	@Test
+	void changesOfFailedCommitAreStoredAgain()
+	{
+		final FailingWriteController writeController = new FailingWriteController();
+		final Root                   root            = new Root();
+		final EmbeddedStorageManager storage         = this.start(root, writeController);
+		
+		final Item item1 = new Item("a");
+		final Item item2 = new Item("a");
+		root.items.add(item1);
+		root.items.add(item2);
+		storage.store(root.items);
+		
+		item1.key = "b";
+		writeController.writable = false;
+		Assertions.assertThrows(RuntimeException.class, () -> storage.store(item1));
+		writeController.writable = true;
+		
+		// the index is not changed by storing again, but its changes of the failed commit are still unstored.
+		storage.store(item1);
+		final long[] objectIds1 = objectIds(storage, List.of(item1));
+		final long[] objectIds2 = objectIds(storage, List.of(item2));
+		
+		try(final EmbeddedStorageManager restarted = this.restart(storage))
+		{
+			final Root loaded = (Root)restarted.root();
+			Assertions.assertArrayEquals(objectIds1, loaded.index.objectIds("b"));
+			Assertions.assertArrayEquals(objectIds2, loaded.index.objectIds("a"));
+			Assertions.assertEquals(2, loaded.index.size());
+		}
+	}
+	
+}
@@ -0,0 +1,148 @@
+package one.microstream.storage.embedded.types;
+
+/*-
+ * #%L
+ * microstream-storage-embedded
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.MonthDay;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import one.microstream.persistence.types.Storer;
+
+
+/**
+ * Loads a storage which was written before the dedicated java.time and UUID type handlers existed,
+ * i.e. with the generic JDK layouts of these types.
+ */
+public class LegacyJavaTimeTest
+{
+	private static final String   RESOURCE = "/legacy-java-time/";
+	private static final String[] FILES    =
+	{
+		"PersistenceTypeDictionary.ptd",
+		"channel_0/channel_0_1.dat"    ,
+		"channel_0/transactions_0.sft"
+	};
+	
+	@TempDir
+	Path storageDirectory;
+	
+	// the values the legacy storage's root list was written with
+	private static List<Object> expectedRoot()
+	{
+		final LocalDateTime dateTime = LocalDateTime.of(2021, 3, 28, 2, 30, 15, 123_456_789);
+		return Arrays.asList(
+			ZonedDateTime.of(dateTime, ZoneId.of("Europe/Berlin")),
+			ZonedDateTime.of(dateTime, ZoneOffset.ofHours(-5)),
+			ZonedDateTime.of(dateTime, ZoneId.of("UTC")),
+			dateTime,
+			dateTime.toLocalDate(),
+			dateTime.toLocalTime(),
+			OffsetDateTime.of(dateTime, ZoneOffset.ofHoursMinutes(5, 30)),
+			OffsetTime.of(dateTime.toLocalTime(), ZoneOffset.ofHours(2)),
+			Instant.ofEpochSecond(1_616_895_015L, 987_654_321),
+			Duration.ofSeconds(90_061L, 5),
+			Period.of(1, 2, 3),
+			Year.of(2021),
+			YearMonth.of(2021, 3),
+			MonthDay.of(2, 29),
+			ZoneOffset.ofHours(9),
+			ZoneId.of("America/New_York"),
+			UUID.fromString("123e4567-e89b-12d3-a456-426614174000")
+		);
+	}
+	
+	private void copyLegacyStorage() throws IOException
+	{
+		for(final String file : FILES)
+		{
+			final Path target = this.storageDirectory.resolve(file);
+			Files.createDirectories(target.getParent());
+			try(InputStream input = LegacyJavaTimeTest.class.getResourceAsStream(RESOURCE + file))
+			{
+				Files.copy(input, target);
+			}
+		}
+	}
+	
+	private Object loadRoot()
+	{
+		final EmbeddedStorageManager storage = EmbeddedStorage.start(this.storageDirectory);
+		try
+		{
+			return storage.root();
+		}
+		finally
+		{
+			storage.shutdown();
+		}
+	}
+	
+	@Test
+	public void loadLegacyLayouts() throws IOException
+	{
+		this.copyLegacyStorage();
+		
+		Assertions.assertEquals(expectedRoot(), this.loadRoot());
+	}
+	
+	@Test
+	public void storeLoadedLegacyLayouts() throws IOException
+	{
+		this.copyLegacyStorage();
+		
+		// the loaded instances are stored again with the current type handlers
+		final EmbeddedStorageManager storage = EmbeddedStorage.start(this.storageDirectory);
+		try
+		{
+			final Storer storer = storage.createEagerStorer();
+			storer.store(storage.root());
+			storer.commit();
+		}
+		finally
+		{
+			storage.shutdown();
+		}
+		
+		Assertions.assertEquals(expectedRoot(), this.loadRoot());
+	}
+	
+}
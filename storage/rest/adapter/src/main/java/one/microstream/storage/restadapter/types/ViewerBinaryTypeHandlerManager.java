@@ -24,10 +24,14 @@ import java.util.function.BiConsumer;
 
 import java.util.function.Consumer;
 
+import one.microstream.collections.BulkList;
 import one.microstream.collections.EqHashTable;
 import one.microstream.collections.types.XGettingEnum;
 import one.microstream.collections.types.XGettingSequence;
 import one.microstream.collections.types.XGettingTable;
+import one.microstream.persistence.binary.java.lang.BinaryHandlerString;
+import one.microstream.persistence.binary.java.lang.BinaryHandlerStringBuffer;
+import one.microstream.persistence.binary.java.lang.BinaryHandlerStringBuilder;
 import one.microstream.persistence.binary.types.Binary;
 import one.microstream.persistence.binary.types.BinaryPersistence;
 import one.microstream.persistence.exceptions.PersistenceExceptionConsistency;
@@ -62,7 +66,15 @@ public class ViewerBinaryTypeHandlerManager implements PersistenceTypeHandlerMan
 		super();
 
 		this.typeDictionary = persistenceManager.typeDictionary();
-		this.nativeHandlers = BinaryPersistence.createNativeHandlersValueTypes(this, null, null);
+		this.nativeHandlers = BulkList.<PersistenceTypeHandler<Binary, ?>>New()
+			.addAll(BinaryPersistence.createNativeHandlersValueTypes(this, null, null))
+			// strings are no native types anymore but still value types to be rendered as such
+			.addAll(
+				BinaryHandlerString.New()       ,
+				BinaryHandlerStringBuffer.New() ,
+				BinaryHandlerStringBuilder.New()
+			)
+		;
 
 		//initialize generic handlers
 		for (final PersistenceTypeHandler<Binary, ?> persistenceTypeHandler : this.nativeHandlers)
@@ -21,6 +21,8 @@ package one.microstream.storage.types;
  */
 
 import java.lang.ref.WeakReference;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 import one.microstream.chars.XChars;
 import one.microstream.persistence.types.Persister;
@@ -165,6 +167,22 @@ public interface Database extends DatabasePart, Persister
 			return storage.getObject(objectId);
 		}
 		
+		@Override
+		public final Object getObject(final long objectId, final LongConsumer loadedLengthReceiver)
+		{
+			final StorageManager storage = this.guaranteeActiveStorage();
+
+			return storage.getObject(objectId, loadedLengthReceiver);
+		}
+		
+		@Override
+		public final <C extends Consumer<Object>> C collect(final C collector, final long... objectIds)
+		{
+			final StorageManager storage = this.guaranteeActiveStorage();
+
+			return storage.collect(collector, objectIds);
+		}
+		
 		@Override
 		public final long store(final Object instance)
 		{
@@ -94,6 +94,13 @@ public interface StorageChannel extends Runnable, StorageChannelResetablePart, S
 		Predicate<? super StorageEntity> predicateEntity
 	) throws IOException;
 
+	public StorageEntityScanResult.Collector scanEntities(
+		StorageEntityTypeHandler          type      ,
+		StorageEntityDataPredicate        filter    ,
+		StorageEntityField[]              projection,
+		StorageEntityScanResult.Collector collector
+	);
+
 	public StorageRawFileStatistics.ChannelStatistics createRawFileStatistics();
 
 	public StorageIdAnalysis initializeStorage(
@@ -740,6 +747,41 @@ public interface StorageChannel extends Runnable, StorageChannelResetablePart, S
 			return X.KeyValue(byteCount, entities.entityCount());
 		}
 
+		@Override
+		public final StorageEntityScanResult.Collector scanEntities(
+			final StorageEntityTypeHandler          type      ,
+			final StorageEntityDataPredicate        filter    ,
+			final StorageEntityField[]              projection,
+			final StorageEntityScanResult.Collector collector
+		)
+		{
+			final StorageEntityType.Default entities = this.entityCache.getType(type.typeId());
+			if(entities == null)
+			{
+				// it can very well be that a channel does not have a certain type at all. That is no error
+				return collector;
+			}
+
+			for(StorageEntity.Default entity = entities.head; (entity = entity.typeNext) != null;)
+			{
+				// the data is evaluated right in the cache, so entities that were not cached before are loaded.
+				final boolean wasLive        = entity.isLive();
+				final long    contentAddress = entity.ensureCachedContentAddress();
+				if(filter.test(contentAddress))
+				{
+					collector.add(entity.objectId(), contentAddress, projection);
+				}
+
+				// a scan is no usage of the entity, so only newly loaded data is subject to the cache evaluation.
+				if(!wasLive)
+				{
+					this.entityCache.checkForCacheClear(entity, System.currentTimeMillis());
+				}
+			}
+
+			return collector;
+		}
+
 		@Override
 		public final StorageRawFileStatistics.ChannelStatistics createRawFileStatistics()
 		{
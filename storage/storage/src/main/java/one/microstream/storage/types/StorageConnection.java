@@ -22,18 +22,27 @@ package one.microstream.storage.types;
 
 import static one.microstream.X.notNull;
 
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
 import java.util.function.Predicate;
 
+import one.microstream.X;
 import one.microstream.afs.types.ADirectory;
 import one.microstream.afs.types.AFile;
+import one.microstream.collections.BulkList;
 import one.microstream.collections.types.XGettingEnum;
 import one.microstream.persistence.binary.types.Binary;
 import one.microstream.persistence.internal.PersistenceTypeDictionaryFileHandler;
 import one.microstream.persistence.types.PersistenceManager;
+import one.microstream.persistence.types.PersistenceTypeDefinition;
+import one.microstream.persistence.types.PersistenceTypeDictionary;
 import one.microstream.persistence.types.PersistenceTypeDictionaryExporter;
+import one.microstream.persistence.types.PersistenceTypeLineage;
 import one.microstream.persistence.types.Persister;
 import one.microstream.persistence.types.Storer;
 import one.microstream.persistence.types.Unpersistable;
+import one.microstream.storage.exceptions.StorageException;
 import one.microstream.storage.exceptions.StorageExceptionBackupFullBackupTargetNotEmpty;
 
 
@@ -347,6 +356,102 @@ public interface StorageConnection extends Persister
 		return this.exportTypes(exportFileProvider, null);
 	}
 
+	/**
+	 * Scans all entities of the type with the passed type id,
+	 * see {@link #scanEntities(long[], Function, String...)}.
+	 * 
+	 * @param typeId the type id of the entities to be scanned.
+	 * 
+	 * @param filterProvider a function providing the filter for the type.
+	 * 
+	 * @param projectedFieldNames the names of the fields whose values shall be contained in the result.
+	 * 
+	 * @return a {@link StorageEntityScanResult} containing the matching entities.
+	 */
+	public default StorageEntityScanResult scanEntities(
+		final long                                                                             typeId             ,
+		final Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ,
+		final String...                                                                        projectedFieldNames
+	)
+	{
+		return this.scanEntities(new long[]{typeId}, filterProvider, projectedFieldNames);
+	}
+
+	/**
+	 * Scans all entities of the types with the passed type ids in parallel inside the storage channels and
+	 * returns the object ids of all entities matching the filter provided by the passed function.<br>
+	 * The filter is evaluated directly against the entities' binary data, no instances are created. Optionally,
+	 * the values of primitive fields can be projected into the result, also read directly from the binary data.
+	 * <p>
+	 * The entities are evaluated in the storage's entity cache. Entities not cached at the time of the scan are
+	 * loaded for the evaluation and are subject to the storage's cache evaluation afterwards.<br>
+	 * Note that the result may contain entities that are not reachable any more but have not been deleted
+	 * by the storage's garbage collector yet.
+	 * 
+	 * Since the fields' offsets differ between the type definitions, the filter is provided per type and the
+	 * projected values are converted to the field types of the first type.
+	 * 
+	 * @param typeIds the type ids of the entities to be scanned, typically all type ids of one type's lineage.
+	 * 
+	 * @param filterProvider a function providing the filter for each type, typically composed
+	 *        of {@link StorageEntityField} conditions. A {@literal null} function or filter matches all entities.
+	 * 
+	 * @param projectedFieldNames the names of the fields whose values shall be contained in the result.
+	 * 
+	 * @return a {@link StorageEntityScanResult} containing the matching entities.
+	 * 
+	 * @see StorageEntityField
+	 * @see StorageEntityDataPredicate
+	 */
+	public StorageEntityScanResult scanEntities(
+		long[]                                                                           typeIds            ,
+		Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ,
+		String...                                                                        projectedFieldNames
+	);
+
+	/**
+	 * Scans all entities of the passed class, see {@link #scanEntities(long[], Function, String...)}.
+	 * <p>
+	 * This includes the entities of all type definitions mapped to the passed class, meaning the outdated
+	 * definitions of its type lineage as well as the definitions of other types mapped to it by refactoring.
+	 * 
+	 * @param type the class of the entities to be scanned.
+	 * 
+	 * @param filterProvider a function providing the filter for the type.
+	 * 
+	 * @param projectedFieldNames the names of the fields whose values shall be contained in the result.
+	 * 
+	 * @return a {@link StorageEntityScanResult} containing the matching entities.
+	 */
+	public default StorageEntityScanResult scanEntities(
+		final Class<?>                                                                         type               ,
+		final Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ,
+		final String...                                                                        projectedFieldNames
+	)
+	{
+		final PersistenceTypeDictionary typeDictionary = this.persistenceManager().typeDictionary();
+		final PersistenceTypeLineage    lineage        = typeDictionary.lookupTypeLineage(type);
+		if(lineage == null || lineage.runtimeDefinition() == null)
+		{
+			throw new StorageException("No type definition found for " + type);
+		}
+		
+		// the runtime definition comes first, so the projected values are converted to its field types.
+		final long           runtimeTypeId = lineage.runtimeDefinition().typeId();
+		final BulkList<Long> typeIds       = BulkList.New();
+		typeIds.add(runtimeTypeId);
+		for(final PersistenceTypeDefinition typeDefinition : typeDictionary.allTypeDefinitions().values())
+		{
+			// legacy definitions are resolved to their runtime type, also via the refactoring mapping.
+			if(typeDefinition.type() == type && typeDefinition.typeId() != runtimeTypeId)
+			{
+				typeIds.add(typeDefinition.typeId());
+			}
+		}
+
+		return this.scanEntities(X.unbox(typeIds.toArray(Long.class)), filterProvider, projectedFieldNames);
+	}
+
 	/**
 	 * Imports all files specified by the passed Enum (ordered set) of {@link AFile} in order.<br>
 	 * The files are assumed to be in the native binary format used internally by the storage.<br>
@@ -435,6 +540,24 @@ public interface StorageConnection extends Persister
 		return this.persistenceManager().getObject(objectId);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public default Object getObject(final long objectId, final LongConsumer loadedLengthReceiver)
+	{
+		return this.persistenceManager().getObject(objectId, loadedLengthReceiver);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public default <C extends Consumer<Object>> C collect(final C collector, final long... objectIds)
+	{
+		return this.persistenceManager().collect(collector, objectIds);
+	}
+
 
 	
 	public static StorageConnection New(
@@ -572,6 +695,24 @@ public interface StorageConnection extends Persister
 			}
 		}
 
+		@Override
+		public StorageEntityScanResult scanEntities(
+			final long[]                                                                           typeIds            ,
+			final Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ,
+			final String...                                                                        projectedFieldNames
+		)
+		{
+			try
+			{
+				return this.connectionRequestAcceptor.scanEntities(typeIds, filterProvider, projectedFieldNames);
+			}
+			catch(final InterruptedException e)
+			{
+				// thread interrupted, task aborted, return
+				return null;
+			}
+		}
+
 		@Override
 		public StorageEntityTypeExportStatistics exportTypes(
 			final StorageEntityTypeExportFileProvider         exportFileProvider,
@@ -47,6 +47,7 @@ import one.microstream.collections.types.XGettingSequence;
 import one.microstream.memory.XMemory;
 import one.microstream.persistence.binary.types.Binary;
 import one.microstream.persistence.types.PersistenceTypeDefinition;
+import one.microstream.persistence.types.PersistenceTypeDescription;
 import one.microstream.persistence.types.PersistenceTypeDescriptionMember;
 import one.microstream.persistence.types.PersistenceTypeDescriptionMemberFieldGeneric;
 import one.microstream.persistence.types.PersistenceTypeDescriptionMemberFieldGenericComplex;
@@ -93,6 +94,34 @@ public interface StorageDataConverterTypeBinaryToCsv
 			}
 		};
 	}
+	
+	/**
+	 * Queries whether the passed members are the coder and the value of the compact string binary layout
+	 * used for {@link String}, {@link StringBuilder} and {@link StringBuffer}. Such a value is a list of bytes,
+	 * but is converted from and to a string literal like a list of chars, decoded according to its coder.
+	 * 
+	 * @param type the type containing the members.
+	 * @param coder the member preceding the value member, may be {@literal null}.
+	 * @param value the potential value member.
+	 * @return whether the passed value member is the value of a compact string.
+	 * 
+	 * @see Binary#storeCharsCompact(long, char[], int, int, boolean)
+	 */
+	public static boolean isCompactStringValue(
+		final PersistenceTypeDescription       type ,
+		final PersistenceTypeDescriptionMember coder,
+		final PersistenceTypeDescriptionMember value
+	)
+	{
+		return coder != null
+			&& (type.typeName().equals(String.class.getName())
+				|| type.typeName().equals(StringBuilder.class.getName())
+				|| type.typeName().equals(StringBuffer.class.getName())
+			)
+			&& "coder".equals(coder.name()) && coder.typeName().equals(byte.class.getName())
+			&& "value".equals(value.name()) && value.typeName().equals(PersistenceTypeDictionary.Symbols.typeBytes())
+		;
+	}
 
 
 
@@ -323,12 +352,16 @@ public interface StorageDataConverterTypeBinaryToCsv
 			int i = 0;
 
 			// members are in persistent order, so their order must be heeded exactely
+			PersistenceTypeDescriptionMember previous = null;
 			for(final PersistenceTypeDescriptionMember member : members)
 			{
 				valueWriters[i++] = member.isReference()
 					? this.valueWriterRef
-					: this.deriveOtherValueWriter(member)
+					: isCompactStringValue(this.typeDescription, previous, member)
+						? this.createValueWriter_charsCompact()
+						: this.deriveOtherValueWriter(member)
 				;
+				previous = member;
 			}
 
 			return valueWriters;
@@ -773,6 +806,11 @@ public interface StorageDataConverterTypeBinaryToCsv
 
 
 		final void write_chars(final long readStart, final long readBound) throws IOException
+		{
+			this.write_chars(readStart, readBound, false);
+		}
+
+		final void write_chars(final long readStart, final long readBound, final boolean latin1) throws IOException
 		{
 			// ensure one char size for the closing literal delimiter
 			final long          flushBound       = this.flushBound      ;
@@ -782,9 +820,13 @@ public interface StorageDataConverterTypeBinaryToCsv
 
 			this.write(literalDelimiter);
 			long address = this.writeAddress;
-			for(long readAddress = readStart; readAddress < readBound; readAddress += STRING_BYTE_SIZE_CHAR)
+			final long charSize = latin1 ? XMemory.byteSize_byte() : STRING_BYTE_SIZE_CHAR;
+			for(long readAddress = readStart; readAddress < readBound; readAddress += charSize)
 			{
-				final char c = XMemory.get_char(readAddress);
+				final char c = latin1
+					? (char)(XMemory.get_byte(readAddress) & 0xFF)
+					: XMemory.get_char(readAddress)
+				;
 				if(c == literalDelimiter || c == escaper || escapeHandler.needsEscaping(c))
 				{
 					// escaping case: write escaper, advance address, then handle the actual character
@@ -968,6 +1010,30 @@ public interface StorageDataConverterTypeBinaryToCsv
 			};
 		}
 
+		final ValueWriter createValueWriter_charsCompact()
+		{
+			return new ValueWriter()
+			{
+				@Override
+				public long writeValue(final long valueReadAddress) throws IOException
+				{
+					// the coder is stored right before the value's byte list and has already been written.
+					final boolean latin1 = XMemory.get_byte(valueReadAddress - XMemory.byteSize_byte())
+						== Binary.compactStringCoderLatin1()
+					;
+					final long bound = valueReadAddress + XMemory.get_long(Binary.toBinaryListByteLengthOffset(valueReadAddress));
+					
+					UTF8.this.write_chars(
+						Binary.toBinaryListElementsOffset(valueReadAddress),
+						bound,
+						latin1
+					);
+					
+					return bound;
+				}
+			};
+		}
+
 		final ValueWriter createValueWriter_bytes()
 		{
 			return new ValueWriter()
@@ -164,6 +164,7 @@ public interface StorageDataConverterTypeCsvToBinary<S>
 		      PersistenceTypeDefinition               currentType                    ;
 		      long                                    currentTypeEntityInitLength    ;
 		      ValueHandler[]                          valueHandler                   ;
+		      byte                                    compactStringCoder             ;
 
 		/*
 		 * current buffer address and value setting has to be done manually because they
@@ -521,11 +522,75 @@ public interface StorageDataConverterTypeCsvToBinary<S>
 				throw new StorageException("Missing literal delimiter " + this.listStarter + " at offset " + offset);
 			}
 
-			final long          currentFileOffset = this.writeListHeader();
-			final int           lastCharIndex     = bound - 1             ;
-			final char          literalDelimiter  = this.literalDelimiter ;
-			final char          escaper           = this.escaper          ;
-			final EscapeHandler escapeHandler     = this.escapeHandler    ;
+			final long currentFileOffset = this.writeListHeader();
+			final int  i                 = this.parseCharsLiteral(data, offset, bound, false);
+
+			this.retroUpdateListHeader(currentFileOffset, BIT_SHIFT_DIVIDE_BY_2); // 2 byte per value
+
+			return i;
+		}
+
+		final int parseCompactStringCoder(
+			final char[] data      ,
+			final int    offset    ,
+			final int    bound     ,
+			final char   separator ,
+			final char   terminator
+		)
+		{
+			int i = offset;
+			while(i < bound && data[i] != separator && data[i] != terminator)
+			{
+				i++;
+			}
+			int j = i - 1;
+			while(data[j] <= ' ')
+			{
+				j--;
+			}
+			this.compactStringCoder = XChars.parse_byteDecimal(data, offset, j - offset + 1);
+			this.write_byte(this.compactStringCoder);
+			return i;
+		}
+
+		final int parseCharsCompact(
+			final char[] data      ,
+			final int    offset    ,
+			final int    bound     ,
+			final char   separator ,
+			final char   terminator
+		)
+		{
+			if(data[offset] != this.literalDelimiter)
+			{
+				throw new StorageException("Missing literal delimiter " + this.literalDelimiter + " at offset " + offset);
+			}
+
+			final long currentFileOffset = this.writeListHeader();
+			final int  i                 = this.parseCharsLiteral(
+				data,
+				offset,
+				bound,
+				this.compactStringCoder == Binary.compactStringCoderLatin1()
+			);
+
+			// the element count of a compact string's byte list is always its byte count
+			this.retroUpdateListHeader(currentFileOffset, BIT_SHIFT_DIVIDE_NONE);
+
+			return i;
+		}
+
+		private int parseCharsLiteral(
+			final char[]  data  ,
+			final int     offset,
+			final int     bound ,
+			final boolean latin1
+		)
+		{
+			final int           lastCharIndex    = bound - 1             ;
+			final char          literalDelimiter = this.literalDelimiter ;
+			final char          escaper          = this.escaper          ;
+			final EscapeHandler escapeHandler    = this.escapeHandler    ;
 
 			int i = offset;
 
@@ -545,20 +610,32 @@ public interface StorageDataConverterTypeCsvToBinary<S>
 					{
 						throw new StorageException("incomplete characters literal at offset " + bound);
 					}
-					this.write_char(escapeHandler.unescape(data[++i]));
+					this.write_char(escapeHandler.unescape(data[++i]), latin1, i);
 				}
 				else
 				{
-					this.write_char(data[i]);
+					this.write_char(data[i], latin1, i);
 				}
 			}
 
-			this.retroUpdateListHeader(currentFileOffset, BIT_SHIFT_DIVIDE_BY_2); // 2 byte per value
-
 			// return current position in the source array, skipping the delimiter
 			return i + 1;
 		}
 
+		private void write_char(final char value, final boolean latin1, final int offset)
+		{
+			if(!latin1)
+			{
+				this.write_char(value);
+				return;
+			}
+			if(value > 0xFF)
+			{
+				throw new StorageException("Non-Latin-1 character in a Latin-1 string literal at offset " + offset);
+			}
+			this.write_byte((byte)value);
+		}
+
 		final int parseBytes(
 			final char[] data      ,
 			final int    offset    ,
@@ -1174,6 +1251,7 @@ public interface StorageDataConverterTypeCsvToBinary<S>
 
 			long entityBaseLength = Binary.entityHeaderLength();
 
+			PersistenceTypeDescriptionMember previous = null;
 			for(final PersistenceTypeDescriptionMember member : members)
 			{
 				// add fixed length member length right away, variable member length is dynamically added later
@@ -1185,7 +1263,17 @@ public interface StorageDataConverterTypeCsvToBinary<S>
 				{
 					hasVariableLength = true;
 				}
-				valueHandlers[i++] = this.deriveValueWriter(member);
+				if(StorageDataConverterTypeBinaryToCsv.isCompactStringValue(this.currentType, previous, member))
+				{
+					// the string literal is encoded according to the coder parsed right before it
+					valueHandlers[i - 1] = this::parseCompactStringCoder;
+					valueHandlers[i++]   = this::parseCharsCompact;
+				}
+				else
+				{
+					valueHandlers[i++] = this.deriveValueWriter(member);
+				}
+				previous = member;
 			}
 
 			this.valueHandler = valueHandlers;
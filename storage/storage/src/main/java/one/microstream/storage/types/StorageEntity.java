@@ -485,6 +485,12 @@ public interface StorageEntity
 			return this.cacheAddress;
 		}
 
+		final long ensureCachedContentAddress()
+		{
+			this.ensureCachedFullData();
+			return Binary.toEntityContentOffset(this.cacheAddress);
+		}
+
 
 
 		///////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,71 @@
+package one.microstream.storage.types;
+
+/*-
+ * #%L
+ * microstream-storage
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+/**
+ * Function type that evaluates the binary content data of an entity directly inside a storage channel,
+ * without the entity being materialized as an instance.
+ * <p>
+ * Instances are typically composed of {@link StorageEntityField} conditions. As with all logic executed by
+ * storage channel threads, implementations must be thread-safe and should be simple and "exception free".
+ *
+ * @see StorageEntityField
+ * @see StorageConnection#scanEntities(long[], java.util.function.Function, String...)
+ */
+@FunctionalInterface
+public interface StorageEntityDataPredicate
+{
+	/**
+	 * Tests the entity content data at the passed memory address.
+	 *
+	 * @param contentAddress the memory address of the entity's content data, i.e. right behind the entity header.
+	 * @return whether the entity matches.
+	 */
+	public boolean test(long contentAddress);
+
+	public default StorageEntityDataPredicate and(final StorageEntityDataPredicate other)
+	{
+		return a -> this.test(a) && other.test(a);
+	}
+
+	public default StorageEntityDataPredicate or(final StorageEntityDataPredicate other)
+	{
+		return a -> this.test(a) || other.test(a);
+	}
+
+	public default StorageEntityDataPredicate negate()
+	{
+		return a -> !this.test(a);
+	}
+
+
+
+	/**
+	 * Returns a {@link StorageEntityDataPredicate} that matches every entity.
+	 *
+	 * @return a {@link StorageEntityDataPredicate} that matches every entity.
+	 */
+	public static StorageEntityDataPredicate All()
+	{
+		return a -> true;
+	}
+
+}
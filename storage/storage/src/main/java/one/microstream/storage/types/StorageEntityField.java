@@ -0,0 +1,421 @@
+package one.microstream.storage.types;
+
+/*-
+ * #%L
+ * microstream-storage
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+
+import java.util.function.DoublePredicate;
+import java.util.function.LongPredicate;
+
+import one.microstream.memory.XMemory;
+import one.microstream.persistence.types.PersistenceTypeDefinitionMember;
+import one.microstream.storage.exceptions.StorageException;
+
+/**
+ * A field of the persisted form of a type, resolved to its offset in the entity content data.
+ * It allows reading field values directly from the binary data of an entity, e.g. to evaluate
+ * {@link StorageEntityDataPredicate}s inside the storage channels.
+ * <p>
+ * Only fields with a fixed length are supported (primitive values and references, the latter being read as
+ * object ids) and only if all fields in front of them have a fixed length as well. This is the case for all
+ * fields of types handled by the generic, reflection-based type handlers.
+ */
+public interface StorageEntityField
+{
+	public String name();
+
+	public String typeName();
+
+	public long offset();
+
+	public boolean isReference();
+
+	/**
+	 * Reads the field's value from the passed entity content data as a {@code long}.
+	 * Boolean values are read as 0 or 1, references as their object id, floating point values are truncated.
+	 *
+	 * @param contentAddress the memory address of the entity's content data.
+	 * @return the field's value as a {@code long}.
+	 */
+	public long readLong(long contentAddress);
+
+	/**
+	 * Reads the field's value from the passed entity content data as a {@code double}.
+	 *
+	 * @param contentAddress the memory address of the entity's content data.
+	 * @return the field's value as a {@code double}.
+	 * @see #readLong(long)
+	 */
+	public double readDouble(long contentAddress);
+
+	public default boolean isFloatingPoint()
+	{
+		return false;
+	}
+
+	public default StorageEntityDataPredicate filterLong(final LongPredicate predicate)
+	{
+		notNull(predicate);
+		return a -> predicate.test(this.readLong(a));
+	}
+
+	public default StorageEntityDataPredicate filterDouble(final DoublePredicate predicate)
+	{
+		notNull(predicate);
+		return a -> predicate.test(this.readDouble(a));
+	}
+
+	public default StorageEntityDataPredicate isEqualTo(final long value)
+	{
+		return a -> this.readLong(a) == value;
+	}
+
+	/**
+	 * Creates a {@link StorageEntityDataPredicate} matching all entities that reference the instance with the passed
+	 * object id via this field.
+	 *
+	 * @param objectId the object id of the referenced instance.
+	 * @return a {@link StorageEntityDataPredicate} matching all entities that reference the passed object id.
+	 */
+	public default StorageEntityDataPredicate references(final long objectId)
+	{
+		if(!this.isReference())
+		{
+			throw new StorageException("Not a reference field: " + this.name());
+		}
+
+		return this.isEqualTo(objectId);
+	}
+
+
+
+	/**
+	 * Resolves the field with the passed name in the passed type handler's persisted form.
+	 * The name can either be the simple name of the field or its unique identifier including
+	 * the declaring class' name (see {@link PersistenceTypeDefinitionMember#identifier()}).
+	 *
+	 * @param typeHandler the type handler of the entities to be read.
+	 * @param fieldName the name of the field.
+	 * @return a new {@link StorageEntityField} instance.
+	 * @throws StorageException if the field is not found or cannot be read directly.
+	 */
+	public static StorageEntityField New(
+		final StorageEntityTypeHandler typeHandler,
+		final String                   fieldName
+	)
+	{
+		notNull(fieldName);
+
+		long offset = 0;
+		for(final PersistenceTypeDefinitionMember member : typeHandler.instanceMembers())
+		{
+			if(!member.isFixedLength())
+			{
+				break;
+			}
+			if(member.name().equals(fieldName) || member.identifier().equals(fieldName))
+			{
+				return New(member, offset, typeHandler.switchByteOrder());
+			}
+			offset += member.persistentMinimumLength();
+		}
+
+		throw new StorageException(
+			"Field \"" + fieldName + "\" of type " + typeHandler.typeName()
+			+ " not found or not located at a fixed offset."
+		);
+	}
+
+	public static StorageEntityField New(
+		final PersistenceTypeDefinitionMember member         ,
+		final long                            offset         ,
+		final boolean                         switchByteOrder
+	)
+	{
+		if(member.isReference())
+		{
+			return new FieldLong(member.name(), member.typeName(), offset, true, switchByteOrder);
+		}
+
+		switch(member.typeName())
+		{
+			case "boolean": return new FieldBoolean(member.name(), offset);
+			case "byte"   : return new FieldByte(member.name(), offset);
+			case "short"  : return new FieldShort(member.name(), offset, switchByteOrder);
+			case "char"   : return new FieldChar(member.name(), offset, switchByteOrder);
+			case "int"    : return new FieldInt(member.name(), offset, switchByteOrder);
+			case "long"   : return new FieldLong(member.name(), member.typeName(), offset, false, switchByteOrder);
+			case "float"  : return new FieldFloat(member.name(), offset, switchByteOrder);
+			case "double" : return new FieldDouble(member.name(), offset, switchByteOrder);
+			default:
+			{
+				throw new StorageException(
+					"Field \"" + member.name() + "\" of type " + member.typeName() + " cannot be read directly."
+				);
+			}
+		}
+	}
+
+
+
+	public abstract class Abstract implements StorageEntityField
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+
+		final String  name           ;
+		final String  typeName       ;
+		final long    offset         ;
+		final boolean switchByteOrder;
+
+
+
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+
+		Abstract(
+			final String  name           ,
+			final String  typeName       ,
+			final long    offset         ,
+			final boolean switchByteOrder
+		)
+		{
+			super();
+			this.name            = name           ;
+			this.typeName        = typeName       ;
+			this.offset          = offset         ;
+			this.switchByteOrder = switchByteOrder;
+		}
+
+
+
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+
+		@Override
+		public final String name()
+		{
+			return this.name;
+		}
+
+		@Override
+		public final String typeName()
+		{
+			return this.typeName;
+		}
+
+		@Override
+		public final long offset()
+		{
+			return this.offset;
+		}
+
+		@Override
+		public boolean isReference()
+		{
+			return false;
+		}
+
+		@Override
+		public double readDouble(final long contentAddress)
+		{
+			return this.readLong(contentAddress);
+		}
+
+		@Override
+		public String toString()
+		{
+			return this.typeName + " " + this.name + " @" + this.offset;
+		}
+
+	}
+
+	public final class FieldBoolean extends Abstract
+	{
+		FieldBoolean(final String name, final long offset)
+		{
+			super(name, "boolean", offset, false);
+		}
+
+		@Override
+		public final long readLong(final long contentAddress)
+		{
+			return XMemory.get_boolean(contentAddress + this.offset) ? 1 : 0;
+		}
+
+	}
+
+	public final class FieldByte extends Abstract
+	{
+		FieldByte(final String name, final long offset)
+		{
+			super(name, "byte", offset, false);
+		}
+
+		@Override
+		public final long readLong(final long contentAddress)
+		{
+			return XMemory.get_byte(contentAddress + this.offset);
+		}
+
+	}
+
+	public final class FieldShort extends Abstract
+	{
+		FieldShort(final String name, final long offset, final boolean switchByteOrder)
+		{
+			super(name, "short", offset, switchByteOrder);
+		}
+
+		@Override
+		public final long readLong(final long contentAddress)
+		{
+			final short value = XMemory.get_short(contentAddress + this.offset);
+			return this.switchByteOrder ? Short.reverseBytes(value) : value;
+		}
+
+	}
+
+	public final class FieldChar extends Abstract
+	{
+		FieldChar(final String name, final long offset, final boolean switchByteOrder)
+		{
+			super(name, "char", offset, switchByteOrder);
+		}
+
+		@Override
+		public final long readLong(final long contentAddress)
+		{
+			final char value = XMemory.get_char(contentAddress + this.offset);
+			return this.switchByteOrder ? Character.reverseBytes(value) : value;
+		}
+
+	}
+
+	public final class FieldInt extends Abstract
+	{
+		FieldInt(final String name, final long offset, final boolean switchByteOrder)
+		{
+			super(name, "int", offset, switchByteOrder);
+		}
+
+		@Override
+		public final long readLong(final long contentAddress)
+		{
+			final int value = XMemory.get_int(contentAddress + this.offset);
+			return this.switchByteOrder ? Integer.reverseBytes(value) : value;
+		}
+
+	}
+
+	public final class FieldLong extends Abstract
+	{
+		private final boolean isReference;
+
+		FieldLong(
+			final String  name           ,
+			final String  typeName       ,
+			final long    offset         ,
+			final boolean isReference    ,
+			final boolean switchByteOrder
+		)
+		{
+			super(name, typeName, offset, switchByteOrder);
+			this.isReference = isReference;
+		}
+
+		@Override
+		public final boolean isReference()
+		{
+			return this.isReference;
+		}
+
+		@Override
+		public final long readLong(final long contentAddress)
+		{
+			final long value = XMemory.get_long(contentAddress + this.offset);
+			return this.switchByteOrder ? Long.reverseBytes(value) : value;
+		}
+
+	}
+
+	public final class FieldFloat extends Abstract
+	{
+		FieldFloat(final String name, final long offset, final boolean switchByteOrder)
+		{
+			super(name, "float", offset, switchByteOrder);
+		}
+
+		@Override
+		public final boolean isFloatingPoint()
+		{
+			return true;
+		}
+
+		@Override
+		public final long readLong(final long contentAddress)
+		{
+			return (long)this.readDouble(contentAddress);
+		}
+
+		@Override
+		public final double readDouble(final long contentAddress)
+		{
+			final int bits = XMemory.get_int(contentAddress + this.offset);
+			return Float.intBitsToFloat(this.switchByteOrder ? Integer.reverseBytes(bits) : bits);
+		}
+
+	}
+
+	public final class FieldDouble extends Abstract
+	{
+		FieldDouble(final String name, final long offset, final boolean switchByteOrder)
+		{
+			super(name, "double", offset, switchByteOrder);
+		}
+
+		@Override
+		public final boolean isFloatingPoint()
+		{
+			return true;
+		}
+
+		@Override
+		public final long readLong(final long contentAddress)
+		{
+			return (long)this.readDouble(contentAddress);
+		}
+
+		@Override
+		public final double readDouble(final long contentAddress)
+		{
+			final long bits = XMemory.get_long(contentAddress + this.offset);
+			return Double.longBitsToDouble(
+				this.switchByteOrder ? Long.reverseBytes(bits) : bits
+			);
+		}
+
+	}
+
+}
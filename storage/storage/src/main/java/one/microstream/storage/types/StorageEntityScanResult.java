@@ -0,0 +1,234 @@
+package one.microstream.storage.types;
+
+/*-
+ * #%L
+ * microstream-storage
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * The result of scanning the entities of one or more types inside the storage channels, see
+ * {@link StorageConnection#scanEntities(long[], java.util.function.Function, String...)}.
+ * <p>
+ * Contains the object ids of all matching entities and, optionally, the values of projected fields read
+ * directly from the matching entities' binary data. The matches are in no particular order.<br>
+ * The projected values are converted to the field types of the {@link #projection()}, which is the projection
+ * of the first scanned type.
+ */
+public interface StorageEntityScanResult
+{
+	public long[] typeIds();
+
+	public int size();
+
+	public long[] objectIds();
+
+	public long objectId(int index);
+
+	public StorageEntityField[] projection();
+
+	public long longValue(int index, int projectionIndex);
+
+	public double doubleValue(int index, int projectionIndex);
+
+
+
+	public static StorageEntityScanResult New(
+		final long[]               typeIds   ,
+		final StorageEntityField[] projection,
+		final Collector...         results
+	)
+	{
+		int size = 0;
+		for(final Collector result : results)
+		{
+			size += result.size;
+		}
+
+		final long[]   objectIds = new long[size];
+		final long[][] values    = new long[projection.length][size];
+
+		int offset = 0;
+		for(final Collector result : results)
+		{
+			System.arraycopy(result.objectIds, 0, objectIds, offset, result.size);
+			for(int p = 0; p < projection.length; p++)
+			{
+				System.arraycopy(result.values[p], 0, values[p], offset, result.size);
+			}
+			offset += result.size;
+		}
+
+		return new StorageEntityScanResult.Default(typeIds, projection, objectIds, values);
+	}
+
+
+
+	public final class Default implements StorageEntityScanResult
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+
+		private final long[]               typeIds   ;
+		private final StorageEntityField[] projection;
+		private final long[]               objectIds ;
+		private final long[][]             values    ;
+
+
+
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+
+		Default(
+			final long[]               typeIds   ,
+			final StorageEntityField[] projection,
+			final long[]               objectIds ,
+			final long[][]             values
+		)
+		{
+			super();
+			this.typeIds    = typeIds   ;
+			this.projection = projection;
+			this.objectIds  = objectIds ;
+			this.values     = values    ;
+		}
+
+
+
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+
+		@Override
+		public final long[] typeIds()
+		{
+			return this.typeIds.clone();
+		}
+
+		@Override
+		public final int size()
+		{
+			return this.objectIds.length;
+		}
+
+		@Override
+		public final long[] objectIds()
+		{
+			return this.objectIds.clone();
+		}
+
+		@Override
+		public final long objectId(final int index)
+		{
+			return this.objectIds[index];
+		}
+
+		@Override
+		public final StorageEntityField[] projection()
+		{
+			return this.projection.clone();
+		}
+
+		@Override
+		public final long longValue(final int index, final int projectionIndex)
+		{
+			final long value = this.values[projectionIndex][index];
+			return this.projection[projectionIndex].isFloatingPoint()
+				? (long)Double.longBitsToDouble(value)
+				: value
+			;
+		}
+
+		@Override
+		public final double doubleValue(final int index, final int projectionIndex)
+		{
+			final long value = this.values[projectionIndex][index];
+			return this.projection[projectionIndex].isFloatingPoint()
+				? Double.longBitsToDouble(value)
+				: value
+			;
+		}
+
+	}
+
+
+
+	/**
+	 * Collects the matching entities of one storage channel.
+	 * Values of projected floating point fields are collected as their raw bits, all other values as read by
+	 * {@link StorageEntityField#readLong(long)}, regardless of the field types of the scanned type.
+	 */
+	public final class Collector
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+
+		private final StorageEntityField[] projection;
+		private       long[]               objectIds ;
+		private final long[][]             values    ;
+		private       int                  size      ;
+
+
+
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+
+		Collector(final StorageEntityField[] projection)
+		{
+			super();
+			this.projection = projection;
+			this.objectIds  = new long[16];
+			this.values     = new long[projection.length][16];
+		}
+
+
+
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+
+		final void add(final long objectId, final long contentAddress, final StorageEntityField[] typeProjection)
+		{
+			if(this.size == this.objectIds.length)
+			{
+				this.objectIds = Arrays.copyOf(this.objectIds, this.size * 2);
+				for(int p = 0; p < this.values.length; p++)
+				{
+					this.values[p] = Arrays.copyOf(this.values[p], this.size * 2);
+				}
+			}
+
+			this.objectIds[this.size] = objectId;
+			for(int p = 0; p < this.projection.length; p++)
+			{
+				this.values[p][this.size] = this.projection[p].isFloatingPoint()
+					? Double.doubleToRawLongBits(typeProjection[p].readDouble(contentAddress))
+					: typeProjection[p].readLong(contentAddress)
+				;
+			}
+			this.size++;
+		}
+
+	}
+
+}
@@ -45,6 +45,8 @@ public interface StorageEntityTypeHandler extends PersistenceTypeDefinition
 
 	public long maximumLength();
 
+	public boolean switchByteOrder();
+
 	@Override
 	public default boolean hasPersistedVariableLength()
 	{
@@ -295,6 +297,12 @@ public interface StorageEntityTypeHandler extends PersistenceTypeDefinition
 			return this.maximumEntityLength;
 		}
 
+		@Override
+		public final boolean switchByteOrder()
+		{
+			return this.switchByteOrder;
+		}
+
 		@Override
 		public String toString()
 		{
@@ -22,6 +22,7 @@ package one.microstream.storage.types;
 
 import static one.microstream.X.notNull;
 
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import one.microstream.afs.types.AFile;
@@ -97,6 +98,15 @@ public interface StorageRequestAcceptor
 	public void exportChannels(StorageLiveFileProvider fileProvider, boolean performGarbageCollection)
 		throws InterruptedException;
 
+	// querying //
+
+	public StorageEntityScanResult scanEntities(
+		long[]                                                                           typeIds            ,
+		Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ,
+		String...                                                                        projectedFieldNames
+	)
+		throws InterruptedException;
+
 	public void importFiles(XGettingEnum<AFile> importFiles) throws InterruptedException;
 
 	public StorageRawFileStatistics createStatistics() throws InterruptedException;
@@ -234,6 +244,19 @@ public interface StorageRequestAcceptor
 			return waitOnTask(this.taskBroker.enqueueExportTypesTask(exportFileProvider, isExportType)).result();
 		}
 
+		@Override
+		public final StorageEntityScanResult scanEntities(
+			final long[]                                                                           typeIds            ,
+			final Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ,
+			final String...                                                                        projectedFieldNames
+		)
+			throws InterruptedException
+		{
+			return waitOnTask(
+				this.taskBroker.enqueueScanEntitiesTask(typeIds, filterProvider, projectedFieldNames)
+			).result();
+		}
+
 		@Override
 		public final void exportChannels(
 			final StorageLiveFileProvider fileProvider           ,
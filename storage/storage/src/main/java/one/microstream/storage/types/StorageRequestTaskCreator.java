@@ -22,6 +22,7 @@ package one.microstream.storage.types;
 
 import static one.microstream.X.notNull;
 
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import one.microstream.afs.types.AFile;
@@ -73,6 +74,14 @@ public interface StorageRequestTaskCreator
 		StorageOperationController                  controller
 	);
 
+	public StorageRequestTaskScanEntities createScanEntitiesTask(
+		int                                                                              channelCount       ,
+		long[]                                                                           typeIds            ,
+		Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ,
+		String[]                                                                         projectedFieldNames,
+		StorageOperationController                                                       controller
+	);
+
 	public StorageRequestTaskExportChannels createTaskExportChannels(
 		int                        channelCount,
 		StorageLiveFileProvider    fileProvider,
@@ -235,6 +244,25 @@ public interface StorageRequestTaskCreator
 			);
 		}
 
+		@Override
+		public StorageRequestTaskScanEntities createScanEntitiesTask(
+			final int                                                                              channelCount       ,
+			final long[]                                                                           typeIds            ,
+			final Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ,
+			final String[]                                                                         projectedFieldNames,
+			final StorageOperationController                                                       controller
+		)
+		{
+			return new StorageRequestTaskScanEntities.Default(
+				this.timestampProvider.currentNanoTimestamp(),
+				channelCount                                 ,
+				typeIds                                      ,
+				filterProvider                               ,
+				projectedFieldNames                          ,
+				controller
+			);
+		}
+
 		@Override
 		public StorageRequestTaskExportChannels createTaskExportChannels(
 			final int                        channelCount,
@@ -0,0 +1,159 @@
+package one.microstream.storage.types;
+
+/*-
+ * #%L
+ * microstream-storage
+ * %%
+ * Copyright (C) 2019 - 2022 MicroStream Software
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ * 
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+import static one.microstream.X.notNull;
+
+import java.util.function.Function;
+
+import one.microstream.storage.exceptions.StorageException;
+
+public interface StorageRequestTaskScanEntities extends StorageRequestTask
+{
+	public StorageEntityScanResult result();
+
+
+
+	public final class Default
+	extends StorageChannelSynchronizingTask.AbstractCompletingTask<StorageEntityScanResult.Collector>
+	implements StorageRequestTaskScanEntities
+	{
+		///////////////////////////////////////////////////////////////////////////
+		// instance fields //
+		////////////////////
+
+		private final long[]                                                                           typeIds            ;
+		private final Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ;
+		private final String[]                                                                         projectedFieldNames;
+		private final StorageEntityScanResult.Collector[]                                              channelResults     ;
+		private       StorageEntityTypeHandler[]                                                       types              ;
+		private       StorageEntityDataPredicate[]                                                     filters            ;
+		private       StorageEntityField[][]                                                           projections        ;
+		private       StorageEntityScanResult                                                          result             ;
+
+
+
+		///////////////////////////////////////////////////////////////////////////
+		// constructors //
+		/////////////////
+
+		Default(
+			final long                                                                             timestamp          ,
+			final int                                                                              channelCount       ,
+			final long[]                                                                           typeIds            ,
+			final Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ,
+			final String[]                                                                         projectedFieldNames,
+			final StorageOperationController                                                       controller
+		)
+		{
+			super(timestamp, channelCount, controller);
+			if(notNull(typeIds).length == 0)
+			{
+				throw new IllegalArgumentException("No type ids to be scanned.");
+			}
+			this.typeIds             = typeIds;
+			this.filterProvider      = filterProvider != null ? filterProvider : t -> null;
+			this.projectedFieldNames = notNull(projectedFieldNames);
+			this.channelResults      = new StorageEntityScanResult.Collector[channelCount];
+		}
+
+
+
+		///////////////////////////////////////////////////////////////////////////
+		// methods //
+		////////////
+
+		// filters and projections are resolved once for all channels since all channels share one type dictionary.
+		private synchronized void ensureResolved(final StorageChannel channel)
+		{
+			if(this.types != null)
+			{
+				return;
+			}
+
+			final StorageEntityTypeHandler[]   types       = new StorageEntityTypeHandler[this.typeIds.length];
+			final StorageEntityDataPredicate[] filters     = new StorageEntityDataPredicate[this.typeIds.length];
+			final StorageEntityField[][]       projections = new StorageEntityField[this.typeIds.length][];
+			for(int t = 0; t < types.length; t++)
+			{
+				final StorageEntityTypeHandler type = channel.typeDictionary().lookupTypeHandler(this.typeIds[t]);
+				if(type == null)
+				{
+					throw new StorageException("Unknown type id: " + this.typeIds[t]);
+				}
+
+				final StorageEntityField[] projection = new StorageEntityField[this.projectedFieldNames.length];
+				for(int i = 0; i < projection.length; i++)
+				{
+					projection[i] = StorageEntityField.New(type, this.projectedFieldNames[i]);
+				}
+
+				final StorageEntityDataPredicate filter = this.filterProvider.apply(type);
+
+				filters[t]     = filter != null ? filter : StorageEntityDataPredicate.All();
+				projections[t] = projection;
+				types[t]       = type      ;
+			}
+
+			this.filters     = filters    ;
+			this.projections = projections;
+			this.types       = types      ;
+		}
+
+		@Override
+		protected final StorageEntityScanResult.Collector internalProcessBy(final StorageChannel channel)
+		{
+			this.ensureResolved(channel);
+
+			// the values of all types are collected as the field types of the first type's projection.
+			final StorageEntityScanResult.Collector collector = new StorageEntityScanResult.Collector(
+				this.projections[0]
+			);
+			for(int t = 0; t < this.types.length; t++)
+			{
+				channel.scanEntities(this.types[t], this.filters[t], this.projections[t], collector);
+			}
+
+			return collector;
+		}
+
+		@Override
+		protected synchronized void succeed(
+			final StorageChannel                    channel,
+			final StorageEntityScanResult.Collector result
+		)
+		{
+			this.channelResults[channel.channelIndex()] = result;
+		}
+
+		@Override
+		public synchronized StorageEntityScanResult result()
+		{
+			if(this.result == null)
+			{
+				this.result = StorageEntityScanResult.New(this.typeIds, this.projections[0], this.channelResults);
+			}
+			return this.result;
+		}
+
+	}
+
+}
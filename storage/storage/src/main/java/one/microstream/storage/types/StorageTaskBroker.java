@@ -22,6 +22,7 @@ package one.microstream.storage.types;
 
 import static one.microstream.X.notNull;
 
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import one.microstream.afs.types.AFile;
@@ -64,6 +65,13 @@ public interface StorageTaskBroker
 	
 	
 
+	public StorageRequestTaskScanEntities enqueueScanEntitiesTask(
+		long[]                                                                           typeIds            ,
+		Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ,
+		String[]                                                                         projectedFieldNames
+	)
+		throws InterruptedException;
+
 	public StorageRequestTask enqueueExportChannelsTask(
 		StorageLiveFileProvider fileProvider             ,
 		boolean             performGarbageCollection
@@ -436,6 +444,26 @@ public interface StorageTaskBroker
 			return task;
 		}
 
+		@Override
+		public final synchronized StorageRequestTaskScanEntities enqueueScanEntitiesTask(
+			final long[]                                                                           typeIds            ,
+			final Function<? super StorageEntityTypeHandler, ? extends StorageEntityDataPredicate> filterProvider     ,
+			final String[]                                                                         projectedFieldNames
+		)
+			throws InterruptedException
+		{
+			// task creation must be called AFTER acquiring the lock to ensure temporal consistency in the task chain
+			final StorageRequestTaskScanEntities task = this.taskCreator.createScanEntitiesTask(
+				this.channelCount       ,
+				typeIds                 ,
+				filterProvider          ,
+				projectedFieldNames     ,
+				this.operationController
+			);
+			this.enqueueTaskAndNotifyAll(task);
+			return task;
+		}
+
 		@Override
 		public final synchronized StorageChannelTaskInitialize issueChannelInitialization(
 			final StorageOperationController operationController